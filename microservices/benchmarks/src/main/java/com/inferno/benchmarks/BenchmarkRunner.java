@@ -0,0 +1,34 @@
+package com.inferno.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+
+// Punto de entrada de benchmarks.jar. Acepta las mismas opciones que JMH y siempre
+// escribe los resultados en JSON para poder comparar entre commits. jmh.result es una propiedad
+// de la JVM: va antes de -jar (después se tomaría como argumento de JMH):
+//   java -Djmh.result=results/abc123.json -jar target/benchmarks.jar "PasswordService"
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String resultFile = System.getProperty("jmh.result", "target/jmh-result.json");
+        File parent = new File(resultFile).getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultFile)
+                .build();
+        new Runner(options).run();
+    }
+}
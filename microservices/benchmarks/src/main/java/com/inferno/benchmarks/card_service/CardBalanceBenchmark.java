@@ -0,0 +1,210 @@
+package com.inferno.benchmarks.card_service;
+
+import com.inferno.card_service.balance.BalanceEngine;
+import com.inferno.card_service.balance.CasBalanceEngine;
+import com.inferno.card_service.balance.PostingResult;
+import com.inferno.card_service.balance.ShardedBalanceEngine;
+import com.inferno.card_service.ledger.BalanceIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Movimientos por milisegundo de cada motor de saldos. "lock" es la referencia: un único lock
+// para todo el servicio. Con skew=hot el 90% de las operaciones van a la misma tarjeta.
+// La escala con núcleos se ve variando los hilos desde la línea de comandos:
+//   java -jar target/benchmarks.jar CardBalanceBenchmark -t 1   (y luego -t 2, -t 4, -t 8)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CardBalanceBenchmark {
+
+    private static final int CARDS = 100_000;
+    private static final long LIMIT = Long.MAX_VALUE / 4;
+    private static final int PIPELINE = 64;
+
+    @Param({"lock", "cas", "sharded"})
+    public String engine;
+
+    @Param({"uniform", "hot"})
+    public String skew;
+
+    private BalanceEngine balances;
+    private boolean hot;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if ("lock".equals(engine)) {
+            balances = new GlobalLockEngine();
+        } else if ("cas".equals(engine)) {
+            balances = new CasBalanceEngine(64);
+        } else {
+            balances = new ShardedBalanceEngine(Runtime.getRuntime().availableProcessors(), 4096);
+        }
+        for (long card = 1; card <= CARDS; card++) {
+            balances.openAccount(card, LIMIT);
+        }
+        // Los orígenes de las transferencias necesitan deuda para mover
+        for (long card = 1; card <= CARDS; card++) {
+            balances.purchase(card, 1_000_000);
+        }
+        hot = "hot".equals(skew);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        balances.close();
+    }
+
+    // Tres compras por cada pago
+    @Benchmark
+    public PostingResult postings() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long card = card(random);
+        if ((random.nextInt() & 3) == 0) {
+            return balances.payment(card, 1_999);
+        }
+        return balances.purchase(card, 1_999);
+    }
+
+    // El modo sharded rinde cuando el productor no espera cada respuesta (como un consumidor de
+    // cola que procesa tandas): se encolan PIPELINE compras y se esperan todas juntas
+    @Benchmark
+    @OperationsPerInvocation(PIPELINE)
+    public PostingResult pipelinedPurchases() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (!(balances instanceof ShardedBalanceEngine)) {
+            PostingResult last = null;
+            for (int i = 0; i < PIPELINE; i++) {
+                last = balances.purchase(card(random), 1_999);
+            }
+            return last;
+        }
+        ShardedBalanceEngine sharded = (ShardedBalanceEngine) balances;
+        CompletableFuture<?>[] pending = new CompletableFuture<?>[PIPELINE];
+        for (int i = 0; i < PIPELINE; i++) {
+            pending[i] = sharded.purchaseAsync(card(random), 1_999);
+        }
+        CompletableFuture.allOf(pending).join();
+        return (PostingResult) pending[PIPELINE - 1].join();
+    }
+
+    @Benchmark
+    public PostingResult transfers() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long from = card(random);
+        long to = 1 + random.nextInt(CARDS);
+        if (to == from) {
+            to = from == CARDS ? 1 : from + 1;
+        }
+        return balances.transfer(from, to, 1);
+    }
+
+    private long card(ThreadLocalRandom random) {
+        if (hot && random.nextInt(10) != 0) {
+            return 1;
+        }
+        return 1 + random.nextInt(CARDS);
+    }
+
+    // Lo que se quiere evitar: todo el servicio detrás de un lock
+    private static final class GlobalLockEngine implements BalanceEngine {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final BalanceIndex balances = new BalanceIndex(CARDS);
+        private final BalanceIndex limits = new BalanceIndex(CARDS);
+
+        @Override
+        public void openAccount(long cardId, long creditLimitCents) {
+            lock.lock();
+            try {
+                limits.put(cardId, creditLimitCents);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public PostingResult purchase(long cardId, long amountCents) {
+            lock.lock();
+            try {
+                if (!limits.contains(cardId)) {
+                    return PostingResult.UNKNOWN_CARD;
+                }
+                if (balances.get(cardId) + amountCents > limits.get(cardId)) {
+                    return PostingResult.OVER_LIMIT;
+                }
+                balances.add(cardId, amountCents);
+                return PostingResult.APPLIED;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public PostingResult payment(long cardId, long amountCents) {
+            lock.lock();
+            try {
+                if (!limits.contains(cardId)) {
+                    return PostingResult.UNKNOWN_CARD;
+                }
+                balances.add(cardId, -amountCents);
+                return PostingResult.APPLIED;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public PostingResult transfer(long fromCardId, long toCardId, long amountCents) {
+            lock.lock();
+            try {
+                if (!limits.contains(fromCardId) || !limits.contains(toCardId)) {
+                    return PostingResult.UNKNOWN_CARD;
+                }
+                if (balances.get(toCardId) + amountCents > limits.get(toCardId)) {
+                    return PostingResult.OVER_LIMIT;
+                }
+                if (balances.get(fromCardId) < amountCents) {
+                    return PostingResult.INSUFFICIENT_BALANCE;
+                }
+                balances.add(toCardId, amountCents);
+                balances.add(fromCardId, -amountCents);
+                return PostingResult.APPLIED;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public long balance(long cardId) {
+            lock.lock();
+            try {
+                return balances.get(cardId);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
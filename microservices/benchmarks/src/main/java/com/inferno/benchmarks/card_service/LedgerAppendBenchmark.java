@@ -0,0 +1,87 @@
+package com.inferno.benchmarks.card_service;
+
+import com.inferno.card_service.ledger.EntryType;
+import com.inferno.card_service.ledger.FsyncPolicy;
+import com.inferno.card_service.ledger.Ledger;
+import com.inferno.card_service.ledger.LedgerConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Movimientos por milisegundo del ledger sobre un directorio en target/. appendOnly mide el
+// camino sin durabilidad (escritura en el mapeo + saldo); commitEach confirma cada movimiento
+// con 1 hilo y groupCommit con 8, donde FsyncPolicy decide cuántos fsync se comparten.
+// Cada iteración usa un ledger nuevo para no acumular segmentos en disco.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LedgerAppendBenchmark {
+
+    private static final int CARDS = 100_000;
+
+    @Param({"never", "group", "always"})
+    public String fsync;
+
+    private Path directory;
+    private Ledger ledger;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException {
+        Files.createDirectories(Paths.get("target"));
+        directory = Files.createTempDirectory(Paths.get("target"), "ledger-bench");
+        ledger = Ledger.open(LedgerConfig.builder()
+                .directory(directory)
+                .fsyncPolicy(FsyncPolicy.parse(fsync))
+                .groupCommitWindow(Duration.ofNanos(100_000))
+                .snapshotEveryEntries(0)
+                .build());
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        ledger.close();
+        LedgerFiles.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public long appendOnly() {
+        return ledger.append(card(), EntryType.PURCHASE, 1_999, 0);
+    }
+
+    @Benchmark
+    public long commitEach() {
+        return ledger.record(card(), EntryType.PURCHASE, 1_999, 0);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long groupCommit() {
+        return ledger.record(card(), EntryType.PURCHASE, 1_999, 0);
+    }
+
+    private static long card() {
+        return 1 + ThreadLocalRandom.current().nextInt(CARDS);
+    }
+}
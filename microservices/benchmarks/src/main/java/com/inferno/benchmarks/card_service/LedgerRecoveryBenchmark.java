@@ -0,0 +1,81 @@
+package com.inferno.benchmarks.card_service;
+
+import com.inferno.card_service.ledger.EntryType;
+import com.inferno.card_service.ledger.FsyncPolicy;
+import com.inferno.card_service.ledger.Ledger;
+import com.inferno.card_service.ledger.LedgerConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Tiempo de Ledger.open sobre un journal de `entries` movimientos repartidos en 100.000 tarjetas.
+// snapshot=none reproduce todo el journal; snapshot=tail parte de un snapshot tomado a 50.000
+// movimientos del final, así que solo reproduce esos (más la carga del snapshot).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LedgerRecoveryBenchmark {
+
+    private static final int CARDS = 100_000;
+    private static final int TAIL = 50_000;
+
+    @Param({"1000000", "5000000"})
+    public int entries;
+
+    @Param({"none", "tail"})
+    public String snapshot;
+
+    private Path directory;
+    private LedgerConfig config;
+
+    @Setup
+    public void setUp() throws IOException {
+        Files.createDirectories(Paths.get("target"));
+        directory = Files.createTempDirectory(Paths.get("target"), "ledger-recovery");
+        config = LedgerConfig.builder()
+                .directory(directory)
+                .fsyncPolicy(FsyncPolicy.NEVER)
+                .snapshotEveryEntries(0)
+                .build();
+        SplittableRandom random = new SplittableRandom(42);
+        try (Ledger ledger = Ledger.open(config)) {
+            for (int i = 0; i < entries; i++) {
+                if ("tail".equals(snapshot) && i == entries - TAIL) {
+                    ledger.snapshot();
+                }
+                ledger.append(1 + random.nextInt(CARDS), EntryType.PURCHASE, 1 + random.nextInt(50_000), 0);
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        LedgerFiles.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public long open() throws IOException {
+        try (Ledger ledger = Ledger.open(config)) {
+            return ledger.getReplayedEntries();
+        }
+    }
+}
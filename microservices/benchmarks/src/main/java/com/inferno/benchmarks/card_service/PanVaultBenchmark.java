@@ -0,0 +1,101 @@
+package com.inferno.benchmarks.card_service;
+
+import com.inferno.card_service.vault.InMemoryKeyProvider;
+import com.inferno.card_service.vault.PanVault;
+import com.inferno.card_service.vault.VaultConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Operaciones por milisegundo de la bóveda de tarjetas con un KMS simulado de 200 µs por llamada.
+// keyCache=off pide una llave de datos por cifrado y la descifra en cada detokenización: es el
+// costo que evita la caché. Cada iteración usa una bóveda nueva con CARDS tarjetas cargadas.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PanVaultBenchmark {
+
+    private static final int CARDS = 100_000;
+    private static final Duration KMS_LATENCY = Duration.ofNanos(200_000);
+
+    @Param({"on", "off"})
+    public String keyCache;
+
+    private final AtomicLong nextPan = new AtomicLong();
+    private PanVault vault;
+    private String[] pans;
+    private String[] tokens;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        VaultConfig.Builder config = VaultConfig.builder();
+        if ("off".equals(keyCache)) {
+            config.dataKeyMaxUses(1).decryptedKeyCacheSize(0);
+        }
+        InMemoryKeyProvider provider = new InMemoryKeyProvider();
+        vault = PanVault.create(provider, config.build(), null);
+        pans = new String[CARDS];
+        tokens = new String[CARDS];
+        for (int i = 0; i < CARDS; i++) {
+            pans[i] = pan(nextPan.incrementAndGet());
+            tokens[i] = vault.tokenize(pans[i]);
+        }
+        // La carga inicial no paga la latencia simulada: solo importa lo que se mide
+        provider.setLatency(KMS_LATENCY);
+    }
+
+    @Benchmark
+    public String tokenizeNew() {
+        return vault.tokenize(pan(nextPan.incrementAndGet()));
+    }
+
+    @Benchmark
+    public String tokenizeExisting() {
+        return vault.tokenize(pans[ThreadLocalRandom.current().nextInt(CARDS)]);
+    }
+
+    @Benchmark
+    public String detokenize() {
+        return vault.detokenize(tokens[ThreadLocalRandom.current().nextInt(CARDS)]);
+    }
+
+    @Benchmark
+    public boolean exists() {
+        return vault.exists(pans[ThreadLocalRandom.current().nextInt(CARDS)]);
+    }
+
+    // "4" + 14 dígitos del contador + dígito verificador de Luhn
+    private static String pan(long counter) {
+        char[] digits = String.format("4%014d0", counter).toCharArray();
+        int sum = 0;
+        for (int i = digits.length - 2, position = 0; i >= 0; i--, position++) {
+            int digit = digits[i] - '0';
+            if (position % 2 == 0) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+        }
+        digits[digits.length - 1] = (char) ('0' + (10 - sum % 10) % 10);
+        return new String(digits);
+    }
+}
@@ -0,0 +1,167 @@
+package com.inferno.benchmarks.card_service;
+
+import com.inferno.card_service.ledger.EntryType;
+import com.inferno.card_service.ledger.FsyncPolicy;
+import com.inferno.card_service.ledger.Ledger;
+import com.inferno.card_service.ledger.LedgerConfig;
+import com.inferno.card_service.statement.InMemoryS3Client;
+import com.inferno.card_service.statement.StatementConfig;
+import com.inferno.card_service.statement.StatementFormat;
+import com.inferno.card_service.statement.StatementJob;
+import com.inferno.card_service.statement.StatementRunReport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.EnumSet;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Corrida completa de estados de cuenta (CSV + NDJSON) sobre un journal de CARDS tarjetas con
+// PER_CARD movimientos en el mes, más un saldo inicial del mes anterior. Cada invocación escribe
+// bajo un prefijo nuevo, así no reanuda la anterior. El S3 simulado descarta el contenido de los
+// estados (sí guarda manifiestos y checkpoints) para que el pico de heap sea el del job y no el
+// de la salida acumulada. Cada corrida imprime el reporte con registros/s y pico de heap.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx1g"})
+public class StatementRunBenchmark {
+
+    private static final int CARDS = 20_000;
+    private static final int PER_CARD = 25;
+    private static final YearMonth PERIOD = YearMonth.of(2026, 9);
+
+    @Param({"8", "64"})
+    public int partitions;
+
+    private Path directory;
+    private long cutoff;
+    private final AtomicInteger runs = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Files.createDirectories(Paths.get("target"));
+        directory = Files.createTempDirectory(Paths.get("target"), "statement-bench");
+        StepClock clock = new StepClock(Instant.parse("2026-08-31T12:00:00Z"));
+        try (Ledger ledger = Ledger.open(LedgerConfig.builder()
+                .directory(directory)
+                .fsyncPolicy(FsyncPolicy.NEVER)
+                .snapshotEveryEntries(0)
+                .build(), clock)) {
+            SplittableRandom random = new SplittableRandom(25);
+            for (int card = 1; card <= CARDS; card++) {
+                ledger.append(card, EntryType.PURCHASE, 10_000, 0);
+            }
+            // Movimientos repartidos a lo largo del mes, con las tarjetas intercaladas
+            long step = 29L * 24 * 3_600_000 / ((long) CARDS * PER_CARD);
+            clock.set(Instant.parse("2026-09-01T00:00:00Z"));
+            for (int i = 0; i < CARDS * PER_CARD; i++) {
+                clock.advance(step);
+                EntryType type = random.nextInt(5) == 0 ? EntryType.PAYMENT : EntryType.PURCHASE;
+                ledger.append(1 + random.nextInt(CARDS), type, 100 + random.nextInt(50_000), i);
+            }
+            ledger.commit(ledger.lastSequence());
+            cutoff = ledger.durableSequence();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        LedgerFiles.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public StatementRunReport run() {
+        StatementJob job = new StatementJob(directory, new DiscardingS3Client(), StatementConfig.builder()
+                .bucket("statements")
+                .prefix("run-" + runs.incrementAndGet())
+                .period(PERIOD)
+                .zone(ZoneOffset.UTC)
+                .partitions(partitions)
+                .parallelism(Runtime.getRuntime().availableProcessors())
+                .formats(EnumSet.of(StatementFormat.CSV, StatementFormat.JSON))
+                .build(), Clock.fixed(Instant.parse("2026-10-01T06:00:00Z"), ZoneOffset.UTC));
+        StatementRunReport report = job.run(cutoff);
+        System.out.println(report);
+        return report;
+    }
+
+    private static final class DiscardingS3Client extends InMemoryS3Client {
+        @Override
+        public PutObjectResponse putObject(PutObjectRequest request, RequestBody body) {
+            if (request.key().contains("/_")) {
+                return super.putObject(request, body);
+            }
+            return PutObjectResponse.builder().build();
+        }
+
+        @Override
+        public UploadPartResponse uploadPart(UploadPartRequest request, RequestBody body) {
+            return super.uploadPart(request, RequestBody.empty());
+        }
+    }
+
+    private static final class StepClock extends Clock {
+        private volatile long millis;
+
+        private StepClock(Instant start) {
+            this.millis = start.toEpochMilli();
+        }
+
+        void set(Instant instant) {
+            millis = instant.toEpochMilli();
+        }
+
+        void advance(long deltaMillis) {
+            millis += deltaMillis;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.inferno.benchmarks.card_service;
+
+import com.inferno.card_service.ingest.IngestionConfig;
+import com.inferno.card_service.ingest.InMemorySqsClient;
+import com.inferno.card_service.ingest.TransactionIngestionConsumer;
+import com.inferno.card_service.ledger.FsyncPolicy;
+import com.inferno.card_service.ledger.Ledger;
+import com.inferno.card_service.ledger.LedgerConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequestEntry;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Mensajes por milisegundo de la ingesta contra el SQS en memoria y un ledger en target/.
+// Cada invocación encola MESSAGES movimientos y los consume en micro-tandas de maxBatch:
+// con maxBatch=1 se paga un commit (fsync) por mensaje, con 100 uno cada cien.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionIngestionBenchmark {
+
+    private static final int MESSAGES = 100;
+    private static final int CARDS = 10_000;
+
+    @Param({"1", "10", "100"})
+    public int maxBatch;
+
+    @Param({"group", "always"})
+    public String fsync;
+
+    private InMemorySqsClient sqs;
+    private String queueUrl;
+    private Path directory;
+    private Ledger ledger;
+    private TransactionIngestionConsumer consumer;
+    // Cuerpos sin la reference: cada invocación usa references nuevas, las repetidas se
+    // descartarían como reentregas
+    private final String[] bodies = new String[MESSAGES];
+    private long nextReference = 1;
+
+    @Setup(Level.Trial)
+    public void setUpQueue() {
+        sqs = new InMemorySqsClient();
+        queueUrl = sqs.createQueue(request -> request.queueName("card-transactions")).queueUrl();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < MESSAGES; i++) {
+            bodies[i] = "{\"cardId\":" + (1 + random.nextInt(CARDS)) + ",\"type\":\"PURCHASE\","
+                    + "\"amountCents\":" + (100 + random.nextInt(10_000)) + ",\"reference\":";
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException {
+        Files.createDirectories(Paths.get("target"));
+        directory = Files.createTempDirectory(Paths.get("target"), "ingest-bench");
+        ledger = Ledger.open(LedgerConfig.builder()
+                .directory(directory)
+                .fsyncPolicy(FsyncPolicy.parse(fsync))
+                .groupCommitWindow(Duration.ZERO)
+                .snapshotEveryEntries(0)
+                .build());
+        consumer = new TransactionIngestionConsumer(sqs, ledger, IngestionConfig.builder()
+                .queueUrl(queueUrl)
+                .workers(1)
+                .maxBatchMessages(maxBatch)
+                .receiveWaitSeconds(0)
+                .build());
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        ledger.close();
+        LedgerFiles.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public long ingest() {
+        for (int from = 0; from < MESSAGES; from += 10) {
+            List<SendMessageBatchRequestEntry> entries = new ArrayList<>(10);
+            for (int i = from; i < from + 10; i++) {
+                entries.add(SendMessageBatchRequestEntry.builder()
+                        .id(String.valueOf(i))
+                        .messageBody(bodies[i] + nextReference++ + "}")
+                        .build());
+            }
+            sqs.sendMessageBatch(request -> request.queueUrl(queueUrl).entries(entries));
+        }
+        long applied = 0;
+        while (applied < MESSAGES) {
+            applied += consumer.pollOnce().getAppliedCount();
+        }
+        return applied;
+    }
+}
@@ -0,0 +1,150 @@
+package com.inferno.benchmarks.user_service;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.inferno.benchmarks.user_service.support.BenchmarkContext;
+import com.inferno.benchmarks.user_service.support.Fixtures;
+import com.inferno.user_service.avatar.AvatarThumbnailService;
+import com.inferno.user_service.avatar.AvatarUploadService;
+import com.inferno.user_service.avatar.AvatarUrlSigner;
+import com.inferno.user_service.avatar.InMemoryS3Client;
+import com.inferno.user_service.avatar.StoredAvatar;
+import com.inferno.user_service.handler.UploadAvatarLambda;
+import com.inferno.user_service.metrics.HandlerMetrics;
+import com.inferno.user_service.model.User;
+import com.inferno.user_service.service.AsyncUserService;
+import com.inferno.user_service.service.UserService;
+import com.inferno.user_service.support.DynamoDbLocal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Latencia de UploadAvatarLambda contra DynamoDB Local y un S3 en memoria con latencia simulada:
+// la secuencia bloqueante anterior (leer usuario, subir, miniaturas, actualizar, borrar el avatar
+// anterior) frente al handler asíncrono, que solapa la lectura con la subida y la actualización
+// con el borrado. knownDocument es el mismo handler con ?document=: sin ninguna lectura, la
+// escritura por campo confirma que el usuario existe y devuelve la key anterior. Requiere -Dsqlite4java.library.path=target/native-libs (se usa ese valor por defecto).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AsyncAvatarUploadBenchmark {
+
+    private static final String BUCKET = "benchmark-bucket";
+
+    // Milisegundos por llamada a S3
+    @Param({"0", "10"})
+    public int s3LatencyMillis;
+
+    private final Context context = new BenchmarkContext();
+
+    private DynamoDbLocal dynamoDb;
+    private UserService userService;
+    private InMemoryS3Client s3;
+    private AvatarUploadService uploadService;
+    private AvatarThumbnailService thumbnailService;
+    private AvatarUrlSigner urlSigner;
+    private UploadAvatarLambda asyncLambda;
+    private String uuid;
+    private String body;
+    private APIGatewayProxyRequestEvent request;
+    private APIGatewayProxyRequestEvent requestWithDocument;
+
+    @Setup
+    public void setUp() throws Exception {
+        if (System.getProperty("sqlite4java.library.path") == null) {
+            System.setProperty("sqlite4java.library.path", "target/native-libs");
+        }
+        dynamoDb = DynamoDbLocal.start();
+        userService = new UserService(dynamoDb.registry());
+
+        User user = new User();
+        user.setUuid(UUID.randomUUID().toString());
+        user.setName("Ana");
+        user.setLastName("Torres");
+        user.setEmail("ana@inferno.com");
+        user.setDocumentNumber("1020304050");
+        user.setPassword("{bcrypt}hash");
+        dynamoDb.registry().userTable().putItem(user);
+        uuid = user.getUuid();
+
+        S3Presigner presigner = S3Presigner.builder()
+                .region(Region.US_EAST_2)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("bench", "bench")))
+                .build();
+        s3 = new InMemoryS3Client(Duration.ofMillis(s3LatencyMillis));
+        uploadService = new AvatarUploadService(s3, s3.asAsync(), presigner, BUCKET,
+                10 * 1024 * 1024, AvatarUploadService.MIN_PART_SIZE, Duration.ofMinutes(5));
+        thumbnailService = new AvatarThumbnailService(s3, BUCKET, AvatarThumbnailService.DEFAULT_SIZES, 2, 16);
+        urlSigner = new AvatarUrlSigner(presigner, BUCKET, Duration.ofHours(1), Duration.ofMinutes(5),
+                10_000, Clock.systemUTC());
+        asyncLambda = new UploadAvatarLambda(new AsyncUserService(dynamoDb.registry()),
+                uploadService, thumbnailService, urlSigner, HandlerMetrics.disabled(UploadAvatarLambda.class));
+
+        body = Base64.getEncoder().encodeToString(Fixtures.avatarPng(512));
+        request = new APIGatewayProxyRequestEvent()
+                .withPathParameters(Map.of("uuid", uuid))
+                .withBody(body);
+        requestWithDocument = new APIGatewayProxyRequestEvent()
+                .withPathParameters(Map.of("uuid", uuid))
+                .withQueryStringParameters(Map.of("document", "1020304050"))
+                .withBody(body);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        dynamoDb.close();
+    }
+
+    // Cada paso espera al anterior, como hacía el handler con UserService
+    @Benchmark
+    public String sequential() {
+        User user = userService.getUsersByUuid(uuid).stream().findFirst().orElseThrow();
+        StoredAvatar avatar = uploadService.upload(uuid, body);
+        Map<String, String> variants = thumbnailService.generate(avatar);
+
+        String previousKey = user.getAvatarKey();
+        user.setAvatarKey(avatar.getKey());
+        user.setAvatarVariants(variants.isEmpty() ? null : variants);
+        // Reescritura del item completo, como antes de las actualizaciones por campo
+        dynamoDb.registry().userTable().updateItem(user);
+        if (previousKey != null && !previousKey.equals(avatar.getKey())) {
+            s3.deleteObject(DeleteObjectRequest.builder().bucket(BUCKET).key(previousKey).build());
+        }
+        return urlSigner.url(avatar.getKey());
+    }
+
+    @Benchmark
+    public APIGatewayProxyResponseEvent concurrent() {
+        return asyncLambda.handleRequest(request, context);
+    }
+
+    @Benchmark
+    public APIGatewayProxyResponseEvent knownDocument() {
+        return asyncLambda.handleRequest(requestWithDocument, context);
+    }
+}
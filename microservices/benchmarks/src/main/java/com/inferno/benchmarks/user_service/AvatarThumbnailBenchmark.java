@@ -0,0 +1,66 @@
+package com.inferno.benchmarks.user_service;
+
+import com.inferno.benchmarks.user_service.support.Fixtures;
+import com.inferno.user_service.avatar.AvatarThumbnailService;
+import com.inferno.user_service.avatar.ImageType;
+import com.inferno.user_service.avatar.InMemoryS3Client;
+import com.inferno.user_service.avatar.StoredAvatar;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Miniaturas de un avatar recién subido (sin miniaturas previas) según la resolución del original
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AvatarThumbnailBenchmark {
+
+    private static final String BUCKET = "benchmark-avatars";
+    private static final String KEY = "u1/ana.png";
+
+    @Param({"512", "2048"})
+    public int side;
+
+    private byte[] image;
+    private InMemoryS3Client s3;
+    private AvatarThumbnailService thumbnailService;
+    private StoredAvatar avatar;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        image = Fixtures.avatarPng(side);
+        avatar = new StoredAvatar(KEY, ImageType.PNG, image.length, "bench-" + side);
+        s3 = new InMemoryS3Client();
+        thumbnailService = new AvatarThumbnailService(s3, BUCKET, AvatarThumbnailService.DEFAULT_SIZES, 1, 1);
+    }
+
+    // Bucket vacío en cada invocación para medir el decodificado completo
+    @Setup(Level.Invocation)
+    public void resetBucket() {
+        s3.close();
+        s3.putObject(PutObjectRequest.builder().bucket(BUCKET).key(KEY).contentType("image/png").build(),
+                RequestBody.fromBytes(image));
+    }
+
+    @Benchmark
+    public Map<String, String> generate() {
+        return thumbnailService.generate(avatar);
+    }
+}
@@ -0,0 +1,64 @@
+package com.inferno.benchmarks.user_service;
+
+import com.inferno.user_service.avatar.AvatarUrlSigner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+// URL del avatar en lectura: firma SigV4 en cada llamada frente a la firma reutilizada
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AvatarUrlSignerBenchmark {
+
+    private static final String BUCKET = "benchmark-avatars";
+    private static final String KEY = "7c4d1d5e-6a3b-4c1e-9d62-0f3f1c2b9a10/Ana.png";
+
+    private S3Presigner presigner;
+    private AvatarUrlSigner signer;
+
+    @Setup
+    public void setUp() {
+        presigner = S3Presigner.builder()
+                .region(Region.US_EAST_2)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("bench", "bench")))
+                .build();
+        signer = new AvatarUrlSigner(presigner, BUCKET, Duration.ofHours(1), Duration.ofMinutes(5),
+                10_000, Clock.systemUTC());
+    }
+
+    @Benchmark
+    public String presignEveryRead() {
+        return presigner.presignGetObject(GetObjectPresignRequest.builder()
+                        .signatureDuration(Duration.ofHours(1))
+                        .getObjectRequest(GetObjectRequest.builder().bucket(BUCKET).key(KEY).build())
+                        .build())
+                .url()
+                .toString();
+    }
+
+    @Benchmark
+    public String cachedSignature() {
+        return signer.url(KEY);
+    }
+}
@@ -0,0 +1,91 @@
+package com.inferno.benchmarks.user_service;
+
+import com.inferno.user_service.model.User;
+import com.inferno.user_service.model.UserKey;
+import com.inferno.user_service.service.UserService;
+import com.inferno.user_service.support.DynamoDbLocal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// N perfiles contra DynamoDB Local: N Query sucesivos (lo que haría un cliente llamando N veces a
+// GetUserProfileLambda) frente a la API por lotes, con llave completa o solo con uuid.
+// Requiere -Dsqlite4java.library.path=target/native-libs (se usa ese valor por defecto).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchProfileLookupBenchmark {
+
+    @Param({"100", "1000"})
+    public int users;
+
+    private DynamoDbLocal dynamoDb;
+    private UserService userService;
+    private List<UserKey> completeKeys;
+    private List<UserKey> uuidKeys;
+
+    @Setup
+    public void setUp() throws Exception {
+        if (System.getProperty("sqlite4java.library.path") == null) {
+            System.setProperty("sqlite4java.library.path", "target/native-libs");
+        }
+        dynamoDb = DynamoDbLocal.start();
+        userService = new UserService(dynamoDb.registry());
+
+        completeKeys = new ArrayList<>(users);
+        uuidKeys = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            User user = new User();
+            user.setUuid(UUID.randomUUID().toString());
+            user.setName("User" + i);
+            user.setLastName("Batch");
+            user.setEmail("user" + i + "@inferno.com");
+            user.setDocumentNumber(String.valueOf(500000 + i));
+            user.setPassword("{bcrypt}hash");
+            dynamoDb.registry().userTable().putItem(user);
+            completeKeys.add(UserKey.of(user.getUuid(), user.getDocumentNumber()));
+            uuidKeys.add(UserKey.of(user.getUuid()));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        dynamoDb.close();
+    }
+
+    @Benchmark
+    public int singleCalls() {
+        int found = 0;
+        for (UserKey key : uuidKeys) {
+            found += userService.getUsersByUuid(key.getUuid()).size();
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int batchByCompleteKey() {
+        return userService.getUsersByKeys(completeKeys).size();
+    }
+
+    @Benchmark
+    public int batchByUuid() {
+        return userService.getUsersByKeys(uuidKeys).size();
+    }
+}
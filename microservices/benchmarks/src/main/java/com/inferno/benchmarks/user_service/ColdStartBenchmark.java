@@ -0,0 +1,131 @@
+package com.inferno.benchmarks.user_service;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.inferno.benchmarks.user_service.support.BenchmarkContext;
+import com.inferno.benchmarks.user_service.support.Fixtures;
+import com.inferno.benchmarks.user_service.support.LocalDynamoDbProcess;
+import com.inferno.user_service.config.AwsClientRegistry;
+import com.inferno.user_service.config.ClientSettings;
+import com.inferno.user_service.handler.LoginUserLambda;
+import com.inferno.user_service.priming.ColdStartPriming;
+import com.inferno.user_service.security.PasswordService;
+import com.inferno.user_service.service.UserService;
+import org.crac.Core;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.awssdk.regions.Region;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+// Primera petición de login en una JVM nueva, como la primera invocación de una Lambda fría.
+// - checkpoint=none: init normal, sin priming.
+// - checkpoint=simulated: al final del init corren los hooks de ColdStartPriming tal como los
+//   invoca SnapStart (beforeCheckpoint y luego afterRestore, en el mismo proceso).
+// Cada fork es una JVM nueva que mide una sola invocación; DynamoDB Local corre en otro proceso.
+// Con una JDK con CRaC, checkpoint y restore reales con el main de esta clase (DynamoDB Local
+// aparte, porque el proceso se detiene en el checkpoint):
+//   java -cp target/benchmarks.jar com.inferno.benchmarks.user_service.support.LocalDynamoDbProcess
+//   java -XX:CRaCCheckpointTo=target/crac -Dbenchmark.dynamodb.endpoint=<endpoint> \
+//        -cp target/benchmarks.jar com.inferno.benchmarks.user_service.ColdStartBenchmark
+//   java -XX:CRaCRestoreFrom=target/crac
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(5)
+public class ColdStartBenchmark {
+
+    private static final String ENDPOINT_PROPERTY = "benchmark.dynamodb.endpoint";
+
+    @Param({"none", "simulated"})
+    public String checkpoint;
+
+    private LocalDynamoDbProcess dynamoDb;
+    private LoginUserLambda handler;
+    private ColdStartPriming priming;
+    private APIGatewayProxyRequestEvent loginRequest;
+
+    @Setup
+    public void setUp() throws Exception {
+        URI endpoint;
+        if (System.getProperty(ENDPOINT_PROPERTY) != null) {
+            endpoint = URI.create(System.getProperty(ENDPOINT_PROPERTY));
+        } else {
+            dynamoDb = LocalDynamoDbProcess.start();
+            endpoint = dynamoDb.endpoint();
+        }
+        // CRaC rechaza el checkpoint con sockets abiertos (SnapStart no): sin dry run en ese modo
+        init(endpoint, !Boolean.getBoolean("benchmark.crac"));
+        if ("simulated".equals(checkpoint)) {
+            priming.beforeCheckpoint(null);
+            priming.afterRestore(null);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (dynamoDb != null) {
+            dynamoDb.close();
+        }
+    }
+
+    @Benchmark
+    public int firstLogin() {
+        return handler.handleRequest(loginRequest, new BenchmarkContext()).getStatusCode();
+    }
+
+    // Lo mismo que el constructor por defecto de LoginUserLambda, contra DynamoDB Local
+    private void init(URI endpoint, boolean dryRun) {
+        // Credenciales ficticias: DynamoDB Local no las valida
+        System.setProperty("aws.accessKeyId", "local");
+        System.setProperty("aws.secretAccessKey", "local");
+        AwsClientRegistry registry = new AwsClientRegistry(ClientSettings.builder()
+                .region(Region.US_EAST_2)
+                .dynamoDbEndpoint(endpoint)
+                .build());
+        PasswordService passwordService = new PasswordService();
+        handler = new LoginUserLambda(new UserService(registry, passwordService), Fixtures.jwtKeyProvider());
+        priming = new ColdStartPriming(registry, passwordService, null, dryRun)
+                .registerWith(Core.getGlobalContext());
+        loginRequest = new APIGatewayProxyRequestEvent()
+                .withHttpMethod("POST")
+                .withBody("{\"email\":\"ana@inferno.com\",\"password\":\"" + LocalDynamoDbProcess.PASSWORD + "\"}");
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("benchmark.crac", "true");
+        ColdStartBenchmark benchmark = new ColdStartBenchmark();
+        benchmark.checkpoint = "crac";
+        long initStart = System.nanoTime();
+        benchmark.setUp();
+        System.out.printf("Init: %d ms%n", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - initStart));
+
+        try {
+            Core.checkpointRestore();
+            System.out.println("Restored from checkpoint");
+        } catch (UnsupportedOperationException e) {
+            System.out.println("JDK without CRaC: simulating the checkpoint");
+            benchmark.priming.beforeCheckpoint(null);
+            benchmark.priming.afterRestore(null);
+        }
+
+        long start = System.nanoTime();
+        int status = benchmark.firstLogin();
+        System.out.printf("First login: %d ms (status %d)%n",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), status);
+        benchmark.tearDown();
+        System.exit(0);
+    }
+}
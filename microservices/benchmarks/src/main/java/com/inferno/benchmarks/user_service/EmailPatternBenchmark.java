@@ -0,0 +1,47 @@
+package com.inferno.benchmarks.user_service;
+
+import com.inferno.benchmarks.user_service.support.InMemoryUserService;
+import com.inferno.user_service.security.PasswordService;
+import com.inferno.user_service.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// EMAIL_PATTERN de UserService con entradas típicas y una patológica
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmailPatternBenchmark {
+
+    @Param({
+            "ana.torres@inferno.com",
+            "not-an-email",
+            "aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa@aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa"
+    })
+    public String email;
+
+    private UserService userService;
+
+    @Setup
+    public void setUp() {
+        userService = new InMemoryUserService(new PasswordService());
+    }
+
+    @Benchmark
+    public boolean isValidEmail() {
+        return userService.isValidEmail(email);
+    }
+}
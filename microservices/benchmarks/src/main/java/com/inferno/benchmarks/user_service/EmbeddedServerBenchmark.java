@@ -0,0 +1,127 @@
+package com.inferno.benchmarks.user_service;
+
+import com.inferno.benchmarks.user_service.support.Fixtures;
+import com.inferno.benchmarks.user_service.support.InMemoryAsyncUserService;
+import com.inferno.benchmarks.user_service.support.InMemoryUserService;
+import com.inferno.user_service.UserServiceServer;
+import com.inferno.user_service.avatar.AvatarThumbnailService;
+import com.inferno.user_service.avatar.AvatarUploadService;
+import com.inferno.user_service.avatar.AvatarUrlSigner;
+import com.inferno.user_service.avatar.InMemoryS3Client;
+import com.inferno.user_service.cache.ProfileCache;
+import com.inferno.user_service.handler.GetUserProfileLambda;
+import com.inferno.user_service.handler.LoginUserLambda;
+import com.inferno.user_service.handler.UpdateUserLambda;
+import com.inferno.user_service.handler.UploadAvatarLambda;
+import com.inferno.user_service.handler.UserRegisterLambda;
+import com.inferno.user_service.metrics.HandlerMetrics;
+import com.inferno.user_service.model.User;
+import com.inferno.user_service.ratelimit.LoginRateLimiter;
+import com.inferno.user_service.security.BCryptPasswordHasher;
+import com.inferno.user_service.security.HashingExecutor;
+import com.inferno.user_service.security.PasswordService;
+import com.inferno.user_service.server.LambdaHttpServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+// Peticiones HTTP reales contra UserServiceServer, con servicios en memoria: mide el costo del
+// servidor embebido (parseo HTTP, traducción al evento de API Gateway, pool de hilos) con
+// 32 clientes concurrentes sobre una sola JVM.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(32)
+@Fork(1)
+public class EmbeddedServerBenchmark {
+
+    private static final String BUCKET = "benchmark-bucket";
+
+    private LambdaHttpServer server;
+    private HttpClient client;
+    private HttpRequest profileRequest;
+    private HttpRequest loginRequest;
+
+    @Setup
+    public void setUp() throws Exception {
+        // Costo mínimo de BCrypt: se mide el servidor, no el hash
+        PasswordService passwordService = new PasswordService(new BCryptPasswordHasher(), 4,
+                new HashingExecutor(Runtime.getRuntime().availableProcessors(), 60_000));
+        InMemoryUserService userService = new InMemoryUserService(passwordService);
+        User user = Fixtures.user();
+        user.setUuid(null);
+        user.setPassword("password123");
+        User stored = userService.createUser(user);
+
+        S3Presigner presigner = S3Presigner.builder()
+                .region(Region.US_EAST_2)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("bench", "bench")))
+                .build();
+        AvatarUrlSigner urlSigner = new AvatarUrlSigner(presigner, BUCKET, Duration.ofHours(1),
+                Duration.ofMinutes(5), 10_000, Clock.systemUTC());
+        InMemoryS3Client s3 = new InMemoryS3Client();
+
+        server = LambdaHttpServer.create(new InetSocketAddress("localhost", 0),
+                UserServiceServer.routes(
+                        new UserRegisterLambda(userService, HandlerMetrics.disabled(UserRegisterLambda.class)),
+                        new LoginUserLambda(userService, Fixtures.jwtKeyProvider(),
+                                HandlerMetrics.disabled(LoginUserLambda.class), LoginRateLimiter.disabled()),
+                        new UpdateUserLambda(userService, HandlerMetrics.disabled(UpdateUserLambda.class)),
+                        new GetUserProfileLambda(userService, ProfileCache.getInstance(), urlSigner,
+                                HandlerMetrics.disabled(GetUserProfileLambda.class)),
+                        new UploadAvatarLambda(new InMemoryAsyncUserService(passwordService, userService),
+                                new AvatarUploadService(s3, s3.asAsync(), presigner, BUCKET, 10 * 1024 * 1024,
+                                        AvatarUploadService.MIN_PART_SIZE, Duration.ofMinutes(5)),
+                                new AvatarThumbnailService(s3, BUCKET, AvatarThumbnailService.DEFAULT_SIZES, 2, 16),
+                                urlSigner, HandlerMetrics.disabled(UploadAvatarLambda.class))),
+                LambdaHttpServer.requestExecutor(64, 1000));
+        server.start();
+
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        String base = "http://localhost:" + server.getPort();
+        profileRequest = HttpRequest.newBuilder(URI.create(base + "/profile/" + stored.getUuid())).GET().build();
+        loginRequest = HttpRequest.newBuilder(URI.create(base + "/login"))
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"email\":\"ana@inferno.com\",\"password\":\"password123\"}"))
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Benchmark
+    public int getProfile() throws Exception {
+        return client.send(profileRequest, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    @Benchmark
+    public int login() throws Exception {
+        return client.send(loginRequest, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
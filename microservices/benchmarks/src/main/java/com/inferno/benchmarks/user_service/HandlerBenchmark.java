@@ -0,0 +1,170 @@
+package com.inferno.benchmarks.user_service;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.inferno.benchmarks.user_service.support.BenchmarkContext;
+import com.inferno.benchmarks.user_service.support.Fixtures;
+import com.inferno.benchmarks.user_service.support.InMemoryAsyncUserService;
+import com.inferno.benchmarks.user_service.support.InMemoryUserService;
+import com.inferno.user_service.avatar.AvatarThumbnailService;
+import com.inferno.user_service.avatar.AvatarUploadService;
+import com.inferno.user_service.avatar.AvatarUrlSigner;
+import com.inferno.user_service.avatar.InMemoryS3Client;
+import com.inferno.user_service.cache.ProfileCache;
+import com.inferno.user_service.handler.GetUserProfileLambda;
+import com.inferno.user_service.handler.LoginUserLambda;
+import com.inferno.user_service.handler.UpdateUserLambda;
+import com.inferno.user_service.handler.UploadAvatarLambda;
+import com.inferno.user_service.handler.UserRegisterLambda;
+import com.inferno.user_service.metrics.HandlerMetrics;
+import com.inferno.user_service.model.User;
+import com.inferno.user_service.ratelimit.LoginRateLimiter;
+import com.inferno.user_service.security.BCryptPasswordHasher;
+import com.inferno.user_service.security.HashingExecutor;
+import com.inferno.user_service.security.PasswordService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// handleRequest de punta a punta de cada handler, con UserService y S3 en memoria.
+// Mide parseo, validación, hashing, JWT y serialización sin red. Con metrics=emf se suma el costo de
+// medir cada etapa y armar la línea EMF (el sink la descarta).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HandlerBenchmark {
+
+    private static final String BUCKET = "benchmark-bucket";
+
+    // Costo BCrypt: 4 aísla el handler, 10 es el valor de producción
+    @Param({"4", "10"})
+    public int bcryptCost;
+
+    @Param({"off", "emf"})
+    public String metrics;
+
+    private final Context context = new BenchmarkContext();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private InMemoryUserService userService;
+    private UserRegisterLambda registerLambda;
+    private LoginUserLambda loginLambda;
+    private UpdateUserLambda updateLambda;
+    private GetUserProfileLambda profileLambda;
+    private UploadAvatarLambda avatarLambda;
+    private User existingUser;
+
+    private APIGatewayProxyRequestEvent loginRequest;
+    private APIGatewayProxyRequestEvent updateRequest;
+    private APIGatewayProxyRequestEvent profileRequest;
+    private APIGatewayProxyRequestEvent avatarRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        PasswordService passwordService = new PasswordService(new BCryptPasswordHasher(), bcryptCost,
+                new HashingExecutor(Runtime.getRuntime().availableProcessors(), 60_000));
+        userService = new InMemoryUserService(passwordService);
+
+        S3Presigner presigner = S3Presigner.builder()
+                .region(Region.US_EAST_2)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("bench", "bench")))
+                .build();
+
+        registerLambda = new UserRegisterLambda(userService, handlerMetrics(UserRegisterLambda.class));
+        // Sin límite de intentos: el benchmark repite el mismo login (su costo está en LoginRateLimiterBenchmark)
+        loginLambda = new LoginUserLambda(userService, Fixtures.jwtKeyProvider(), handlerMetrics(LoginUserLambda.class),
+                LoginRateLimiter.disabled());
+        updateLambda = new UpdateUserLambda(userService, handlerMetrics(UpdateUserLambda.class));
+        AvatarUrlSigner avatarUrlSigner = new AvatarUrlSigner(presigner, BUCKET, Duration.ofHours(1),
+                Duration.ofMinutes(5), 10_000, Clock.systemUTC());
+        profileLambda = new GetUserProfileLambda(userService, ProfileCache.getInstance(), avatarUrlSigner,
+                handlerMetrics(GetUserProfileLambda.class));
+        InMemoryS3Client s3 = new InMemoryS3Client();
+        AvatarUploadService avatarUploadService = new AvatarUploadService(s3, s3.asAsync(), presigner, BUCKET,
+                10 * 1024 * 1024, AvatarUploadService.MIN_PART_SIZE, Duration.ofMinutes(5));
+        AvatarThumbnailService thumbnailService = new AvatarThumbnailService(s3, BUCKET,
+                AvatarThumbnailService.DEFAULT_SIZES, 2, 16);
+        avatarLambda = new UploadAvatarLambda(new InMemoryAsyncUserService(passwordService, userService),
+                avatarUploadService, thumbnailService, avatarUrlSigner, handlerMetrics(UploadAvatarLambda.class));
+    }
+
+    private HandlerMetrics handlerMetrics(Class<?> handler) {
+        return "emf".equals(metrics)
+                ? new HandlerMetrics(handler.getSimpleName(), "Inferno/Benchmark", line -> { })
+                : HandlerMetrics.disabled(handler);
+    }
+
+    @Setup(Level.Iteration)
+    public void resetUsers() {
+        userService.clear();
+        User user = Fixtures.user();
+        user.setUuid(null);
+        user.setPassword("password123");
+        existingUser = userService.createUser(user);
+
+        Map<String, String> path = Map.of("uuid", existingUser.getUuid());
+        loginRequest = new APIGatewayProxyRequestEvent()
+                .withBody("{\"email\":\"ana@inferno.com\",\"password\":\"password123\"}");
+        updateRequest = new APIGatewayProxyRequestEvent()
+                .withPathParameters(path)
+                .withBody("{\"name\":\"Ana Maria\",\"lastName\":\"Torres\",\"email\":\"ana@inferno.com\","
+                        + "\"password\":\"password123\",\"document\":\"1020304050\"}");
+        profileRequest = new APIGatewayProxyRequestEvent().withPathParameters(path);
+        avatarRequest = new APIGatewayProxyRequestEvent()
+                .withPathParameters(path)
+                .withBody(Base64.getEncoder().encodeToString(Fixtures.avatarPng(512)));
+    }
+
+    @Benchmark
+    public APIGatewayProxyResponseEvent register() {
+        long n = sequence.incrementAndGet();
+        APIGatewayProxyRequestEvent request = new APIGatewayProxyRequestEvent()
+                .withBody("{\"email\":\"user" + n + "@inferno.com\",\"name\":\"Ana\",\"lastName\":\"Torres\","
+                        + "\"document\":\"" + (1_000_000_000L + n) + "\",\"password\":\"password123\"}");
+        return registerLambda.handleRequest(request, context);
+    }
+
+    @Benchmark
+    public APIGatewayProxyResponseEvent login() {
+        return loginLambda.handleRequest(loginRequest, context);
+    }
+
+    @Benchmark
+    public APIGatewayProxyResponseEvent update() {
+        return updateLambda.handleRequest(updateRequest, context);
+    }
+
+    @Benchmark
+    public APIGatewayProxyResponseEvent getProfile() {
+        return profileLambda.handleRequest(profileRequest, context);
+    }
+
+    @Benchmark
+    public APIGatewayProxyResponseEvent uploadAvatar() {
+        return avatarLambda.handleRequest(avatarRequest, context);
+    }
+}
@@ -0,0 +1,41 @@
+package com.inferno.benchmarks.user_service;
+
+import com.inferno.benchmarks.user_service.support.Fixtures;
+import com.inferno.user_service.model.User;
+import com.inferno.user_service.security.JwtIssuer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Construcción y firma HS256 del JWT de LoginUserLambda (clave ya cacheada)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtIssuerBenchmark {
+
+    private JwtIssuer jwtIssuer;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        jwtIssuer = new JwtIssuer(Fixtures.jwtKeyProvider());
+        user = Fixtures.user();
+    }
+
+    @Benchmark
+    public String issueToken() {
+        return jwtIssuer.issue(user);
+    }
+}
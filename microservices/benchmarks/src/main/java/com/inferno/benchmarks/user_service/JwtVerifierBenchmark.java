@@ -0,0 +1,87 @@
+package com.inferno.benchmarks.user_service;
+
+import com.inferno.benchmarks.user_service.support.Fixtures;
+import com.inferno.user_service.model.User;
+import com.inferno.user_service.security.InMemoryRevocationSource;
+import com.inferno.user_service.security.JwtIssuer;
+import com.inferno.user_service.security.JwtKeyProvider;
+import com.inferno.user_service.security.JwtVerifier;
+import com.inferno.user_service.security.Revocation;
+import com.inferno.user_service.security.TokenClaimsCache;
+import com.inferno.user_service.security.TokenRevocationList;
+import com.inferno.user_service.security.VerifiedToken;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Verificaciones por milisegundo de JwtVerifier, con la clave ya cacheada.
+// cache=off parsea y verifica la firma con jjwt en cada llamada; cache=on sirve los claims por el
+// SHA-256 del token. revoked=10000 carga esa cantidad de revocaciones (se consulta en cada llamada).
+// sameToken repite un token; rotatingTokens recorre 256 (varios usuarios detrás del authorizer).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerifierBenchmark {
+
+    private static final int TOKENS = 256;
+
+    @Param({"off", "on"})
+    public String cache;
+
+    @Param({"0", "10000"})
+    public int revoked;
+
+    private JwtVerifier verifier;
+    private String[] tokens;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Clock clock = Clock.systemUTC();
+        JwtKeyProvider keyProvider = Fixtures.jwtKeyProvider();
+        InMemoryRevocationSource source = new InMemoryRevocationSource();
+        for (int i = 0; i < revoked; i++) {
+            source.revoke(Revocation.token(UUID.randomUUID().toString(), clock.millis()));
+        }
+        TokenRevocationList revocations = new TokenRevocationList(source, Duration.ofSeconds(30),
+                Duration.ofHours(2), Runnable::run, clock);
+        verifier = new JwtVerifier(keyProvider,
+                new TokenClaimsCache("on".equals(cache) ? 10_000 : 0, Duration.ofMinutes(5), clock),
+                revocations, clock);
+
+        JwtIssuer issuer = new JwtIssuer(keyProvider);
+        tokens = new String[TOKENS];
+        for (int i = 0; i < TOKENS; i++) {
+            User user = Fixtures.user();
+            user.setUuid(UUID.randomUUID().toString());
+            tokens[i] = issuer.issue(user);
+        }
+    }
+
+    @Benchmark
+    public VerifiedToken sameToken() {
+        return verifier.verify(tokens[0]);
+    }
+
+    @Benchmark
+    public VerifiedToken rotatingTokens() {
+        next = (next + 1) & (TOKENS - 1);
+        return verifier.verify(tokens[next]);
+    }
+}
@@ -0,0 +1,73 @@
+package com.inferno.benchmarks.user_service;
+
+import com.inferno.user_service.ratelimit.InMemoryRateLimitStore;
+import com.inferno.user_service.ratelimit.LoginRateLimiter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+// Costo del límite de login en el camino permitido, con varios hilos a la vez.
+// keys=1 pone a todos los hilos sobre el mismo bucket (peor caso de CAS); keys=1024 los reparte.
+// limiter=off es la referencia, local solo usa los token buckets y shared suma el contador
+// compartido en memoria (sin la latencia de red de DynamoDB).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class LoginRateLimiterBenchmark {
+
+    @Param({"off", "local", "shared"})
+    public String limiter;
+
+    @Param({"1", "1024"})
+    public int keys;
+
+    private LoginRateLimiter rateLimiter;
+    private String[] emails;
+    private String[] sourceIps;
+
+    @Setup
+    public void setUp() {
+        // Límite inalcanzable: cada llamada toma el camino permitido
+        LoginRateLimiter.Limit limit = new LoginRateLimiter.Limit(Integer.MAX_VALUE, Duration.ofSeconds(1));
+        if ("off".equals(limiter)) {
+            rateLimiter = LoginRateLimiter.disabled();
+        } else {
+            rateLimiter = new LoginRateLimiter(limit, limit, 10_000,
+                    "shared".equals(limiter) ? new InMemoryRateLimitStore() : null, Clock.systemUTC());
+        }
+        emails = new String[keys];
+        sourceIps = new String[keys];
+        for (int i = 0; i < keys; i++) {
+            emails[i] = "user" + i + "@inferno.com";
+            sourceIps[i] = "10.0." + (i / 256) + "." + (i % 256);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+    }
+
+    @Benchmark
+    public void allowedLogin(Cursor cursor) {
+        int index = cursor.next++ & (keys - 1);
+        rateLimiter.check(emails[index], sourceIps[index]);
+    }
+}
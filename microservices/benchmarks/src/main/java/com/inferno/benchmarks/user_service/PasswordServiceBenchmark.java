@@ -0,0 +1,53 @@
+package com.inferno.benchmarks.user_service;
+
+import com.inferno.user_service.security.BCryptPasswordHasher;
+import com.inferno.user_service.security.HashingExecutor;
+import com.inferno.user_service.security.PasswordService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// encryptPassword / verifyPassword con BCrypt a distintos costos
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordServiceBenchmark {
+
+    private static final String PASSWORD = "password123";
+
+    @Param({"4", "8", "10", "12"})
+    public int cost;
+
+    private PasswordService passwordService;
+    private String storedHash;
+
+    @Setup
+    public void setUp() {
+        passwordService = new PasswordService(new BCryptPasswordHasher(), cost,
+                new HashingExecutor(Runtime.getRuntime().availableProcessors(), 60_000));
+        storedHash = passwordService.encryptPassword(PASSWORD);
+    }
+
+    @Benchmark
+    public String encryptPassword() {
+        return passwordService.encryptPassword(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean verifyPassword() {
+        return passwordService.verifyPassword(PASSWORD, storedHash);
+    }
+}
@@ -0,0 +1,75 @@
+package com.inferno.benchmarks.user_service;
+
+import com.inferno.user_service.model.User;
+import com.inferno.user_service.service.AsyncUserService;
+import com.inferno.user_service.service.UserService;
+import com.inferno.user_service.service.ValidationService;
+import com.inferno.user_service.support.DynamoDbLocal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Chequeo de unicidad por índices de UserRegisterLambda (REGISTER_INDEX_UNIQUENESS_CHECK=true)
+// contra DynamoDB Local, con email y documento libres para que se hagan las dos consultas:
+// validateBusinessRules las encadena; checkAvailability las lanza a la vez.
+// Requiere -Dsqlite4java.library.path=target/native-libs (se usa ese valor por defecto).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UniquenessCheckBenchmark {
+
+    private DynamoDbLocal dynamoDb;
+    private ValidationService validationService;
+    private AsyncUserService asyncUserService;
+
+    @Setup
+    public void setUp() throws Exception {
+        if (System.getProperty("sqlite4java.library.path") == null) {
+            System.setProperty("sqlite4java.library.path", "target/native-libs");
+        }
+        dynamoDb = DynamoDbLocal.start();
+        validationService = new ValidationService(new UserService(dynamoDb.registry()));
+        asyncUserService = new AsyncUserService(dynamoDb.registry());
+
+        // Índices con datos para que las consultas no recorran tablas vacías
+        for (int i = 0; i < 100; i++) {
+            User user = new User();
+            user.setUuid(UUID.randomUUID().toString());
+            user.setName("Ana");
+            user.setLastName("Torres");
+            user.setEmail("user" + i + "@inferno.com");
+            user.setDocumentNumber(String.valueOf(1_000_000 + i));
+            user.setPassword("{bcrypt}hash");
+            dynamoDb.registry().userTable().putItem(user);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        dynamoDb.close();
+    }
+
+    @Benchmark
+    public void sequential() {
+        validationService.validateBusinessRules("libre@inferno.com", "2000000");
+    }
+
+    @Benchmark
+    public void concurrent() {
+        AsyncUserService.await(asyncUserService.checkAvailability("libre@inferno.com", "2000000"));
+    }
+}
@@ -0,0 +1,102 @@
+package com.inferno.benchmarks.user_service;
+
+import com.inferno.user_service.model.User;
+import com.inferno.user_service.model.UserUpdate;
+import com.inferno.user_service.service.UserService;
+import com.inferno.user_service.support.DynamoDbLocal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Cambio de nombre contra DynamoDB Local: GetItem + reescritura del item completo (lo que hacían
+// UpdateUserLambda y UploadAvatarLambda) frente a un solo UpdateItem por campo con ALL_NEW, y el
+// mismo UpdateItem condicionado a la versión. Requiere -Dsqlite4java.library.path=target/native-libs
+// (se usa ese valor por defecto).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserUpdateBenchmark {
+
+    private static final String DOCUMENT = "1020304050";
+
+    private DynamoDbLocal dynamoDb;
+    private UserService userService;
+    private String uuid;
+    private long version;
+    private int next;
+
+    @Setup
+    public void setUp() throws Exception {
+        if (System.getProperty("sqlite4java.library.path") == null) {
+            System.setProperty("sqlite4java.library.path", "target/native-libs");
+        }
+        dynamoDb = DynamoDbLocal.start();
+        userService = new UserService(dynamoDb.registry());
+
+        User user = new User();
+        user.setUuid(UUID.randomUUID().toString());
+        user.setName("Ana");
+        user.setLastName("Torres");
+        user.setEmail("ana@inferno.com");
+        user.setDocumentNumber(DOCUMENT);
+        user.setPassword("{bcrypt}hash");
+        user.setAvatarKey("avatars/" + user.getUuid() + "/original.png");
+        user.setAvatarVariants(Map.of("64", "avatars/64.png", "128", "avatars/128.png", "256", "avatars/256.png"));
+        user.setCreatedAt(Instant.now().toString());
+        user.setVersion(1L);
+        dynamoDb.registry().userTable().putItem(user);
+        uuid = user.getUuid();
+        version = 1L;
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        dynamoDb.close();
+    }
+
+    @Benchmark
+    public User readThenRewrite() {
+        User user = dynamoDb.registry().userTable()
+                .getItem(Key.builder().partitionValue(uuid).sortValue(DOCUMENT).build());
+        user.setName(nextName());
+        user.setUpdatedAt(Instant.now().toString());
+        return dynamoDb.registry().userTable().updateItem(user);
+    }
+
+    @Benchmark
+    public User fieldUpdate() {
+        return userService.updateFields(UserUpdate.of(uuid, DOCUMENT).name(nextName()));
+    }
+
+    // El siguiente ciclo usa la versión que devolvió este (sin releer)
+    @Benchmark
+    public User versionedFieldUpdate() {
+        User updated = userService.updateFields(UserUpdate.of(uuid, DOCUMENT)
+                .name(nextName())
+                .expectVersion(version));
+        version = updated.getVersion();
+        return updated;
+    }
+
+    private String nextName() {
+        next = (next + 1) & 7;
+        return "Ana" + next;
+    }
+}
@@ -0,0 +1,56 @@
+package com.inferno.benchmarks.user_service;
+
+import com.inferno.benchmarks.user_service.support.Fixtures;
+import com.inferno.benchmarks.user_service.support.InMemoryUserService;
+import com.inferno.user_service.dto.UserRegistrationRequest;
+import com.inferno.user_service.security.PasswordService;
+import com.inferno.user_service.service.ValidationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// ValidationService.validate (Hibernate Validator) con request válido e inválido
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationBenchmark {
+
+    private ValidationService validationService;
+    private UserRegistrationRequest validRequest;
+    private UserRegistrationRequest invalidRequest;
+
+    @Setup
+    public void setUp() {
+        validationService = new ValidationService(new InMemoryUserService(new PasswordService()));
+        validRequest = Fixtures.registrationRequest();
+        invalidRequest = new UserRegistrationRequest("not-an-email", "A", "", "12ab", "short");
+    }
+
+    @Benchmark
+    public UserRegistrationRequest validRequest() {
+        validationService.validate(validRequest);
+        return validRequest;
+    }
+
+    @Benchmark
+    public String invalidRequest() {
+        try {
+            validationService.validate(invalidRequest);
+            return null;
+        } catch (jakarta.validation.ValidationException e) {
+            return e.getMessage();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.inferno.benchmarks.user_service.support;
+
+import com.inferno.user_service.dto.UserRegistrationRequest;
+import com.inferno.user_service.dto.UserResponse;
+import com.inferno.user_service.model.User;
+import com.inferno.user_service.security.InMemorySecretSource;
+import com.inferno.user_service.security.JwtKeyProvider;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+// Datos de ejemplo compartidos por los benchmarks
+public final class Fixtures {
+
+    public static final String JWT_SECRET_JSON =
+            "{\"JWT_SECRET\":\"benchmark-secret-benchmark-secret-benchmark-secret-0123456789\"}";
+
+    public static final String REGISTRATION_JSON = "{\"email\":\"ana@inferno.com\",\"name\":\"Ana\","
+            + "\"lastName\":\"Torres\",\"document\":\"1020304050\",\"password\":\"password123\"}";
+
+    private Fixtures() {
+    }
+
+    public static JwtKeyProvider jwtKeyProvider() {
+        return JwtKeyProvider.create(new InMemorySecretSource().put(JwtKeyProvider.SECRET_NAME, JWT_SECRET_JSON));
+    }
+
+    public static UserRegistrationRequest registrationRequest() {
+        return new UserRegistrationRequest("ana@inferno.com", "Ana", "Torres", "1020304050", "password123");
+    }
+
+    public static User user() {
+        User user = new User();
+        user.setUuid("7c4d1d5e-6a3b-4c1e-9d62-0f3f1c2b9a10");
+        user.setName("Ana");
+        user.setLastName("Torres");
+        user.setEmail("ana@inferno.com");
+        user.setDocumentNumber("1020304050");
+        user.setCreatedAt("2025-01-01T00:00:00Z");
+        user.setUpdatedAt("2025-01-01T00:00:00Z");
+        user.setVersion(1L);
+        return user;
+    }
+
+    public static UserResponse userResponse() {
+        User user = user();
+        return new UserResponse(user.getUuid(), user.getName(), user.getLastName(), user.getEmail(),
+                user.getDocumentNumber(), null, null, user.getCreatedAt(), user.getUpdatedAt(), user.getVersion());
+    }
+
+    // PNG cuadrado con degradado, decodificable por ImageIO
+    public static byte[] avatarPng(int side) {
+        BufferedImage image = new BufferedImage(side, side, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setPaint(new GradientPaint(0, 0, Color.ORANGE, side, side, Color.BLUE));
+        graphics.fillRect(0, 0, side, side);
+        graphics.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(image, "png", out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,62 @@
+package com.inferno.benchmarks.user_service.support;
+
+import com.inferno.user_service.model.User;
+import com.inferno.user_service.model.UserUpdate;
+import com.inferno.user_service.security.PasswordService;
+import com.inferno.user_service.service.AsyncUserService;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+// AsyncUserService sobre los mismos datos de InMemoryUserService; los futuros ya vienen completos
+public class InMemoryAsyncUserService extends AsyncUserService {
+
+    private final InMemoryUserService users;
+
+    public InMemoryAsyncUserService(PasswordService passwordService, InMemoryUserService users) {
+        super(passwordService);
+        this.users = users;
+    }
+
+    @Override
+    public CompletableFuture<User> registerUser(User user) {
+        return CompletableFuture.supplyAsync(() -> users.registerUser(user), Runnable::run);
+    }
+
+    @Override
+    public CompletableFuture<User> getUserByEmail(String email) {
+        return CompletableFuture.completedFuture(users.getUserByEmail(email));
+    }
+
+    @Override
+    public CompletableFuture<User> getUserByDocumentNumber(String documentNumber) {
+        return CompletableFuture.completedFuture(users.getUserByDocumentNumber(documentNumber));
+    }
+
+    @Override
+    public CompletableFuture<User> getUserById(String uuid, String documentNumber) {
+        return CompletableFuture.completedFuture(users.getUserById(uuid, documentNumber));
+    }
+
+    @Override
+    public CompletableFuture<List<User>> getUsersByUuid(String uuid) {
+        return CompletableFuture.completedFuture(users.getUsersByUuid(uuid));
+    }
+
+    @Override
+    public CompletableFuture<String> getDocumentNumber(String uuid) {
+        List<User> found = users.getUsersByUuid(uuid);
+        return CompletableFuture.completedFuture(found.isEmpty() ? null : found.get(0).getDocumentNumber());
+    }
+
+    @Override
+    public CompletableFuture<User> updateFields(UserUpdate update) {
+        return CompletableFuture.supplyAsync(() -> users.updateFields(update), Runnable::run);
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteUser(String uuid, String documentNumber) {
+        users.deleteUser(uuid, documentNumber);
+        return CompletableFuture.completedFuture(null);
+    }
+}
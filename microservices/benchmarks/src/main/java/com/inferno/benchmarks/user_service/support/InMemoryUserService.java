@@ -0,0 +1,121 @@
+package com.inferno.benchmarks.user_service.support;
+
+import com.inferno.user_service.cache.ProfileCache;
+import com.inferno.user_service.exception.UserAlreadyExistsException;
+import com.inferno.user_service.model.User;
+import com.inferno.user_service.model.UserUpdate;
+import com.inferno.user_service.security.PasswordService;
+import com.inferno.user_service.service.UserService;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValue;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// UserService sin DynamoDB: aísla el costo propio de los handlers
+public class InMemoryUserService extends UserService {
+
+    private final PasswordService passwordService;
+    private final Map<String, User> byUuid = new ConcurrentHashMap<>();
+    private final Map<String, User> byEmail = new ConcurrentHashMap<>();
+    private final Map<String, User> byDocument = new ConcurrentHashMap<>();
+
+    public InMemoryUserService(PasswordService passwordService) {
+        super(passwordService);
+        this.passwordService = passwordService;
+    }
+
+    public void clear() {
+        byUuid.clear();
+        byEmail.clear();
+        byDocument.clear();
+    }
+
+    @Override
+    public User createUser(User user) {
+        String now = Instant.now().toString();
+        user.setUuid(UUID.randomUUID().toString());
+        user.setPassword(passwordService.encryptPassword(user.getPassword()));
+        user.setCreatedAt(now);
+        user.setUpdatedAt(now);
+        user.setVersion(1L);
+        store(user);
+        return user;
+    }
+
+    @Override
+    public User registerUser(User user) {
+        if (byEmail.containsKey(user.getEmail())) {
+            throw new UserAlreadyExistsException("Email already exists");
+        }
+        if (byDocument.containsKey(user.getDocumentNumber())) {
+            throw new UserAlreadyExistsException("Document number already exists");
+        }
+        return createUser(user);
+    }
+
+    @Override
+    public boolean isEmailExists(String email) {
+        return byEmail.containsKey(email);
+    }
+
+    @Override
+    public boolean isDocumentNumberExists(String documentNumber) {
+        return byDocument.containsKey(documentNumber);
+    }
+
+    @Override
+    public User getUserByEmail(String email) {
+        return byEmail.get(email);
+    }
+
+    @Override
+    public User getUserByDocumentNumber(String documentNumber) {
+        return byDocument.get(documentNumber);
+    }
+
+    @Override
+    public User getUserById(String uuid, String documentNumber) {
+        User user = byUuid.get(uuid);
+        return user != null && user.getDocumentNumber().equals(documentNumber) ? user : null;
+    }
+
+    @Override
+    public List<User> getUsersByUuid(String uuid) {
+        User user = byUuid.get(uuid);
+        return user == null ? List.of() : List.of(user);
+    }
+
+    @Override
+    public User updateFields(UserUpdate update) {
+        User updated = update.applyTo(getUserById(update.getUuid(), update.getDocumentNumber()),
+                Instant.now().toString());
+        User previous = byUuid.put(updated.getUuid(), updated);
+        byEmail.put(updated.getEmail(), updated);
+        byDocument.put(updated.getDocumentNumber(), updated);
+        ProfileCache.getInstance().invalidate(updated.getUuid());
+        // UPDATED_OLD se aproxima con el usuario anterior completo
+        if (update.getReturnValue() == ReturnValue.ALL_NEW) {
+            return updated;
+        }
+        return update.getReturnValue() == ReturnValue.NONE ? null : previous;
+    }
+
+    @Override
+    public void deleteUser(String uuid, String documentNumber) {
+        User user = byUuid.remove(uuid);
+        if (user != null) {
+            byEmail.remove(user.getEmail());
+            byDocument.remove(user.getDocumentNumber());
+        }
+        ProfileCache.getInstance().invalidate(uuid);
+    }
+
+    private void store(User user) {
+        byUuid.put(user.getUuid(), user);
+        byEmail.put(user.getEmail(), user);
+        byDocument.put(user.getDocumentNumber(), user);
+    }
+}
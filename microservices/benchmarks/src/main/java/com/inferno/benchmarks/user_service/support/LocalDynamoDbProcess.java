@@ -0,0 +1,95 @@
+package com.inferno.benchmarks.user_service.support;
+
+import com.inferno.user_service.model.User;
+import com.inferno.user_service.security.PasswordService;
+import com.inferno.user_service.service.UserService;
+import com.inferno.user_service.support.DynamoDbLocal;
+
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.TimeUnit;
+
+// DynamoDB Local en un proceso aparte: levantarlo dentro de la JVM medida cargaría y calentaría
+// las mismas clases del SDK que se quieren medir en frío. El proceso crea la tabla, guarda el
+// usuario de Fixtures con contraseña "password123" (BCrypt con el costo por defecto) y publica
+// su endpoint. Sin argumentos imprime el endpoint y queda vivo hasta que se lo detenga:
+//   java -cp target/benchmarks.jar com.inferno.benchmarks.user_service.support.LocalDynamoDbProcess
+public final class LocalDynamoDbProcess implements AutoCloseable {
+
+    public static final String PASSWORD = "password123";
+
+    private final Process process;
+    private final URI endpoint;
+
+    private LocalDynamoDbProcess(Process process, URI endpoint) {
+        this.process = process;
+        this.endpoint = endpoint;
+    }
+
+    public static LocalDynamoDbProcess start() throws Exception {
+        Path endpointFile = Files.createTempFile("dynamodb-local", ".endpoint");
+        Files.delete(endpointFile);
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        Process process = new ProcessBuilder(java,
+                "-cp", System.getProperty("java.class.path"),
+                "-Dsqlite4java.library.path=" + System.getProperty("sqlite4java.library.path", "target/native-libs"),
+                LocalDynamoDbProcess.class.getName(),
+                endpointFile.toString(),
+                String.valueOf(ProcessHandle.current().pid()))
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (!Files.exists(endpointFile)) {
+            if (!process.isAlive() || System.nanoTime() > deadline) {
+                process.destroyForcibly();
+                throw new IllegalStateException("DynamoDB Local did not start");
+            }
+            Thread.sleep(50);
+        }
+        URI endpoint = URI.create(Files.readString(endpointFile).trim());
+        Files.delete(endpointFile);
+        return new LocalDynamoDbProcess(process, endpoint);
+    }
+
+    public URI endpoint() {
+        return endpoint;
+    }
+
+    @Override
+    public void close() {
+        process.destroy();
+    }
+
+    // Lado del proceso hijo: [archivo donde publicar el endpoint] [pid del padre]
+    public static void main(String[] args) throws Exception {
+        DynamoDbLocal dynamoDb = DynamoDbLocal.start();
+        User user = Fixtures.user();
+        user.setUuid(null);
+        user.setPassword(PASSWORD);
+        new UserService(dynamoDb.registry(), new PasswordService()).createUser(user);
+
+        String endpoint = dynamoDb.registry().settings().getDynamoDbEndpoint().toString();
+        if (args.length == 0) {
+            System.out.println(endpoint);
+            Thread.currentThread().join();
+        }
+
+        // Escritura atómica: el padre nunca lee un archivo a medio escribir
+        Path endpointFile = Paths.get(args[0]);
+        Path partial = Files.writeString(Paths.get(args[0] + ".tmp"), endpoint);
+        Files.move(partial, endpointFile, StandardCopyOption.ATOMIC_MOVE);
+
+        // Termina junto con el proceso que lo lanzó
+        ProcessHandle parent = ProcessHandle.of(Long.parseLong(args[1])).orElse(null);
+        while (parent != null && parent.isAlive()) {
+            Thread.sleep(500);
+        }
+        dynamoDb.close();
+        System.exit(0);
+    }
+}
@@ -0,0 +1,42 @@
+package com.inferno.card_service.balance;
+
+// Saldos por tarjeta con control de límite de crédito. El saldo es lo adeudado: una compra lo
+// sube (si cabe en el límite), un pago lo baja y una transferencia mueve deuda de una tarjeta a otra.
+// Dos implementaciones: CasBalanceEngine (CAS por tarjeta, el camino común sin locks) y
+// ShardedBalanceEngine (un hilo escritor por partición de tarjetas).
+public interface BalanceEngine extends AutoCloseable {
+
+    // Alta de la tarjeta, o cambio de límite si ya existe
+    void openAccount(long cardId, long creditLimitCents);
+
+    PostingResult purchase(long cardId, long amountCents);
+
+    PostingResult payment(long cardId, long amountCents);
+
+    PostingResult transfer(long fromCardId, long toCardId, long amountCents);
+
+    // 0 si la tarjeta no existe
+    long balance(long cardId);
+
+    @Override
+    void close();
+
+    // BALANCE_MODE=cas|sharded; BALANCE_SHARDS (por defecto un shard por núcleo)
+    static BalanceEngine fromEnvironment() {
+        String mode = env("BALANCE_MODE", "cas").trim().toLowerCase();
+        if ("sharded".equals(mode)) {
+            int shards = Integer.parseInt(env("BALANCE_SHARDS",
+                    String.valueOf(Runtime.getRuntime().availableProcessors())));
+            return new ShardedBalanceEngine(shards, Integer.parseInt(env("BALANCE_SHARD_QUEUE", "4096")));
+        }
+        if (!"cas".equals(mode)) {
+            throw new IllegalArgumentException("Unknown BALANCE_MODE: " + mode);
+        }
+        return new CasBalanceEngine(Integer.parseInt(env("BALANCE_STRIPES", "64")));
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+}
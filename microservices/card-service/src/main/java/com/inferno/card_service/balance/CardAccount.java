@@ -0,0 +1,74 @@
+package com.inferno.card_service.balance;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+// Estado de una tarjeta para CasBalanceEngine. El saldo se cambia con compareAndExchange: la
+// comprobación del límite y la escritura son una sola operación atómica, así que dos compras
+// simultáneas nunca pueden gastar el mismo cupo. Si el CAS falla se reintenta con el valor que
+// lo hizo fallar, sin volver a leer.
+final class CardAccount {
+
+    private static final VarHandle BALANCE;
+
+    static {
+        try {
+            BALANCE = MethodHandles.lookup().findVarHandle(CardAccount.class, "balance", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private volatile long balance;
+    private volatile long creditLimit;
+
+    CardAccount(long creditLimit) {
+        this.creditLimit = creditLimit;
+    }
+
+    // Sube la deuda si cabe en el límite
+    boolean charge(long amountCents) {
+        long limit = creditLimit;
+        long current = balance;
+        while (true) {
+            long next = current + amountCents;
+            // Con límites cerca de Long.MAX_VALUE la suma puede desbordar a negativo: se rechaza
+            if (next > limit || next < current) {
+                return false;
+            }
+            long witness = (long) BALANCE.compareAndExchange(this, current, next);
+            if (witness == current) {
+                return true;
+            }
+            current = witness;
+        }
+    }
+
+    // Baja la deuda sin condiciones (un pago puede dejar saldo a favor)
+    void credit(long amountCents) {
+        BALANCE.getAndAdd(this, -amountCents);
+    }
+
+    // Baja la deuda solo si adeuda al menos amountCents
+    boolean release(long amountCents) {
+        long current = balance;
+        while (true) {
+            if (current < amountCents) {
+                return false;
+            }
+            long witness = (long) BALANCE.compareAndExchange(this, current, current - amountCents);
+            if (witness == current) {
+                return true;
+            }
+            current = witness;
+        }
+    }
+
+    long balance() {
+        return balance;
+    }
+
+    void setCreditLimit(long creditLimit) {
+        this.creditLimit = creditLimit;
+    }
+}
@@ -0,0 +1,120 @@
+package com.inferno.card_service.balance;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Compras y pagos sobre una sola tarjeta son un CAS sobre su CardAccount: no hay lock global ni
+// por tarjeta, y tarjetas distintas no compiten entre sí. Solo las transferencias toman locks,
+// por franjas de tarjetas y siempre en el mismo orden (sin deadlocks): así dos transferencias que
+// tocan las mismas tarjetas no ven la reserva a medias de la otra. Las compras y pagos no esperan
+// esos locks; la reserva temporal de una transferencia es para ellos como una autorización pendiente.
+public class CasBalanceEngine implements BalanceEngine {
+
+    private final ConcurrentHashMap<Long, CardAccount> accounts = new ConcurrentHashMap<>();
+    private final ReentrantLock[] stripes;
+    private final int stripeMask;
+
+    public CasBalanceEngine(int stripes) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.stripes = new ReentrantLock[size];
+        this.stripeMask = size - 1;
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public void openAccount(long cardId, long creditLimitCents) {
+        requireCard(cardId);
+        CardAccount existing = accounts.putIfAbsent(cardId, new CardAccount(creditLimitCents));
+        if (existing != null) {
+            existing.setCreditLimit(creditLimitCents);
+        }
+    }
+
+    @Override
+    public PostingResult purchase(long cardId, long amountCents) {
+        requireAmount(amountCents);
+        CardAccount account = accounts.get(cardId);
+        if (account == null) {
+            return PostingResult.UNKNOWN_CARD;
+        }
+        return account.charge(amountCents) ? PostingResult.APPLIED : PostingResult.OVER_LIMIT;
+    }
+
+    @Override
+    public PostingResult payment(long cardId, long amountCents) {
+        requireAmount(amountCents);
+        CardAccount account = accounts.get(cardId);
+        if (account == null) {
+            return PostingResult.UNKNOWN_CARD;
+        }
+        account.credit(amountCents);
+        return PostingResult.APPLIED;
+    }
+
+    // Primero se reserva el cupo en el destino y después se descuenta del origen; si el origen
+    // no alcanza se devuelve la reserva
+    @Override
+    public PostingResult transfer(long fromCardId, long toCardId, long amountCents) {
+        requireAmount(amountCents);
+        if (fromCardId == toCardId) {
+            throw new IllegalArgumentException("Cannot transfer a card's balance to itself: " + fromCardId);
+        }
+        CardAccount source = accounts.get(fromCardId);
+        CardAccount target = accounts.get(toCardId);
+        if (source == null || target == null) {
+            return PostingResult.UNKNOWN_CARD;
+        }
+        int a = stripe(fromCardId);
+        int b = stripe(toCardId);
+        ReentrantLock first = stripes[Math.min(a, b)];
+        ReentrantLock second = stripes[Math.max(a, b)];
+        first.lock();
+        if (second != first) {
+            second.lock();
+        }
+        try {
+            if (!target.charge(amountCents)) {
+                return PostingResult.OVER_LIMIT;
+            }
+            if (!source.release(amountCents)) {
+                target.credit(amountCents);
+                return PostingResult.INSUFFICIENT_BALANCE;
+            }
+            return PostingResult.APPLIED;
+        } finally {
+            if (second != first) {
+                second.unlock();
+            }
+            first.unlock();
+        }
+    }
+
+    @Override
+    public long balance(long cardId) {
+        CardAccount account = accounts.get(cardId);
+        return account == null ? 0 : account.balance();
+    }
+
+    @Override
+    public void close() {
+    }
+
+    private int stripe(long cardId) {
+        long hash = cardId * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & stripeMask;
+    }
+
+    static void requireCard(long cardId) {
+        if (cardId <= 0) {
+            throw new IllegalArgumentException("cardId must be positive: " + cardId);
+        }
+    }
+
+    static void requireAmount(long amountCents) {
+        if (amountCents <= 0) {
+            throw new IllegalArgumentException("amountCents must be positive: " + amountCents);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.inferno.card_service.balance;
+
+// Resultado de aplicar un movimiento al saldo. Los rechazos son parte del flujo normal (no excepciones)
+public enum PostingResult {
+    APPLIED,
+    // La compra dejaría la deuda por encima del límite de crédito
+    OVER_LIMIT,
+    // La tarjeta de origen de una transferencia no adeuda tanto como se quiere mover
+    INSUFFICIENT_BALANCE,
+    UNKNOWN_CARD
+}
@@ -0,0 +1,263 @@
+package com.inferno.card_service.balance;
+
+import com.inferno.card_service.ledger.BalanceIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static com.inferno.card_service.balance.CasBalanceEngine.requireAmount;
+import static com.inferno.card_service.balance.CasBalanceEngine.requireCard;
+
+// Un hilo escritor por partición de tarjetas: cada shard es dueño de los saldos de sus tarjetas
+// (mapas primitivos sin sincronización) y aplica las operaciones de su cola en orden, de a tandas.
+// Una tarjeta muy caliente no genera reintentos de CAS ni rebote de la línea de caché entre
+// núcleos: todo lo suyo lo escribe el mismo hilo. El costo es el paso por la cola.
+// Las transferencias entre shards se hacen en dos pasos (reserva en destino, descuento en origen
+// y devolución de la reserva si el origen no alcanza); dentro de un mismo shard son atómicas.
+public class ShardedBalanceEngine implements BalanceEngine {
+
+    private static final int BATCH = 64;
+
+    private final Shard[] shards;
+    private volatile boolean closed;
+
+    public ShardedBalanceEngine(int shardCount, int queueCapacity) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("shardCount must be positive");
+        }
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(i, queueCapacity);
+        }
+    }
+
+    @Override
+    public void openAccount(long cardId, long creditLimitCents) {
+        requireCard(cardId);
+        submit(new Operation(Kind.OPEN, cardId, creditLimitCents, 0)).join();
+    }
+
+    @Override
+    public PostingResult purchase(long cardId, long amountCents) {
+        return purchaseAsync(cardId, amountCents).join();
+    }
+
+    // Sin esperar el resultado: el llamador puede encolar varias y juntar las respuestas después
+    public CompletableFuture<PostingResult> purchaseAsync(long cardId, long amountCents) {
+        requireAmount(amountCents);
+        return submit(new Operation(Kind.PURCHASE, cardId, amountCents, 0));
+    }
+
+    @Override
+    public PostingResult payment(long cardId, long amountCents) {
+        requireAmount(amountCents);
+        return submit(new Operation(Kind.PAYMENT, cardId, amountCents, 0)).join();
+    }
+
+    @Override
+    public PostingResult transfer(long fromCardId, long toCardId, long amountCents) {
+        requireAmount(amountCents);
+        if (fromCardId == toCardId) {
+            throw new IllegalArgumentException("Cannot transfer a card's balance to itself: " + fromCardId);
+        }
+        if (shardOf(fromCardId) == shardOf(toCardId)) {
+            return submit(new Operation(Kind.TRANSFER, fromCardId, amountCents, toCardId)).join();
+        }
+        PostingResult reserved = submit(new Operation(Kind.PURCHASE, toCardId, amountCents, 0)).join();
+        if (reserved != PostingResult.APPLIED) {
+            return reserved;
+        }
+        PostingResult released = submit(new Operation(Kind.RELEASE, fromCardId, amountCents, 0)).join();
+        if (released != PostingResult.APPLIED) {
+            submit(new Operation(Kind.PAYMENT, toCardId, amountCents, 0)).join();
+        }
+        return released;
+    }
+
+    @Override
+    public long balance(long cardId) {
+        Operation operation = new Operation(Kind.BALANCE, cardId, 0, 0);
+        submit(operation).join();
+        return operation.value;
+    }
+
+    public int shardCount() {
+        return shards.length;
+    }
+
+    // Las operaciones ya encoladas se aplican antes de que terminen los hilos
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (Shard shard : shards) {
+            shard.thread.interrupt();
+        }
+        for (Shard shard : shards) {
+            try {
+                shard.thread.join(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        // Una operación que se encoló mientras terminaba el hilo no queda esperando para siempre
+        for (Shard shard : shards) {
+            Operation operation;
+            while ((operation = shard.queue.poll()) != null) {
+                operation.completeExceptionally(new IllegalStateException("Balance engine is closed"));
+            }
+        }
+    }
+
+    private CompletableFuture<PostingResult> submit(Operation operation) {
+        if (closed) {
+            throw new IllegalStateException("Balance engine is closed");
+        }
+        try {
+            // Cola llena: el productor espera (backpressure) en lugar de acumular sin límite
+            shards[shardOf(operation.cardId)].queue.put(operation);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing balance operation", e);
+        }
+        return operation;
+    }
+
+    private int shardOf(long cardId) {
+        long hash = cardId * 0x9E3779B97F4A7C15L;
+        return Math.floorMod((int) (hash ^ (hash >>> 32)), shards.length);
+    }
+
+    private enum Kind {
+        OPEN, PURCHASE, PAYMENT, RELEASE, TRANSFER, BALANCE
+    }
+
+    // La operación es su propio future: una sola asignación por pedido
+    private static final class Operation extends CompletableFuture<PostingResult> {
+        private final Kind kind;
+        private final long cardId;
+        private final long amountCents;
+        private final long otherCardId;
+        // Resultado de BALANCE; visible para quien espera porque se escribe antes de complete
+        private long value;
+
+        private Operation(Kind kind, long cardId, long amountCents, long otherCardId) {
+            this.kind = kind;
+            this.cardId = cardId;
+            this.amountCents = amountCents;
+            this.otherCardId = otherCardId;
+        }
+    }
+
+    private final class Shard implements Runnable {
+        private final ArrayBlockingQueue<Operation> queue;
+        private final BalanceIndex balances = new BalanceIndex(1024);
+        private final BalanceIndex limits = new BalanceIndex(1024);
+        private final Thread thread;
+
+        private Shard(int index, int queueCapacity) {
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+            this.thread = new Thread(this, "balance-shard-" + index);
+            this.thread.setDaemon(true);
+            this.thread.start();
+        }
+
+        @Override
+        public void run() {
+            List<Operation> batch = new ArrayList<>(BATCH);
+            while (!closed) {
+                Operation first;
+                try {
+                    first = queue.take();
+                } catch (InterruptedException e) {
+                    break;
+                }
+                batch.add(first);
+                queue.drainTo(batch, BATCH - 1);
+                applyAll(batch);
+            }
+            // Lo que quedó encolado al cerrar todavía se aplica
+            while (queue.drainTo(batch, BATCH) > 0) {
+                applyAll(batch);
+            }
+        }
+
+        private void applyAll(List<Operation> batch) {
+            for (int i = 0; i < batch.size(); i++) {
+                Operation operation = batch.get(i);
+                try {
+                    operation.complete(apply(operation));
+                } catch (RuntimeException e) {
+                    operation.completeExceptionally(e);
+                }
+            }
+            batch.clear();
+        }
+
+        private PostingResult apply(Operation operation) {
+            long cardId = operation.cardId;
+            long amount = operation.amountCents;
+            if (operation.kind == Kind.OPEN) {
+                limits.put(cardId, amount);
+                return PostingResult.APPLIED;
+            }
+            if (operation.kind == Kind.BALANCE) {
+                operation.value = known(cardId) ? balances.get(cardId) : 0;
+                return PostingResult.APPLIED;
+            }
+            if (!known(cardId)) {
+                return PostingResult.UNKNOWN_CARD;
+            }
+            switch (operation.kind) {
+                case PURCHASE:
+                    if (overLimit(balances.get(cardId), amount, limits.get(cardId))) {
+                        return PostingResult.OVER_LIMIT;
+                    }
+                    balances.add(cardId, amount);
+                    return PostingResult.APPLIED;
+                case PAYMENT:
+                    balances.add(cardId, -amount);
+                    return PostingResult.APPLIED;
+                case RELEASE:
+                    if (balances.get(cardId) < amount) {
+                        return PostingResult.INSUFFICIENT_BALANCE;
+                    }
+                    balances.add(cardId, -amount);
+                    return PostingResult.APPLIED;
+                case TRANSFER:
+                    long target = operation.otherCardId;
+                    if (!known(target)) {
+                        return PostingResult.UNKNOWN_CARD;
+                    }
+                    if (overLimit(balances.get(target), amount, limits.get(target))) {
+                        return PostingResult.OVER_LIMIT;
+                    }
+                    if (balances.get(cardId) < amount) {
+                        return PostingResult.INSUFFICIENT_BALANCE;
+                    }
+                    balances.add(target, amount);
+                    balances.add(cardId, -amount);
+                    return PostingResult.APPLIED;
+                default:
+                    throw new IllegalStateException("Unexpected operation " + operation.kind);
+            }
+        }
+
+        // amount es positivo: si la suma desborda, la deuda pasaría el límite de todos modos
+        private static boolean overLimit(long balance, long amount, long limit) {
+            long next = balance + amount;
+            return next > limit || next < balance;
+        }
+
+        // El índice usa 0 como clave vacía: ids no positivos nunca son tarjetas
+        private boolean known(long cardId) {
+            return cardId > 0 && limits.contains(cardId);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.inferno.card_service.ingest;
+
+import software.amazon.awssdk.services.sqs.model.Message;
+
+import java.util.List;
+
+// Resultado de una micro-tanda: qué se aplicó y confirmó, y qué mensajes fallaron y por qué
+// (el equivalente a batchItemFailures de una respuesta parcial de SQS)
+public final class BatchReport {
+
+    private final int received;
+    private final List<Message> applied;
+    private final List<Message> duplicates;
+    private final List<Failure> failures;
+    private final long committedSequence;
+
+    BatchReport(int received, List<Message> applied, List<Message> duplicates, List<Failure> failures,
+                long committedSequence) {
+        this.received = received;
+        this.applied = applied;
+        this.duplicates = duplicates;
+        this.failures = failures;
+        this.committedSequence = committedSequence;
+    }
+
+    public int getReceived() {
+        return received;
+    }
+
+    public int getAppliedCount() {
+        return applied.size();
+    }
+
+    // Confirmados en el ledger: son los únicos que se borran de la cola
+    public List<Message> getApplied() {
+        return applied;
+    }
+
+    // Reentregas de una reference ya aplicada (o en otra tanda en curso): se borran sin aplicarlas
+    public List<Message> getDuplicates() {
+        return duplicates;
+    }
+
+    public List<Failure> getFailures() {
+        return failures;
+    }
+
+    // Última secuencia durable de la tanda, 0 si no se aplicó nada
+    public long getCommittedSequence() {
+        return committedSequence;
+    }
+
+    public static final class Failure {
+        private final Message message;
+        private final String reason;
+        private final boolean retryable;
+
+        Failure(Message message, String reason, boolean retryable) {
+            this.message = message;
+            this.reason = reason;
+            this.retryable = retryable;
+        }
+
+        public String getMessageId() {
+            return message.messageId();
+        }
+
+        public Message getMessage() {
+            return message;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        // false: el mensaje no se puede decodificar y reintentar no lo arregla
+        public boolean isRetryable() {
+            return retryable;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.inferno.card_service.ingest;
+
+// Configuración del consumidor de movimientos, leída de variables de entorno con valores por defecto
+public final class IngestionConfig {
+
+    private final String queueUrl;
+    private final int workers;
+    private final int maxBatchMessages;
+    private final int receiveWaitSeconds;
+    private final long maxLedgerLag;
+    private final int dedupWindow;
+
+    private IngestionConfig(Builder builder) {
+        this.queueUrl = builder.queueUrl;
+        this.workers = builder.workers;
+        this.maxBatchMessages = builder.maxBatchMessages;
+        this.receiveWaitSeconds = builder.receiveWaitSeconds;
+        this.maxLedgerLag = builder.maxLedgerLag;
+        this.dedupWindow = builder.dedupWindow;
+    }
+
+    public static IngestionConfig fromEnvironment() {
+        return builder()
+                .queueUrl(env("CARD_INGEST_QUEUE_URL", null))
+                .workers(Integer.parseInt(env("CARD_INGEST_WORKERS", "2")))
+                .maxBatchMessages(Integer.parseInt(env("CARD_INGEST_BATCH", "100")))
+                .receiveWaitSeconds(Integer.parseInt(env("CARD_INGEST_WAIT_SECONDS", "20")))
+                .maxLedgerLag(Long.parseLong(env("CARD_INGEST_MAX_LAG", "10000")))
+                .dedupWindow(Integer.parseInt(env("CARD_INGEST_DEDUP_WINDOW", "100000")))
+                .build();
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public String getQueueUrl() {
+        return queueUrl;
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    public int getMaxBatchMessages() {
+        return maxBatchMessages;
+    }
+
+    public int getReceiveWaitSeconds() {
+        return receiveWaitSeconds;
+    }
+
+    public long getMaxLedgerLag() {
+        return maxLedgerLag;
+    }
+
+    public int getDedupWindow() {
+        return dedupWindow;
+    }
+
+    public static final class Builder {
+        private String queueUrl;
+        private int workers = 2;
+        // Mensajes por micro-tanda (un commit cada una); se juntan con varias recepciones de hasta 10
+        private int maxBatchMessages = 100;
+        // Long polling de la primera recepción de cada tanda (máximo de SQS: 20)
+        private int receiveWaitSeconds = 20;
+        // Movimientos agregados y todavía no durables a partir de los cuales se deja de recibir
+        private long maxLedgerLag = 10_000;
+        // References recordadas para descartar reentregas (ver ReferenceWindow)
+        private int dedupWindow = 100_000;
+
+        private Builder() {
+        }
+
+        public Builder queueUrl(String queueUrl) {
+            this.queueUrl = queueUrl;
+            return this;
+        }
+
+        public Builder workers(int workers) {
+            this.workers = workers;
+            return this;
+        }
+
+        public Builder maxBatchMessages(int maxBatchMessages) {
+            this.maxBatchMessages = maxBatchMessages;
+            return this;
+        }
+
+        public Builder receiveWaitSeconds(int receiveWaitSeconds) {
+            this.receiveWaitSeconds = receiveWaitSeconds;
+            return this;
+        }
+
+        public Builder maxLedgerLag(long maxLedgerLag) {
+            this.maxLedgerLag = maxLedgerLag;
+            return this;
+        }
+
+        public Builder dedupWindow(int dedupWindow) {
+            this.dedupWindow = dedupWindow;
+            return this;
+        }
+
+        public IngestionConfig build() {
+            if (queueUrl == null || queueUrl.isBlank()) {
+                throw new IllegalStateException("queueUrl is required");
+            }
+            if (workers <= 0 || maxBatchMessages <= 0 || dedupWindow <= 0) {
+                throw new IllegalStateException("workers, maxBatchMessages and dedupWindow must be positive");
+            }
+            if (receiveWaitSeconds < 0 || receiveWaitSeconds > 20) {
+                throw new IllegalStateException("receiveWaitSeconds must be between 0 and 20");
+            }
+            return new IngestionConfig(this);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.inferno.card_service.ingest;
+
+import com.inferno.card_service.ledger.JournalReader;
+import com.inferno.card_service.ledger.Ledger;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+// References (id externo) de los movimientos ya aplicados, para descartar las reentregas de SQS.
+// Dos generaciones de conjuntos de long con direccionamiento abierto: cuando la actual se llena pasa
+// a ser la anterior y la más vieja se descarta, así que siempre se recuerdan al menos las últimas
+// capacity references, sin boxing ni borrados. Las de tandas en curso quedan reservadas aparte
+// hasta que el commit las confirma o la tanda falla y se liberan. Al arrancar se siembra con la
+// cola del journal, así que una caída entre el commit y el borrado tampoco duplica.
+// Thread-safe (los workers la comparten bajo un lock corto). La reference 0 no se deduplica.
+final class ReferenceWindow {
+
+    private final int capacity;
+    private final Set<Long> pending = new HashSet<>();
+    private LongSet current;
+    private LongSet previous;
+
+    ReferenceWindow(int capacity) {
+        this.capacity = capacity;
+        this.current = new LongSet(capacity);
+        this.previous = new LongSet(capacity);
+    }
+
+    // Las últimas capacity references agregadas al ledger
+    static ReferenceWindow recent(Ledger ledger, int capacity) throws IOException {
+        ReferenceWindow window = new ReferenceWindow(capacity);
+        long last = ledger.lastSequence();
+        try (JournalReader reader = JournalReader.open(ledger.config().getDirectory(), last)) {
+            reader.scan(Math.max(1, last - capacity + 1), cardId -> true,
+                    (sequence, cardId, type, amountCents, timestampMillis, reference) -> window.add(reference));
+        }
+        return window;
+    }
+
+    // false si ya se aplicó o está en una tanda en curso; si no, queda reservada
+    synchronized boolean claim(long reference) {
+        if (reference == 0) {
+            return true;
+        }
+        if (current.contains(reference) || previous.contains(reference) || pending.contains(reference)) {
+            return false;
+        }
+        pending.add(reference);
+        return true;
+    }
+
+    // Tanda confirmada en el ledger
+    synchronized void confirm(long[] references, int count) {
+        for (int i = 0; i < count; i++) {
+            pending.remove(references[i]);
+            add(references[i]);
+        }
+    }
+
+    // Tanda que no se pudo confirmar: sus mensajes vuelven a la cola y deben poder aplicarse
+    synchronized void release(long[] references, int count) {
+        for (int i = 0; i < count; i++) {
+            pending.remove(references[i]);
+        }
+    }
+
+    private void add(long reference) {
+        if (reference == 0 || current.contains(reference)) {
+            return;
+        }
+        if (current.size() == capacity) {
+            LongSet oldest = previous;
+            previous = current;
+            oldest.clear();
+            current = oldest;
+        }
+        current.add(reference);
+    }
+
+    // Conjunto de tamaño fijo: nunca guarda más de capacity elementos, así que no crece. 0 marca celda libre
+    private static final class LongSet {
+        private final long[] keys;
+        private final int mask;
+        private int size;
+
+        private LongSet(int capacity) {
+            int slots = Integer.highestOneBit(Math.max(16, (int) (capacity / 0.6f)) - 1) << 1;
+            this.keys = new long[slots];
+            this.mask = slots - 1;
+        }
+
+        private boolean contains(long key) {
+            int slot = slot(key);
+            while (true) {
+                long stored = keys[slot];
+                if (stored == key) {
+                    return true;
+                }
+                if (stored == 0) {
+                    return false;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        private void add(long key) {
+            int slot = slot(key);
+            while (keys[slot] != 0) {
+                if (keys[slot] == key) {
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            size++;
+        }
+
+        private int size() {
+            return size;
+        }
+
+        private void clear() {
+            Arrays.fill(keys, 0);
+            size = 0;
+        }
+
+        private int slot(long key) {
+            long hash = key * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32)) & mask;
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package com.inferno.card_service.ingest;
+
+import com.inferno.card_service.ledger.EntryType;
+
+// Decodifica el cuerpo de un mensaje de movimiento directamente sobre el String recibido, sin
+// copias ni objetos intermedios (ni árbol JSON, ni substring, ni boxing):
+//   {"cardId":123,"type":"PURCHASE","amountCents":1999,"reference":42}
+// Los campos pueden venir en cualquier orden y los desconocidos se saltan; reference es opcional.
+// Los números deben ser enteros (centavos). Una instancia por hilo: guarda el último resultado.
+public final class TransactionEventParser {
+
+    public static final String MALFORMED = "malformed JSON";
+    public static final String MISSING_FIELD = "cardId, type and amountCents are required";
+    public static final String INVALID_CARD = "cardId must be a positive integer";
+    public static final String INVALID_TYPE = "type must be PURCHASE or PAYMENT";
+    public static final String INVALID_AMOUNT = "amountCents must be a positive integer";
+    public static final String INVALID_REFERENCE = "reference must be an integer";
+
+    private static final int CARD = 1;
+    private static final int TYPE = 2;
+    private static final int AMOUNT = 4;
+    private static final int REFERENCE = 8;
+    private static final int UNKNOWN = 0;
+    private static final int REQUIRED = CARD | TYPE | AMOUNT;
+
+    private String body;
+    private int position;
+    // Valor del último número leído; parseLong devuelve solo si fue válido
+    private long number;
+
+    private long cardId;
+    private EntryType type;
+    private long amountCents;
+    private long reference;
+
+    // null si el mensaje es válido; si no, el motivo (una de las constantes)
+    public String parse(String body) {
+        if (body == null) {
+            return MALFORMED;
+        }
+        this.body = body;
+        this.position = 0;
+        this.reference = 0;
+        this.type = null;
+        int seen = 0;
+
+        skipWhitespace();
+        if (!consume('{')) {
+            return MALFORMED;
+        }
+        skipWhitespace();
+        if (!consume('}')) {
+            while (true) {
+                skipWhitespace();
+                int field = readFieldName();
+                if (field < 0) {
+                    return MALFORMED;
+                }
+                skipWhitespace();
+                if (!consume(':')) {
+                    return MALFORMED;
+                }
+                skipWhitespace();
+                String error = readValue(field);
+                if (error != null) {
+                    return error;
+                }
+                seen |= field;
+                skipWhitespace();
+                if (consume(',')) {
+                    continue;
+                }
+                if (consume('}')) {
+                    break;
+                }
+                return MALFORMED;
+            }
+        }
+        skipWhitespace();
+        if (position != body.length()) {
+            return MALFORMED;
+        }
+        if ((seen & REQUIRED) != REQUIRED) {
+            return MISSING_FIELD;
+        }
+        return null;
+    }
+
+    public long cardId() {
+        return cardId;
+    }
+
+    public EntryType type() {
+        return type;
+    }
+
+    public long amountCents() {
+        return amountCents;
+    }
+
+    public long reference() {
+        return reference;
+    }
+
+    // El campo reconocido, UNKNOWN, o -1 si no hay un nombre bien formado
+    private int readFieldName() {
+        if (!consume('"')) {
+            return -1;
+        }
+        int start = position;
+        int end = skipStringBody();
+        if (end < 0) {
+            return -1;
+        }
+        int length = end - start;
+        if (matches(start, length, "cardId")) {
+            return CARD;
+        }
+        if (matches(start, length, "type")) {
+            return TYPE;
+        }
+        if (matches(start, length, "amountCents")) {
+            return AMOUNT;
+        }
+        if (matches(start, length, "reference")) {
+            return REFERENCE;
+        }
+        return UNKNOWN;
+    }
+
+    private String readValue(int field) {
+        switch (field) {
+            case CARD:
+                if (!parseLong() || number <= 0) {
+                    return INVALID_CARD;
+                }
+                cardId = number;
+                return null;
+            case AMOUNT:
+                if (!parseLong() || number <= 0) {
+                    return INVALID_AMOUNT;
+                }
+                amountCents = number;
+                return null;
+            case REFERENCE:
+                if (!parseLong()) {
+                    return INVALID_REFERENCE;
+                }
+                reference = number;
+                return null;
+            case TYPE:
+                if (!consume('"')) {
+                    return INVALID_TYPE;
+                }
+                int start = position;
+                int end = skipStringBody();
+                if (end < 0) {
+                    return MALFORMED;
+                }
+                if (matches(start, end - start, "PURCHASE")) {
+                    type = EntryType.PURCHASE;
+                } else if (matches(start, end - start, "PAYMENT")) {
+                    type = EntryType.PAYMENT;
+                } else {
+                    return INVALID_TYPE;
+                }
+                return null;
+            default:
+                return skipValue(0) ? null : MALFORMED;
+        }
+    }
+
+    // Entero decimal con signo opcional; rechaza fracciones, exponentes y desbordes
+    private boolean parseLong() {
+        int length = body.length();
+        boolean negative = position < length && body.charAt(position) == '-';
+        if (negative) {
+            position++;
+        }
+        int start = position;
+        long value = 0;
+        while (position < length) {
+            char c = body.charAt(position);
+            if (c < '0' || c > '9') {
+                break;
+            }
+            int digit = c - '0';
+            if (value > (Long.MAX_VALUE - digit) / 10) {
+                return false;
+            }
+            value = value * 10 + digit;
+            position++;
+        }
+        if (position == start) {
+            return false;
+        }
+        if (position < length) {
+            char next = body.charAt(position);
+            if (next == '.' || next == 'e' || next == 'E') {
+                return false;
+            }
+        }
+        number = negative ? -value : value;
+        return true;
+    }
+
+    // Salta cualquier valor JSON (objetos y arreglos anidados incluidos)
+    private boolean skipValue(int depth) {
+        if (depth > 32 || position >= body.length()) {
+            return false;
+        }
+        char c = body.charAt(position);
+        if (c == '"') {
+            position++;
+            return skipStringBody() >= 0;
+        }
+        if (c == '{' || c == '[') {
+            char close = c == '{' ? '}' : ']';
+            position++;
+            skipWhitespace();
+            if (consume(close)) {
+                return true;
+            }
+            while (true) {
+                skipWhitespace();
+                if (c == '{') {
+                    if (readFieldName() < 0) {
+                        return false;
+                    }
+                    skipWhitespace();
+                    if (!consume(':')) {
+                        return false;
+                    }
+                    skipWhitespace();
+                }
+                if (!skipValue(depth + 1)) {
+                    return false;
+                }
+                skipWhitespace();
+                if (consume(',')) {
+                    continue;
+                }
+                return consume(close);
+            }
+        }
+        // Número o literal (true, false, null): hasta el próximo delimitador
+        int start = position;
+        while (position < body.length()) {
+            char next = body.charAt(position);
+            if (next == ',' || next == '}' || next == ']' || isWhitespace(next)) {
+                break;
+            }
+            position++;
+        }
+        return position > start;
+    }
+
+    // Con position justo después de la comilla de apertura; deja position después de la de cierre
+    // y devuelve el índice de esta, o -1 si el string no termina
+    private int skipStringBody() {
+        int length = body.length();
+        while (position < length) {
+            char c = body.charAt(position++);
+            if (c == '\\') {
+                position++;
+            } else if (c == '"') {
+                return position - 1;
+            }
+        }
+        return -1;
+    }
+
+    private boolean matches(int start, int length, String expected) {
+        return length == expected.length() && body.regionMatches(start, expected, 0, length);
+    }
+
+    private boolean consume(char expected) {
+        if (position < body.length() && body.charAt(position) == expected) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void skipWhitespace() {
+        while (position < body.length() && isWhitespace(body.charAt(position))) {
+            position++;
+        }
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\n' || c == '\r' || c == '\t';
+    }
+}
@@ -0,0 +1,374 @@
+package com.inferno.card_service.ingest;
+
+import com.inferno.card_service.ledger.Ledger;
+import com.inferno.card_service.ledger.LedgerBatch;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.SqsClientBuilder;
+import software.amazon.awssdk.services.sqs.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sqs.model.ChangeMessageVisibilityBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageBatchResponse;
+import software.amazon.awssdk.services.sqs.model.Message;
+import software.amazon.awssdk.services.sqs.model.ReceiveMessageResponse;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongConsumer;
+
+// Ingesta de movimientos desde SQS al ledger. Cada worker arma una micro-tanda con varias
+// recepciones de hasta 10 mensajes, la decodifica sin copias, la agrupa por tarjeta, la agrega al
+// ledger bajo un solo lock y hace un único commit; recién entonces borra los mensajes de la cola.
+// Con varios workers mientras uno espera el fsync otro ya recibe y decodifica la tanda siguiente,
+// y el group commit del journal junta los commits concurrentes en un mismo force.
+// Backpressure: si el ledger acumula más de maxLedgerLag movimientos sin confirmar, no se recibe
+// nada hasta que el disco se ponga al día.
+// Entrega al menos una vez: si se cae entre el commit y el borrado, el mensaje vuelve a llegar.
+// Las reentregas se descartan por reference (ReferenceWindow): se recuerdan las últimas
+// dedupWindow references aplicadas, sembradas desde el journal al arrancar. Un mensaje sin
+// reference (0), o reentregado después de que su reference salió de la ventana, se aplica de nuevo.
+// Si falla el append nada quedó en el ledger y la tanda vuelve a la cola. Si falla el commit la
+// tanda ya está aplicada en memoria: sus references quedan confirmadas (las reentregas se
+// descartan) y la ingesta se detiene, porque el estado del journal ya no es confiable.
+public class TransactionIngestionConsumer implements AutoCloseable {
+
+    private static final int SQS_MAX_BATCH = 10;
+
+    private final SqsClient sqs;
+    private final Ledger ledger;
+    private final IngestionConfig config;
+    private final ReferenceWindow references;
+    private final LongConsumer committer;
+    private final AtomicLong applied = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong throttled = new AtomicLong();
+    private final AtomicLong ackFailures = new AtomicLong();
+
+    private volatile boolean running;
+    private ExecutorService workers;
+    // Worker de pollOnce, creado al primer uso
+    private Worker pollWorker;
+
+    public TransactionIngestionConsumer(SqsClient sqs, Ledger ledger, IngestionConfig config) {
+        this(sqs, ledger, config, ledger::commit);
+    }
+
+    // committer reemplaza a ledger.commit en pruebas (fsync que falla)
+    TransactionIngestionConsumer(SqsClient sqs, Ledger ledger, IngestionConfig config, LongConsumer committer) {
+        this.sqs = sqs;
+        this.ledger = ledger;
+        this.config = config;
+        this.committer = committer;
+        try {
+            this.references = ReferenceWindow.recent(ledger, config.getDedupWindow());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read recent references from the journal", e);
+        }
+    }
+
+    public static TransactionIngestionConsumer fromEnvironment(Ledger ledger) {
+        SqsClientBuilder builder = SqsClient.builder()
+                .region(Region.of(env("AWS_REGION", "us-east-2")))
+                .httpClient(ApacheHttpClient.builder().build());
+        String endpoint = System.getenv("CARD_INGEST_SQS_ENDPOINT");
+        if (endpoint != null && !endpoint.isBlank()) {
+            builder.endpointOverride(URI.create(endpoint));
+        }
+        return new TransactionIngestionConsumer(builder.build(), ledger, IngestionConfig.fromEnvironment());
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        AtomicInteger index = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(config.getWorkers(), runnable -> {
+            Thread thread = new Thread(runnable, "card-ingest-" + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < config.getWorkers(); i++) {
+            workers.execute(this::runWorker);
+        }
+    }
+
+    // Una micro-tanda completa (recibir, aplicar, confirmar y borrar) en el hilo actual
+    public BatchReport pollOnce() {
+        Worker worker;
+        synchronized (this) {
+            if (pollWorker == null) {
+                pollWorker = new Worker();
+            }
+            worker = pollWorker;
+        }
+        synchronized (worker) {
+            return worker.poll();
+        }
+    }
+
+    public long getAppliedCount() {
+        return applied.get();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    public long getDuplicateCount() {
+        return duplicates.get();
+    }
+
+    public long getRetriedCount() {
+        return retried.get();
+    }
+
+    public long getBatchCount() {
+        return batches.get();
+    }
+
+    public long getThrottledCount() {
+        return throttled.get();
+    }
+
+    public long getAckFailureCount() {
+        return ackFailures.get();
+    }
+
+    // Espera a que terminen las tandas en curso; lo recibido y no confirmado vuelve a la cola
+    // cuando vence su visibility timeout
+    @Override
+    public synchronized void close() {
+        running = false;
+        if (workers == null) {
+            return;
+        }
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(config.getReceiveWaitSeconds() + 30L, TimeUnit.SECONDS)) {
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runWorker() {
+        Worker worker = new Worker();
+        long backoffNanos = 0;
+        while (running) {
+            try {
+                worker.poll();
+                backoffNanos = 0;
+            } catch (LedgerCommitFailure e) {
+                System.err.println("Card ingestion stopped: " + e.getMessage());
+                return;
+            } catch (RuntimeException e) {
+                // Cola o ledger no disponibles (SdkException, journal cerrado en el append, ...):
+                // se reintenta con espera creciente
+                backoffNanos = Math.min(Math.max(backoffNanos * 2, TimeUnit.MILLISECONDS.toNanos(50)),
+                        TimeUnit.SECONDS.toNanos(5));
+                System.err.println("Card ingestion batch failed: " + e.getMessage());
+                LockSupport.parkNanos(backoffNanos);
+            }
+        }
+    }
+
+    // Estado reutilizable de un hilo: parser y tanda del ledger no son thread-safe
+    private final class Worker {
+        private final TransactionEventParser parser = new TransactionEventParser();
+        private final LedgerBatch batch = new LedgerBatch(config.getMaxBatchMessages());
+        // References reservadas por la tanda en curso
+        private long[] claimed = new long[config.getMaxBatchMessages()];
+        private int claimedCount;
+
+        private BatchReport poll() {
+            awaitLedgerCapacity();
+            List<Message> messages = receive();
+            if (messages.isEmpty()) {
+                return new BatchReport(0, List.of(), List.of(), List.of(), 0);
+            }
+            BatchReport report = process(messages);
+            acknowledge(report.getApplied());
+            acknowledge(report.getDuplicates());
+            releaseRetryable(report.getFailures());
+            return report;
+        }
+
+        // El lag es lo agregado al journal que todavía no es durable: si crece, el disco no da
+        // abasto y seguir recibiendo solo alarga la cola en memoria
+        private void awaitLedgerCapacity() {
+            long last = ledger.lastSequence();
+            if (last - ledger.durableSequence() > config.getMaxLedgerLag()) {
+                throttled.incrementAndGet();
+                commit(last);
+            }
+        }
+
+        // La primera recepción hace long polling; las siguientes solo completan la tanda con lo
+        // que ya está disponible
+        private List<Message> receive() {
+            List<Message> messages = new ArrayList<>(config.getMaxBatchMessages());
+            int waitSeconds = config.getReceiveWaitSeconds();
+            while (messages.size() < config.getMaxBatchMessages()) {
+                int wanted = Math.min(SQS_MAX_BATCH, config.getMaxBatchMessages() - messages.size());
+                int wait = waitSeconds;
+                ReceiveMessageResponse response = sqs.receiveMessage(request -> request
+                        .queueUrl(config.getQueueUrl())
+                        .maxNumberOfMessages(wanted)
+                        .waitTimeSeconds(wait));
+                messages.addAll(response.messages());
+                if (response.messages().size() < wanted) {
+                    break;
+                }
+                waitSeconds = 0;
+            }
+            return messages;
+        }
+
+        private BatchReport process(List<Message> messages) {
+            List<Message> accepted = new ArrayList<>(messages.size());
+            List<Message> repeated = new ArrayList<>();
+            List<BatchReport.Failure> failures = new ArrayList<>();
+            batch.clear();
+            claimedCount = 0;
+            for (Message message : messages) {
+                String error = parser.parse(message.body());
+                if (error != null) {
+                    failures.add(new BatchReport.Failure(message, error, false));
+                    continue;
+                }
+                long reference = parser.reference();
+                if (!references.claim(reference)) {
+                    repeated.add(message);
+                    continue;
+                }
+                if (reference != 0) {
+                    if (claimedCount == claimed.length) {
+                        claimed = Arrays.copyOf(claimed, claimedCount << 1);
+                    }
+                    claimed[claimedCount++] = reference;
+                }
+                batch.add(parser.cardId(), parser.type(), parser.amountCents(), reference);
+                accepted.add(message);
+            }
+            rejected.addAndGet(failures.size());
+            duplicates.addAndGet(repeated.size());
+            if (accepted.isEmpty()) {
+                return new BatchReport(messages.size(), accepted, repeated, failures, 0);
+            }
+
+            batch.groupByCard();
+            long sequence;
+            try {
+                sequence = ledger.append(batch);
+            } catch (RuntimeException e) {
+                // Nada de la tanda llegó al ledger: vuelve entera a la cola
+                references.release(claimed, claimedCount);
+                String reason = "ledger unavailable: " + e.getMessage();
+                for (Message message : accepted) {
+                    failures.add(new BatchReport.Failure(message, reason, true));
+                }
+                retried.addAndGet(accepted.size());
+                return new BatchReport(messages.size(), List.of(), repeated, failures, 0);
+            }
+            // Desde aquí la tanda ya está aplicada: si el commit falla, sus references siguen
+            // reservadas para que las reentregas no la apliquen dos veces
+            references.confirm(claimed, claimedCount);
+            commit(sequence);
+            applied.addAndGet(accepted.size());
+            batches.incrementAndGet();
+            return new BatchReport(messages.size(), accepted, repeated, failures, sequence);
+        }
+
+        // Un commit que falla deja el ledger con movimientos aplicados de durabilidad incierta:
+        // se detienen todos los workers en lugar de seguir agregando sobre ese estado
+        private void commit(long sequence) {
+            try {
+                committer.accept(sequence);
+            } catch (RuntimeException e) {
+                running = false;
+                throw new LedgerCommitFailure(sequence, e);
+            }
+        }
+
+        private void acknowledge(List<Message> messages) {
+            for (int from = 0; from < messages.size(); from += SQS_MAX_BATCH) {
+                List<DeleteMessageBatchRequestEntry> entries = new ArrayList<>(SQS_MAX_BATCH);
+                int to = Math.min(messages.size(), from + SQS_MAX_BATCH);
+                for (int i = from; i < to; i++) {
+                    entries.add(DeleteMessageBatchRequestEntry.builder()
+                            .id(String.valueOf(i))
+                            .receiptHandle(messages.get(i).receiptHandle())
+                            .build());
+                }
+                DeleteMessageBatchResponse response = sqs.deleteMessageBatch(request -> request
+                        .queueUrl(config.getQueueUrl())
+                        .entries(entries));
+                // Ya está en el ledger: si no se pudo borrar llegará de nuevo (ver reference)
+                for (BatchResultErrorEntry failed : response.failed()) {
+                    ackFailures.incrementAndGet();
+                    System.err.println("Could not acknowledge ingested message " + failed.id() + ": " + failed.message());
+                }
+            }
+        }
+
+        // Los reintentables vuelven visibles enseguida; los que no se pueden decodificar se dejan
+        // vencer su visibility timeout y la redrive policy los manda a la cola de muertos
+        private void releaseRetryable(List<BatchReport.Failure> failures) {
+            List<ChangeMessageVisibilityBatchRequestEntry> entries = new ArrayList<>(SQS_MAX_BATCH);
+            for (int i = 0; i < failures.size(); i++) {
+                BatchReport.Failure failure = failures.get(i);
+                if (!failure.isRetryable()) {
+                    continue;
+                }
+                entries.add(ChangeMessageVisibilityBatchRequestEntry.builder()
+                        .id(String.valueOf(i))
+                        .receiptHandle(failure.getMessage().receiptHandle())
+                        .visibilityTimeout(0)
+                        .build());
+                if (entries.size() == SQS_MAX_BATCH) {
+                    changeVisibility(entries);
+                    entries = new ArrayList<>(SQS_MAX_BATCH);
+                }
+            }
+            if (!entries.isEmpty()) {
+                changeVisibility(entries);
+            }
+        }
+
+        private void changeVisibility(List<ChangeMessageVisibilityBatchRequestEntry> entries) {
+            sqs.changeMessageVisibilityBatch(request -> request
+                    .queueUrl(config.getQueueUrl())
+                    .entries(entries));
+        }
+    }
+
+    static final class LedgerCommitFailure extends IllegalStateException {
+        private static final long serialVersionUID = 1L;
+
+        LedgerCommitFailure(long sequence, RuntimeException cause) {
+            super("ledger commit failed up to sequence " + sequence + ": " + cause.getMessage(), cause);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.inferno.card_service.ledger;
+
+// Saldo por tarjeta en dos arreglos long (direccionamiento abierto, sondeo lineal): sin boxing ni
+// un objeto por entrada, a diferencia de un HashMap<Long, Long>. El id 0 marca una celda libre,
+// por eso los ids de tarjeta son positivos. No es thread-safe: Ledger lo usa bajo su lock.
+public final class BalanceIndex {
+
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] keys;
+    private long[] values;
+    private int mask;
+    private int size;
+    private int resizeAt;
+
+    public BalanceIndex(int expectedCards) {
+        int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedCards / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    private BalanceIndex(long[] keys, long[] values, int size) {
+        this.keys = keys;
+        this.values = values;
+        this.mask = keys.length - 1;
+        this.size = size;
+        this.resizeAt = (int) (keys.length * LOAD_FACTOR);
+    }
+
+    // 0 si la tarjeta no tiene movimientos
+    public long get(long cardId) {
+        int slot = slot(cardId);
+        while (true) {
+            long key = keys[slot];
+            if (key == cardId) {
+                return values[slot];
+            }
+            if (key == 0) {
+                return 0;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    public boolean contains(long cardId) {
+        int slot = slot(cardId);
+        while (true) {
+            long key = keys[slot];
+            if (key == cardId) {
+                return true;
+            }
+            if (key == 0) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    // Devuelve el saldo resultante
+    public long add(long cardId, long delta) {
+        int slot = findOrInsert(cardId);
+        long balance = values[slot] + delta;
+        values[slot] = balance;
+        return balance;
+    }
+
+    public void put(long cardId, long balance) {
+        // El slot primero: findOrInsert puede reemplazar values al crecer
+        int slot = findOrInsert(cardId);
+        values[slot] = balance;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void forEach(Visitor visitor) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                visitor.visit(keys[i], values[i]);
+            }
+        }
+    }
+
+    // Copia para escribir un snapshot fuera del lock
+    public BalanceIndex copy() {
+        return new BalanceIndex(keys.clone(), values.clone(), size);
+    }
+
+    private int findOrInsert(long cardId) {
+        if (cardId <= 0) {
+            throw new IllegalArgumentException("cardId must be positive: " + cardId);
+        }
+        int slot = slot(cardId);
+        while (true) {
+            long key = keys[slot];
+            if (key == cardId) {
+                return slot;
+            }
+            if (key == 0) {
+                if (size >= resizeAt) {
+                    grow();
+                    return findOrInsert(cardId);
+                }
+                keys[slot] = cardId;
+                size++;
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(oldKeys.length << 1);
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key != 0) {
+                int slot = slot(key);
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    // Ids secuenciales quedarían en celdas contiguas y alargarían las cadenas: se mezclan los bits
+    private int slot(long cardId) {
+        long hash = cardId * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    @FunctionalInterface
+    public interface Visitor {
+        void visit(long cardId, long balance);
+    }
+}
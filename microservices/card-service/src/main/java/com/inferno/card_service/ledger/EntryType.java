@@ -0,0 +1,34 @@
+package com.inferno.card_service.ledger;
+
+// Tipos de movimiento. El saldo de una tarjeta es lo adeudado: una compra lo sube y un pago lo baja
+public enum EntryType {
+    PURCHASE((byte) 1, 1),
+    PAYMENT((byte) 2, -1);
+
+    private final byte code;
+    private final int sign;
+
+    EntryType(byte code, int sign) {
+        this.code = code;
+        this.sign = sign;
+    }
+
+    public byte code() {
+        return code;
+    }
+
+    public long signedAmount(long amountCents) {
+        return sign * amountCents;
+    }
+
+    // null si el código no corresponde a ningún tipo (registro dañado)
+    public static EntryType fromCode(byte code) {
+        if (code == PURCHASE.code) {
+            return PURCHASE;
+        }
+        if (code == PAYMENT.code) {
+            return PAYMENT;
+        }
+        return null;
+    }
+}
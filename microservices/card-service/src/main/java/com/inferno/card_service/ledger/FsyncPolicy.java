@@ -0,0 +1,16 @@
+package com.inferno.card_service.ledger;
+
+// Cuándo se considera durable un movimiento confirmado (Ledger.commit)
+public enum FsyncPolicy {
+    // Cada commit hace su propio force: la latencia de un fsync por operación
+    ALWAYS,
+    // Group commit: el primer commit en espera hace un force por tanda y libera a todos los que cubre
+    GROUP,
+    // Sin force: queda en la caché de páginas y el sistema operativo lo escribe cuando quiera.
+    // Sobrevive a la caída del proceso, no a la de la máquina
+    NEVER;
+
+    public static FsyncPolicy parse(String value) {
+        return valueOf(value.trim().toUpperCase());
+    }
+}
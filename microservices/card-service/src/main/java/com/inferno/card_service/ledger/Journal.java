@@ -0,0 +1,245 @@
+package com.inferno.card_service.ledger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+// Journal de solo agregado sobre segmentos mapeados en memoria. append escribe en el mapeo (sin
+// syscalls) y awaitDurable espera a que un force lo cubra, según FsyncPolicy. Un solo escritor:
+// Ledger serializa los append; awaitDurable puede llamarse desde cualquier hilo.
+// Group commit sin hilo propio: el primer commit que espera hace de líder y su force cubre todo
+// lo agregado hasta ese momento; los que llegan mientras tanto esperan al siguiente líder.
+public class Journal implements AutoCloseable {
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final FsyncPolicy policy;
+    private final long groupCommitWindowNanos;
+    private final Object commitMonitor = new Object();
+    private final AtomicLong fsyncs = new AtomicLong();
+
+    private volatile JournalSegment current;
+    private volatile long lastSequence;
+    private volatile long durableSequence;
+    private volatile boolean closed;
+    // Bajo commitMonitor: hay un líder haciendo force
+    private boolean forcing;
+
+    private Journal(Path directory, int segmentBytes, FsyncPolicy policy, Duration groupCommitWindow,
+                    JournalSegment current, long lastSequence) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.policy = policy;
+        this.groupCommitWindowNanos = groupCommitWindow.toNanos();
+        this.current = current;
+        this.lastSequence = lastSequence;
+        this.durableSequence = lastSequence;
+    }
+
+    // Abre (o crea) el journal y reproduce en el visitor los registros posteriores a
+    // replayAfter. Los segmentos que quedan por completo antes de replayAfter ni se leen:
+    // así el snapshot acota el tiempo de recuperación.
+    public static Journal open(Path directory, int segmentBytes, FsyncPolicy policy, Duration groupCommitWindow,
+                               long replayAfter, JournalVisitor visitor) throws IOException {
+        Files.createDirectories(directory);
+        List<Path> paths = segmentPaths(directory);
+
+        JournalSegment last = null;
+        long lastSequence = replayAfter;
+        for (int i = 0; i < paths.size(); i++) {
+            boolean isLast = i == paths.size() - 1;
+            if (!isLast && JournalSegment.baseSequenceOf(paths.get(i + 1)) <= replayAfter + 1) {
+                continue;
+            }
+            JournalSegment segment = JournalSegment.open(paths.get(i));
+            if (last != null && segment.baseSequence() != lastSequence + 1) {
+                segment.close();
+                last.close();
+                throw new IllegalStateException("Journal gap before " + segment.path().getFileName()
+                        + ": expected sequence " + (lastSequence + 1));
+            }
+            long segmentLast = segment.recover(replayAfter, visitor);
+            if (last != null) {
+                last.close();
+            }
+            last = segment;
+            // Un segmento vacío (se creó y no llegó a escribirse) conserva la secuencia anterior
+            lastSequence = Math.max(lastSequence, segmentLast);
+        }
+
+        if (last == null || lastSequence < replayAfter) {
+            // Sin journal, o el snapshot va por delante de lo que llegó a disco: se sigue desde el snapshot
+            if (last != null) {
+                last.close();
+            }
+            lastSequence = replayAfter;
+            last = JournalSegment.create(directory, replayAfter + 1, segmentBytes);
+            syncDirectory(directory);
+        }
+        return new Journal(directory, segmentBytes, policy, groupCommitWindow, last, lastSequence);
+    }
+
+    public long append(long cardId, EntryType type, long amountCents, long timestampMillis, long reference) {
+        checkOpen();
+        JournalSegment segment = current;
+        if (!segment.hasRoom()) {
+            segment = roll();
+        }
+        long sequence = lastSequence + 1;
+        segment.append(sequence, cardId, type, amountCents, timestampMillis, reference);
+        lastSequence = sequence;
+        return sequence;
+    }
+
+    // Bloquea hasta que sequence sea durable según la política
+    public void awaitDurable(long sequence) {
+        if (policy == FsyncPolicy.NEVER || durableSequence >= sequence) {
+            return;
+        }
+        if (policy == FsyncPolicy.ALWAYS) {
+            forceAndPublish();
+            return;
+        }
+        boolean interrupted = false;
+        try {
+            while (true) {
+                synchronized (commitMonitor) {
+                    while (durableSequence < sequence && forcing) {
+                        checkOpen();
+                        try {
+                            commitMonitor.wait();
+                        } catch (InterruptedException e) {
+                            interrupted = true;
+                        }
+                    }
+                    if (durableSequence >= sequence) {
+                        return;
+                    }
+                    checkOpen();
+                    forcing = true;
+                }
+                lead(sequence);
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // Solo se espera la ventana si hay otros commits en curso (se agregó algo después de esta
+    // secuencia): un único escritor no paga latencia extra por el group commit
+    private void lead(long sequence) {
+        try {
+            if (groupCommitWindowNanos > 0 && lastSequence > sequence) {
+                LockSupport.parkNanos(groupCommitWindowNanos);
+            }
+            forceAndPublish();
+        } finally {
+            synchronized (commitMonitor) {
+                forcing = false;
+                commitMonitor.notifyAll();
+            }
+        }
+    }
+
+    public long lastSequence() {
+        return lastSequence;
+    }
+
+    // Con NEVER no hay force que esperar: todo lo escrito cuenta como confirmado
+    public long durableSequence() {
+        return policy == FsyncPolicy.NEVER ? lastSequence : durableSequence;
+    }
+
+    public long getFsyncCount() {
+        return fsyncs.get();
+    }
+
+    public Path directory() {
+        return directory;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        // Libera a los commits en espera antes de cerrar
+        forceAndPublish();
+        closed = true;
+        synchronized (commitMonitor) {
+            commitMonitor.notifyAll();
+        }
+        current.close();
+    }
+
+    static List<Path> segmentPaths(Path directory) throws IOException {
+        List<Path> paths = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(JournalSegment::isSegment).forEach(paths::add);
+        }
+        paths.sort((a, b) -> Long.compare(JournalSegment.baseSequenceOf(a), JournalSegment.baseSequenceOf(b)));
+        return paths;
+    }
+
+    // Sin esto, un archivo recién creado o renombrado puede no sobrevivir a una caída de la máquina
+    static void syncDirectory(Path directory) throws IOException {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    // El segmento lleno se lleva a disco antes de publicar el nuevo: el hilo de group commit solo
+    // necesita hacer force del segmento actual
+    private JournalSegment roll() {
+        try {
+            JournalSegment full = current;
+            long covered = lastSequence;
+            if (policy != FsyncPolicy.NEVER && full.force()) {
+                fsyncs.incrementAndGet();
+            }
+            JournalSegment next = JournalSegment.create(directory, covered + 1, segmentBytes);
+            syncDirectory(directory);
+            current = next;
+            full.close();
+            publishDurable(covered);
+            return next;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not roll journal segment", e);
+        }
+    }
+
+    private void forceAndPublish() {
+        // La secuencia se lee antes que el segmento: si ya hubo roll, lo anterior quedó forzado
+        long target = lastSequence;
+        if (current.force()) {
+            fsyncs.incrementAndGet();
+        }
+        publishDurable(target);
+    }
+
+    private void publishDurable(long sequence) {
+        synchronized (commitMonitor) {
+            if (sequence > durableSequence) {
+                durableSequence = sequence;
+            }
+            commitMonitor.notifyAll();
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Journal is closed");
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.inferno.card_service.ledger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongPredicate;
+import java.util.zip.CRC32C;
+
+// Lectura del journal sin pasar por el Ledger, para procesos batch (estados de cuenta) que
+// conviven con el escritor: los segmentos se mapean en solo lectura y se lee hasta upToSequence,
+// que debe ser una secuencia ya durable. Los registros se leen del mapeo sin copiarlos a objetos.
+// No es thread-safe: un lector por hilo (abrirlo solo mapea los segmentos).
+public final class JournalReader implements AutoCloseable {
+
+    private static final int BODY_SIZE = JournalSegment.RECORD_SIZE - 4;
+
+    private final long upToSequence;
+    private final long[] baseSequences;
+    private final MappedByteBuffer[] buffers;
+    private final List<FileChannel> channels;
+    private final byte[] scratch = new byte[BODY_SIZE];
+    private final ByteBuffer body = ByteBuffer.wrap(scratch).order(ByteOrder.LITTLE_ENDIAN);
+    private final CRC32C crc = new CRC32C();
+
+    private JournalReader(long upToSequence, long[] baseSequences, MappedByteBuffer[] buffers,
+                          List<FileChannel> channels) {
+        this.upToSequence = upToSequence;
+        this.baseSequences = baseSequences;
+        this.buffers = buffers;
+        this.channels = channels;
+    }
+
+    public static JournalReader open(Path directory, long upToSequence) throws IOException {
+        List<Path> paths = new ArrayList<>();
+        for (Path path : Journal.segmentPaths(directory)) {
+            if (JournalSegment.baseSequenceOf(path) <= upToSequence) {
+                paths.add(path);
+            }
+        }
+        long[] bases = new long[paths.size()];
+        MappedByteBuffer[] buffers = new MappedByteBuffer[paths.size()];
+        List<FileChannel> channels = new ArrayList<>();
+        try {
+            for (int i = 0; i < paths.size(); i++) {
+                FileChannel channel = FileChannel.open(paths.get(i), StandardOpenOption.READ);
+                channels.add(channel);
+                bases[i] = JournalSegment.baseSequenceOf(paths.get(i));
+                buffers[i] = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                buffers[i].order(ByteOrder.LITTLE_ENDIAN);
+            }
+        } catch (IOException e) {
+            for (FileChannel channel : channels) {
+                channel.close();
+            }
+            throw e;
+        }
+        return new JournalReader(upToSequence, bases, buffers, channels);
+    }
+
+    public long upToSequence() {
+        return upToSequence;
+    }
+
+    // Recorre en orden de secuencia los registros cuya tarjeta acepta el filtro. El filtro se
+    // evalúa antes de validar el registro: lo que no interesa cuesta una lectura de 8 bytes
+    public void scan(LongPredicate cardFilter, JournalVisitor visitor) {
+        scan(1, cardFilter, visitor);
+    }
+
+    // Igual que scan, desde fromSequence: los segmentos que terminan antes ni se recorren
+    public void scan(long fromSequence, LongPredicate cardFilter, JournalVisitor visitor) {
+        for (int segment = 0; segment < buffers.length; segment++) {
+            MappedByteBuffer buffer = buffers[segment];
+            long base = baseSequences[segment];
+            long last = Math.min(upToSequence, segmentEnd(segment));
+            long first = Math.max(base, fromSequence);
+            int position = (int) ((first - base) * JournalSegment.RECORD_SIZE);
+            for (long sequence = first; sequence <= last; sequence++, position += JournalSegment.RECORD_SIZE) {
+                if (position + JournalSegment.RECORD_SIZE > buffer.capacity()) {
+                    throw new IllegalStateException("Journal segment ends before sequence " + sequence);
+                }
+                if (cardFilter.test(buffer.getLong(position + 16))) {
+                    deliver(buffer, position, sequence, visitor);
+                }
+            }
+        }
+    }
+
+    // Lectura directa de un registro: búsqueda binaria del segmento y aritmética de offsets
+    public void read(long sequence, JournalVisitor visitor) {
+        if (sequence < 1 || sequence > upToSequence) {
+            throw new IllegalArgumentException("Sequence out of range: " + sequence);
+        }
+        int segment = segmentOf(sequence);
+        long offset = (sequence - baseSequences[segment]) * JournalSegment.RECORD_SIZE;
+        if (segment < 0 || offset + JournalSegment.RECORD_SIZE > buffers[segment].capacity()) {
+            throw new IllegalStateException("Journal has no record for sequence " + sequence);
+        }
+        deliver(buffers[segment], (int) offset, sequence, visitor);
+    }
+
+    @Override
+    public void close() throws IOException {
+        // Los mapeos se liberan con el GC; cerrar los canales no los invalida
+        for (FileChannel channel : channels) {
+            channel.close();
+        }
+    }
+
+    private void deliver(MappedByteBuffer buffer, int position, long sequence, JournalVisitor visitor) {
+        int storedCrc = buffer.getInt(position);
+        buffer.get(position + 4, scratch, 0, BODY_SIZE);
+        crc.reset();
+        crc.update(scratch, 0, BODY_SIZE);
+        EntryType type = EntryType.fromCode(scratch[0]);
+        if ((int) crc.getValue() != storedCrc || body.getLong(4) != sequence || type == null) {
+            throw new IllegalStateException("Corrupt journal record at sequence " + sequence);
+        }
+        visitor.visit(sequence, body.getLong(12), type, body.getLong(20), body.getLong(28), body.getLong(36));
+    }
+
+    private long segmentEnd(int segment) {
+        return segment + 1 < baseSequences.length ? baseSequences[segment + 1] - 1 : Long.MAX_VALUE;
+    }
+
+    private int segmentOf(long sequence) {
+        int low = 0;
+        int high = baseSequences.length - 1;
+        int found = -1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (baseSequences[middle] <= sequence) {
+                found = middle;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return found;
+    }
+}
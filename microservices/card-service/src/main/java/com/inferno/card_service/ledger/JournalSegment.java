@@ -0,0 +1,177 @@
+package com.inferno.card_service.ledger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+// Un archivo del journal, mapeado en memoria con tamaño fijo. Registros de 48 bytes:
+//   crc32c(4) tipo(1) relleno(3) secuencia(8) tarjeta(8) monto(8) timestamp(8) referencia(8)
+// El CRC cubre los 44 bytes siguientes. El archivo nace lleno de ceros: el primer registro
+// inválido (CRC distinto o secuencia fuera de orden) marca el final de lo escrito.
+// Un solo escritor; force puede llamarse desde otro hilo.
+final class JournalSegment implements AutoCloseable {
+
+    static final int RECORD_SIZE = 48;
+    private static final int BODY_SIZE = RECORD_SIZE - 4;
+    private static final String PREFIX = "segment-";
+    private static final String SUFFIX = ".log";
+
+    private final Path path;
+    private final long baseSequence;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    // Reutilizados por el escritor (y por recover, antes de que haya escritor)
+    private final byte[] scratch = new byte[BODY_SIZE];
+    private final ByteBuffer body = ByteBuffer.wrap(scratch).order(ByteOrder.LITTLE_ENDIAN);
+    private final CRC32C crc = new CRC32C();
+    private volatile int writePosition;
+    private int forcedPosition;
+
+    private JournalSegment(Path path, long baseSequence, FileChannel channel, int capacity) throws IOException {
+        this.path = path;
+        this.baseSequence = baseSequence;
+        this.channel = channel;
+        this.capacity = capacity;
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        this.buffer.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    static JournalSegment create(Path directory, long baseSequence, int capacity) throws IOException {
+        Path path = directory.resolve(fileName(baseSequence));
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return new JournalSegment(path, baseSequence, channel, capacity);
+    }
+
+    static JournalSegment open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return new JournalSegment(path, baseSequenceOf(path), channel, (int) channel.size());
+    }
+
+    static String fileName(long baseSequence) {
+        return String.format("%s%020d%s", PREFIX, baseSequence, SUFFIX);
+    }
+
+    static boolean isSegment(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+    }
+
+    static long baseSequenceOf(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    // Recorre los registros válidos, entrega al visitor los posteriores a afterSequence y deja el
+    // segmento listo para seguir escribiendo. Lo que quede detrás del último registro válido
+    // (una escritura a medias al caerse) se pone en cero: si no, un registro viejo que sí llegó
+    // a disco podría quedar encadenado detrás de uno nuevo. Devuelve la última secuencia válida.
+    long recover(long afterSequence, JournalVisitor visitor) {
+        long expected = baseSequence;
+        int position = 0;
+        while (position + RECORD_SIZE <= capacity) {
+            int storedCrc = buffer.getInt(position);
+            buffer.get(position + 4, scratch, 0, BODY_SIZE);
+            crc.reset();
+            crc.update(scratch, 0, BODY_SIZE);
+            long sequence = body.getLong(4);
+            EntryType type = EntryType.fromCode(scratch[0]);
+            if ((int) crc.getValue() != storedCrc || sequence != expected || type == null) {
+                break;
+            }
+            if (sequence > afterSequence) {
+                visitor.visit(sequence, body.getLong(12), type, body.getLong(20), body.getLong(28), body.getLong(36));
+            }
+            expected++;
+            position += RECORD_SIZE;
+        }
+        writePosition = position;
+        forcedPosition = position;
+        zeroTail(position);
+        return expected - 1;
+    }
+
+    boolean hasRoom() {
+        return writePosition + RECORD_SIZE <= capacity;
+    }
+
+    void append(long sequence, long cardId, EntryType type, long amountCents, long timestampMillis, long reference) {
+        body.put(0, type.code());
+        body.put(1, (byte) 0).put(2, (byte) 0).put(3, (byte) 0);
+        body.putLong(4, sequence);
+        body.putLong(12, cardId);
+        body.putLong(20, amountCents);
+        body.putLong(28, timestampMillis);
+        body.putLong(36, reference);
+        crc.reset();
+        crc.update(scratch, 0, BODY_SIZE);
+
+        int position = writePosition;
+        buffer.put(position + 4, scratch, 0, BODY_SIZE);
+        buffer.putInt(position, (int) crc.getValue());
+        writePosition = position + RECORD_SIZE;
+    }
+
+    // Lleva a disco lo escrito desde el último force; devuelve false si no había nada pendiente
+    synchronized boolean force() {
+        int end = writePosition;
+        if (end <= forcedPosition) {
+            return false;
+        }
+        buffer.force(forcedPosition, end - forcedPosition);
+        forcedPosition = end;
+        return true;
+    }
+
+    long baseSequence() {
+        return baseSequence;
+    }
+
+    Path path() {
+        return path;
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        // El mapeo se libera cuando el GC recoge el buffer; cerrar el canal no lo invalida
+        channel.close();
+    }
+
+    private void zeroTail(int from) {
+        byte[] zeros = new byte[4096];
+        boolean dirty = false;
+        for (int position = from; position < capacity; position += zeros.length) {
+            int length = Math.min(zeros.length, capacity - position);
+            if (!isZero(position, length)) {
+                buffer.put(position, zeros, 0, length);
+                dirty = true;
+            }
+        }
+        if (dirty) {
+            buffer.force();
+        }
+    }
+
+    private boolean isZero(int position, int length) {
+        int end = position + length;
+        int i = position;
+        for (; i + 8 <= end; i += 8) {
+            if (buffer.getLong(i) != 0) {
+                return false;
+            }
+        }
+        for (; i < end; i++) {
+            if (buffer.get(i) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,7 @@
+package com.inferno.card_service.ledger;
+
+// Recorrido del journal sin armar un objeto por registro
+@FunctionalInterface
+public interface JournalVisitor {
+    void visit(long sequence, long cardId, EntryType type, long amountCents, long timestampMillis, long reference);
+}
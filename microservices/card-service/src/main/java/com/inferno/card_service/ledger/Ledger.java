@@ -0,0 +1,246 @@
+package com.inferno.card_service.ledger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Motor del ledger de tarjetas: cada compra o pago se agrega al journal y se aplica al saldo
+// en memoria. append es barato (escritura en el mapeo bajo un lock corto); la durabilidad se
+// paga en commit, que con group commit comparte un fsync entre todos los hilos que esperan.
+// Al abrir se carga el último snapshot y se reproduce solo el journal posterior.
+public class Ledger implements AutoCloseable {
+
+    private final LedgerConfig config;
+    private final Clock clock;
+    private final Journal journal;
+    private final SnapshotStore snapshots;
+    private final ExecutorService snapshotExecutor;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final BalanceIndex balances;
+    private final long recoveredFromSnapshot;
+    private final long replayedEntries;
+    private final long recoveryNanos;
+
+    // Bajo lock
+    private long lastSnapshotSequence;
+    private boolean snapshotInFlight;
+    private volatile IOException snapshotFailure;
+
+    private Ledger(LedgerConfig config, Clock clock, Journal journal, SnapshotStore snapshots, BalanceIndex balances,
+                   long recoveredFromSnapshot, long replayedEntries, long recoveryNanos) {
+        this.config = config;
+        this.clock = clock;
+        this.journal = journal;
+        this.snapshots = snapshots;
+        this.balances = balances;
+        this.recoveredFromSnapshot = recoveredFromSnapshot;
+        this.replayedEntries = replayedEntries;
+        this.recoveryNanos = recoveryNanos;
+        this.lastSnapshotSequence = recoveredFromSnapshot;
+        this.snapshotExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ledger-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static Ledger open(LedgerConfig config) throws IOException {
+        return open(config, Clock.systemUTC());
+    }
+
+    public static Ledger open(LedgerConfig config, Clock clock) throws IOException {
+        long start = System.nanoTime();
+        SnapshotStore snapshots = new SnapshotStore(config.getDirectory());
+        SnapshotStore.Loaded snapshot = snapshots.loadLatest();
+        long snapshotSequence = snapshot == null ? 0 : snapshot.sequence();
+        BalanceIndex balances = snapshot == null ? new BalanceIndex(1024) : snapshot.balances();
+
+        long[] replayed = new long[1];
+        Journal journal = Journal.open(config.getDirectory(), config.getSegmentBytes(), config.getFsyncPolicy(),
+                config.getGroupCommitWindow(), snapshotSequence,
+                (sequence, cardId, type, amountCents, timestampMillis, reference) -> {
+                    balances.add(cardId, type.signedAmount(amountCents));
+                    replayed[0]++;
+                });
+        return new Ledger(config, clock, journal, snapshots, balances, snapshotSequence, replayed[0],
+                System.nanoTime() - start);
+    }
+
+    // Agrega el movimiento y actualiza el saldo; todavía no es durable (ver commit).
+    // Devuelve la secuencia asignada. reference es el id externo de la transacción (0 si no hay)
+    public long append(long cardId, EntryType type, long amountCents, long reference) {
+        if (cardId <= 0) {
+            throw new IllegalArgumentException("cardId must be positive: " + cardId);
+        }
+        if (amountCents <= 0) {
+            throw new IllegalArgumentException("amountCents must be positive: " + amountCents);
+        }
+        long timestamp = clock.millis();
+        lock.lock();
+        try {
+            long sequence = journal.append(cardId, type, amountCents, timestamp, reference);
+            balances.add(cardId, type.signedAmount(amountCents));
+            maybeSnapshot(sequence);
+            return sequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Agrega toda la tanda bajo un solo lock; devuelve la secuencia del último movimiento (con la
+    // tanda vacía, la última del journal). Se valida todo antes de escribir: o entra completa o nada
+    public long append(LedgerBatch batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            if (batch.cardId(i) <= 0) {
+                throw new IllegalArgumentException("cardId must be positive: " + batch.cardId(i));
+            }
+            if (batch.amountCents(i) <= 0) {
+                throw new IllegalArgumentException("amountCents must be positive: " + batch.amountCents(i));
+            }
+        }
+        long timestamp = clock.millis();
+        lock.lock();
+        try {
+            long sequence = journal.lastSequence();
+            for (int i = 0; i < batch.size(); i++) {
+                long cardId = batch.cardId(i);
+                EntryType type = batch.type(i);
+                long amount = batch.amountCents(i);
+                sequence = journal.append(cardId, type, amount, timestamp, batch.reference(i));
+                balances.add(cardId, type.signedAmount(amount));
+            }
+            maybeSnapshot(sequence);
+            return sequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Espera a que sequence (y todo lo anterior) sea durable según FsyncPolicy
+    public void commit(long sequence) {
+        journal.awaitDurable(sequence);
+    }
+
+    // append + commit
+    public long record(long cardId, EntryType type, long amountCents, long reference) {
+        long sequence = append(cardId, type, amountCents, reference);
+        commit(sequence);
+        return sequence;
+    }
+
+    // Incluye movimientos agregados que aún no se confirmaron
+    public long balance(long cardId) {
+        lock.lock();
+        try {
+            return balances.get(cardId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int cardCount() {
+        lock.lock();
+        try {
+            return balances.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Snapshot síncrono de todo lo agregado hasta ahora; devuelve su secuencia
+    public long snapshot() throws IOException {
+        long sequence;
+        BalanceIndex copy;
+        lock.lock();
+        try {
+            sequence = journal.lastSequence();
+            copy = balances.copy();
+            lastSnapshotSequence = sequence;
+        } finally {
+            lock.unlock();
+        }
+        writeSnapshot(sequence, copy);
+        return sequence;
+    }
+
+    public long lastSequence() {
+        return journal.lastSequence();
+    }
+
+    public long durableSequence() {
+        return journal.durableSequence();
+    }
+
+    public long getFsyncCount() {
+        return journal.getFsyncCount();
+    }
+
+    public long getRecoveredFromSnapshot() {
+        return recoveredFromSnapshot;
+    }
+
+    public long getReplayedEntries() {
+        return replayedEntries;
+    }
+
+    public long getRecoveryNanos() {
+        return recoveryNanos;
+    }
+
+    public LedgerConfig config() {
+        return config;
+    }
+
+    @Override
+    public void close() throws IOException {
+        snapshotExecutor.shutdown();
+        try {
+            snapshotExecutor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        journal.close();
+        if (snapshotFailure != null) {
+            System.err.println("Last ledger snapshot failed: " + snapshotFailure.getMessage());
+        }
+    }
+
+    // Cada snapshotEveryEntries movimientos se copia el índice (bajo el lock, una copia de arreglos)
+    // y se escribe en segundo plano. Si el anterior sigue escribiéndose, se espera al próximo turno
+    private void maybeSnapshot(long sequence) {
+        long every = config.getSnapshotEveryEntries();
+        if (every <= 0 || snapshotInFlight || sequence - lastSnapshotSequence < every) {
+            return;
+        }
+        snapshotInFlight = true;
+        lastSnapshotSequence = sequence;
+        BalanceIndex copy = balances.copy();
+        snapshotExecutor.execute(() -> {
+            try {
+                writeSnapshot(sequence, copy);
+                snapshotFailure = null;
+            } catch (IOException | UncheckedIOException | IllegalStateException e) {
+                snapshotFailure = e instanceof IOException ? (IOException) e : new IOException(e);
+                System.err.println("Ledger snapshot at " + sequence + " failed: " + e.getMessage());
+            } finally {
+                lock.lock();
+                try {
+                    snapshotInFlight = false;
+                } finally {
+                    lock.unlock();
+                }
+            }
+        });
+    }
+
+    // El snapshot no puede ir por delante del journal en disco: si no, tras una caída la
+    // recuperación reutilizaría secuencias que el snapshot ya cuenta
+    private void writeSnapshot(long sequence, BalanceIndex copy) throws IOException {
+        journal.awaitDurable(sequence);
+        snapshots.write(sequence, copy);
+    }
+}
@@ -0,0 +1,135 @@
+package com.inferno.card_service.ledger;
+
+import java.util.Arrays;
+
+// Movimientos que se agregan al ledger de una vez (Ledger.append(LedgerBatch)): un solo lock y una
+// sola lectura del reloj para toda la tanda. Arreglos primitivos reutilizables entre tandas.
+public final class LedgerBatch {
+
+    private long[] cardIds;
+    private EntryType[] types;
+    private long[] amounts;
+    private long[] references;
+    private int size;
+    // Auxiliares de groupByCard: los arreglos de reserva se intercambian con los actuales
+    private int[] order = new int[0];
+    private int[] scratch = new int[0];
+    private long[] spareCardIds = new long[0];
+    private EntryType[] spareTypes = new EntryType[0];
+    private long[] spareAmounts = new long[0];
+    private long[] spareReferences = new long[0];
+
+    public LedgerBatch(int capacity) {
+        int initial = Math.max(1, capacity);
+        cardIds = new long[initial];
+        types = new EntryType[initial];
+        amounts = new long[initial];
+        references = new long[initial];
+    }
+
+    public void add(long cardId, EntryType type, long amountCents, long reference) {
+        if (size == cardIds.length) {
+            int capacity = size << 1;
+            cardIds = Arrays.copyOf(cardIds, capacity);
+            types = Arrays.copyOf(types, capacity);
+            amounts = Arrays.copyOf(amounts, capacity);
+            references = Arrays.copyOf(references, capacity);
+        }
+        cardIds[size] = cardId;
+        types[size] = type;
+        amounts[size] = amountCents;
+        references[size] = reference;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long cardId(int index) {
+        return cardIds[index];
+    }
+
+    public EntryType type(int index) {
+        return types[index];
+    }
+
+    public long amountCents(int index) {
+        return amounts[index];
+    }
+
+    public long reference(int index) {
+        return references[index];
+    }
+
+    public void clear() {
+        Arrays.fill(types, 0, size, null);
+        size = 0;
+    }
+
+    // Deja juntos los movimientos de cada tarjeta conservando el orden entre los de una misma
+    // tarjeta (merge sort estable sobre índices)
+    public void groupByCard() {
+        if (size < 2) {
+            return;
+        }
+        int capacity = cardIds.length;
+        if (order.length != capacity) {
+            order = new int[capacity];
+            scratch = new int[capacity];
+        }
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        sort(0, size);
+
+        if (spareCardIds.length != capacity) {
+            spareCardIds = new long[capacity];
+            spareTypes = new EntryType[capacity];
+            spareAmounts = new long[capacity];
+            spareReferences = new long[capacity];
+        }
+        for (int i = 0; i < size; i++) {
+            int from = order[i];
+            spareCardIds[i] = cardIds[from];
+            spareTypes[i] = types[from];
+            spareAmounts[i] = amounts[from];
+            spareReferences[i] = references[from];
+        }
+        long[] cards = cardIds;
+        cardIds = spareCardIds;
+        spareCardIds = cards;
+        EntryType[] kinds = types;
+        types = spareTypes;
+        spareTypes = kinds;
+        Arrays.fill(spareTypes, 0, size, null);
+        long[] amountValues = amounts;
+        amounts = spareAmounts;
+        spareAmounts = amountValues;
+        long[] referenceValues = references;
+        references = spareReferences;
+        spareReferences = referenceValues;
+    }
+
+    private void sort(int from, int to) {
+        if (to - from < 2) {
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        sort(from, middle);
+        sort(middle, to);
+        if (cardIds[order[middle - 1]] <= cardIds[order[middle]]) {
+            return;
+        }
+        System.arraycopy(order, from, scratch, from, to - from);
+        int left = from;
+        int right = middle;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < middle && cardIds[scratch[left]] <= cardIds[scratch[right]])) {
+                order[i] = scratch[left++];
+            } else {
+                order[i] = scratch[right++];
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.inferno.card_service.ledger;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+
+// Configuración del ledger, leída de variables de entorno con valores por defecto
+public final class LedgerConfig {
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final FsyncPolicy fsyncPolicy;
+    private final Duration groupCommitWindow;
+    private final long snapshotEveryEntries;
+
+    private LedgerConfig(Builder builder) {
+        this.directory = builder.directory;
+        this.segmentBytes = builder.segmentBytes;
+        this.fsyncPolicy = builder.fsyncPolicy;
+        this.groupCommitWindow = builder.groupCommitWindow;
+        this.snapshotEveryEntries = builder.snapshotEveryEntries;
+    }
+
+    public static LedgerConfig fromEnvironment() {
+        return builder()
+                .directory(Paths.get(env("LEDGER_DIR", "/tmp/ledger")))
+                .segmentBytes(Integer.parseInt(env("LEDGER_SEGMENT_MB", "64")) * 1024 * 1024)
+                .fsyncPolicy(FsyncPolicy.parse(env("LEDGER_FSYNC", "group")))
+                .groupCommitWindow(Duration.ofNanos(Long.parseLong(env("LEDGER_GROUP_COMMIT_MICROS", "200")) * 1_000))
+                .snapshotEveryEntries(Long.parseLong(env("LEDGER_SNAPSHOT_EVERY", "1000000")))
+                .build();
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public int getSegmentBytes() {
+        return segmentBytes;
+    }
+
+    public FsyncPolicy getFsyncPolicy() {
+        return fsyncPolicy;
+    }
+
+    public Duration getGroupCommitWindow() {
+        return groupCommitWindow;
+    }
+
+    public long getSnapshotEveryEntries() {
+        return snapshotEveryEntries;
+    }
+
+    public static final class Builder {
+        private Path directory;
+        private int segmentBytes = 64 * 1024 * 1024;
+        private FsyncPolicy fsyncPolicy = FsyncPolicy.GROUP;
+        private Duration groupCommitWindow = Duration.ofNanos(200_000);
+        // 0 desactiva los snapshots automáticos
+        private long snapshotEveryEntries = 1_000_000;
+
+        private Builder() {
+        }
+
+        public Builder directory(Path directory) {
+            this.directory = directory;
+            return this;
+        }
+
+        public Builder segmentBytes(int segmentBytes) {
+            this.segmentBytes = segmentBytes;
+            return this;
+        }
+
+        public Builder fsyncPolicy(FsyncPolicy fsyncPolicy) {
+            this.fsyncPolicy = fsyncPolicy;
+            return this;
+        }
+
+        // Espera extra del líder del group commit para juntar más commits en un mismo force
+        public Builder groupCommitWindow(Duration groupCommitWindow) {
+            this.groupCommitWindow = groupCommitWindow;
+            return this;
+        }
+
+        public Builder snapshotEveryEntries(long snapshotEveryEntries) {
+            this.snapshotEveryEntries = snapshotEveryEntries;
+            return this;
+        }
+
+        public LedgerConfig build() {
+            if (directory == null) {
+                throw new IllegalStateException("directory is required");
+            }
+            if (segmentBytes < JournalSegment.RECORD_SIZE * 16) {
+                throw new IllegalStateException("segmentBytes too small: " + segmentBytes);
+            }
+            return new LedgerConfig(this);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.inferno.card_service.ledger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+// Snapshots de los saldos hasta una secuencia del journal:
+//   magic(4) versión(4) secuencia(8) cantidad(4) [tarjeta(8) saldo(8)]* crc32c(4)
+// Se escriben a un temporal y se renombran de forma atómica; se conservan los dos últimos. Uno
+// dañado (caída durante la escritura, disco) se ignora y se usa el anterior.
+final class SnapshotStore {
+
+    private static final int MAGIC = 0x4C44_4753; // "LDGS"
+    private static final int FORMAT_VERSION = 1;
+    private static final int KEEP = 2;
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".snap";
+
+    private final Path directory;
+
+    SnapshotStore(Path directory) {
+        this.directory = directory;
+    }
+
+    void write(long sequence, BalanceIndex balances) throws IOException {
+        Files.createDirectories(directory);
+        Path target = directory.resolve(String.format("%s%020d%s", PREFIX, sequence, SUFFIX));
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            CRC32C crc = new CRC32C();
+            // Sin cerrar el stream: el canal se cierra después del force
+            OutputStream raw = Channels.newOutputStream(channel);
+            DataOutputStream out = new DataOutputStream(
+                    new CheckedOutputStream(new BufferedOutputStream(raw, 64 * 1024), crc));
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(sequence);
+            out.writeInt(balances.size());
+            IOException[] error = new IOException[1];
+            balances.forEach((cardId, balance) -> {
+                if (error[0] != null) {
+                    return;
+                }
+                try {
+                    out.writeLong(cardId);
+                    out.writeLong(balance);
+                } catch (IOException e) {
+                    error[0] = e;
+                }
+            });
+            if (error[0] != null) {
+                throw error[0];
+            }
+            out.flush();
+            new DataOutputStream(raw).writeInt((int) crc.getValue());
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        Journal.syncDirectory(directory);
+        deleteOlderThan(KEEP);
+    }
+
+    // El snapshot válido más reciente, o null si no hay ninguno
+    Loaded loadLatest() throws IOException {
+        List<Path> snapshots = snapshotPaths();
+        for (int i = snapshots.size() - 1; i >= 0; i--) {
+            Path path = snapshots.get(i);
+            try {
+                return read(path);
+            } catch (IOException | IllegalStateException e) {
+                System.err.println("Ignoring unreadable ledger snapshot " + path.getFileName() + ": " + e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    private Loaded read(Path path) throws IOException {
+        CRC32C crc = new CRC32C();
+        try (DataInputStream raw = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 64 * 1024))) {
+            DataInputStream in = new DataInputStream(new CheckedInputStream(raw, crc));
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                throw new IllegalStateException("not a ledger snapshot");
+            }
+            long sequence = in.readLong();
+            int count = in.readInt();
+            BalanceIndex balances = new BalanceIndex(count);
+            for (int i = 0; i < count; i++) {
+                balances.put(in.readLong(), in.readLong());
+            }
+            int expected = (int) crc.getValue();
+            if (raw.readInt() != expected || raw.read() != -1) {
+                throw new IllegalStateException("checksum mismatch");
+            }
+            return new Loaded(sequence, balances);
+        }
+    }
+
+    private void deleteOlderThan(int keep) throws IOException {
+        List<Path> snapshots = snapshotPaths();
+        for (int i = 0; i < snapshots.size() - keep; i++) {
+            Files.deleteIfExists(snapshots.get(i));
+        }
+    }
+
+    private List<Path> snapshotPaths() throws IOException {
+        List<Path> paths = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return paths;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+            }).forEach(paths::add);
+        }
+        // El nombre lleva la secuencia con ceros a la izquierda: el orden alfabético es el numérico
+        paths.sort(null);
+        return paths;
+    }
+
+    static final class Loaded {
+        private final long sequence;
+        private final BalanceIndex balances;
+
+        private Loaded(long sequence, BalanceIndex balances) {
+            this.sequence = sequence;
+            this.balances = balances;
+        }
+
+        long sequence() {
+            return sequence;
+        }
+
+        BalanceIndex balances() {
+            return balances;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.inferno.card_service.statement;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+// Salida de texto ASCII con buffer propio: números e instantes se escriben dígito a dígito, sin
+// pasar por String ni por un Writer. Lleva la cuenta de bytes escritos (el xref del PDF la usa).
+final class AsciiOutput implements AutoCloseable {
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    private final OutputStream out;
+    private final byte[] buffer = new byte[64 * 1024];
+    private final byte[] digits = new byte[20];
+    private int filled;
+    private long flushed;
+
+    AsciiOutput(OutputStream out) {
+        this.out = out;
+    }
+
+    AsciiOutput text(String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            character(value.charAt(i));
+        }
+        return this;
+    }
+
+    AsciiOutput character(char value) throws IOException {
+        if (filled == buffer.length) {
+            flush();
+        }
+        buffer[filled++] = (byte) value;
+        return this;
+    }
+
+    AsciiOutput bytes(byte[] value) throws IOException {
+        flush();
+        out.write(value);
+        flushed += value.length;
+        return this;
+    }
+
+    AsciiOutput number(long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            return text("-9223372036854775808");
+        }
+        if (value < 0) {
+            character('-');
+            value = -value;
+        }
+        int count = 0;
+        do {
+            digits[count++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+        while (count > 0) {
+            character((char) digits[--count]);
+        }
+        return this;
+    }
+
+    // Instante en ISO-8601 UTC con milisegundos (2026-09-03T10:15:30.250Z), años 0 a 9999
+    AsciiOutput instant(long epochMillis) throws IOException {
+        long days = Math.floorDiv(epochMillis, MILLIS_PER_DAY);
+        long millisOfDay = Math.floorMod(epochMillis, MILLIS_PER_DAY);
+        // Fecha civil a partir de días desde 1970 (algoritmo de H. Hinnant)
+        long z = days + 719_468;
+        long era = Math.floorDiv(z, 146_097);
+        long dayOfEra = z - era * 146_097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1_460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long monthIndex = (5 * dayOfYear + 2) / 153;
+        long day = dayOfYear - (153 * monthIndex + 2) / 5 + 1;
+        long month = monthIndex < 10 ? monthIndex + 3 : monthIndex - 9;
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+
+        padded(year, 4).character('-').padded(month, 2).character('-').padded(day, 2).character('T');
+        padded(millisOfDay / 3_600_000, 2).character(':');
+        padded(millisOfDay / 60_000 % 60, 2).character(':');
+        padded(millisOfDay / 1_000 % 60, 2).character('.');
+        return padded(millisOfDay % 1_000, 3).character('Z');
+    }
+
+    long position() {
+        return flushed + filled;
+    }
+
+    void flush() throws IOException {
+        if (filled > 0) {
+            out.write(buffer, 0, filled);
+            flushed += filled;
+            filled = 0;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        out.close();
+    }
+
+    private AsciiOutput padded(long value, int width) throws IOException {
+        for (long limit = pow10(width - 1); limit > 1 && value < limit; limit /= 10) {
+            character('0');
+        }
+        return number(value);
+    }
+
+    private static long pow10(int exponent) {
+        long result = 1;
+        for (int i = 0; i < exponent; i++) {
+            result *= 10;
+        }
+        return result;
+    }
+}
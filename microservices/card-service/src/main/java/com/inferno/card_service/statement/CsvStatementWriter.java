@@ -0,0 +1,53 @@
+package com.inferno.card_service.statement;
+
+import com.inferno.card_service.ledger.EntryType;
+
+import java.io.IOException;
+
+// Un CSV por partición. Por tarjeta: una fila OPENING, una TXN por movimiento con el saldo
+// resultante, y PURCHASES, PAYMENTS y CLOSING con los totales. Importes en centavos.
+final class CsvStatementWriter implements StatementWriter {
+
+    static final String HEADER = "card_id,row,sequence,posted_at,type,amount_cents,reference,balance_cents\n";
+
+    private final S3ObjectOutputStream stream;
+    private final AsciiOutput out;
+    private long cardId;
+
+    CsvStatementWriter(S3ObjectOutputStream stream) throws IOException {
+        this.stream = stream;
+        this.out = new AsciiOutput(stream);
+        out.text(HEADER);
+    }
+
+    @Override
+    public void begin(long cardId, long openingBalance) throws IOException {
+        this.cardId = cardId;
+        out.number(cardId).text(",OPENING,,,,,,").number(openingBalance).character('\n');
+    }
+
+    @Override
+    public void transaction(long sequence, long timestampMillis, EntryType type, long amountCents, long reference,
+                            long balance) throws IOException {
+        out.number(cardId).text(",TXN,").number(sequence).character(',').instant(timestampMillis)
+                .character(',').text(type.name()).character(',').number(amountCents)
+                .character(',').number(reference).character(',').number(balance).character('\n');
+    }
+
+    @Override
+    public void end(StatementTotals totals) throws IOException {
+        out.number(cardId).text(",PURCHASES,,,,").number(totals.purchases()).text(",,\n");
+        out.number(cardId).text(",PAYMENTS,,,,").number(totals.payments()).text(",,\n");
+        out.number(cardId).text(",CLOSING,,,,,,").number(totals.closingBalance()).character('\n');
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    @Override
+    public void abort() {
+        stream.abort();
+    }
+}
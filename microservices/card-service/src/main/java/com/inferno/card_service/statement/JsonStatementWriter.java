@@ -0,0 +1,65 @@
+package com.inferno.card_service.statement;
+
+import com.inferno.card_service.ledger.EntryType;
+
+import java.io.IOException;
+
+// NDJSON por partición: un objeto por tarjeta. Los totales van después del arreglo de
+// movimientos porque se conocen al terminar de recorrerlos; así no hay que retener la tarjeta.
+final class JsonStatementWriter implements StatementWriter {
+
+    private final S3ObjectOutputStream stream;
+    private final AsciiOutput out;
+    private final String period;
+    private boolean firstTransaction;
+
+    JsonStatementWriter(S3ObjectOutputStream stream, String period) {
+        this.stream = stream;
+        this.out = new AsciiOutput(stream);
+        this.period = period;
+    }
+
+    @Override
+    public void begin(long cardId, long openingBalance) throws IOException {
+        out.text("{\"cardId\":").number(cardId)
+                .text(",\"period\":\"").text(period)
+                .text("\",\"openingBalanceCents\":").number(openingBalance)
+                .text(",\"transactions\":[");
+        firstTransaction = true;
+    }
+
+    @Override
+    public void transaction(long sequence, long timestampMillis, EntryType type, long amountCents, long reference,
+                            long balance) throws IOException {
+        if (!firstTransaction) {
+            out.character(',');
+        }
+        firstTransaction = false;
+        out.text("{\"sequence\":").number(sequence)
+                .text(",\"postedAt\":\"").instant(timestampMillis)
+                .text("\",\"type\":\"").text(type.name())
+                .text("\",\"amountCents\":").number(amountCents)
+                .text(",\"reference\":").number(reference)
+                .text(",\"balanceCents\":").number(balance)
+                .character('}');
+    }
+
+    @Override
+    public void end(StatementTotals totals) throws IOException {
+        out.text("],\"transactionCount\":").number(totals.transactions())
+                .text(",\"purchasesCents\":").number(totals.purchases())
+                .text(",\"paymentsCents\":").number(totals.payments())
+                .text(",\"closingBalanceCents\":").number(totals.closingBalance())
+                .text("}\n");
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    @Override
+    public void abort() {
+        stream.abort();
+    }
+}
@@ -0,0 +1,228 @@
+package com.inferno.card_service.statement;
+
+import com.inferno.card_service.ledger.EntryType;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+
+// Un PDF por tarjeta (pdf/<tarjeta>.pdf), escrito a mano: texto en Courier, que PDF trae de base y
+// no hay que incrustar, paginado cada LINES_PER_PAGE líneas. Solo la página en curso queda en
+// memoria; el documento se arma en un buffer que se reusa entre tarjetas y se sube con un PUT.
+final class PdfStatementWriter implements StatementWriter {
+
+    private static final int LINES_PER_PAGE = 64;
+    private static final int CATALOG = 1;
+    private static final int PAGES = 2;
+    private static final int FONT = 3;
+    private static final byte[] BINARY_MARKER = {(byte) 0xE2, (byte) 0xE3, (byte) 0xCF, (byte) 0xD3};
+    private static final String COLUMNS = "Fecha       Tipo      Importe        Saldo      Referencia";
+
+    private final S3Client s3;
+    private final String bucket;
+    private final String keyPrefix;
+    private final String period;
+    private final ZoneId zone;
+    private final DocumentBuffer document = new DocumentBuffer();
+    private final AsciiOutput out = new AsciiOutput(document);
+    private final StringBuilder page = new StringBuilder(8 * 1024);
+    private final StringBuilder line = new StringBuilder(128);
+
+    private long cardId;
+    private long documentStart;
+    private long[] offsets = new long[16];
+    private int objects;
+    private int[] pageObjects = new int[4];
+    private int pages;
+    private int linesInPage;
+
+    PdfStatementWriter(S3Client s3, String bucket, String keyPrefix, String period, ZoneId zone) {
+        this.s3 = s3;
+        this.bucket = bucket;
+        this.keyPrefix = keyPrefix;
+        this.period = period;
+        this.zone = zone;
+    }
+
+    @Override
+    public void begin(long cardId, long openingBalance) throws IOException {
+        this.cardId = cardId;
+        document.reset();
+        documentStart = out.position();
+        objects = FONT;
+        pages = 0;
+        linesInPage = 0;
+        page.setLength(0);
+        // El comentario binario indica a los lectores que el archivo no es texto plano
+        out.text("%PDF-1.4\n%").bytes(BINARY_MARKER).character('\n');
+        startObject(FONT);
+        out.text("<< /Type /Font /Subtype /Type1 /BaseFont /Courier >>\nendobj\n");
+
+        line.setLength(0);
+        appendAmount(line.append("Saldo inicial: "), openingBalance);
+        printLine(line);
+        printLine("");
+        printLine(COLUMNS);
+    }
+
+    @Override
+    public void transaction(long sequence, long timestampMillis, EntryType type, long amountCents, long reference,
+                            long balance) throws IOException {
+        line.setLength(0);
+        line.append(LocalDate.ofInstant(Instant.ofEpochMilli(timestampMillis), zone)).append("  ");
+        line.append(type == EntryType.PURCHASE ? "COMPRA " : "PAGO   ");
+        column(line, amountCents, 29);
+        column(line, balance, 42);
+        line.append("      ").append(reference);
+        printLine(line);
+    }
+
+    @Override
+    public void end(StatementTotals totals) throws IOException {
+        printLine("");
+        line.setLength(0);
+        printLine(line.append("Movimientos: ").append(totals.transactions()));
+        summary("Compras: ", totals.purchases());
+        summary("Pagos: ", totals.payments());
+        summary("Saldo final: ", totals.closingBalance());
+        finishPage();
+
+        startObject(PAGES);
+        out.text("<< /Type /Pages /Count ").number(pages).text(" /Kids [");
+        for (int i = 0; i < pages; i++) {
+            out.number(pageObjects[i]).text(" 0 R ");
+        }
+        out.text("] >>\nendobj\n");
+        startObject(CATALOG);
+        out.text("<< /Type /Catalog /Pages 2 0 R >>\nendobj\n");
+
+        long xref = out.position() - documentStart;
+        out.text("xref\n0 ").number(objects + 1).text("\n0000000000 65535 f \n");
+        for (int i = 1; i <= objects; i++) {
+            padZeros(offsets[i]);
+            out.text(" 00000 n \n");
+        }
+        out.text("trailer\n<< /Size ").number(objects + 1).text(" /Root 1 0 R >>\nstartxref\n")
+                .number(xref).text("\n%%EOF\n");
+        out.flush();
+
+        s3.putObject(PutObjectRequest.builder()
+                        .bucket(bucket)
+                        .key(keyPrefix + cardId + "." + StatementFormat.PDF.extension())
+                        .contentType(StatementFormat.PDF.contentType())
+                        .build(),
+                RequestBody.fromByteBuffer(document.view()));
+    }
+
+    // Cada PDF se sube al terminar su tarjeta: no queda nada pendiente
+    @Override
+    public void close() {
+    }
+
+    // Los PDF ya subidos de una partición que falla se reescriben al reanudar
+    @Override
+    public void abort() {
+    }
+
+    private void summary(String label, long cents) throws IOException {
+        line.setLength(0);
+        printLine(appendAmount(line.append(label), cents));
+    }
+
+    private void printLine(CharSequence text) throws IOException {
+        if (linesInPage == LINES_PER_PAGE) {
+            finishPage();
+        }
+        if (linesInPage == 0) {
+            page.append("BT\n/F1 9 Tf\n11 TL\n40 800 Td\n(InfernoBank - Estado de cuenta ").append(period)
+                    .append(" - Tarjeta ").append(cardId).append(") Tj T* T*\n");
+        }
+        page.append('(');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '(' || c == ')' || c == '\\') {
+                page.append('\\');
+            }
+            page.append(c);
+        }
+        page.append(") Tj T*\n");
+        linesInPage++;
+    }
+
+    private void finishPage() throws IOException {
+        if (linesInPage == 0) {
+            return;
+        }
+        page.append("ET\n");
+        byte[] content = page.toString().getBytes(StandardCharsets.US_ASCII);
+        int contents = ++objects;
+        startObject(contents);
+        out.text("<< /Length ").number(content.length).text(" >>\nstream\n").bytes(content)
+                .text("\nendstream\nendobj\n");
+        int pageObject = ++objects;
+        startObject(pageObject);
+        out.text("<< /Type /Page /Parent 2 0 R /MediaBox [0 0 595 842] /Resources << /Font << /F1 3 0 R >> >>")
+                .text(" /Contents ").number(contents).text(" 0 R >>\nendobj\n");
+        if (pages == pageObjects.length) {
+            pageObjects = Arrays.copyOf(pageObjects, pages * 2);
+        }
+        pageObjects[pages++] = pageObject;
+        page.setLength(0);
+        linesInPage = 0;
+    }
+
+    private void startObject(int number) throws IOException {
+        if (number >= offsets.length) {
+            offsets = Arrays.copyOf(offsets, Math.max(number + 1, offsets.length * 2));
+        }
+        offsets[number] = out.position() - documentStart;
+        out.number(number).text(" 0 obj\n");
+    }
+
+    private void padZeros(long value) throws IOException {
+        for (long limit = 1_000_000_000L; limit > 1 && value < limit; limit /= 10) {
+            out.character('0');
+        }
+        out.number(value);
+    }
+
+    private static StringBuilder appendAmount(StringBuilder target, long cents) {
+        if (cents < 0) {
+            target.append('-');
+        }
+        long absolute = Math.abs(cents);
+        target.append(absolute / 100).append('.');
+        if (absolute % 100 < 10) {
+            target.append('0');
+        }
+        return target.append(absolute % 100);
+    }
+
+    // Importe alineado a la derecha para que termine en la columna end
+    private static void column(StringBuilder target, long cents, int end) {
+        int start = target.length();
+        appendAmount(target, cents);
+        while (target.length() < end) {
+            target.insert(start, ' ');
+        }
+    }
+
+    private static final class DocumentBuffer extends ByteArrayOutputStream {
+        DocumentBuffer() {
+            super(16 * 1024);
+        }
+
+        // fromByteBuffer copia: el buffer se puede reusar para la siguiente tarjeta
+        ByteBuffer view() {
+            return ByteBuffer.wrap(buf, 0, count);
+        }
+    }
+}
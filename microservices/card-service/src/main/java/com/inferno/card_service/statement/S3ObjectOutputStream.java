@@ -0,0 +1,151 @@
+package com.inferno.card_service.statement;
+
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Escritura en streaming de un objeto de S3: se acumula una parte y se sube con multipart, así la
+// memoria queda acotada a partSize sin importar el tamaño del objeto. Si todo cabe en la primera
+// parte se hace un PutObject directo. El buffer crece hasta partSize: un objeto chico (el PDF de
+// una tarjeta) no reserva la parte completa. El objeto solo aparece al cerrar sin error; abort descarta
+// lo subido (un multipart sin completar no es visible).
+final class S3ObjectOutputStream extends OutputStream {
+
+    // Mínimo que exige S3 para las partes (salvo la última) de un multipart upload
+    static final int MIN_PART_SIZE = 5 * 1024 * 1024;
+
+    private final S3Client s3;
+    private final String bucket;
+    private final String key;
+    private final String contentType;
+    private final int partSize;
+    private final List<CompletedPart> parts = new ArrayList<>();
+
+    private byte[] buffer;
+    private int filled;
+    private String uploadId;
+    private boolean closed;
+
+    S3ObjectOutputStream(S3Client s3, String bucket, String key, String contentType, int partSize) {
+        this.s3 = s3;
+        this.bucket = bucket;
+        this.key = key;
+        this.contentType = contentType;
+        this.partSize = partSize;
+        this.buffer = new byte[Math.min(partSize, 64 * 1024)];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (filled == buffer.length) {
+            makeRoom();
+        }
+        buffer[filled++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        while (length > 0) {
+            if (filled == buffer.length) {
+                makeRoom();
+            }
+            int chunk = Math.min(length, buffer.length - filled);
+            System.arraycopy(bytes, offset, buffer, filled, chunk);
+            filled += chunk;
+            offset += chunk;
+            length -= chunk;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (uploadId == null) {
+                s3.putObject(PutObjectRequest.builder().bucket(bucket).key(key).contentType(contentType).build(),
+                        body());
+                return;
+            }
+            if (filled > 0) {
+                uploadPart();
+            }
+            s3.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build())
+                    .build());
+            uploadId = null;
+        } catch (RuntimeException e) {
+            abort();
+            throw new IOException("Could not upload s3://" + bucket + "/" + key, e);
+        }
+    }
+
+    // Descarta el objeto a medio escribir; no hace nada si ya se cerró
+    void abort() {
+        closed = true;
+        if (uploadId != null) {
+            String id = uploadId;
+            uploadId = null;
+            try {
+                s3.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                        .bucket(bucket).key(key).uploadId(id).build());
+            } catch (RuntimeException e) {
+                // Una regla de ciclo de vida del bucket limpia los multipart abandonados
+                System.err.println("Could not abort upload of " + key + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void makeRoom() throws IOException {
+        if (buffer.length < partSize) {
+            buffer = Arrays.copyOf(buffer, (int) Math.min(partSize, buffer.length * 2L));
+        } else {
+            uploadPart();
+        }
+    }
+
+    private void uploadPart() throws IOException {
+        try {
+            if (uploadId == null) {
+                uploadId = s3.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                        .bucket(bucket).key(key).contentType(contentType).build()).uploadId();
+            }
+            int partNumber = parts.size() + 1;
+            String eTag = s3.uploadPart(UploadPartRequest.builder()
+                            .bucket(bucket)
+                            .key(key)
+                            .uploadId(uploadId)
+                            .partNumber(partNumber)
+                            .build(),
+                    body()).eTag();
+            parts.add(CompletedPart.builder().partNumber(partNumber).eTag(eTag).build());
+            filled = 0;
+        } catch (RuntimeException e) {
+            abort();
+            throw new IOException("Could not upload part of s3://" + bucket + "/" + key, e);
+        }
+    }
+
+    // fromByteBuffer copia lo que queda del buffer: se puede reusar para la siguiente parte
+    private RequestBody body() {
+        return RequestBody.fromByteBuffer(ByteBuffer.wrap(buffer, 0, filled));
+    }
+}
@@ -0,0 +1,161 @@
+package com.inferno.card_service.statement;
+
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.EnumSet;
+import java.util.Set;
+
+// Configuración de la generación de estados de cuenta, leída de variables de entorno con valores
+// por defecto
+public final class StatementConfig {
+
+    private final String bucket;
+    private final String prefix;
+    private final YearMonth period;
+    private final ZoneId zone;
+    private final int partitions;
+    private final int parallelism;
+    private final Set<StatementFormat> formats;
+    private final int partSizeBytes;
+
+    private StatementConfig(Builder builder) {
+        this.bucket = builder.bucket;
+        this.prefix = builder.prefix;
+        this.zone = builder.zone;
+        this.period = builder.period != null ? builder.period : YearMonth.now(builder.zone).minusMonths(1);
+        this.partitions = builder.partitions;
+        this.parallelism = builder.parallelism;
+        this.formats = EnumSet.copyOf(builder.formats);
+        this.partSizeBytes = builder.partSizeBytes;
+    }
+
+    public static StatementConfig fromEnvironment() {
+        String period = System.getenv("STATEMENT_PERIOD");
+        return builder()
+                .bucket(env("STATEMENT_BUCKET", "inferno-statements"))
+                .prefix(env("STATEMENT_PREFIX", "statements"))
+                .period(period == null || period.isBlank() ? null : YearMonth.parse(period))
+                .zone(ZoneId.of(env("STATEMENT_ZONE", "UTC")))
+                .partitions(Integer.parseInt(env("STATEMENT_PARTITIONS", "64")))
+                .parallelism(Integer.parseInt(env("STATEMENT_PARALLELISM",
+                        String.valueOf(Runtime.getRuntime().availableProcessors()))))
+                .formats(StatementFormat.parseList(env("STATEMENT_FORMATS", "csv,json")))
+                .partSizeBytes(Integer.parseInt(env("STATEMENT_PART_MB", "8")) * 1024 * 1024)
+                .build();
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public String getBucket() {
+        return bucket;
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    public YearMonth getPeriod() {
+        return period;
+    }
+
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    public int getPartitions() {
+        return partitions;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public Set<StatementFormat> getFormats() {
+        return formats;
+    }
+
+    public int getPartSizeBytes() {
+        return partSizeBytes;
+    }
+
+    public static final class Builder {
+        private String bucket;
+        private String prefix = "statements";
+        // null: el mes anterior al actual en la zona configurada
+        private YearMonth period;
+        private ZoneId zone = ZoneOffset.UTC;
+        // Unidad de reparto y de checkpoint: cada partición relee el journal filtrando por tarjeta,
+        // así que más particiones dan reanudaciones más finas a cambio de más lecturas
+        private int partitions = 64;
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+        private Set<StatementFormat> formats = EnumSet.of(StatementFormat.CSV, StatementFormat.JSON);
+        private int partSizeBytes = 8 * 1024 * 1024;
+
+        private Builder() {
+        }
+
+        public Builder bucket(String bucket) {
+            this.bucket = bucket;
+            return this;
+        }
+
+        public Builder prefix(String prefix) {
+            this.prefix = prefix;
+            return this;
+        }
+
+        public Builder period(YearMonth period) {
+            this.period = period;
+            return this;
+        }
+
+        public Builder zone(ZoneId zone) {
+            this.zone = zone;
+            return this;
+        }
+
+        public Builder partitions(int partitions) {
+            this.partitions = partitions;
+            return this;
+        }
+
+        public Builder parallelism(int parallelism) {
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        public Builder formats(Set<StatementFormat> formats) {
+            this.formats = formats;
+            return this;
+        }
+
+        public Builder partSizeBytes(int partSizeBytes) {
+            this.partSizeBytes = partSizeBytes;
+            return this;
+        }
+
+        public StatementConfig build() {
+            if (bucket == null || bucket.isBlank()) {
+                throw new IllegalStateException("bucket is required");
+            }
+            if (partitions < 1 || parallelism < 1) {
+                throw new IllegalStateException("partitions and parallelism must be positive");
+            }
+            if (formats == null || formats.isEmpty()) {
+                throw new IllegalStateException("at least one format is required");
+            }
+            if (partSizeBytes < S3ObjectOutputStream.MIN_PART_SIZE) {
+                throw new IllegalStateException("partSizeBytes below the S3 minimum: " + partSizeBytes);
+            }
+            return new StatementConfig(this);
+        }
+    }
+}
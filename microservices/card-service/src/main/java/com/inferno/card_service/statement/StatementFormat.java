@@ -0,0 +1,41 @@
+package com.inferno.card_service.statement;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+// Formatos de salida. CSV y JSON (una línea por tarjeta) van en un objeto por partición; PDF es
+// un documento por tarjeta, pensado para enviarse al cliente, y por eso es opcional.
+public enum StatementFormat {
+    CSV("csv", "text/csv"),
+    JSON("ndjson", "application/x-ndjson"),
+    PDF("pdf", "application/pdf");
+
+    private final String extension;
+    private final String contentType;
+
+    StatementFormat(String extension, String contentType) {
+        this.extension = extension;
+        this.contentType = contentType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    // Lista separada por comas, p. ej. "csv,json,pdf"
+    public static Set<StatementFormat> parseList(String value) {
+        Set<StatementFormat> formats = EnumSet.noneOf(StatementFormat.class);
+        for (String part : value.split(",")) {
+            String name = part.trim();
+            if (!name.isEmpty()) {
+                formats.add(StatementFormat.valueOf(name.toUpperCase(Locale.ROOT)));
+            }
+        }
+        return formats;
+    }
+}
@@ -0,0 +1,460 @@
+package com.inferno.card_service.statement;
+
+import com.inferno.card_service.ledger.BalanceIndex;
+import com.inferno.card_service.ledger.EntryType;
+import com.inferno.card_service.ledger.JournalReader;
+import com.inferno.card_service.ledger.JournalVisitor;
+import com.inferno.card_service.ledger.LedgerConfig;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.core.sync.ResponseTransformer;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongPredicate;
+
+// Estados de cuenta mensuales en batch, leyendo el journal del ledger sin detenerlo:
+// - Las tarjetas se reparten por hash en particiones, que un ForkJoinPool procesa en paralelo
+//   dividiendo el rango a la mitad hasta llegar a una.
+// - Cada partición recorre el journal una vez hasta la secuencia de corte: lo anterior al periodo
+//   suma al saldo inicial y de lo del periodo solo guarda (tarjeta, secuencia). Después agrupa por
+//   tarjeta y relee cada movimiento por secuencia, escribiendo y acumulando los totales sobre la
+//   marcha: la memoria es de ~24 bytes por movimiento de la partición, no del mes completo.
+// - La salida va en streaming a S3 y cada partición terminada deja un checkpoint. El manifiesto
+//   de la corrida fija la secuencia de corte: una corrida reanudada salta lo que ya tiene
+//   checkpoint y genera el resto con el mismo corte que la original.
+//
+// Estructura bajo <prefix>/<periodo>/:
+//   _run.properties, _checkpoints/part-NNNNN.properties, _SUCCESS
+//   csv/part-NNNNN.csv, json/part-NNNNN.ndjson, pdf/<tarjeta>.pdf
+public class StatementJob {
+
+    private final Path journalDirectory;
+    private final S3Client s3;
+    private final StatementConfig config;
+    private final Clock clock;
+    private final String basePrefix;
+    private final long periodStartMillis;
+    private final long periodEndMillis;
+
+    public StatementJob(Path journalDirectory, S3Client s3, StatementConfig config) {
+        this(journalDirectory, s3, config, Clock.systemUTC());
+    }
+
+    public StatementJob(Path journalDirectory, S3Client s3, StatementConfig config, Clock clock) {
+        this.journalDirectory = journalDirectory;
+        this.s3 = s3;
+        this.config = config;
+        this.clock = clock;
+        this.basePrefix = config.getPrefix() + "/" + config.getPeriod() + "/";
+        this.periodStartMillis = config.getPeriod().atDay(1).atStartOfDay(config.getZone())
+                .toInstant().toEpochMilli();
+        this.periodEndMillis = config.getPeriod().plusMonths(1).atDay(1).atStartOfDay(config.getZone())
+                .toInstant().toEpochMilli();
+    }
+
+    // Con STATEMENT_S3_ENDPOINT (p. ej. MinIO) se usa path-style
+    public static StatementJob fromEnvironment() {
+        S3ClientBuilder builder = S3Client.builder()
+                .region(Region.of(env("AWS_REGION", "us-east-2")))
+                .httpClient(ApacheHttpClient.builder().build());
+        String endpoint = System.getenv("STATEMENT_S3_ENDPOINT");
+        if (endpoint != null && !endpoint.isBlank()) {
+            builder.endpointOverride(URI.create(endpoint)).forcePathStyle(true);
+        }
+        return new StatementJob(LedgerConfig.fromEnvironment().getDirectory(), builder.build(),
+                StatementConfig.fromEnvironment());
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+
+    // Genera los estados del periodo con el journal hasta cutoffSequence, que debe ser durable
+    // (normalmente ledger.durableSequence()). Si el periodo ya tiene una corrida, la reanuda con
+    // el corte de esa corrida e ignora cutoffSequence.
+    public StatementRunReport run(long cutoffSequence) {
+        if (clock.millis() < periodEndMillis) {
+            throw new IllegalStateException("Period " + config.getPeriod() + " has not ended yet");
+        }
+        long cutoff = startOrResume(cutoffSequence);
+
+        resetHeapPeaks();
+        long started = System.nanoTime();
+        ForkJoinPool pool = newPool(config.getParallelism());
+        RunTotals totals;
+        try {
+            totals = pool.invoke(new PartitionRange(cutoff, 0, config.getPartitions()));
+        } finally {
+            // Si una partición falla, las que quedaron en cola no se empiezan: las reanuda la próxima corrida
+            pool.shutdownNow();
+        }
+        long elapsed = System.nanoTime() - started;
+
+        Properties success = new Properties();
+        success.setProperty("cards", String.valueOf(totals.cards));
+        success.setProperty("transactions", String.valueOf(totals.transactions));
+        putProperties(basePrefix + "_SUCCESS", success);
+        return new StatementRunReport(config.getPeriod(), cutoff, config.getPartitions(), totals.written,
+                totals.resumed, totals.cards, totals.transactions, totals.transactionsWritten, elapsed,
+                heapPeak());
+    }
+
+    // Partición de una tarjeta: el hash reparte también ids con estructura (múltiplos, rangos)
+    static int partitionOf(long cardId, int partitions) {
+        long hash = cardId * 0x9E37_79B9_7F4A_7C15L;
+        return Math.floorMod(hash ^ (hash >>> 32), partitions);
+    }
+
+    private long startOrResume(long cutoffSequence) {
+        String key = basePrefix + "_run.properties";
+        String formats = formatNames();
+        Properties manifest = getProperties(key);
+        if (manifest == null) {
+            manifest = new Properties();
+            manifest.setProperty("cutoffSequence", String.valueOf(cutoffSequence));
+            manifest.setProperty("partitions", String.valueOf(config.getPartitions()));
+            manifest.setProperty("formats", formats);
+            manifest.setProperty("startedAt", clock.instant().toString());
+            putProperties(key, manifest);
+            return cutoffSequence;
+        }
+        // Cambiar el reparto o los formatos a mitad de una corrida mezclaría salidas incompatibles
+        if (!String.valueOf(config.getPartitions()).equals(manifest.getProperty("partitions"))
+                || !formats.equals(manifest.getProperty("formats"))) {
+            throw new IllegalStateException("Statements for " + config.getPeriod() + " were started with "
+                    + manifest.getProperty("partitions") + " partitions and formats "
+                    + manifest.getProperty("formats") + "; delete s3://" + config.getBucket() + "/"
+                    + basePrefix + " to regenerate them");
+        }
+        return Long.parseLong(manifest.getProperty("cutoffSequence"));
+    }
+
+    private RunTotals processPartition(int partition, long cutoff) {
+        String checkpointKey = basePrefix + "_checkpoints/" + partName(partition) + ".properties";
+        Properties checkpoint = getProperties(checkpointKey);
+        if (checkpoint != null) {
+            return RunTotals.resumed(Long.parseLong(checkpoint.getProperty("cards")),
+                    Long.parseLong(checkpoint.getProperty("transactions")));
+        }
+
+        List<StatementWriter> writers = new ArrayList<>();
+        try (JournalReader reader = JournalReader.open(journalDirectory, cutoff)) {
+            PartitionScan scan = new PartitionScan(partition);
+            reader.scan(scan, scan);
+
+            for (StatementFormat format : config.getFormats()) {
+                writers.add(openWriter(format, partition));
+            }
+            CardStreamer streamer = new CardStreamer(writers);
+            long[] cards = scan.statementCards();
+            int[] start = scan.groupByCard(cards);
+            long[] sequences = scan.grouped;
+            for (int i = 0; i < cards.length; i++) {
+                streamer.begin(cards[i], scan.opening.get(cards[i]));
+                for (int j = start[i]; j < start[i + 1]; j++) {
+                    reader.read(sequences[j], streamer);
+                }
+                streamer.end();
+            }
+            for (StatementWriter writer : writers) {
+                writer.close();
+            }
+
+            checkpoint = new Properties();
+            checkpoint.setProperty("cards", String.valueOf(cards.length));
+            checkpoint.setProperty("transactions", String.valueOf(sequences.length));
+            putProperties(checkpointKey, checkpoint);
+            return RunTotals.written(cards.length, sequences.length);
+        } catch (IOException e) {
+            abort(writers);
+            throw new UncheckedIOException("Could not write statements of " + partName(partition), e);
+        } catch (RuntimeException e) {
+            abort(writers);
+            throw e;
+        }
+    }
+
+    private StatementWriter openWriter(StatementFormat format, int partition) throws IOException {
+        String directory = basePrefix + format.name().toLowerCase(Locale.ROOT) + "/";
+        if (format == StatementFormat.PDF) {
+            return new PdfStatementWriter(s3, config.getBucket(), directory, config.getPeriod().toString(),
+                    config.getZone());
+        }
+        S3ObjectOutputStream stream = new S3ObjectOutputStream(s3, config.getBucket(),
+                directory + partName(partition) + "." + format.extension(), format.contentType(),
+                config.getPartSizeBytes());
+        if (format == StatementFormat.CSV) {
+            return new CsvStatementWriter(stream);
+        }
+        return new JsonStatementWriter(stream, config.getPeriod().toString());
+    }
+
+    private static void abort(List<StatementWriter> writers) {
+        for (StatementWriter writer : writers) {
+            writer.abort();
+        }
+    }
+
+    private Properties getProperties(String key) {
+        byte[] content;
+        try {
+            content = s3.getObject(GetObjectRequest.builder().bucket(config.getBucket()).key(key).build(),
+                    ResponseTransformer.toBytes()).asByteArray();
+        } catch (NoSuchKeyException e) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try {
+            properties.load(new ByteArrayInputStream(content));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return properties;
+    }
+
+    private void putProperties(String key, Properties properties) {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        try {
+            properties.store(content, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        s3.putObject(PutObjectRequest.builder().bucket(config.getBucket()).key(key).contentType("text/plain").build(),
+                RequestBody.fromBytes(content.toByteArray()));
+    }
+
+    private String formatNames() {
+        StringBuilder names = new StringBuilder();
+        for (StatementFormat format : config.getFormats()) {
+            if (names.length() > 0) {
+                names.append(',');
+            }
+            names.append(format.name());
+        }
+        return names.toString();
+    }
+
+    private static String partName(int partition) {
+        return String.format("part-%05d", partition);
+    }
+
+    private static ForkJoinPool newPool(int parallelism) {
+        AtomicInteger index = new AtomicInteger();
+        return new ForkJoinPool(parallelism, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("statement-" + index.incrementAndGet());
+            return thread;
+        }, null, false);
+    }
+
+    private static void resetHeapPeaks() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    private static long heapPeak() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+    private final class PartitionRange extends RecursiveTask<RunTotals> {
+        private static final long serialVersionUID = 1L;
+
+        private final long cutoff;
+        private final int from;
+        private final int to;
+
+        private PartitionRange(long cutoff, int from, int to) {
+            this.cutoff = cutoff;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected RunTotals compute() {
+            if (to - from == 1) {
+                return processPartition(from, cutoff);
+            }
+            int middle = (from + to) >>> 1;
+            PartitionRange left = new PartitionRange(cutoff, from, middle);
+            left.fork();
+            RunTotals right = new PartitionRange(cutoff, middle, to).compute();
+            return right.plus(left.join());
+        }
+    }
+
+    // Primer recorrido de una partición: saldos iniciales y (tarjeta, secuencia) del periodo
+    private final class PartitionScan implements LongPredicate, JournalVisitor {
+        private final int partition;
+        private final BalanceIndex opening = new BalanceIndex(1024);
+        private final BalanceIndex counts = new BalanceIndex(1024);
+        private long[] cards = new long[1024];
+        private long[] sequences = new long[1024];
+        private int size;
+        private long[] grouped;
+
+        private PartitionScan(int partition) {
+            this.partition = partition;
+        }
+
+        @Override
+        public boolean test(long cardId) {
+            return partitionOf(cardId, config.getPartitions()) == partition;
+        }
+
+        @Override
+        public void visit(long sequence, long cardId, EntryType type, long amountCents, long timestampMillis,
+                          long reference) {
+            if (timestampMillis < periodStartMillis) {
+                opening.add(cardId, type.signedAmount(amountCents));
+            } else if (timestampMillis < periodEndMillis) {
+                if (size == cards.length) {
+                    cards = Arrays.copyOf(cards, size * 2);
+                    sequences = Arrays.copyOf(sequences, size * 2);
+                }
+                cards[size] = cardId;
+                sequences[size++] = sequence;
+                counts.add(cardId, 1);
+            }
+        }
+
+        // Tarjetas con estado, en orden: las que se movieron en el periodo y las que arrastran saldo
+        long[] statementCards() {
+            long[] result = new long[counts.size() + opening.size()];
+            int[] count = new int[1];
+            counts.forEach((cardId, transactions) -> result[count[0]++] = cardId);
+            opening.forEach((cardId, balance) -> {
+                if (balance != 0 && !counts.contains(cardId)) {
+                    result[count[0]++] = cardId;
+                }
+            });
+            Arrays.sort(result, 0, count[0]);
+            return Arrays.copyOf(result, count[0]);
+        }
+
+        // Agrupa las secuencias por tarjeta con un counting sort estable (el journal ya viene en
+        // orden de secuencia) en grouped; devuelve dónde empieza cada tarjeta
+        int[] groupByCard(long[] statementCards) {
+            int[] start = new int[statementCards.length + 1];
+            for (int i = 0; i < statementCards.length; i++) {
+                long transactions = counts.get(statementCards[i]);
+                start[i + 1] = start[i] + (int) transactions;
+                if (transactions > 0) {
+                    // De aquí en adelante counts guarda la posición de la tarjeta
+                    counts.put(statementCards[i], i);
+                }
+            }
+            int[] next = Arrays.copyOf(start, statementCards.length);
+            grouped = new long[size];
+            for (int k = 0; k < size; k++) {
+                grouped[next[(int) counts.get(cards[k])]++] = sequences[k];
+            }
+            cards = null;
+            sequences = null;
+            return start;
+        }
+    }
+
+    // Segundo recorrido: los movimientos de una tarjeta, leídos por secuencia, hacia los writers
+    private static final class CardStreamer implements JournalVisitor {
+        private final List<StatementWriter> writers;
+        private final StatementTotals totals = new StatementTotals();
+
+        private CardStreamer(List<StatementWriter> writers) {
+            this.writers = writers;
+        }
+
+        void begin(long cardId, long openingBalance) throws IOException {
+            totals.reset(cardId, openingBalance);
+            for (StatementWriter writer : writers) {
+                writer.begin(cardId, openingBalance);
+            }
+        }
+
+        @Override
+        public void visit(long sequence, long cardId, EntryType type, long amountCents, long timestampMillis,
+                          long reference) {
+            long balance = totals.add(type, amountCents);
+            try {
+                for (StatementWriter writer : writers) {
+                    writer.transaction(sequence, timestampMillis, type, amountCents, reference, balance);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void end() throws IOException {
+            for (StatementWriter writer : writers) {
+                writer.end(totals);
+            }
+        }
+    }
+
+    private static final class RunTotals {
+        private long cards;
+        private long transactions;
+        private long transactionsWritten;
+        private int written;
+        private int resumed;
+
+        static RunTotals written(long cards, long transactions) {
+            RunTotals totals = new RunTotals();
+            totals.cards = cards;
+            totals.transactions = transactions;
+            totals.transactionsWritten = transactions;
+            totals.written = 1;
+            return totals;
+        }
+
+        static RunTotals resumed(long cards, long transactions) {
+            RunTotals totals = new RunTotals();
+            totals.cards = cards;
+            totals.transactions = transactions;
+            totals.resumed = 1;
+            return totals;
+        }
+
+        RunTotals plus(RunTotals other) {
+            cards += other.cards;
+            transactions += other.transactions;
+            transactionsWritten += other.transactionsWritten;
+            written += other.written;
+            resumed += other.resumed;
+            return this;
+        }
+    }
+}
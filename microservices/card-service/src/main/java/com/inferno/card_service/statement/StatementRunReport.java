@@ -0,0 +1,89 @@
+package com.inferno.card_service.statement;
+
+import java.time.YearMonth;
+
+// Resultado de una corrida. cards y transactions incluyen las particiones que ya estaban hechas
+// (leídas de su checkpoint); el ritmo se calcula solo con lo escrito en esta corrida.
+public final class StatementRunReport {
+
+    private final YearMonth period;
+    private final long cutoffSequence;
+    private final int partitions;
+    private final int partitionsWritten;
+    private final int partitionsResumed;
+    private final long cards;
+    private final long transactions;
+    private final long transactionsWritten;
+    private final long elapsedNanos;
+    private final long peakHeapBytes;
+
+    StatementRunReport(YearMonth period, long cutoffSequence, int partitions, int partitionsWritten,
+                       int partitionsResumed, long cards, long transactions, long transactionsWritten,
+                       long elapsedNanos, long peakHeapBytes) {
+        this.period = period;
+        this.cutoffSequence = cutoffSequence;
+        this.partitions = partitions;
+        this.partitionsWritten = partitionsWritten;
+        this.partitionsResumed = partitionsResumed;
+        this.cards = cards;
+        this.transactions = transactions;
+        this.transactionsWritten = transactionsWritten;
+        this.elapsedNanos = elapsedNanos;
+        this.peakHeapBytes = peakHeapBytes;
+    }
+
+    public YearMonth getPeriod() {
+        return period;
+    }
+
+    // Última secuencia del journal considerada; una corrida reanudada usa la de la original
+    public long getCutoffSequence() {
+        return cutoffSequence;
+    }
+
+    public int getPartitions() {
+        return partitions;
+    }
+
+    public int getPartitionsWritten() {
+        return partitionsWritten;
+    }
+
+    public int getPartitionsResumed() {
+        return partitionsResumed;
+    }
+
+    public long getCards() {
+        return cards;
+    }
+
+    public long getTransactions() {
+        return transactions;
+    }
+
+    public long getTransactionsWritten() {
+        return transactionsWritten;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getRecordsPerSecond() {
+        return elapsedNanos == 0 ? 0 : transactionsWritten * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    // Suma de los picos de cada pool del heap durante la corrida: cota superior del pico real,
+    // porque los pools no llegan a su máximo al mismo tiempo
+    public long getPeakHeapBytes() {
+        return peakHeapBytes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("statements %s: %d cards, %d transactions (%d written) in %d/%d partitions "
+                        + "(%d resumed), %.0f records/s, peak heap %d MB",
+                period, cards, transactions, transactionsWritten, partitionsWritten + partitionsResumed,
+                partitions, partitionsResumed, getRecordsPerSecond(), peakHeapBytes / (1024 * 1024));
+    }
+}
@@ -0,0 +1,59 @@
+package com.inferno.card_service.statement;
+
+import com.inferno.card_service.ledger.EntryType;
+
+// Totales de una tarjeta en el periodo, acumulados a medida que pasan los movimientos
+final class StatementTotals {
+
+    private long cardId;
+    private long openingBalance;
+    private long balance;
+    private long purchases;
+    private long payments;
+    private long transactions;
+
+    void reset(long cardId, long openingBalance) {
+        this.cardId = cardId;
+        this.openingBalance = openingBalance;
+        this.balance = openingBalance;
+        this.purchases = 0;
+        this.payments = 0;
+        this.transactions = 0;
+    }
+
+    // Devuelve el saldo después del movimiento
+    long add(EntryType type, long amountCents) {
+        if (type == EntryType.PURCHASE) {
+            purchases += amountCents;
+        } else {
+            payments += amountCents;
+        }
+        transactions++;
+        balance += type.signedAmount(amountCents);
+        return balance;
+    }
+
+    long cardId() {
+        return cardId;
+    }
+
+    long openingBalance() {
+        return openingBalance;
+    }
+
+    long closingBalance() {
+        return balance;
+    }
+
+    long purchases() {
+        return purchases;
+    }
+
+    long payments() {
+        return payments;
+    }
+
+    long transactions() {
+        return transactions;
+    }
+}
@@ -0,0 +1,21 @@
+package com.inferno.card_service.statement;
+
+import com.inferno.card_service.ledger.EntryType;
+
+import java.io.IOException;
+
+// Salida de un formato para una partición: recibe las tarjetas en orden y, por cada una, sus
+// movimientos en orden de secuencia. close publica lo escrito; abort lo descarta.
+interface StatementWriter {
+
+    void begin(long cardId, long openingBalance) throws IOException;
+
+    void transaction(long sequence, long timestampMillis, EntryType type, long amountCents, long reference,
+                     long balance) throws IOException;
+
+    void end(StatementTotals totals) throws IOException;
+
+    void close() throws IOException;
+
+    void abort();
+}
@@ -0,0 +1,35 @@
+package com.inferno.card_service.vault;
+
+// 128 de los 256 bits del HMAC-SHA256 del PAN: una colisión entre PAN distintos es despreciable
+public final class BlindIndex {
+
+    private final long high;
+    private final long low;
+
+    public BlindIndex(long high, long low) {
+        this.high = high;
+        this.low = low;
+    }
+
+    public long getHigh() {
+        return high;
+    }
+
+    public long getLow() {
+        return low;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof BlindIndex)) {
+            return false;
+        }
+        BlindIndex that = (BlindIndex) other;
+        return high == that.high && low == that.low;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (low ^ (low >>> 32));
+    }
+}
@@ -0,0 +1,21 @@
+package com.inferno.card_service.vault;
+
+// Llave de datos AES-256: en claro para usarla ahora y cifrada para guardarla junto a los datos
+public final class DataKey {
+
+    private final byte[] plaintext;
+    private final byte[] encrypted;
+
+    public DataKey(byte[] plaintext, byte[] encrypted) {
+        this.plaintext = plaintext;
+        this.encrypted = encrypted;
+    }
+
+    public byte[] getPlaintext() {
+        return plaintext;
+    }
+
+    public byte[] getEncrypted() {
+        return encrypted;
+    }
+}
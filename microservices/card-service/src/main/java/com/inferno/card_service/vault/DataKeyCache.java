@@ -0,0 +1,141 @@
+package com.inferno.card_service.vault;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Caché de llaves de datos para no llamar al proveedor (KMS) en cada operación.
+// Para cifrar se reutiliza una llave hasta maxUses cifrados o maxAge, y después se genera otra.
+// Cada llave tiene una versión; la versión cifrada se guarda en el VaultStore para poder descifrar
+// registros viejos (también después de reiniciar), y las ya descifradas se conservan en memoria
+// (hasta decryptedKeyCacheSize) para detokenizar.
+final class DataKeyCache {
+
+    private final KeyProvider provider;
+    private final long maxAgeNanos;
+    private final long maxUses;
+    private final int maxDecryptedKeys;
+    private final VaultStore store;
+    private final Map<Integer, SecretKey> decryptedKeys = new ConcurrentHashMap<>();
+    private final AtomicInteger versions = new AtomicInteger();
+    private final AtomicLong generated = new AtomicLong();
+    private final AtomicLong unwrapped = new AtomicLong();
+
+    private volatile ActiveKey active;
+
+    DataKeyCache(KeyProvider provider, VaultConfig config, VaultStore store) {
+        this.provider = provider;
+        this.maxAgeNanos = config.getDataKeyMaxAge().toNanos();
+        this.maxUses = config.getDataKeyMaxUses();
+        this.maxDecryptedKeys = config.getDecryptedKeyCacheSize();
+        this.store = store;
+        this.versions.set(store.latestDataKeyVersion());
+    }
+
+    // Llave para un cifrado nuevo; cada llamada consume un uso
+    ActiveKey forEncryption() {
+        ActiveKey current = active;
+        if (current != null && current.tryUse(maxUses, maxAgeNanos)) {
+            return current;
+        }
+        return rotate(current);
+    }
+
+    SecretKey forDecryption(int version) {
+        SecretKey key = decryptedKeys.get(version);
+        if (key != null) {
+            return key;
+        }
+        byte[] encrypted = store.getDataKey(version);
+        if (encrypted == null) {
+            throw new IllegalStateException("Unknown data key version " + version);
+        }
+        unwrapped.incrementAndGet();
+        key = toKey(provider.decrypt(encrypted));
+        if (maxDecryptedKeys > 0) {
+            if (decryptedKeys.size() >= maxDecryptedKeys) {
+                // Pocas versiones vivas en la práctica: vaciar es más simple que un LRU
+                decryptedKeys.clear();
+            }
+            decryptedKeys.put(version, key);
+        }
+        return key;
+    }
+
+    long getGeneratedKeys() {
+        return generated.get();
+    }
+
+    long getUnwrappedKeys() {
+        return unwrapped.get();
+    }
+
+    // Fuerza una llave nueva para los próximos cifrados
+    synchronized void rotate() {
+        active = newKey();
+    }
+
+    private synchronized ActiveKey rotate(ActiveKey seen) {
+        ActiveKey current = active;
+        if (current != seen && current != null && current.tryUse(maxUses, maxAgeNanos)) {
+            // Otro hilo ya la cambió
+            return current;
+        }
+        ActiveKey next = newKey();
+        next.tryUse(maxUses, maxAgeNanos);
+        active = next;
+        return next;
+    }
+
+    private ActiveKey newKey() {
+        DataKey dataKey = provider.generateDataKey();
+        generated.incrementAndGet();
+        // Otra instancia sobre el mismo almacén pudo tomar la versión: se pasa a la siguiente
+        int version = versions.incrementAndGet();
+        while (!store.putDataKeyIfAbsent(version, dataKey.getEncrypted())) {
+            versions.accumulateAndGet(store.latestDataKeyVersion(), Math::max);
+            version = versions.incrementAndGet();
+        }
+        SecretKey key = toKey(dataKey.getPlaintext());
+        if (maxDecryptedKeys > 0) {
+            decryptedKeys.put(version, key);
+        }
+        return new ActiveKey(version, key, System.nanoTime());
+    }
+
+    private static SecretKey toKey(byte[] plaintext) {
+        SecretKey key = new SecretKeySpec(plaintext, "AES");
+        // SecretKeySpec copia los bytes: el original se borra
+        Arrays.fill(plaintext, (byte) 0);
+        return key;
+    }
+
+    static final class ActiveKey {
+        private final int version;
+        private final SecretKey key;
+        private final long createdNanos;
+        private final AtomicLong uses = new AtomicLong();
+
+        private ActiveKey(int version, SecretKey key, long createdNanos) {
+            this.version = version;
+            this.key = key;
+            this.createdNanos = createdNanos;
+        }
+
+        private boolean tryUse(long maxUses, long maxAgeNanos) {
+            return System.nanoTime() - createdNanos < maxAgeNanos && uses.incrementAndGet() <= maxUses;
+        }
+
+        int version() {
+            return version;
+        }
+
+        SecretKey key() {
+            return key;
+        }
+    }
+}
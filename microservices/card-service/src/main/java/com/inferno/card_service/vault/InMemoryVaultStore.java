@@ -0,0 +1,66 @@
+package com.inferno.card_service.vault;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Almacén en memoria del proceso: es el que usa PanVault.fromEnvironment mientras no haya uno
+// persistente. Todo se pierde al reiniciar, y con ello la posibilidad de detokenizar lo emitido.
+public final class InMemoryVaultStore implements VaultStore {
+
+    private final Map<String, VaultRecord> records = new ConcurrentHashMap<>();
+    private final Map<BlindIndex, String> index = new ConcurrentHashMap<>();
+    private final Map<Integer, byte[]> dataKeys = new ConcurrentHashMap<>();
+    private final AtomicInteger latestVersion = new AtomicInteger();
+
+    @Override
+    public boolean putRecordIfAbsent(String token, VaultRecord record) {
+        return records.putIfAbsent(token, record) == null;
+    }
+
+    @Override
+    public VaultRecord getRecord(String token) {
+        return records.get(token);
+    }
+
+    @Override
+    public void removeRecord(String token) {
+        records.remove(token);
+    }
+
+    @Override
+    public String putIndexIfAbsent(BlindIndex blindIndex, String token) {
+        String existing = index.putIfAbsent(blindIndex, token);
+        return existing == null ? token : existing;
+    }
+
+    @Override
+    public String findToken(BlindIndex blindIndex) {
+        return index.get(blindIndex);
+    }
+
+    @Override
+    public boolean putDataKeyIfAbsent(int version, byte[] encryptedKey) {
+        if (dataKeys.putIfAbsent(version, encryptedKey.clone()) != null) {
+            return false;
+        }
+        latestVersion.accumulateAndGet(version, Math::max);
+        return true;
+    }
+
+    @Override
+    public byte[] getDataKey(int version) {
+        byte[] encrypted = dataKeys.get(version);
+        return encrypted == null ? null : encrypted.clone();
+    }
+
+    @Override
+    public int latestDataKeyVersion() {
+        return latestVersion.get();
+    }
+
+    @Override
+    public int size() {
+        return records.size();
+    }
+}
@@ -0,0 +1,12 @@
+package com.inferno.card_service.vault;
+
+// Proveedor de llaves de datos con cifrado de sobre (KMS en AWS, en memoria para pruebas):
+// la llave de datos se genera con una llave maestra que nunca sale del proveedor y se guarda
+// cifrada; para usarla hay que volver a pedirle que la descifre.
+public interface KeyProvider {
+
+    DataKey generateDataKey();
+
+    // Llave de datos en claro a partir de su versión cifrada
+    byte[] decrypt(byte[] encryptedKey);
+}
@@ -0,0 +1,49 @@
+package com.inferno.card_service.vault;
+
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.kms.KmsClient;
+import software.amazon.awssdk.services.kms.model.DataKeySpec;
+import software.amazon.awssdk.services.kms.model.GenerateDataKeyResponse;
+
+// Llaves de datos de AWS KMS (GenerateDataKey / Decrypt) sobre la llave maestra keyId
+public class KmsKeyProvider implements KeyProvider {
+
+    private final KmsClient kms;
+    private final String keyId;
+
+    public KmsKeyProvider(KmsClient kms, String keyId) {
+        this.kms = kms;
+        this.keyId = keyId;
+    }
+
+    public static KmsKeyProvider fromEnvironment() {
+        String keyId = System.getenv("VAULT_KMS_KEY_ID");
+        if (keyId == null || keyId.isBlank()) {
+            throw new IllegalStateException("VAULT_KMS_KEY_ID is required");
+        }
+        String region = System.getenv("AWS_REGION");
+        KmsClient kms = KmsClient.builder()
+                .region(Region.of(region == null || region.isBlank() ? "us-east-2" : region))
+                .httpClient(ApacheHttpClient.builder().build())
+                .build();
+        return new KmsKeyProvider(kms, keyId);
+    }
+
+    @Override
+    public DataKey generateDataKey() {
+        GenerateDataKeyResponse response = kms.generateDataKey(request -> request
+                .keyId(keyId)
+                .keySpec(DataKeySpec.AES_256));
+        return new DataKey(response.plaintext().asByteArray(), response.ciphertextBlob().asByteArray());
+    }
+
+    @Override
+    public byte[] decrypt(byte[] encryptedKey) {
+        return kms.decrypt(request -> request
+                .keyId(keyId)
+                .ciphertextBlob(SdkBytes.fromByteArray(encryptedKey)))
+                .plaintext().asByteArray();
+    }
+}
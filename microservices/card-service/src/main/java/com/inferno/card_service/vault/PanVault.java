@@ -0,0 +1,288 @@
+package com.inferno.card_service.vault;
+
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+
+// Bóveda de números de tarjeta (PAN). Cada PAN se guarda cifrado con AES-GCM bajo una llave de
+// datos (DataKeyCache) y se entrega un token con su mismo formato: misma longitud y mismos
+// últimos cuatro dígitos, pero que nunca pasa el control de Luhn, así que no se confunde con una
+// tarjeta real. El token va como dato asociado del cifrado: un registro no se puede mover a otro token.
+// El índice ciego (HMAC-SHA256 del PAN con una llave propia) permite saber si un PAN ya está y cuál
+// es su token con una búsqueda en un mapa, sin descifrar ni recorrer nada; detokenizar es otra
+// búsqueda más el descifrado de ese único registro.
+// Registros, índice y llaves de datos cifradas viven en un VaultStore. El único que existe hoy es
+// InMemoryVaultStore, así que con fromEnvironment la bóveda es solo en memoria: al reiniciar se
+// pierden los tokens emitidos. La llave del índice ciego sí se carga de VAULT_INDEX_KEY.
+public class PanVault {
+
+    private static final int IV_BYTES = 12;
+    private static final int TAG_BITS = 128;
+    private static final long[] POWERS_OF_TEN = new long[19];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private final DataKeyCache dataKeys;
+    private final byte[] encryptedIndexKey;
+    private final VaultStore store;
+    // Cipher, Mac y SecureRandom no son thread-safe (o se sincronizan por dentro): uno por hilo
+    private final ThreadLocal<Cipher> ciphers;
+    private final ThreadLocal<Mac> macs;
+    private final ThreadLocal<SecureRandom> randoms;
+
+    private PanVault(DataKeyCache dataKeys, byte[] encryptedIndexKey, SecretKey indexKey, VaultStore store) {
+        this.dataKeys = dataKeys;
+        this.encryptedIndexKey = encryptedIndexKey;
+        this.store = store;
+        this.ciphers = ThreadLocal.withInitial(() -> {
+            try {
+                return Cipher.getInstance("AES/GCM/NoPadding");
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("AES-GCM not available", e);
+            }
+        });
+        this.macs = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance("HmacSHA256");
+                mac.init(indexKey);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HmacSHA256 not available", e);
+            }
+        });
+        this.randoms = ThreadLocal.withInitial(() -> {
+            try {
+                return SecureRandom.getInstance("DRBG");
+            } catch (NoSuchAlgorithmException e) {
+                return new SecureRandom();
+            }
+        });
+    }
+
+    public static PanVault fromEnvironment() {
+        VaultConfig config = VaultConfig.fromEnvironment();
+        if (config.getEncryptedIndexKey() == null) {
+            System.err.println("VAULT_INDEX_KEY is not set: generating a new blind index key for this process");
+        }
+        return create(KmsKeyProvider.fromEnvironment(), config, config.getEncryptedIndexKey(), new InMemoryVaultStore());
+    }
+
+    public static PanVault create(KeyProvider provider, VaultConfig config, byte[] encryptedIndexKey) {
+        return create(provider, config, encryptedIndexKey, new InMemoryVaultStore());
+    }
+
+    // encryptedIndexKey: la llave del índice ciego tal como se guardó (null genera una nueva; ver
+    // getEncryptedIndexKey para guardarla). No rota: cambiarla obliga a recalcular el índice de
+    // todos los PAN del almacén
+    public static PanVault create(KeyProvider provider, VaultConfig config, byte[] encryptedIndexKey,
+                                  VaultStore store) {
+        byte[] plaintext;
+        byte[] encrypted;
+        if (encryptedIndexKey == null) {
+            DataKey dataKey = provider.generateDataKey();
+            plaintext = dataKey.getPlaintext();
+            encrypted = dataKey.getEncrypted();
+        } else {
+            plaintext = provider.decrypt(encryptedIndexKey);
+            encrypted = encryptedIndexKey.clone();
+        }
+        SecretKey indexKey = new SecretKeySpec(plaintext, "HmacSHA256");
+        Arrays.fill(plaintext, (byte) 0);
+        return new PanVault(new DataKeyCache(provider, config, store), encrypted, indexKey, store);
+    }
+
+    // Mismo PAN, mismo token: si ya estaba se devuelve el existente
+    public String tokenize(String pan) {
+        byte[] digits = requirePan(pan);
+        try {
+            BlindIndex blind = blindIndex(digits);
+            String token = store.findToken(blind);
+            if (token != null) {
+                return token;
+            }
+            token = store(digits);
+            String winner = store.putIndexIfAbsent(blind, token);
+            if (!winner.equals(token)) {
+                // Otro hilo (u otra instancia) tokenizó el mismo PAN primero: se descarta el registro propio
+                store.removeRecord(token);
+            }
+            return winner;
+        } finally {
+            Arrays.fill(digits, (byte) 0);
+        }
+    }
+
+    // null si el token no existe
+    public String detokenize(String token) {
+        VaultRecord record = token == null ? null : store.getRecord(token);
+        if (record == null) {
+            return null;
+        }
+        byte[] payload = record.getPayload();
+        try {
+            Cipher cipher = ciphers.get();
+            cipher.init(Cipher.DECRYPT_MODE, dataKeys.forDecryption(record.getKeyVersion()),
+                    new GCMParameterSpec(TAG_BITS, payload, 0, IV_BYTES));
+            cipher.updateAAD(token.getBytes(StandardCharsets.US_ASCII));
+            byte[] digits = cipher.doFinal(payload, IV_BYTES, payload.length - IV_BYTES);
+            String pan = new String(digits, StandardCharsets.US_ASCII);
+            Arrays.fill(digits, (byte) 0);
+            return pan;
+        } catch (AEADBadTagException e) {
+            throw new IllegalStateException("Vault record for token failed authentication");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not decrypt vault record", e);
+        }
+    }
+
+    public boolean exists(String pan) {
+        return findToken(pan) != null;
+    }
+
+    // Token de un PAN ya guardado, o null
+    public String findToken(String pan) {
+        byte[] digits = requirePan(pan);
+        try {
+            return store.findToken(blindIndex(digits));
+        } finally {
+            Arrays.fill(digits, (byte) 0);
+        }
+    }
+
+    public int size() {
+        return store.size();
+    }
+
+    // Los cifrados siguientes usan una llave de datos nueva; los registros viejos siguen legibles
+    public void rotateDataKey() {
+        dataKeys.rotate();
+    }
+
+    public byte[] getEncryptedIndexKey() {
+        return encryptedIndexKey.clone();
+    }
+
+    public long getGeneratedDataKeys() {
+        return dataKeys.getGeneratedKeys();
+    }
+
+    public long getUnwrappedDataKeys() {
+        return dataKeys.getUnwrappedKeys();
+    }
+
+    private String store(byte[] digits) {
+        while (true) {
+            String token = newToken(digits);
+            VaultRecord record = encrypt(digits, token);
+            // Dos PAN distintos pueden sortear el mismo token: se vuelve a sortear
+            if (store.putRecordIfAbsent(token, record)) {
+                return token;
+            }
+        }
+    }
+
+    private VaultRecord encrypt(byte[] digits, String token) {
+        DataKeyCache.ActiveKey key = dataKeys.forEncryption();
+        try {
+            Cipher cipher = ciphers.get();
+            byte[] iv = new byte[IV_BYTES];
+            randoms.get().nextBytes(iv);
+            byte[] payload = Arrays.copyOf(iv, IV_BYTES + digits.length + TAG_BITS / 8);
+            cipher.init(Cipher.ENCRYPT_MODE, key.key(), new GCMParameterSpec(TAG_BITS, iv));
+            cipher.updateAAD(token.getBytes(StandardCharsets.US_ASCII));
+            cipher.doFinal(digits, 0, digits.length, payload, IV_BYTES);
+            return new VaultRecord(key.version(), payload);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not encrypt card number", e);
+        }
+    }
+
+    // Dígitos al azar y los últimos cuatro del PAN; si el resultado pasa Luhn se cambia el primero
+    private String newToken(byte[] digits) {
+        int length = digits.length;
+        int randomDigits = length - 4;
+        long value = randoms.get().nextLong(POWERS_OF_TEN[randomDigits]);
+        char[] token = new char[length];
+        for (int i = randomDigits - 1; i >= 0; i--) {
+            token[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        for (int i = randomDigits; i < length; i++) {
+            token[i] = (char) digits[i];
+        }
+        if (luhnValid(token)) {
+            // Cambiar un dígito siempre cambia la suma de Luhn módulo 10
+            token[0] = (char) ('0' + (token[0] - '0' + 1) % 10);
+        }
+        return new String(token);
+    }
+
+    private BlindIndex blindIndex(byte[] digits) {
+        byte[] mac = macs.get().doFinal(digits);
+        return new BlindIndex(toLong(mac, 0), toLong(mac, 8));
+    }
+
+    // Nunca se incluye el PAN en los mensajes de error
+    private static byte[] requirePan(String pan) {
+        if (pan == null || pan.length() < 13 || pan.length() > 19) {
+            throw new IllegalArgumentException("Card number must have between 13 and 19 digits");
+        }
+        char[] chars = new char[pan.length()];
+        for (int i = 0; i < pan.length(); i++) {
+            char c = pan.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new IllegalArgumentException("Card number must contain only digits");
+            }
+            chars[i] = c;
+        }
+        boolean valid = luhnValid(chars);
+        byte[] digits = new byte[chars.length];
+        for (int i = 0; i < chars.length; i++) {
+            digits[i] = (byte) chars[i];
+        }
+        Arrays.fill(chars, '\0');
+        if (!valid) {
+            Arrays.fill(digits, (byte) 0);
+            throw new IllegalArgumentException("Card number failed the Luhn check");
+        }
+        return digits;
+    }
+
+    static boolean luhnValid(char[] digits) {
+        int sum = 0;
+        boolean doubled = false;
+        for (int i = digits.length - 1; i >= 0; i--) {
+            int digit = digits[i] - '0';
+            if (doubled) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubled = !doubled;
+        }
+        return sum % 10 == 0;
+    }
+
+    private static long toLong(byte[] bytes, int offset) {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (bytes[offset + i] & 0xFF);
+        }
+        return value;
+    }
+}
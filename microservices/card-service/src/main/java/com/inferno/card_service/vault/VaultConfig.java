@@ -0,0 +1,105 @@
+package com.inferno.card_service.vault;
+
+import java.time.Duration;
+import java.util.Base64;
+
+// Configuración de la bóveda de tarjetas, leída de variables de entorno con valores por defecto
+public final class VaultConfig {
+
+    private final Duration dataKeyMaxAge;
+    private final long dataKeyMaxUses;
+    private final int decryptedKeyCacheSize;
+    private final byte[] encryptedIndexKey;
+
+    private VaultConfig(Builder builder) {
+        this.dataKeyMaxAge = builder.dataKeyMaxAge;
+        this.dataKeyMaxUses = builder.dataKeyMaxUses;
+        this.decryptedKeyCacheSize = builder.decryptedKeyCacheSize;
+        this.encryptedIndexKey = builder.encryptedIndexKey;
+    }
+
+    public static VaultConfig fromEnvironment() {
+        return builder()
+                .dataKeyMaxAge(Duration.ofSeconds(Long.parseLong(env("VAULT_DATA_KEY_MAX_AGE_SECONDS", "300"))))
+                .dataKeyMaxUses(Long.parseLong(env("VAULT_DATA_KEY_MAX_USES", "1000000")))
+                .decryptedKeyCacheSize(Integer.parseInt(env("VAULT_DECRYPTED_KEYS", "1024")))
+                .encryptedIndexKey(base64(env("VAULT_INDEX_KEY", "")))
+                .build();
+    }
+
+    private static byte[] base64(String value) {
+        return value.isEmpty() ? null : Base64.getDecoder().decode(value);
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public Duration getDataKeyMaxAge() {
+        return dataKeyMaxAge;
+    }
+
+    public long getDataKeyMaxUses() {
+        return dataKeyMaxUses;
+    }
+
+    public int getDecryptedKeyCacheSize() {
+        return decryptedKeyCacheSize;
+    }
+
+    public byte[] getEncryptedIndexKey() {
+        return encryptedIndexKey == null ? null : encryptedIndexKey.clone();
+    }
+
+    public static final class Builder {
+        private Duration dataKeyMaxAge = Duration.ofMinutes(5);
+        // Con IVs aleatorios de 96 bits, NIST limita a 2^32 cifrados por llave: muy por debajo
+        private long dataKeyMaxUses = 1_000_000;
+        // Llaves de datos ya descifradas que se conservan para detokenizar; 0 desactiva la caché
+        private int decryptedKeyCacheSize = 1024;
+        // Llave del índice ciego cifrada por el proveedor (PanVault.getEncryptedIndexKey, en base64
+        // en VAULT_INDEX_KEY); null genera una nueva al crear la bóveda
+        private byte[] encryptedIndexKey;
+
+        private Builder() {
+        }
+
+        public Builder dataKeyMaxAge(Duration dataKeyMaxAge) {
+            this.dataKeyMaxAge = dataKeyMaxAge;
+            return this;
+        }
+
+        public Builder dataKeyMaxUses(long dataKeyMaxUses) {
+            this.dataKeyMaxUses = dataKeyMaxUses;
+            return this;
+        }
+
+        public Builder decryptedKeyCacheSize(int decryptedKeyCacheSize) {
+            this.decryptedKeyCacheSize = decryptedKeyCacheSize;
+            return this;
+        }
+
+        public Builder encryptedIndexKey(byte[] encryptedIndexKey) {
+            this.encryptedIndexKey = encryptedIndexKey == null ? null : encryptedIndexKey.clone();
+            return this;
+        }
+
+        public VaultConfig build() {
+            if (dataKeyMaxUses <= 0 || dataKeyMaxUses > (1L << 32)) {
+                throw new IllegalStateException("dataKeyMaxUses must be between 1 and 2^32");
+            }
+            if (dataKeyMaxAge.isNegative() || dataKeyMaxAge.isZero()) {
+                throw new IllegalStateException("dataKeyMaxAge must be positive");
+            }
+            if (decryptedKeyCacheSize < 0) {
+                throw new IllegalStateException("decryptedKeyCacheSize must not be negative");
+            }
+            return new VaultConfig(this);
+        }
+    }
+}
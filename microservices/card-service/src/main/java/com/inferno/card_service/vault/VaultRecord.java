@@ -0,0 +1,21 @@
+package com.inferno.card_service.vault;
+
+// Un PAN cifrado: versión de la llave de datos y iv(12) + PAN cifrado + tag(16)
+public final class VaultRecord {
+
+    private final int keyVersion;
+    private final byte[] payload;
+
+    public VaultRecord(int keyVersion, byte[] payload) {
+        this.keyVersion = keyVersion;
+        this.payload = payload;
+    }
+
+    public int getKeyVersion() {
+        return keyVersion;
+    }
+
+    public byte[] getPayload() {
+        return payload;
+    }
+}
@@ -0,0 +1,33 @@
+package com.inferno.card_service.vault;
+
+// Dónde guarda PanVault su estado: registros cifrados por token, índice ciego -> token y las
+// llaves de datos cifradas por versión. Nada de esto es sensible en claro (solo cifrados y HMAC),
+// pero sin las tres partes los tokens emitidos no se pueden volver a detokenizar.
+// Las escrituras son condicionales: varias instancias pueden compartir el mismo almacén.
+public interface VaultStore {
+
+    // false si el token ya estaba ocupado por otro registro
+    boolean putRecordIfAbsent(String token, VaultRecord record);
+
+    // null si el token no existe
+    VaultRecord getRecord(String token);
+
+    void removeRecord(String token);
+
+    // Asocia el índice al token salvo que ya tuviera uno; devuelve el que quedó asociado
+    String putIndexIfAbsent(BlindIndex index, String token);
+
+    // null si el PAN de ese índice no está guardado
+    String findToken(BlindIndex index);
+
+    // false si la versión ya existía (otra instancia la generó primero)
+    boolean putDataKeyIfAbsent(int version, byte[] encryptedKey);
+
+    // null si la versión no existe
+    byte[] getDataKey(int version);
+
+    // 0 si todavía no hay llaves de datos
+    int latestDataKeyVersion();
+
+    int size();
+}
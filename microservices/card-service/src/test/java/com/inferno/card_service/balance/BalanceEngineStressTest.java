@@ -0,0 +1,156 @@
+package com.inferno.card_service.balance;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BalanceEngineStressTest {
+
+    private static final int THREADS = 8;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"cas", "sharded"})
+    void concurrentPurchasesOnAHotCardNeverExceedTheLimit(String mode) throws Exception {
+        try (BalanceEngine engine = engine(mode)) {
+            engine.openAccount(1, 50_000);
+            AtomicLong applied = new AtomicLong();
+            AtomicLong declined = new AtomicLong();
+            run(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    PostingResult result = engine.purchase(1, 1);
+                    (result == PostingResult.APPLIED ? applied : declined).incrementAndGet();
+                }
+            });
+
+            // 80.000 intentos de 1 centavo contra un cupo de 50.000: ni uno más ni uno menos
+            assertEquals(50_000, applied.get());
+            assertEquals(30_000, declined.get());
+            assertEquals(50_000, engine.balance(1));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"cas", "sharded"})
+    void limitChecksDoNotOverflowNearLongMaxValue(String mode) {
+        try (BalanceEngine engine = engine(mode)) {
+            engine.openAccount(1, Long.MAX_VALUE);
+            engine.openAccount(2, Long.MAX_VALUE);
+            assertEquals(PostingResult.APPLIED, engine.purchase(1, Long.MAX_VALUE - 10));
+            // Long.MAX_VALUE - 10 + 100 desborda a negativo: antes pasaba el control del límite
+            assertEquals(PostingResult.OVER_LIMIT, engine.purchase(1, 100));
+            assertEquals(PostingResult.APPLIED, engine.purchase(1, 10));
+            assertEquals(PostingResult.OVER_LIMIT, engine.purchase(1, 1));
+            assertEquals(Long.MAX_VALUE, engine.balance(1));
+
+            assertEquals(PostingResult.APPLIED, engine.purchase(2, 500));
+            assertEquals(PostingResult.OVER_LIMIT, engine.transfer(2, 1, Long.MAX_VALUE));
+            assertEquals(PostingResult.OVER_LIMIT, engine.transfer(2, 1, 200));
+            assertEquals(Long.MAX_VALUE, engine.balance(1));
+            assertEquals(500, engine.balance(2));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"cas", "sharded"})
+    void purchasesAndPaymentsAreNotLost(String mode) throws Exception {
+        try (BalanceEngine engine = engine(mode)) {
+            for (long card = 1; card <= 4; card++) {
+                engine.openAccount(card, Long.MAX_VALUE / 2);
+            }
+            AtomicLong expectedTotal = new AtomicLong();
+            run(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long local = 0;
+                for (int i = 0; i < 20_000; i++) {
+                    // Sesgo: la mitad de las operaciones van a la tarjeta 1
+                    long card = random.nextBoolean() ? 1 : 2 + random.nextInt(3);
+                    long amount = 1 + random.nextInt(500);
+                    if (random.nextInt(4) == 0) {
+                        engine.payment(card, amount);
+                        local -= amount;
+                    } else {
+                        assertEquals(PostingResult.APPLIED, engine.purchase(card, amount));
+                        local += amount;
+                    }
+                }
+                expectedTotal.addAndGet(local);
+            });
+
+            long total = 0;
+            for (long card = 1; card <= 4; card++) {
+                total += engine.balance(card);
+            }
+            assertEquals(expectedTotal.get(), total);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"cas", "sharded"})
+    void transfersConserveDebtAndRespectLimits(String mode) throws Exception {
+        int cards = 6;
+        long limit = 10_000;
+        try (BalanceEngine engine = engine(mode)) {
+            for (long card = 1; card <= cards; card++) {
+                engine.openAccount(card, limit);
+                assertEquals(PostingResult.APPLIED, engine.purchase(card, 5_000));
+            }
+            run(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < 10_000; i++) {
+                    long from = 1 + random.nextInt(cards);
+                    long to = 1 + random.nextInt(cards - 1);
+                    if (to >= from) {
+                        to++;
+                    }
+                    engine.transfer(from, to, 1 + random.nextInt(2_000));
+                }
+            });
+
+            long total = 0;
+            for (long card = 1; card <= cards; card++) {
+                long balance = engine.balance(card);
+                assertTrue(balance >= 0 && balance <= limit, "card " + card + ": " + balance);
+                total += balance;
+            }
+            assertEquals(cards * 5_000L, total);
+        }
+    }
+
+    private BalanceEngine engine(String mode) {
+        return "cas".equals(mode) ? new CasBalanceEngine(16) : new ShardedBalanceEngine(4, 1024);
+    }
+
+    // Todos los hilos arrancan juntos para maximizar la contención
+    private void run(Runnable body) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                body.run();
+                return null;
+            }));
+        }
+        start.countDown();
+        try {
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
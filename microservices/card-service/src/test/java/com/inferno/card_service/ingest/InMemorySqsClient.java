@@ -0,0 +1,322 @@
+package com.inferno.card_service.ingest;
+
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sqs.model.ChangeMessageVisibilityBatchRequest;
+import software.amazon.awssdk.services.sqs.model.ChangeMessageVisibilityBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.ChangeMessageVisibilityBatchResponse;
+import software.amazon.awssdk.services.sqs.model.ChangeMessageVisibilityBatchResultEntry;
+import software.amazon.awssdk.services.sqs.model.CreateQueueRequest;
+import software.amazon.awssdk.services.sqs.model.CreateQueueResponse;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageBatchResponse;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageBatchResultEntry;
+import software.amazon.awssdk.services.sqs.model.Message;
+import software.amazon.awssdk.services.sqs.model.MessageSystemAttributeName;
+import software.amazon.awssdk.services.sqs.model.QueueDoesNotExistException;
+import software.amazon.awssdk.services.sqs.model.ReceiveMessageRequest;
+import software.amazon.awssdk.services.sqs.model.ReceiveMessageResponse;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResponse;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResultEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageResponse;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// SQS estándar en memoria con lo que usa la ingesta (send, receive con long polling, delete y
+// change visibility en lote), para pruebas y benchmarks. Respeta el visibility
+// timeout y, como una redrive policy, pasa a la cola de mensajes muertos lo que ya se recibió
+// maxReceiveCount veces sin borrarse.
+public class InMemorySqsClient implements SqsClient {
+
+    private static final int MAX_BATCH = 10;
+    private static final long MAX_WAIT_SLICE_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+
+    private final long visibilityTimeoutNanos;
+    private final int maxReceiveCount;
+    private final Map<String, StoredQueue> queues = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+    private final AtomicLong receiveCalls = new AtomicLong();
+
+    public InMemorySqsClient() {
+        this(Duration.ofSeconds(30), 5);
+    }
+
+    public InMemorySqsClient(Duration visibilityTimeout, int maxReceiveCount) {
+        this.visibilityTimeoutNanos = visibilityTimeout.toNanos();
+        this.maxReceiveCount = maxReceiveCount;
+    }
+
+    @Override
+    public CreateQueueResponse createQueue(CreateQueueRequest request) {
+        String url = "memory://" + request.queueName();
+        queues.computeIfAbsent(url, key -> new StoredQueue());
+        return CreateQueueResponse.builder().queueUrl(url).build();
+    }
+
+    @Override
+    public SendMessageResponse sendMessage(SendMessageRequest request) {
+        String id = queue(request.queueUrl()).add(request.messageBody());
+        return SendMessageResponse.builder().messageId(id).build();
+    }
+
+    @Override
+    public SendMessageBatchResponse sendMessageBatch(SendMessageBatchRequest request) {
+        StoredQueue queue = queue(request.queueUrl());
+        List<SendMessageBatchResultEntry> successful = new ArrayList<>();
+        for (SendMessageBatchRequestEntry entry : request.entries()) {
+            String id = queue.add(entry.messageBody());
+            successful.add(SendMessageBatchResultEntry.builder().id(entry.id()).messageId(id).build());
+        }
+        return SendMessageBatchResponse.builder().successful(successful).failed(List.of()).build();
+    }
+
+    @Override
+    public ReceiveMessageResponse receiveMessage(ReceiveMessageRequest request) {
+        receiveCalls.incrementAndGet();
+        StoredQueue queue = queue(request.queueUrl());
+        int max = request.maxNumberOfMessages() == null ? 1 : Math.min(MAX_BATCH, request.maxNumberOfMessages());
+        long visibility = request.visibilityTimeout() == null
+                ? visibilityTimeoutNanos : TimeUnit.SECONDS.toNanos(request.visibilityTimeout());
+        long waitNanos = request.waitTimeSeconds() == null ? 0 : TimeUnit.SECONDS.toNanos(request.waitTimeSeconds());
+        return ReceiveMessageResponse.builder().messages(queue.receive(max, visibility, waitNanos)).build();
+    }
+
+    @Override
+    public DeleteMessageBatchResponse deleteMessageBatch(DeleteMessageBatchRequest request) {
+        StoredQueue queue = queue(request.queueUrl());
+        List<DeleteMessageBatchResultEntry> successful = new ArrayList<>();
+        List<BatchResultErrorEntry> failed = new ArrayList<>();
+        for (DeleteMessageBatchRequestEntry entry : request.entries()) {
+            if (queue.delete(entry.receiptHandle())) {
+                successful.add(DeleteMessageBatchResultEntry.builder().id(entry.id()).build());
+            } else {
+                failed.add(invalidReceipt(entry.id()));
+            }
+        }
+        return DeleteMessageBatchResponse.builder().successful(successful).failed(failed).build();
+    }
+
+    @Override
+    public ChangeMessageVisibilityBatchResponse changeMessageVisibilityBatch(ChangeMessageVisibilityBatchRequest request) {
+        StoredQueue queue = queue(request.queueUrl());
+        List<ChangeMessageVisibilityBatchResultEntry> successful = new ArrayList<>();
+        List<BatchResultErrorEntry> failed = new ArrayList<>();
+        for (ChangeMessageVisibilityBatchRequestEntry entry : request.entries()) {
+            long timeout = TimeUnit.SECONDS.toNanos(entry.visibilityTimeout() == null ? 0 : entry.visibilityTimeout());
+            if (queue.changeVisibility(entry.receiptHandle(), timeout)) {
+                successful.add(ChangeMessageVisibilityBatchResultEntry.builder().id(entry.id()).build());
+            } else {
+                failed.add(invalidReceipt(entry.id()));
+            }
+        }
+        return ChangeMessageVisibilityBatchResponse.builder().successful(successful).failed(failed).build();
+    }
+
+    // Mensajes disponibles para recibir
+    public int visibleCount(String queueUrl) {
+        return queue(queueUrl).visibleCount();
+    }
+
+    // Recibidos y todavía sin borrar
+    public int inFlightCount(String queueUrl) {
+        return queue(queueUrl).inFlightCount();
+    }
+
+    public List<String> deadLetters(String queueUrl) {
+        return queue(queueUrl).deadLetters();
+    }
+
+    public long getReceiveCalls() {
+        return receiveCalls.get();
+    }
+
+    @Override
+    public String serviceName() {
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    private StoredQueue queue(String url) {
+        StoredQueue queue = url == null ? null : queues.get(url);
+        if (queue == null) {
+            throw QueueDoesNotExistException.builder().message("Queue does not exist: " + url).build();
+        }
+        return queue;
+    }
+
+    private static BatchResultErrorEntry invalidReceipt(String id) {
+        return BatchResultErrorEntry.builder()
+                .id(id)
+                .code("ReceiptHandleIsInvalid")
+                .message("The receipt handle is not valid or has expired")
+                .senderFault(true)
+                .build();
+    }
+
+    private static final class StoredMessage {
+        private final String id;
+        private final String body;
+        private int receiveCount;
+        private long visibleAtNanos;
+        private String receiptHandle;
+
+        private StoredMessage(String id, String body) {
+            this.id = id;
+            this.body = body;
+        }
+    }
+
+    private final class StoredQueue {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition arrived = lock.newCondition();
+        private final ArrayDeque<StoredMessage> visible = new ArrayDeque<>();
+        private final Map<String, StoredMessage> inFlight = new LinkedHashMap<>();
+        private final List<String> deadLetters = new ArrayList<>();
+
+        private String add(String body) {
+            StoredMessage message = new StoredMessage("m-" + ids.incrementAndGet(), body);
+            lock.lock();
+            try {
+                visible.addLast(message);
+                arrived.signal();
+            } finally {
+                lock.unlock();
+            }
+            return message.id;
+        }
+
+        private List<Message> receive(int max, long visibilityNanos, long waitNanos) {
+            long deadline = System.nanoTime() + waitNanos;
+            List<Message> received = new ArrayList<>(max);
+            lock.lock();
+            try {
+                while (true) {
+                    long now = System.nanoTime();
+                    expireInFlight(now);
+                    while (received.size() < max && !visible.isEmpty()) {
+                        StoredMessage message = visible.pollFirst();
+                        message.receiveCount++;
+                        message.receiptHandle = message.id + "#" + message.receiveCount;
+                        message.visibleAtNanos = now + visibilityNanos;
+                        inFlight.put(message.receiptHandle, message);
+                        received.add(Message.builder()
+                                .messageId(message.id)
+                                .receiptHandle(message.receiptHandle)
+                                .body(message.body)
+                                .attributes(Map.of(MessageSystemAttributeName.APPROXIMATE_RECEIVE_COUNT,
+                                        String.valueOf(message.receiveCount)))
+                                .build());
+                    }
+                    long remaining = deadline - now;
+                    if (!received.isEmpty() || remaining <= 0) {
+                        return received;
+                    }
+                    // Tramos cortos: un mensaje cuyo visibility timeout vence no avisa
+                    arrived.awaitNanos(Math.min(remaining, MAX_WAIT_SLICE_NANOS));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return received;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private boolean delete(String receiptHandle) {
+            lock.lock();
+            try {
+                return inFlight.remove(receiptHandle) != null;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private boolean changeVisibility(String receiptHandle, long timeoutNanos) {
+            lock.lock();
+            try {
+                StoredMessage message = inFlight.get(receiptHandle);
+                if (message == null) {
+                    return false;
+                }
+                message.visibleAtNanos = System.nanoTime() + timeoutNanos;
+                if (timeoutNanos == 0) {
+                    expireInFlight(message.visibleAtNanos);
+                }
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // Bajo lock: lo que venció vuelve a la cola, o a la de muertos si agotó sus recepciones
+        private void expireInFlight(long now) {
+            Iterator<StoredMessage> iterator = inFlight.values().iterator();
+            boolean requeued = false;
+            while (iterator.hasNext()) {
+                StoredMessage message = iterator.next();
+                if (message.visibleAtNanos - now > 0) {
+                    continue;
+                }
+                iterator.remove();
+                message.receiptHandle = null;
+                if (message.receiveCount >= maxReceiveCount) {
+                    deadLetters.add(message.body);
+                } else {
+                    visible.addLast(message);
+                    requeued = true;
+                }
+            }
+            if (requeued) {
+                arrived.signalAll();
+            }
+        }
+
+        private int visibleCount() {
+            lock.lock();
+            try {
+                expireInFlight(System.nanoTime());
+                return visible.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private int inFlightCount() {
+            lock.lock();
+            try {
+                expireInFlight(System.nanoTime());
+                return inFlight.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private List<String> deadLetters() {
+            lock.lock();
+            try {
+                expireInFlight(System.nanoTime());
+                return new ArrayList<>(deadLetters);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
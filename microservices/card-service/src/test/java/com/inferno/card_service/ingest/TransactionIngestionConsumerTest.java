@@ -0,0 +1,250 @@
+package com.inferno.card_service.ingest;
+
+import com.inferno.card_service.ledger.EntryType;
+import com.inferno.card_service.ledger.FsyncPolicy;
+import com.inferno.card_service.ledger.Ledger;
+import com.inferno.card_service.ledger.LedgerConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransactionIngestionConsumerTest {
+
+    @TempDir
+    Path directory;
+
+    private InMemorySqsClient sqs;
+    private String queueUrl;
+
+    @BeforeEach
+    void setUp() {
+        sqs = new InMemorySqsClient(Duration.ofMillis(200), 2);
+        queueUrl = sqs.createQueue(request -> request.queueName("card-transactions")).queueUrl();
+    }
+
+    @Test
+    void appliesMicroBatchesWithOneCommitEachAndAcknowledgesAfterwards() throws IOException {
+        try (Ledger ledger = Ledger.open(ledgerConfig(FsyncPolicy.ALWAYS))) {
+            TransactionIngestionConsumer consumer = new TransactionIngestionConsumer(sqs, ledger, config(50, 1_000));
+            for (int i = 1; i <= 120; i++) {
+                send(event(1 + i % 3, i % 4 == 0 ? "PAYMENT" : "PURCHASE", 100, i));
+            }
+
+            BatchReport first = consumer.pollOnce();
+            assertEquals(50, first.getReceived());
+            assertEquals(50, first.getAppliedCount());
+            assertEquals(50, first.getCommittedSequence());
+            assertEquals(1, ledger.getFsyncCount());
+            assertEquals(70, sqs.visibleCount(queueUrl));
+            assertEquals(0, sqs.inFlightCount(queueUrl));
+
+            assertEquals(50, consumer.pollOnce().getAppliedCount());
+            assertEquals(20, consumer.pollOnce().getAppliedCount());
+            assertEquals(0, consumer.pollOnce().getReceived());
+            assertEquals(3, ledger.getFsyncCount());
+            assertEquals(120, ledger.durableSequence());
+
+            // Tarjeta 1: i = 3, 6, ..., 120 (40 movimientos); pagos en los múltiplos de 12
+            assertEquals(30 * 100 - 10 * 100, ledger.balance(1));
+        }
+    }
+
+    @Test
+    void reportsUndecodableMessagesAndDeadLettersThemWhileTheRestIsApplied() throws Exception {
+        try (Ledger ledger = Ledger.open(ledgerConfig(FsyncPolicy.GROUP))) {
+            TransactionIngestionConsumer consumer = new TransactionIngestionConsumer(sqs, ledger, config(10, 1_000));
+            send(event(7, "PURCHASE", 500, 1));
+            send("{\"cardId\":7,\"type\":\"REFUND\",\"amountCents\":500}");
+            send("not json");
+            send(event(7, "PURCHASE", 250, 2));
+
+            BatchReport report = consumer.pollOnce();
+            assertEquals(4, report.getReceived());
+            assertEquals(2, report.getAppliedCount());
+            assertEquals(2, report.getFailures().size());
+            assertEquals(TransactionEventParser.INVALID_TYPE, report.getFailures().get(0).getReason());
+            assertEquals(TransactionEventParser.MALFORMED, report.getFailures().get(1).getReason());
+            assertFalse(report.getFailures().get(0).isRetryable());
+            assertEquals(750, ledger.balance(7));
+
+            // Sin borrar: reaparecen al vencer el visibility timeout y al segundo intento van a la cola de muertos
+            Thread.sleep(250);
+            assertEquals(2, consumer.pollOnce().getFailures().size());
+            Thread.sleep(250);
+            assertEquals(2, sqs.deadLetters(queueUrl).size());
+            assertEquals(0, sqs.visibleCount(queueUrl) + sqs.inFlightCount(queueUrl));
+            assertEquals(750, ledger.balance(7));
+        }
+    }
+
+    @Test
+    void stopsReceivingWhileTheLedgerLagsAndReleasesBatchesItCouldNotCommit() throws IOException {
+        Ledger ledger = Ledger.open(ledgerConfig(FsyncPolicy.GROUP));
+        TransactionIngestionConsumer consumer = new TransactionIngestionConsumer(sqs, ledger, config(10, 2));
+        // Otro escritor dejó tres movimientos sin confirmar: antes de recibir se espera al disco
+        for (int i = 0; i < 3; i++) {
+            ledger.append(9, EntryType.PURCHASE, 10, 0);
+        }
+        send(event(9, "PURCHASE", 10, 1));
+        assertEquals(1, consumer.pollOnce().getAppliedCount());
+        assertEquals(1, consumer.getThrottledCount());
+        assertEquals(4, ledger.durableSequence());
+
+        // Con el ledger cerrado la tanda falla entera, se informa como reintentable y vuelve a la cola
+        ledger.close();
+        send(event(9, "PURCHASE", 10, 2));
+        BatchReport report = consumer.pollOnce();
+        assertEquals(0, report.getAppliedCount());
+        assertTrue(report.getFailures().get(0).isRetryable());
+        assertEquals("ledger unavailable: Journal is closed", report.getFailures().get(0).getReason());
+        assertEquals(1, sqs.visibleCount(queueUrl));
+    }
+
+    @Test
+    void aFailedCommitStopsIngestionAndKeepsTheBatchFromBeingAppliedTwice() throws Exception {
+        try (Ledger ledger = Ledger.open(ledgerConfig(FsyncPolicy.GROUP))) {
+            AtomicBoolean failNext = new AtomicBoolean(true);
+            TransactionIngestionConsumer consumer = new TransactionIngestionConsumer(sqs, ledger, config(10, 1_000),
+                    sequence -> {
+                        if (failNext.getAndSet(false)) {
+                            throw new UncheckedIOException(new IOException("No space left on device"));
+                        }
+                        ledger.commit(sequence);
+                    });
+            send(event(3, "PURCHASE", 100, 71));
+            send(event(3, "PURCHASE", 50, 72));
+
+            // El append ya aplicó la tanda: no se informa como reintentable ni se borra de la cola
+            TransactionIngestionConsumer.LedgerCommitFailure failure = assertThrows(
+                    TransactionIngestionConsumer.LedgerCommitFailure.class, consumer::pollOnce);
+            assertTrue(failure.getMessage().contains("No space left on device"));
+            assertEquals(150, ledger.balance(3));
+            assertEquals(0, consumer.getAppliedCount());
+            assertEquals(0, consumer.getRetriedCount());
+            assertEquals(2, sqs.inFlightCount(queueUrl));
+
+            // Al vencer el visibility timeout reaparecen y se descartan como duplicados
+            Thread.sleep(250);
+            BatchReport redelivered = consumer.pollOnce();
+            assertEquals(0, redelivered.getAppliedCount());
+            assertEquals(2, redelivered.getDuplicates().size());
+            assertEquals(150, ledger.balance(3));
+            assertEquals(0, sqs.visibleCount(queueUrl) + sqs.inFlightCount(queueUrl));
+        }
+    }
+
+    @Test
+    void discardsRedeliveredReferencesEvenAfterARestart() throws IOException {
+        try (Ledger ledger = Ledger.open(ledgerConfig(FsyncPolicy.GROUP))) {
+            TransactionIngestionConsumer consumer = new TransactionIngestionConsumer(sqs, ledger, config(10, 1_000));
+            send(event(5, "PURCHASE", 100, 41));
+            send(event(5, "PURCHASE", 100, 41));
+            send(event(5, "PURCHASE", 30, 0));
+            send(event(5, "PURCHASE", 30, 0));
+
+            BatchReport report = consumer.pollOnce();
+            assertEquals(3, report.getAppliedCount());
+            assertEquals(1, report.getDuplicates().size());
+            assertEquals(160, ledger.balance(5));
+            assertEquals(0, sqs.visibleCount(queueUrl) + sqs.inFlightCount(queueUrl));
+
+            // Reentrega tras un borrado que falló: se borra sin volver a cobrarla
+            send(event(5, "PURCHASE", 100, 41));
+            assertEquals(0, consumer.pollOnce().getAppliedCount());
+            assertEquals(2, consumer.getDuplicateCount());
+            assertEquals(160, ledger.balance(5));
+        }
+
+        // Caída entre el commit y el borrado: la ventana se siembra desde el journal
+        try (Ledger ledger = Ledger.open(ledgerConfig(FsyncPolicy.GROUP))) {
+            TransactionIngestionConsumer consumer = new TransactionIngestionConsumer(sqs, ledger, config(10, 1_000));
+            send(event(5, "PURCHASE", 100, 41));
+            send(event(5, "PURCHASE", 100, 42));
+            BatchReport report = consumer.pollOnce();
+            assertEquals(1, report.getAppliedCount());
+            assertEquals(1, report.getDuplicates().size());
+            assertEquals(260, ledger.balance(5));
+        }
+    }
+
+    @Test
+    void referenceWindowForgetsOnlyBeyondItsCapacityAndReleasesFailedBatches() {
+        ReferenceWindow window = new ReferenceWindow(2);
+        for (long reference = 1; reference <= 5; reference++) {
+            assertTrue(window.claim(reference));
+            window.confirm(new long[] {reference}, 1);
+        }
+        // Siempre recuerda al menos las dos últimas
+        assertFalse(window.claim(4));
+        assertFalse(window.claim(5));
+        assertTrue(window.claim(1));
+
+        assertTrue(window.claim(7));
+        assertFalse(window.claim(7));
+        window.release(new long[] {7}, 1);
+        assertTrue(window.claim(7));
+        assertTrue(window.claim(0));
+        assertTrue(window.claim(0));
+    }
+
+    @Test
+    void parserReadsFieldsInAnyOrderAndSkipsUnknownOnes() {
+        TransactionEventParser parser = new TransactionEventParser();
+        assertNull(parser.parse(" { \"meta\": {\"source\": \"pos\", \"tags\": [1, \"a\\\"b\", null]},"
+                + " \"amountCents\" : 1999, \"reference\": -5, \"type\": \"PAYMENT\", \"cardId\": 42 } "));
+        assertEquals(42, parser.cardId());
+        assertEquals(EntryType.PAYMENT, parser.type());
+        assertEquals(1999, parser.amountCents());
+        assertEquals(-5, parser.reference());
+
+        assertEquals(TransactionEventParser.INVALID_AMOUNT, parser.parse(event(1, "PURCHASE", 0, 0)));
+        assertEquals(TransactionEventParser.INVALID_AMOUNT,
+                parser.parse("{\"cardId\":1,\"type\":\"PURCHASE\",\"amountCents\":19.99}"));
+        assertEquals(TransactionEventParser.INVALID_CARD,
+                parser.parse("{\"cardId\":99999999999999999999,\"type\":\"PURCHASE\",\"amountCents\":1}"));
+        assertEquals(TransactionEventParser.MISSING_FIELD, parser.parse("{\"cardId\":1,\"amountCents\":1}"));
+        assertEquals(TransactionEventParser.MALFORMED, parser.parse("{\"cardId\":1,}"));
+        assertEquals(TransactionEventParser.MALFORMED, parser.parse(event(1, "PURCHASE", 1, 0) + "x"));
+    }
+
+    private void send(String body) {
+        sqs.sendMessage(request -> request.queueUrl(queueUrl).messageBody(body));
+    }
+
+    private static String event(long cardId, String type, long amountCents, long reference) {
+        return "{\"cardId\":" + cardId + ",\"type\":\"" + type + "\",\"amountCents\":" + amountCents
+                + ",\"reference\":" + reference + "}";
+    }
+
+    private IngestionConfig config(int maxBatch, long maxLag) {
+        return IngestionConfig.builder()
+                .queueUrl(queueUrl)
+                .workers(1)
+                .maxBatchMessages(maxBatch)
+                .receiveWaitSeconds(0)
+                .maxLedgerLag(maxLag)
+                .build();
+    }
+
+    private LedgerConfig ledgerConfig(FsyncPolicy policy) {
+        return LedgerConfig.builder()
+                .directory(directory)
+                .fsyncPolicy(policy)
+                .groupCommitWindow(Duration.ZERO)
+                .snapshotEveryEntries(0)
+                .build();
+    }
+}
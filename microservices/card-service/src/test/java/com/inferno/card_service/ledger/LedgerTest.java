@@ -0,0 +1,160 @@
+package com.inferno.card_service.ledger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LedgerTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recoversBalancesAcrossSegmentsAfterRestart() throws IOException {
+        // 64 registros por segmento: 500 movimientos ocupan ocho archivos
+        LedgerConfig config = config(FsyncPolicy.GROUP, 0);
+        try (Ledger ledger = Ledger.open(config)) {
+            for (int i = 1; i <= 500; i++) {
+                ledger.record(1 + i % 5, i % 10 == 0 ? EntryType.PAYMENT : EntryType.PURCHASE, 100, i);
+            }
+            assertEquals(500, ledger.durableSequence());
+            assertEquals(8, segments().size());
+        }
+
+        try (Ledger ledger = Ledger.open(config)) {
+            assertEquals(500, ledger.getReplayedEntries());
+            assertEquals(5, ledger.cardCount());
+            // Tarjeta 1: i = 5, 10, ..., 500; la mitad son pagos (múltiplos de 10)
+            assertEquals(50 * 100 - 50 * 100, ledger.balance(1));
+            assertEquals(100 * 100, ledger.balance(2));
+            assertEquals(501, ledger.record(2, EntryType.PURCHASE, 250, 0));
+            assertEquals(100 * 100 + 250, ledger.balance(2));
+        }
+    }
+
+    @Test
+    void tornTailIsDiscardedAndItsSequenceReused() throws IOException {
+        LedgerConfig config = config(FsyncPolicy.ALWAYS, 0);
+        try (Ledger ledger = Ledger.open(config)) {
+            for (int i = 0; i < 10; i++) {
+                ledger.record(7, EntryType.PURCHASE, 1_000, 0);
+            }
+        }
+        // Escritura a medias del décimo registro: un byte del cuerpo no llegó a disco
+        Path last = segments().get(segments().size() - 1);
+        try (RandomAccessFile file = new RandomAccessFile(last.toFile(), "rw")) {
+            long offset = 9L * JournalSegment.RECORD_SIZE + 30;
+            file.seek(offset);
+            file.write(file.read() ^ 0xFF);
+        }
+
+        try (Ledger ledger = Ledger.open(config)) {
+            assertEquals(9, ledger.lastSequence());
+            assertEquals(9_000, ledger.balance(7));
+            assertEquals(10, ledger.record(7, EntryType.PAYMENT, 500, 0));
+        }
+        try (Ledger ledger = Ledger.open(config)) {
+            assertEquals(8_500, ledger.balance(7));
+        }
+    }
+
+    @Test
+    void snapshotsBoundReplayAndADamagedOneFallsBackToThePrevious() throws IOException {
+        LedgerConfig config = config(FsyncPolicy.GROUP, 0);
+        try (Ledger ledger = Ledger.open(config)) {
+            for (int i = 1; i <= 300; i++) {
+                ledger.append(i % 50 + 1, EntryType.PURCHASE, 10, 0);
+            }
+            assertEquals(300, ledger.snapshot());
+            for (int i = 0; i < 20; i++) {
+                ledger.append(1, EntryType.PURCHASE, 10, 0);
+            }
+            assertEquals(320, ledger.snapshot());
+            ledger.commit(ledger.append(2, EntryType.PAYMENT, 10, 0));
+        }
+
+        try (Ledger ledger = Ledger.open(config)) {
+            assertEquals(320, ledger.getRecoveredFromSnapshot());
+            assertEquals(1, ledger.getReplayedEntries());
+            assertEquals(6 * 10 + 20 * 10, ledger.balance(1));
+            assertEquals(6 * 10 - 10, ledger.balance(2));
+        }
+
+        // Un saldo dañado en el snapshot más reciente
+        try (RandomAccessFile file = new RandomAccessFile(snapshots().get(1).toFile(), "rw")) {
+            file.seek(40);
+            file.write(file.read() ^ 0x01);
+        }
+        try (Ledger ledger = Ledger.open(config)) {
+            assertEquals(300, ledger.getRecoveredFromSnapshot());
+            assertEquals(21, ledger.getReplayedEntries());
+            assertEquals(6 * 10 + 20 * 10, ledger.balance(1));
+        }
+    }
+
+    @Test
+    void groupCommitSharesFsyncsBetweenConcurrentCommits() throws Exception {
+        LedgerConfig config = LedgerConfig.builder()
+                .directory(directory)
+                .fsyncPolicy(FsyncPolicy.GROUP)
+                .groupCommitWindow(Duration.ofMillis(1))
+                .snapshotEveryEntries(0)
+                .build();
+        int threads = 4;
+        int perThread = 100;
+        try (Ledger ledger = Ledger.open(config)) {
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                long cardId = t + 1;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        ledger.record(cardId, EntryType.PURCHASE, 1, 0);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            executor.shutdown();
+
+            assertEquals(threads * perThread, ledger.durableSequence());
+            assertTrue(ledger.getFsyncCount() < threads * perThread,
+                    "fsyncs: " + ledger.getFsyncCount());
+        }
+    }
+
+    private LedgerConfig config(FsyncPolicy policy, long snapshotEvery) {
+        return LedgerConfig.builder()
+                .directory(directory)
+                .segmentBytes(64 * JournalSegment.RECORD_SIZE)
+                .fsyncPolicy(policy)
+                .groupCommitWindow(Duration.ZERO)
+                .snapshotEveryEntries(snapshotEvery)
+                .build();
+    }
+
+    private List<Path> segments() throws IOException {
+        return Journal.segmentPaths(directory);
+    }
+
+    private List<Path> snapshots() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".snap")).sorted().toList();
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package com.inferno.card_service.statement;
+
+import com.inferno.card_service.ledger.EntryType;
+import com.inferno.card_service.ledger.FsyncPolicy;
+import com.inferno.card_service.ledger.Ledger;
+import com.inferno.card_service.ledger.LedgerConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StatementJobTest {
+
+    private static final String BUCKET = "statements";
+    private static final YearMonth PERIOD = YearMonth.of(2026, 9);
+
+    @TempDir
+    Path directory;
+
+    private final SettableClock ledgerClock = new SettableClock();
+    private final Clock jobClock = Clock.fixed(Instant.parse("2026-10-05T00:00:00Z"), ZoneOffset.UTC);
+
+    @Test
+    void writesOpeningBalancesRunningTotalsAndClosingBalancePerCard() throws IOException {
+        InMemoryS3Client s3 = new InMemoryS3Client();
+        try (Ledger ledger = openLedger()) {
+            ledgerClock.set("2026-08-20T12:00:00Z");
+            ledger.append(1, EntryType.PURCHASE, 10_000, 1);
+            ledger.append(2, EntryType.PURCHASE, 5_000, 2);
+            ledger.append(3, EntryType.PURCHASE, 700, 3);
+            // Saldo en cero y sin movimientos en el periodo: no lleva estado
+            ledger.append(4, EntryType.PURCHASE, 100, 4);
+            ledger.append(4, EntryType.PAYMENT, 100, 5);
+            ledgerClock.set("2026-09-05T10:15:30.250Z");
+            ledger.append(1, EntryType.PURCHASE, 1_999, 11);
+            ledger.append(2, EntryType.PAYMENT, 5_000, 12);
+            ledgerClock.set("2026-09-30T23:59:59.999Z");
+            ledger.append(1, EntryType.PAYMENT, 3_000, 13);
+            ledgerClock.set("2026-10-01T00:00:00Z");
+            ledger.append(1, EntryType.PURCHASE, 999, 14);
+
+            StatementRunReport report = newJob(s3, 4, EnumSet.allOf(StatementFormat.class))
+                    .run(ledger.durableSequence());
+
+            assertEquals(3, report.getCards());
+            assertEquals(3, report.getTransactions());
+            assertEquals(4, report.getPartitionsWritten());
+            assertEquals(0, report.getPartitionsResumed());
+            assertTrue(report.getPeakHeapBytes() > 0);
+        }
+
+        Map<Long, String> json = jsonByCard(s3);
+        assertEquals(3, json.size());
+        assertEquals("{\"cardId\":1,\"period\":\"2026-09\",\"openingBalanceCents\":10000,\"transactions\":["
+                + "{\"sequence\":6,\"postedAt\":\"2026-09-05T10:15:30.250Z\",\"type\":\"PURCHASE\","
+                + "\"amountCents\":1999,\"reference\":11,\"balanceCents\":11999},"
+                + "{\"sequence\":8,\"postedAt\":\"2026-09-30T23:59:59.999Z\",\"type\":\"PAYMENT\","
+                + "\"amountCents\":3000,\"reference\":13,\"balanceCents\":8999}],"
+                + "\"transactionCount\":2,\"purchasesCents\":1999,\"paymentsCents\":3000,"
+                + "\"closingBalanceCents\":8999}", json.get(1L));
+        assertTrue(json.get(2L).endsWith("\"closingBalanceCents\":0}"));
+        assertEquals("{\"cardId\":3,\"period\":\"2026-09\",\"openingBalanceCents\":700,\"transactions\":[],"
+                + "\"transactionCount\":0,\"purchasesCents\":0,\"paymentsCents\":0,"
+                + "\"closingBalanceCents\":700}", json.get(3L));
+
+        List<String> card3 = new ArrayList<>();
+        for (String row : csvRows(s3)) {
+            if (row.startsWith("3,")) {
+                card3.add(row);
+            }
+        }
+        assertEquals(List.of("3,OPENING,,,,,,700", "3,PURCHASES,,,,0,,", "3,PAYMENTS,,,,0,,", "3,CLOSING,,,,,,700"),
+                card3);
+
+        String pdf = new String(s3.getObjectBytes(BUCKET, "statements/2026-09/pdf/1.pdf"), StandardCharsets.ISO_8859_1);
+        assertTrue(pdf.startsWith("%PDF-1.4\n"));
+        assertTrue(pdf.endsWith("%%EOF\n"));
+        assertTrue(pdf.contains("(Saldo final: 89.99) Tj"));
+        int startxref = Integer.parseInt(pdf.substring(pdf.lastIndexOf("startxref\n") + 10, pdf.lastIndexOf("\n%%EOF")));
+        assertTrue(pdf.startsWith("xref\n", startxref));
+        assertNull(s3.getObjectBytes(BUCKET, "statements/2026-09/pdf/4.pdf"));
+        assertEquals(0, s3.openMultipartUploads());
+    }
+
+    @Test
+    void resumesFromPartitionCheckpointsWithTheOriginalCutoff() throws IOException {
+        FailingS3Client s3 = new FailingS3Client("statements/2026-09/csv/part-00000.csv");
+        try (Ledger ledger = openLedger()) {
+            fillSeptember(ledger, 200, 3);
+            long cutoff = ledger.durableSequence();
+
+            // Con un solo hilo la partición 0 es la última: las otras siete quedan con checkpoint
+            assertThrows(RuntimeException.class, () -> newJob(s3, 8, EnumSet.of(StatementFormat.CSV,
+                    StatementFormat.JSON), 1).run(cutoff));
+            assertEquals(7, s3.keys(BUCKET, "statements/2026-09/_checkpoints/").size());
+            assertNull(s3.getObjectBytes(BUCKET, "statements/2026-09/_SUCCESS"));
+
+            // Un movimiento que llega tarde no entra: la corrida reanudada conserva el corte original
+            ledgerClock.set("2026-09-15T00:00:00Z");
+            ledger.append(1, EntryType.PURCHASE, 1, 1);
+            s3.failing = false;
+            StatementRunReport report = newJob(s3, 8, EnumSet.of(StatementFormat.CSV, StatementFormat.JSON), 1)
+                    .run(ledger.durableSequence());
+
+            assertEquals(cutoff, report.getCutoffSequence());
+            assertEquals(7, report.getPartitionsResumed());
+            assertEquals(1, report.getPartitionsWritten());
+            assertEquals(200, report.getCards());
+            assertEquals(600, report.getTransactions());
+            assertTrue(report.getTransactionsWritten() < 600);
+            assertNotNull(s3.getObjectBytes(BUCKET, "statements/2026-09/_SUCCESS"));
+        }
+
+        assertEquals(200, jsonByCard(s3).size());
+        // Por tarjeta, los movimientos salen en orden de secuencia y de tiempo
+        Map<String, long[]> last = new HashMap<>();
+        int transactions = 0;
+        for (String row : csvRows(s3)) {
+            String[] columns = row.split(",", -1);
+            if (!columns[1].equals("TXN")) {
+                continue;
+            }
+            long sequence = Long.parseLong(columns[2]);
+            long time = Instant.parse(columns[3]).toEpochMilli();
+            long[] previous = last.put(columns[0], new long[]{sequence, time});
+            if (previous != null) {
+                assertTrue(sequence > previous[0] && time >= previous[1], row);
+            }
+            transactions++;
+        }
+        assertEquals(600, transactions);
+        assertEquals(0, s3.openMultipartUploads());
+    }
+
+    @Test
+    void refusesToResumeWithADifferentPartitioning() throws IOException {
+        InMemoryS3Client s3 = new InMemoryS3Client();
+        try (Ledger ledger = openLedger()) {
+            fillSeptember(ledger, 10, 1);
+            newJob(s3, 4, EnumSet.of(StatementFormat.CSV)).run(ledger.durableSequence());
+
+            assertThrows(IllegalStateException.class,
+                    () -> newJob(s3, 8, EnumSet.of(StatementFormat.CSV)).run(ledger.durableSequence()));
+        }
+    }
+
+    @Test
+    void writesInstantsLikeTheIsoFormatter() throws IOException {
+        DateTimeFormatter iso = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'").withZone(ZoneOffset.UTC);
+        Random random = new Random(25);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        AsciiOutput out = new AsciiOutput(bytes);
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 10_000; i++) {
+            // 1900 a 2200: cubre años bisiestos, el 29 de febrero y fechas previas a 1970
+            long millis = -2_208_988_800_000L + (long) (random.nextDouble() * 9_467_280_000_000L);
+            out.instant(millis).character('\n');
+            expected.append(iso.format(Instant.ofEpochMilli(millis))).append('\n');
+        }
+        out.instant(Instant.parse("2024-02-29T23:59:59.999Z").toEpochMilli());
+        expected.append("2024-02-29T23:59:59.999Z");
+        out.close();
+        assertEquals(expected.toString(), bytes.toString(StandardCharsets.US_ASCII));
+    }
+
+    private Ledger openLedger() throws IOException {
+        return Ledger.open(LedgerConfig.builder()
+                .directory(directory)
+                .fsyncPolicy(FsyncPolicy.NEVER)
+                .snapshotEveryEntries(0)
+                .build(), ledgerClock);
+    }
+
+    private void fillSeptember(Ledger ledger, int cards, int perCard) {
+        ledgerClock.set("2026-08-31T23:00:00Z");
+        for (int card = 1; card <= cards; card++) {
+            ledger.append(card, EntryType.PURCHASE, 5_000, 0);
+        }
+        for (int round = 0; round < perCard; round++) {
+            ledgerClock.set(Instant.parse("2026-09-01T00:00:00Z").plusSeconds(86_400L * 7 * round).toString());
+            for (int card = 1; card <= cards; card++) {
+                ledger.append(card, round % 2 == 0 ? EntryType.PURCHASE : EntryType.PAYMENT, 100 + card, round);
+            }
+        }
+    }
+
+    private StatementJob newJob(InMemoryS3Client s3, int partitions, EnumSet<StatementFormat> formats) {
+        return newJob(s3, partitions, formats, 2);
+    }
+
+    private StatementJob newJob(InMemoryS3Client s3, int partitions, EnumSet<StatementFormat> formats,
+                                int parallelism) {
+        return new StatementJob(directory, s3, StatementConfig.builder()
+                .bucket(BUCKET)
+                .period(PERIOD)
+                .zone(ZoneOffset.UTC)
+                .partitions(partitions)
+                .parallelism(parallelism)
+                .formats(formats)
+                .build(), jobClock);
+    }
+
+    private static Map<Long, String> jsonByCard(InMemoryS3Client s3) {
+        Map<Long, String> byCard = new HashMap<>();
+        for (String key : s3.keys(BUCKET, "statements/2026-09/json/")) {
+            for (String line : new String(s3.getObjectBytes(BUCKET, key), StandardCharsets.US_ASCII).split("\n")) {
+                if (line.isEmpty()) {
+                    // Partición sin tarjetas: el objeto existe y está vacío
+                    continue;
+                }
+                long cardId = Long.parseLong(line.substring("{\"cardId\":".length(), line.indexOf(',')));
+                assertNull(byCard.put(cardId, line), "card " + cardId + " appears twice");
+            }
+        }
+        return byCard;
+    }
+
+    private static List<String> csvRows(InMemoryS3Client s3) {
+        List<String> rows = new ArrayList<>();
+        for (String key : s3.keys(BUCKET, "statements/2026-09/csv/")) {
+            String[] lines = new String(s3.getObjectBytes(BUCKET, key), StandardCharsets.US_ASCII).split("\n");
+            assertEquals(CsvStatementWriter.HEADER.trim(), lines[0]);
+            for (int i = 1; i < lines.length; i++) {
+                rows.add(lines[i]);
+            }
+        }
+        return rows;
+    }
+
+    private static final class SettableClock extends Clock {
+        private volatile Instant now = Instant.EPOCH;
+
+        void set(String instant) {
+            now = Instant.parse(instant);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+    private static final class FailingS3Client extends InMemoryS3Client {
+        private final String failingKey;
+        private volatile boolean failing = true;
+
+        private FailingS3Client(String failingKey) {
+            this.failingKey = failingKey;
+        }
+
+        @Override
+        public PutObjectResponse putObject(PutObjectRequest request, RequestBody body) {
+            if (failing && request.key().equals(failingKey)) {
+                throw S3Exception.builder().message("injected failure").statusCode(500).build();
+            }
+            return super.putObject(request, body);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.inferno.card_service.vault;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Sustituto local de KMS para pruebas y benchmarks: una llave maestra AES en
+// memoria que envuelve las llaves de datos con AES-GCM. La latencia opcional simula el viaje de
+// red de cada llamada, que es justo lo que la caché de llaves de datos evita.
+public class InMemoryKeyProvider implements KeyProvider {
+
+    private static final int KEY_BYTES = 32;
+    private static final int IV_BYTES = 12;
+
+    private final SecretKeySpec masterKey;
+    private final SecureRandom random = new SecureRandom();
+    private volatile long latencyNanos;
+    private final AtomicLong generateCalls = new AtomicLong();
+    private final AtomicLong decryptCalls = new AtomicLong();
+
+    public InMemoryKeyProvider() {
+        this(Duration.ZERO);
+    }
+
+    public InMemoryKeyProvider(Duration latency) {
+        byte[] master = new byte[KEY_BYTES];
+        random.nextBytes(master);
+        this.masterKey = new SecretKeySpec(master, "AES");
+        Arrays.fill(master, (byte) 0);
+        this.latencyNanos = latency.toNanos();
+    }
+
+    @Override
+    public DataKey generateDataKey() {
+        generateCalls.incrementAndGet();
+        simulateLatency();
+        byte[] plaintext = new byte[KEY_BYTES];
+        byte[] iv = new byte[IV_BYTES];
+        synchronized (random) {
+            random.nextBytes(plaintext);
+            random.nextBytes(iv);
+        }
+        try {
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.ENCRYPT_MODE, masterKey, new GCMParameterSpec(128, iv));
+            byte[] encrypted = Arrays.copyOf(iv, IV_BYTES + cipher.getOutputSize(KEY_BYTES));
+            cipher.doFinal(plaintext, 0, KEY_BYTES, encrypted, IV_BYTES);
+            return new DataKey(plaintext, encrypted);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not wrap data key", e);
+        }
+    }
+
+    @Override
+    public byte[] decrypt(byte[] encryptedKey) {
+        decryptCalls.incrementAndGet();
+        simulateLatency();
+        try {
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.DECRYPT_MODE, masterKey, new GCMParameterSpec(128, encryptedKey, 0, IV_BYTES));
+            return cipher.doFinal(encryptedKey, IV_BYTES, encryptedKey.length - IV_BYTES);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("Data key was not issued by this provider", e);
+        }
+    }
+
+    // Cambia la latencia simulada (p.ej. cargar datos sin ella y medir con ella)
+    public void setLatency(Duration latency) {
+        this.latencyNanos = latency.toNanos();
+    }
+
+    public long getGenerateCalls() {
+        return generateCalls.get();
+    }
+
+    public long getDecryptCalls() {
+        return decryptCalls.get();
+    }
+
+    private void simulateLatency() {
+        long latency = latencyNanos;
+        if (latency > 0) {
+            LockSupport.parkNanos(latency);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.inferno.card_service.vault;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PanVaultTest {
+
+    private static final String VISA = "4111111111111111";
+    private static final String AMEX = "378282246310005";
+
+    @Test
+    void tokensPreserveTheFormatAndRoundTrip() {
+        PanVault vault = PanVault.create(new InMemoryKeyProvider(), VaultConfig.builder().build(), null);
+
+        String visa = vault.tokenize(VISA);
+        String amex = vault.tokenize(AMEX);
+        assertEquals(16, visa.length());
+        assertEquals(15, amex.length());
+        assertTrue(visa.endsWith("1111") && amex.endsWith("0005"));
+        assertTrue(visa.chars().allMatch(Character::isDigit));
+        assertNotEquals(VISA, visa);
+        // Un token nunca pasa Luhn: no se puede volver a tokenizar como si fuera una tarjeta
+        assertFalse(PanVault.luhnValid(visa.toCharArray()));
+        assertThrows(IllegalArgumentException.class, () -> vault.tokenize(visa));
+
+        assertEquals(visa, vault.tokenize(VISA));
+        assertEquals(VISA, vault.detokenize(visa));
+        assertEquals(AMEX, vault.detokenize(amex));
+        assertTrue(vault.exists(VISA));
+        assertEquals(amex, vault.findToken(AMEX));
+        assertFalse(vault.exists("5555555555554444"));
+        assertNull(vault.detokenize("0000000000001111"));
+        assertEquals(2, vault.size());
+    }
+
+    @Test
+    void invalidCardNumbersAreRejectedWithoutEchoingThem() {
+        PanVault vault = PanVault.create(new InMemoryKeyProvider(), VaultConfig.builder().build(), null);
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> vault.tokenize("4111111111111112"));
+        assertFalse(error.getMessage().contains("4111"));
+        assertThrows(IllegalArgumentException.class, () -> vault.tokenize("4111-1111-1111-1111"));
+        assertThrows(IllegalArgumentException.class, () -> vault.exists("411111"));
+    }
+
+    @Test
+    void dataKeysAreCachedAndRotateByUseCount() {
+        InMemoryKeyProvider provider = new InMemoryKeyProvider();
+        PanVault vault = PanVault.create(provider, VaultConfig.builder().dataKeyMaxUses(100).build(), null);
+        List<String> pans = new ArrayList<>();
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            String pan = withCheckDigit("400000" + String.format("%09d", i));
+            pans.add(pan);
+            tokens.add(vault.tokenize(pan));
+        }
+        // Una llave para el índice ciego y una de datos cada 100 cifrados
+        assertEquals(11, provider.getGenerateCalls());
+        for (int i = 0; i < pans.size(); i++) {
+            assertEquals(pans.get(i), vault.detokenize(tokens.get(i)));
+        }
+        assertEquals(0, provider.getDecryptCalls());
+
+        // Sin caché de llaves descifradas, cada detokenización vuelve al proveedor
+        InMemoryKeyProvider uncached = new InMemoryKeyProvider();
+        PanVault coldVault = PanVault.create(uncached, VaultConfig.builder().decryptedKeyCacheSize(0).build(), null);
+        String token = coldVault.tokenize(VISA);
+        coldVault.rotateDataKey();
+        assertEquals(VISA, coldVault.detokenize(token));
+        assertEquals(VISA, coldVault.detokenize(token));
+        assertEquals(2, uncached.getDecryptCalls());
+    }
+
+    @Test
+    void aRestartReusesTheStoredIndexKey() {
+        InMemoryKeyProvider provider = new InMemoryKeyProvider();
+        PanVault first = PanVault.create(provider, VaultConfig.builder().build(), null);
+        PanVault restarted = PanVault.create(provider, VaultConfig.builder().build(), first.getEncryptedIndexKey());
+
+        assertArrayEquals(first.getEncryptedIndexKey(), restarted.getEncryptedIndexKey());
+        assertEquals(1, provider.getGenerateCalls());
+        assertEquals(1, provider.getDecryptCalls());
+    }
+
+    @Test
+    void tokensSurviveARestartOverTheSameStore() {
+        InMemoryKeyProvider provider = new InMemoryKeyProvider();
+        VaultStore store = new InMemoryVaultStore();
+        PanVault first = PanVault.create(provider, VaultConfig.builder().build(), null, store);
+        String visa = first.tokenize(VISA);
+        first.rotateDataKey();
+        String amex = first.tokenize(AMEX);
+
+        VaultConfig config = VaultConfig.builder().encryptedIndexKey(first.getEncryptedIndexKey()).build();
+        PanVault restarted = PanVault.create(provider, config, config.getEncryptedIndexKey(), store);
+        assertEquals(visa, restarted.findToken(VISA));
+        assertEquals(VISA, restarted.detokenize(visa));
+        assertEquals(AMEX, restarted.detokenize(amex));
+
+        // Las llaves nuevas no pisan las versiones que ya estaban en el almacén
+        String mastercard = restarted.tokenize("5555555555554444");
+        assertEquals(3, store.latestDataKeyVersion());
+        assertEquals("5555555555554444", restarted.detokenize(mastercard));
+        assertEquals(VISA, restarted.detokenize(visa));
+        assertEquals(3, restarted.size());
+    }
+
+    @Test
+    void concurrentTokenizationOfTheSamePanIssuesOneToken() throws Exception {
+        PanVault vault = PanVault.create(new InMemoryKeyProvider(), VaultConfig.builder().build(), null);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<String>> futures = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            futures.add(executor.submit(() -> vault.tokenize(VISA)));
+        }
+        Set<String> tokens = new HashSet<>();
+        for (Future<String> future : futures) {
+            tokens.add(future.get());
+        }
+        executor.shutdown();
+        assertEquals(1, tokens.size());
+        assertEquals(1, vault.size());
+    }
+
+    private static String withCheckDigit(String body) {
+        for (int digit = 0; digit <= 9; digit++) {
+            String candidate = body + digit;
+            if (PanVault.luhnValid(candidate.toCharArray())) {
+                return candidate;
+            }
+        }
+        throw new IllegalStateException();
+    }
+}
@@ -0,0 +1,71 @@
+package com.inferno.user_service;
+
+import com.inferno.user_service.avatar.AvatarThumbnailService;
+import com.inferno.user_service.avatar.AvatarUploadService;
+import com.inferno.user_service.avatar.AvatarUrlSigner;
+import com.inferno.user_service.cache.ProfileCache;
+import com.inferno.user_service.config.AwsClientRegistry;
+import com.inferno.user_service.handler.GetUserProfileLambda;
+import com.inferno.user_service.handler.LoginUserLambda;
+import com.inferno.user_service.handler.UpdateUserLambda;
+import com.inferno.user_service.handler.UploadAvatarLambda;
+import com.inferno.user_service.handler.UserRegisterLambda;
+import com.inferno.user_service.security.JwtKeyProvider;
+import com.inferno.user_service.server.LambdaHttpServer;
+import com.inferno.user_service.server.Route;
+import com.inferno.user_service.service.AsyncUserService;
+import com.inferno.user_service.service.UserService;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.List;
+
+// Modo servidor para on-prem y pruebas de carga: todos los handlers detrás de un solo puerto,
+// con las mismas rutas que API Gateway y una sola instancia de cada servicio para todas ellas.
+// Variables: USER_SERVER_PORT (8080), USER_SERVER_THREADS (200) y USER_SERVER_QUEUE (1000);
+// las dos últimas solo aplican en Java 17, donde no hay hilos virtuales.
+public class UserServiceServer {
+
+    public static void main(String[] args) throws IOException {
+        AwsClientRegistry registry = AwsClientRegistry.getInstance();
+        UserService userService = new UserService(registry);
+        AsyncUserService asyncUserService = new AsyncUserService(registry);
+        AvatarUrlSigner avatarUrlSigner = AvatarUrlSigner.getInstance();
+
+        List<Route> routes = routes(
+                new UserRegisterLambda(userService),
+                new LoginUserLambda(userService, JwtKeyProvider.getInstance()),
+                new UpdateUserLambda(userService),
+                new GetUserProfileLambda(userService, ProfileCache.getInstance(), avatarUrlSigner),
+                new UploadAvatarLambda(asyncUserService,
+                        AvatarUploadService.fromEnvironment(registry),
+                        AvatarThumbnailService.fromEnvironment(registry),
+                        avatarUrlSigner));
+
+        LambdaHttpServer server = LambdaHttpServer.create(
+                new InetSocketAddress(Integer.parseInt(env("USER_SERVER_PORT", "8080"))),
+                routes,
+                LambdaHttpServer.requestExecutor(
+                        Integer.parseInt(env("USER_SERVER_THREADS", "200")),
+                        Integer.parseInt(env("USER_SERVER_QUEUE", "1000"))));
+        server.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> server.stop(5), "user-http-shutdown"));
+        System.out.println("User service listening on port " + server.getPort());
+    }
+
+    // Las mismas rutas y métodos que terraform/main.tf
+    public static List<Route> routes(UserRegisterLambda register, LoginUserLambda login, UpdateUserLambda update,
+                                     GetUserProfileLambda profile, UploadAvatarLambda avatar) {
+        return List.of(
+                Route.of("POST", "/register", register),
+                Route.of("POST", "/login", login),
+                Route.of("PUT", "/profile/{uuid}", update),
+                Route.of("GET", "/profile/{uuid}", profile),
+                Route.of("POST", "/profile/{uuid}/avatar", avatar));
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+}
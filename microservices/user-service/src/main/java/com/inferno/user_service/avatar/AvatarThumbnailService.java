@@ -0,0 +1,248 @@
+package com.inferno.user_service.avatar;
+
+import com.inferno.user_service.config.AwsClientRegistry;
+import com.inferno.user_service.exception.ServiceUnavailableException;
+import com.inferno.user_service.exception.UnsupportedMediaTypeException;
+import com.inferno.user_service.exception.ValidationException;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+
+import javax.imageio.IIOException;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Genera miniaturas cuadradas de tamaño fijo para los avatares.
+// - Las keys salen del hash del original: thumbnails/{sha256}/{size}.{ext}, así una imagen
+//   idéntica (del mismo u otro usuario) reutiliza las miniaturas ya guardadas sin decodificar.
+// - El decodificado corre en un pool acotado; cada worker procesa una imagen a la vez.
+// - La imagen se lee en streaming desde S3 y se decodifica submuestreada, de modo que la memoria
+//   depende del tamaño de la miniatura mayor y no de la resolución del original.
+public class AvatarThumbnailService {
+
+    public static final int[] DEFAULT_SIZES = {64, 256};
+
+    private final S3Client s3;
+    private final String bucket;
+    private final int[] sizes;
+    private final ThreadPoolExecutor workers;
+
+    public AvatarThumbnailService(S3Client s3, String bucket, int[] sizes, int workerCount, int queueCapacity) {
+        this.s3 = s3;
+        this.bucket = bucket;
+        this.sizes = Arrays.stream(sizes).sorted().toArray();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), daemonThreads(), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public static AvatarThumbnailService fromEnvironment(AwsClientRegistry registry) {
+        int[] sizes = Arrays.stream(env("AVATAR_THUMBNAIL_SIZES", "64,256").split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        return new AvatarThumbnailService(
+                registry.s3Client(),
+                System.getenv("infernoavatarimagebucket"),
+                sizes,
+                Integer.parseInt(env("AVATAR_THUMBNAIL_WORKERS", "2")),
+                Integer.parseInt(env("AVATAR_THUMBNAIL_QUEUE", "16")));
+    }
+
+    // Devuelve tamaño -> key de cada miniatura. Los formatos que ImageIO no decodifica (WEBP)
+    // no tienen variantes y se sirve el original.
+    public Map<String, String> generate(StoredAvatar avatar) {
+        String format = formatName(avatar.getType());
+        if (format == null) {
+            return Map.of();
+        }
+
+        Map<String, String> variants = new LinkedHashMap<>();
+        boolean missing = false;
+        for (int size : sizes) {
+            String key = thumbnailKey(avatar.getContentHash(), size, avatar.getType());
+            variants.put(String.valueOf(size), key);
+            missing |= !exists(key);
+        }
+        if (!missing) {
+            // Contenido ya procesado antes: no se vuelve a decodificar ni a guardar
+            return variants;
+        }
+
+        Future<?> task;
+        try {
+            task = workers.submit(() -> render(avatar, format, variants));
+        } catch (RejectedExecutionException e) {
+            throw new ServiceUnavailableException("Too many avatar uploads in progress, retry later");
+        }
+        await(task, avatar);
+        return variants;
+    }
+
+    public int activeWorkers() {
+        return workers.getActiveCount();
+    }
+
+    private void render(StoredAvatar avatar, String format, Map<String, String> variants) {
+        BufferedImage source;
+        try (ResponseInputStream<GetObjectResponse> in = s3.getObject(GetObjectRequest.builder()
+                .bucket(bucket)
+                .key(avatar.getKey())
+                .build())) {
+            source = decodeSquare(new MemoryCacheImageInputStream(in), sizes[sizes.length - 1]);
+        } catch (IIOException e) {
+            throw new UnsupportedMediaTypeException("Avatar image could not be decoded");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        // De mayor a menor: cada miniatura se escala desde la anterior, no desde el original
+        BufferedImage previous = source;
+        for (int i = sizes.length - 1; i >= 0; i--) {
+            BufferedImage thumbnail = scale(previous, sizes[i], avatar.getType());
+            String key = variants.get(String.valueOf(sizes[i]));
+            if (!exists(key)) {
+                byte[] encoded = encode(thumbnail, format);
+                s3.putObject(PutObjectRequest.builder()
+                                .bucket(bucket)
+                                .key(key)
+                                .contentType(avatar.getType().contentType())
+                                .contentLength((long) encoded.length)
+                                .build(),
+                        RequestBody.fromBytes(encoded));
+            }
+            previous = thumbnail;
+        }
+    }
+
+    // Recorte cuadrado centrado y submuestreo en el lector: solo se materializan las filas y
+    // columnas necesarias para llegar a ~targetSize, no el raster completo del original
+    private static BufferedImage decodeSquare(ImageInputStream input, int targetSize) throws IOException {
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+        if (!readers.hasNext()) {
+            throw new IIOException("No reader for avatar image");
+        }
+        ImageReader reader = readers.next();
+        try {
+            reader.setInput(input, true, true);
+            int width = reader.getWidth(0);
+            int height = reader.getHeight(0);
+            int side = Math.min(width, height);
+            int factor = Math.max(1, side / targetSize);
+
+            ImageReadParam param = reader.getDefaultReadParam();
+            param.setSourceRegion(new Rectangle((width - side) / 2, (height - side) / 2, side, side));
+            param.setSourceSubsampling(factor, factor, 0, 0);
+            return reader.read(0, param);
+        } finally {
+            reader.dispose();
+            input.close();
+        }
+    }
+
+    private static BufferedImage scale(BufferedImage source, int size, ImageType type) {
+        // JPEG no admite canal alfa
+        int imageType = type == ImageType.JPEG ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB;
+        BufferedImage target = new BufferedImage(size, size, imageType);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, size, size, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private static byte[] encode(BufferedImage image, String format) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(image, format, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private void await(Future<?> task, StoredAvatar avatar) {
+        try {
+            task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Avatar processing interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ValidationException) {
+                // Pasó la detección por bytes mágicos pero no es una imagen válida: no se conserva
+                s3.deleteObject(DeleteObjectRequest.builder().bucket(bucket).key(avatar.getKey()).build());
+                throw (ValidationException) e.getCause();
+            }
+            throw new IllegalStateException("Avatar thumbnail generation failed", e.getCause());
+        }
+    }
+
+    private boolean exists(String key) {
+        try {
+            s3.headObject(HeadObjectRequest.builder().bucket(bucket).key(key).build());
+            return true;
+        } catch (NoSuchKeyException e) {
+            return false;
+        }
+    }
+
+    private static String thumbnailKey(String contentHash, int size, ImageType type) {
+        return "thumbnails/" + contentHash + "/" + size + "." + type.extension();
+    }
+
+    private static String formatName(ImageType type) {
+        switch (type) {
+            case PNG:
+                return "png";
+            case JPEG:
+                return "jpeg";
+            default:
+                return null;
+        }
+    }
+
+    private static ThreadFactory daemonThreads() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "avatar-thumbnail-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+}
@@ -0,0 +1,254 @@
+package com.inferno.user_service.avatar;
+
+import com.inferno.user_service.config.AwsClientRegistry;
+import com.inferno.user_service.exception.InvalidDataException;
+import com.inferno.user_service.exception.PayloadTooLargeException;
+import com.inferno.user_service.exception.UnsupportedMediaTypeException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+// Subida de avatares al bucket, en dos modalidades:
+// - URL firmada: el cliente hace el PUT directo a S3 y la imagen no pasa por la Lambda.
+// - Streaming: el Base64 del body se decodifica por partes hacia un multipart upload,
+//   con un único buffer del tamaño de una parte, en lugar de materializar la imagen entera.
+public class AvatarUploadService {
+
+    // Mínimo que exige S3 para las partes (salvo la última) de un multipart upload
+    public static final int MIN_PART_SIZE = 5 * 1024 * 1024;
+
+    private final S3Client s3;
+    private final S3AsyncClient s3Async;
+    private final S3Presigner presigner;
+    private final String bucket;
+    private final long maxBytes;
+    private final int partSize;
+    private final Duration uploadUrlTtl;
+
+    public AvatarUploadService(S3Client s3, S3AsyncClient s3Async, S3Presigner presigner, String bucket,
+                               long maxBytes, int partSize, Duration uploadUrlTtl) {
+        this.s3 = s3;
+        this.s3Async = s3Async;
+        this.presigner = presigner;
+        this.bucket = bucket;
+        this.maxBytes = maxBytes;
+        this.partSize = partSize;
+        this.uploadUrlTtl = uploadUrlTtl;
+    }
+
+    public static AvatarUploadService fromEnvironment(AwsClientRegistry registry) {
+        return new AvatarUploadService(
+                registry.s3Client(),
+                registry.s3AsyncClient(),
+                registry.s3Presigner(),
+                System.getenv("infernoavatarimagebucket"),
+                Long.parseLong(env("AVATAR_MAX_BYTES", String.valueOf(10 * 1024 * 1024))),
+                MIN_PART_SIZE,
+                Duration.ofSeconds(Long.parseLong(env("AVATAR_UPLOAD_URL_TTL_SECONDS", "300"))));
+    }
+
+    public String getBucket() {
+        return bucket;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    // Subida directa: el tipo y el tamaño declarados quedan firmados en la URL
+    public PresignedAvatarUpload presignUpload(String uuid, String contentType, long contentLength) {
+        ImageType type = ImageType.fromContentType(contentType);
+        if (type == null) {
+            throw new UnsupportedMediaTypeException("Unsupported avatar content type: " + contentType);
+        }
+        if (contentLength <= 0) {
+            throw new InvalidDataException("contentLength is required");
+        }
+        if (contentLength > maxBytes) {
+            throw new PayloadTooLargeException("Avatar exceeds " + maxBytes + " bytes");
+        }
+
+        String key = keyFor(uuid, type);
+        PutObjectPresignRequest presignRequest = PutObjectPresignRequest.builder()
+                .signatureDuration(uploadUrlTtl)
+                .putObjectRequest(PutObjectRequest.builder()
+                        .bucket(bucket)
+                        .key(key)
+                        .contentType(type.contentType())
+                        .contentLength(contentLength)
+                        .build())
+                .build();
+
+        String url = presigner.presignPutObject(presignRequest).url().toString();
+        return new PresignedAvatarUpload(url, key, type.contentType(), uploadUrlTtl.getSeconds());
+    }
+
+    public StoredAvatar upload(String uuid, String base64Body) {
+        if (base64Body == null || base64Body.isBlank()) {
+            throw new InvalidDataException("Avatar image is required");
+        }
+
+        InputStream decoded = Base64.getMimeDecoder().wrap(
+                new CharSequenceInputStream(base64Body, payloadStart(base64Body)));
+        // El Base64 acota el tamaño decodificado: las imágenes chicas no reservan una parte completa
+        long decodedUpperBound = (long) (base64Body.length() - payloadStart(base64Body)) * 3 / 4 + 1;
+        byte[] buffer = new byte[(int) Math.min(partSize, decodedUpperBound)];
+        int filled = readFully(decoded, buffer);
+        if (filled == 0) {
+            throw new InvalidDataException("Avatar image is required");
+        }
+
+        ImageType type = ImageType.sniff(buffer, filled);
+        if (type == null) {
+            throw new UnsupportedMediaTypeException("Avatar must be a PNG, JPEG or WEBP image");
+        }
+        String key = keyFor(uuid, type);
+        // El hash se calcula mientras se sube: identifica el contenido para deduplicar derivados
+        MessageDigest digest = sha256();
+        digest.update(buffer, 0, filled);
+
+        if (filled < partSize) {
+            // Cabe en una sola parte: PutObject directo, sin el costo del multipart
+            checkLimit(filled);
+            s3.putObject(PutObjectRequest.builder()
+                            .bucket(bucket)
+                            .key(key)
+                            .contentType(type.contentType())
+                            .contentLength((long) filled)
+                            .build(),
+                    RequestBody.fromInputStream(new ByteArrayInputStream(buffer, 0, filled), filled));
+            return new StoredAvatar(key, type, filled, HexFormat.of().formatHex(digest.digest()));
+        }
+
+        return multipartUpload(decoded, buffer, filled, key, type, digest);
+    }
+
+    private StoredAvatar multipartUpload(InputStream decoded, byte[] buffer, int firstPartSize,
+                                         String key, ImageType type, MessageDigest digest) {
+        String uploadId = s3.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                        .bucket(bucket)
+                        .key(key)
+                        .contentType(type.contentType())
+                        .build())
+                .uploadId();
+
+        List<CompletedPart> parts = new ArrayList<>();
+        long total = 0;
+        int filled = firstPartSize;
+        try {
+            while (filled > 0) {
+                total += filled;
+                checkLimit(total);
+
+                int partNumber = parts.size() + 1;
+                String eTag = s3.uploadPart(UploadPartRequest.builder()
+                                        .bucket(bucket)
+                                        .key(key)
+                                        .uploadId(uploadId)
+                                        .partNumber(partNumber)
+                                        .contentLength((long) filled)
+                                        .build(),
+                                RequestBody.fromInputStream(new ByteArrayInputStream(buffer, 0, filled), filled))
+                        .eTag();
+                parts.add(CompletedPart.builder().partNumber(partNumber).eTag(eTag).build());
+
+                filled = readFully(decoded, buffer);
+                digest.update(buffer, 0, filled);
+            }
+
+            s3.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build())
+                    .build());
+            return new StoredAvatar(key, type, total, HexFormat.of().formatHex(digest.digest()));
+        } catch (RuntimeException e) {
+            // No dejar partes huérfanas cobrando almacenamiento
+            s3.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .build());
+            throw e;
+        }
+    }
+
+    // Borrado sin bloquear (avatar reemplazado o subido para un usuario inexistente)
+    public CompletableFuture<Void> deleteAsync(String key) {
+        return s3Async.deleteObject(DeleteObjectRequest.builder().bucket(bucket).key(key).build())
+                .thenAccept(response -> { });
+    }
+
+    private void checkLimit(long size) {
+        if (size > maxBytes) {
+            throw new PayloadTooLargeException("Avatar exceeds " + maxBytes + " bytes");
+        }
+    }
+
+    // Key en S3 -> {uuid}/avatar-{timestamp}.{ext}. No depende de los datos del usuario, así la subida
+    // puede empezar antes de leerlo, y cada avatar nuevo tiene una key (y una URL cacheable) propia
+    private static String keyFor(String uuid, ImageType type) {
+        return uuid + "/avatar-" + Long.toString(System.currentTimeMillis(), 36) + "." + type.extension();
+    }
+
+    // Acepta también data URIs: data:image/png;base64,....
+    private static int payloadStart(String body) {
+        if (body.startsWith("data:")) {
+            int comma = body.indexOf(',');
+            return comma < 0 ? body.length() : comma + 1;
+        }
+        return 0;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static int readFully(InputStream in, byte[] buffer) {
+        int filled = 0;
+        try {
+            while (filled < buffer.length) {
+                int read = in.read(buffer, filled, buffer.length - filled);
+                if (read < 0) {
+                    break;
+                }
+                filled += read;
+            }
+        } catch (IOException e) {
+            throw new InvalidDataException("Invalid Base64 image");
+        }
+        return filled;
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+}
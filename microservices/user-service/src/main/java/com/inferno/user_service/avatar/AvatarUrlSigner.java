@@ -0,0 +1,152 @@
+package com.inferno.user_service.avatar;
+
+import com.inferno.user_service.config.AwsClientRegistry;
+import com.inferno.user_service.config.Lazy;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
+
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Firma en lectura las URLs GET de los avatares: en DynamoDB solo se guarda la key.
+// Cada firma se reutiliza hasta poco antes de vencer (margen de renovación), así que una
+// lectura normal no paga el costo de SigV4 y la URL entregada siempre tiene al menos ese margen
+// de vigencia. Con credenciales temporales (rol de la Lambda) la URL deja de valer cuando
+// vence la sesión, aunque su TTL sea mayor: conviene un TTL corto frente a la sesión.
+public class AvatarUrlSigner {
+
+    private static final Lazy<AvatarUrlSigner> INSTANCE = new Lazy<>(() ->
+            fromEnvironment(AwsClientRegistry.getInstance()));
+
+    private final S3Presigner presigner;
+    private final String bucket;
+    private final Duration urlTtl;
+    private final long refreshMarginMillis;
+    private final int maxEntries;
+    private final Clock clock;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong signatures = new AtomicLong();
+    private final LinkedHashMap<String, SignedUrl> urls;
+
+    public AvatarUrlSigner(S3Presigner presigner, String bucket, Duration urlTtl, Duration refreshMargin,
+                           int maxEntries, Clock clock) {
+        // Sin bucket las URLs se firmarían igual pero apuntarían a ningún lado: mejor fallar en el init
+        if (bucket == null || bucket.isBlank()) {
+            throw new IllegalArgumentException("Avatar bucket is required (infernoavatarimagebucket)");
+        }
+        if (refreshMargin.compareTo(urlTtl) >= 0) {
+            throw new IllegalArgumentException("Refresh margin must be shorter than the URL TTL");
+        }
+        this.presigner = presigner;
+        this.bucket = bucket;
+        this.urlTtl = urlTtl;
+        this.refreshMarginMillis = refreshMargin.toMillis();
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+        this.urls = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SignedUrl> eldest) {
+                return size() > AvatarUrlSigner.this.maxEntries;
+            }
+        };
+    }
+
+    public static AvatarUrlSigner getInstance() {
+        return INSTANCE.get();
+    }
+
+    public static AvatarUrlSigner fromEnvironment(AwsClientRegistry registry) {
+        return new AvatarUrlSigner(
+                registry.s3Presigner(),
+                System.getenv("infernoavatarimagebucket"),
+                Duration.ofSeconds(Long.parseLong(env("AVATAR_URL_TTL_SECONDS", "3600"))),
+                Duration.ofSeconds(Long.parseLong(env("AVATAR_URL_REFRESH_MARGIN_SECONDS", "300"))),
+                Integer.parseInt(env("AVATAR_URL_CACHE_MAX_ENTRIES", "10000")),
+                Clock.systemUTC());
+    }
+
+    // null si no hay key
+    public String url(String key) {
+        if (key == null || key.isBlank()) {
+            return null;
+        }
+
+        long now = clock.millis();
+        synchronized (urls) {
+            SignedUrl cached = urls.get(key);
+            if (cached != null && now < cached.refreshAt) {
+                hits.incrementAndGet();
+                return cached.url;
+            }
+        }
+
+        // La firma se hace fuera del lock; dos hilos pueden firmar la misma key a la vez, lo cual es inocuo
+        String url = presigner.presignGetObject(GetObjectPresignRequest.builder()
+                        .signatureDuration(urlTtl)
+                        .getObjectRequest(GetObjectRequest.builder().bucket(bucket).key(key).build())
+                        .build())
+                .url()
+                .toString();
+        signatures.incrementAndGet();
+        synchronized (urls) {
+            urls.put(key, new SignedUrl(url, now + urlTtl.toMillis() - refreshMarginMillis));
+        }
+        return url;
+    }
+
+    public Map<String, String> urls(Map<String, String> keys) {
+        if (keys == null || keys.isEmpty()) {
+            return null;
+        }
+        Map<String, String> signed = new LinkedHashMap<>();
+        keys.forEach((name, key) -> signed.put(name, url(key)));
+        return signed;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getSignatures() {
+        return signatures.get();
+    }
+
+    // Usuarios anteriores guardaban la URL firmada completa en imageUrl; de ahí se recupera la key
+    public String keyFromLegacyUrl(String imageUrl) {
+        if (imageUrl == null || imageUrl.isBlank()) {
+            return null;
+        }
+        String path = URI.create(imageUrl).getRawPath();
+        if (path == null || path.length() <= 1) {
+            return null;
+        }
+        String key = path.substring(1);
+        // Estilo path (endpoint local): /{bucket}/{key}
+        if (bucket != null && key.startsWith(bucket + "/")) {
+            key = key.substring(bucket.length() + 1);
+        }
+        return URLDecoder.decode(key, StandardCharsets.UTF_8);
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+
+    private static final class SignedUrl {
+        private final String url;
+        private final long refreshAt;
+
+        private SignedUrl(String url, long refreshAt) {
+            this.url = url;
+            this.refreshAt = refreshAt;
+        }
+    }
+}
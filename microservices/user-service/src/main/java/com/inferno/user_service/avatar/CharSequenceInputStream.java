@@ -0,0 +1,41 @@
+package com.inferno.user_service.avatar;
+
+import java.io.InputStream;
+
+// Expone un texto ASCII (p.ej. Base64) como bytes sin copiarlo a un byte[]
+final class CharSequenceInputStream extends InputStream {
+
+    private final CharSequence text;
+    private int position;
+
+    CharSequenceInputStream(CharSequence text, int start) {
+        this.text = text;
+        this.position = start;
+    }
+
+    @Override
+    public int read() {
+        return position < text.length() ? text.charAt(position++) & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) {
+        if (length == 0) {
+            return 0;
+        }
+        int remaining = text.length() - position;
+        if (remaining <= 0) {
+            return -1;
+        }
+        int count = Math.min(length, remaining);
+        for (int i = 0; i < count; i++) {
+            buffer[offset + i] = (byte) text.charAt(position++);
+        }
+        return count;
+    }
+
+    @Override
+    public int available() {
+        return text.length() - position;
+    }
+}
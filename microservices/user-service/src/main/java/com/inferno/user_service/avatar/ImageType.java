@@ -0,0 +1,53 @@
+package com.inferno.user_service.avatar;
+
+// Formatos de avatar aceptados, reconocidos por sus bytes mágicos y no por lo que declare el cliente
+public enum ImageType {
+
+    PNG("image/png", "png"),
+    JPEG("image/jpeg", "jpg"),
+    WEBP("image/webp", "webp");
+
+    // Bytes necesarios para reconocer cualquiera de los formatos
+    public static final int SNIFF_LENGTH = 12;
+
+    private final String contentType;
+    private final String extension;
+
+    ImageType(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    // null si los primeros bytes no corresponden a un formato aceptado
+    public static ImageType sniff(byte[] data, int length) {
+        if (length >= 8 && (data[0] & 0xFF) == 0x89 && data[1] == 'P' && data[2] == 'N' && data[3] == 'G'
+                && data[4] == 0x0D && data[5] == 0x0A && data[6] == 0x1A && data[7] == 0x0A) {
+            return PNG;
+        }
+        if (length >= 3 && (data[0] & 0xFF) == 0xFF && (data[1] & 0xFF) == 0xD8 && (data[2] & 0xFF) == 0xFF) {
+            return JPEG;
+        }
+        if (length >= 12 && data[0] == 'R' && data[1] == 'I' && data[2] == 'F' && data[3] == 'F'
+                && data[8] == 'W' && data[9] == 'E' && data[10] == 'B' && data[11] == 'P') {
+            return WEBP;
+        }
+        return null;
+    }
+
+    public static ImageType fromContentType(String contentType) {
+        for (ImageType type : values()) {
+            if (type.contentType.equalsIgnoreCase(contentType)) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,33 @@
+package com.inferno.user_service.avatar;
+
+// URL firmada para que el cliente haga el PUT directo al bucket
+public class PresignedAvatarUpload {
+
+    private final String uploadUrl;
+    private final String key;
+    private final String contentType;
+    private final long expiresInSeconds;
+
+    public PresignedAvatarUpload(String uploadUrl, String key, String contentType, long expiresInSeconds) {
+        this.uploadUrl = uploadUrl;
+        this.key = key;
+        this.contentType = contentType;
+        this.expiresInSeconds = expiresInSeconds;
+    }
+
+    public String getUploadUrl() {
+        return uploadUrl;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public long getExpiresInSeconds() {
+        return expiresInSeconds;
+    }
+}
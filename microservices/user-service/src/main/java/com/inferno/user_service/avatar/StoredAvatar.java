@@ -0,0 +1,34 @@
+package com.inferno.user_service.avatar;
+
+// Resultado de subir un avatar al bucket
+public class StoredAvatar {
+
+    private final String key;
+    private final ImageType type;
+    private final long size;
+    // SHA-256 en hexadecimal del contenido subido
+    private final String contentHash;
+
+    public StoredAvatar(String key, ImageType type, long size, String contentHash) {
+        this.key = key;
+        this.type = type;
+        this.size = size;
+        this.contentHash = contentHash;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public ImageType getType() {
+        return type;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+}
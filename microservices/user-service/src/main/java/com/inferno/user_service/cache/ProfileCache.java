@@ -0,0 +1,167 @@
+package com.inferno.user_service.cache;
+
+import com.inferno.user_service.config.Lazy;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Caché read-through de respuestas de perfil ya serializadas, por uuid.
+// Nivel 1: LRU en el proceso, acotado en tamaño y con TTL.
+// Nivel 2 (opcional): ProfileCacheTier compartido entre contenedores.
+// En Lambda cada función corre en su propio contenedor, así que una invalidación
+// local no llega a los demás: el TTL del nivel 1 acota esa desactualización. Por eso, sin nivel 2,
+// el TTL por defecto dentro de Lambda es corto (5 s) y fuera de ella (un solo proceso) es de 60 s.
+public class ProfileCache {
+
+    private static final Lazy<ProfileCache> INSTANCE = new Lazy<>(ProfileCache::fromEnvironment);
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final Duration ttl;
+    private final ProfileCacheTier tier;
+    private final Clock clock;
+    private final ProfileCacheStats stats = new ProfileCacheStats();
+    // Cambia en cada invalidación: una carga que la cruzó no se guarda
+    private final AtomicLong invalidationSequence = new AtomicLong();
+    private final LinkedHashMap<String, Entry> entries;
+
+    public ProfileCache(int maxEntries, Duration ttl, ProfileCacheTier tier, Clock clock) {
+        this.maxEntries = maxEntries;
+        this.ttl = ttl;
+        this.ttlMillis = ttl.toMillis();
+        this.tier = tier;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > ProfileCache.this.maxEntries) {
+                    stats.recordEviction();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public static ProfileCache getInstance() {
+        return INSTANCE.get();
+    }
+
+    public static ProfileCache fromEnvironment() {
+        int maxEntries = Integer.parseInt(env("PROFILE_CACHE_MAX_ENTRIES", "1000"));
+        String defaultTtl = System.getenv("AWS_LAMBDA_FUNCTION_NAME") == null ? "60" : "5";
+        Duration ttl = Duration.ofSeconds(Long.parseLong(env("PROFILE_CACHE_TTL_SECONDS", defaultTtl)));
+        // Sin segundo nivel: ProfileCacheTier todavía no tiene implementación de producción
+        return new ProfileCache(maxEntries, ttl, null, Clock.systemUTC());
+    }
+
+    // Devuelve el cuerpo cacheado o lo carga; null si el loader no encuentra el perfil
+    public String get(String uuid, Loader loader) throws Exception {
+        String cached = getLocal(uuid);
+        if (cached != null) {
+            stats.recordLocalHit();
+            return cached;
+        }
+
+        if (tier != null) {
+            Optional<String> shared = tier.get(uuid);
+            if (shared.isPresent()) {
+                stats.recordTierHit();
+                putLocal(uuid, shared.get());
+                return shared.get();
+            }
+        }
+
+        stats.recordMiss();
+        long sequence = invalidationSequence.get();
+        String body = loader.load(uuid);
+        if (body != null && sequence == invalidationSequence.get()) {
+            putLocal(uuid, body);
+            if (tier != null) {
+                tier.put(uuid, body, ttl);
+            }
+        }
+        return body;
+    }
+
+    public void invalidate(String uuid) {
+        invalidationSequence.incrementAndGet();
+        synchronized (entries) {
+            entries.remove(uuid);
+        }
+        if (tier != null) {
+            tier.invalidate(uuid);
+        }
+        stats.recordInvalidation();
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public ProfileCacheStats stats() {
+        return stats;
+    }
+
+    private String getLocal(String uuid) {
+        synchronized (entries) {
+            Entry entry = entries.get(uuid);
+            if (entry == null) {
+                return null;
+            }
+            if (clock.millis() >= entry.expiresAt) {
+                entries.remove(uuid);
+                stats.recordExpiration();
+                return null;
+            }
+            return entry.body;
+        }
+    }
+
+    private void putLocal(String uuid, String body) {
+        long now = clock.millis();
+        synchronized (entries) {
+            entries.put(uuid, new Entry(body, now + ttlMillis));
+            purgeExpired(now);
+        }
+    }
+
+    // Barrido acotado desde el más antiguo, para no retener entradas vencidas
+    private void purgeExpired(long now) {
+        Iterator<Entry> iterator = entries.values().iterator();
+        int checked = 0;
+        while (iterator.hasNext() && checked++ < 8) {
+            if (now >= iterator.next().expiresAt) {
+                iterator.remove();
+                stats.recordExpiration();
+            }
+        }
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+
+    @FunctionalInterface
+    public interface Loader {
+        String load(String uuid) throws Exception;
+    }
+
+    private static final class Entry {
+        private final String body;
+        private final long expiresAt;
+
+        private Entry(String body, long expiresAt) {
+            this.body = body;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.inferno.user_service.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Métricas de la caché de perfiles
+public class ProfileCacheStats {
+
+    private final AtomicLong localHits = new AtomicLong();
+    private final AtomicLong tierHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    void recordLocalHit() {
+        localHits.incrementAndGet();
+    }
+
+    void recordTierHit() {
+        tierHits.incrementAndGet();
+    }
+
+    void recordMiss() {
+        misses.incrementAndGet();
+    }
+
+    void recordEviction() {
+        evictions.incrementAndGet();
+    }
+
+    void recordExpiration() {
+        expirations.incrementAndGet();
+    }
+
+    void recordInvalidation() {
+        invalidations.incrementAndGet();
+    }
+
+    public long getLocalHits() {
+        return localHits.get();
+    }
+
+    public long getTierHits() {
+        return tierHits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public long getExpirations() {
+        return expirations.get();
+    }
+
+    public long getInvalidations() {
+        return invalidations.get();
+    }
+
+    public double getHitRatio() {
+        long hits = localHits.get() + tierHits.get();
+        long total = hits + misses.get();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    @Override
+    public String toString() {
+        return "ProfileCacheStats{localHits=" + getLocalHits()
+                + ", tierHits=" + getTierHits()
+                + ", misses=" + getMisses()
+                + ", hitRatio=" + getHitRatio()
+                + ", evictions=" + getEvictions()
+                + ", expirations=" + getExpirations()
+                + ", invalidations=" + getInvalidations() + "}";
+    }
+}
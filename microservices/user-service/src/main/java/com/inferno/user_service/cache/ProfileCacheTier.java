@@ -0,0 +1,18 @@
+package com.inferno.user_service.cache;
+
+import java.time.Duration;
+import java.util.Optional;
+
+// Segundo nivel de caché compartido entre contenedores (p.ej. Redis/ElastiCache).
+// Es el único nivel que ve las invalidaciones hechas desde otras funciones.
+// Por ahora solo es el punto de extensión: no hay implementación de producción (ni cliente de
+// Redis en las dependencias), así que fromEnvironment arma la caché sin este nivel y solo se
+// ejercita en pruebas con InMemoryProfileCacheTier.
+public interface ProfileCacheTier {
+
+    Optional<String> get(String uuid);
+
+    void put(String uuid, String body, Duration ttl);
+
+    void invalidate(String uuid);
+}
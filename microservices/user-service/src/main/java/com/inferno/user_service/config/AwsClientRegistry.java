@@ -0,0 +1,282 @@
+package com.inferno.user_service.config;
+
+import com.inferno.user_service.model.User;
+import com.inferno.user_service.model.UserTableSchema;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.EnvironmentVariableCredentialsProvider;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncIndex;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncTable;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbIndex;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.http.nio.netty.SdkEventLoopGroup;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClientBuilder;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClientBuilder;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3AsyncClientBuilder;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.secretsmanager.SecretsManagerClient;
+
+// Registro único por proceso de los clientes AWS y handles de tabla.
+// Todo se construye en el primer uso y se comparte entre todos los handlers.
+// Los clientes asíncronos comparten un único event loop de Netty.
+public final class AwsClientRegistry {
+
+    private static final Lazy<AwsClientRegistry> INSTANCE =
+            new Lazy<>(() -> new AwsClientRegistry(ClientSettings.fromEnvironment()));
+
+    private final ClientSettings settings;
+    private final Lazy<RefreshableCredentialsProvider> credentialsProvider;
+    private final Lazy<SdkHttpClient> httpClient;
+    private final Lazy<DynamoDbClient> dynamoDbClient;
+    private final Lazy<DynamoDbEnhancedClient> enhancedClient;
+    private final Lazy<DynamoDbTable<User>> userTable;
+    private final Lazy<DynamoDbIndex<User>> emailIndex;
+    private final Lazy<DynamoDbIndex<User>> documentNumberIndex;
+    private final Lazy<S3Client> s3Client;
+    private final Lazy<S3Presigner> s3Presigner;
+    private final Lazy<SecretsManagerClient> secretsManagerClient;
+    private final Lazy<SdkEventLoopGroup> eventLoopGroup;
+    private final Lazy<SdkAsyncHttpClient> asyncHttpClient;
+    private final Lazy<DynamoDbAsyncClient> dynamoDbAsyncClient;
+    private final Lazy<DynamoDbEnhancedAsyncClient> enhancedAsyncClient;
+    private final Lazy<DynamoDbAsyncTable<User>> userAsyncTable;
+    private final Lazy<DynamoDbAsyncIndex<User>> emailAsyncIndex;
+    private final Lazy<DynamoDbAsyncIndex<User>> documentNumberAsyncIndex;
+    private final Lazy<S3AsyncClient> s3AsyncClient;
+
+    public AwsClientRegistry(ClientSettings settings) {
+        this.settings = settings;
+        this.credentialsProvider = new Lazy<>(() -> new RefreshableCredentialsProvider(this::buildCredentialsProvider));
+        this.httpClient = new Lazy<>(this::buildHttpClient);
+        this.dynamoDbClient = new Lazy<>(this::buildDynamoDbClient);
+        this.enhancedClient = new Lazy<>(() -> DynamoDbEnhancedClient.builder()
+                .dynamoDbClient(dynamoDbClient())
+                .build());
+        this.userTable = new Lazy<>(() -> enhancedClient().table(settings.getUserTableName(), UserTableSchema.SCHEMA));
+        this.emailIndex = new Lazy<>(() -> userTable().index(UserTableSchema.EMAIL_INDEX));
+        this.documentNumberIndex = new Lazy<>(() -> userTable().index(UserTableSchema.DOCUMENT_NUMBER_INDEX));
+        this.s3Client = new Lazy<>(this::buildS3Client);
+        this.s3Presigner = new Lazy<>(this::buildS3Presigner);
+        this.secretsManagerClient = new Lazy<>(() -> SecretsManagerClient.builder()
+                .region(settings.getRegion())
+                .credentialsProvider(credentialsProvider.get())
+                .httpClient(httpClient())
+                .overrideConfiguration(overrideConfiguration())
+                .build());
+        this.eventLoopGroup = new Lazy<>(() -> SdkEventLoopGroup.builder()
+                .numberOfThreads(settings.getEventLoopThreads())
+                .build());
+        this.asyncHttpClient = new Lazy<>(this::buildAsyncHttpClient);
+        this.dynamoDbAsyncClient = new Lazy<>(this::buildDynamoDbAsyncClient);
+        this.enhancedAsyncClient = new Lazy<>(() -> DynamoDbEnhancedAsyncClient.builder()
+                .dynamoDbClient(dynamoDbAsyncClient())
+                .build());
+        this.userAsyncTable = new Lazy<>(() ->
+                enhancedAsyncClient().table(settings.getUserTableName(), UserTableSchema.SCHEMA));
+        this.emailAsyncIndex = new Lazy<>(() -> userAsyncTable().index(UserTableSchema.EMAIL_INDEX));
+        this.documentNumberAsyncIndex = new Lazy<>(() ->
+                userAsyncTable().index(UserTableSchema.DOCUMENT_NUMBER_INDEX));
+        this.s3AsyncClient = new Lazy<>(this::buildS3AsyncClient);
+    }
+
+    public static AwsClientRegistry getInstance() {
+        return INSTANCE.get();
+    }
+
+    public ClientSettings settings() {
+        return settings;
+    }
+
+    public SdkHttpClient httpClient() {
+        return httpClient.get();
+    }
+
+    public DynamoDbClient dynamoDbClient() {
+        return dynamoDbClient.get();
+    }
+
+    public DynamoDbEnhancedClient enhancedClient() {
+        return enhancedClient.get();
+    }
+
+    public DynamoDbTable<User> userTable() {
+        return userTable.get();
+    }
+
+    public DynamoDbIndex<User> emailIndex() {
+        return emailIndex.get();
+    }
+
+    public DynamoDbIndex<User> documentNumberIndex() {
+        return documentNumberIndex.get();
+    }
+
+    public S3Client s3Client() {
+        return s3Client.get();
+    }
+
+    public S3Presigner s3Presigner() {
+        return s3Presigner.get();
+    }
+
+    public SecretsManagerClient secretsManagerClient() {
+        return secretsManagerClient.get();
+    }
+
+    public SdkAsyncHttpClient asyncHttpClient() {
+        return asyncHttpClient.get();
+    }
+
+    public DynamoDbAsyncClient dynamoDbAsyncClient() {
+        return dynamoDbAsyncClient.get();
+    }
+
+    public DynamoDbEnhancedAsyncClient enhancedAsyncClient() {
+        return enhancedAsyncClient.get();
+    }
+
+    public DynamoDbAsyncTable<User> userAsyncTable() {
+        return userAsyncTable.get();
+    }
+
+    public DynamoDbAsyncIndex<User> emailAsyncIndex() {
+        return emailAsyncIndex.get();
+    }
+
+    public DynamoDbAsyncIndex<User> documentNumberAsyncIndex() {
+        return documentNumberAsyncIndex.get();
+    }
+
+    public S3AsyncClient s3AsyncClient() {
+        return s3AsyncClient.get();
+    }
+
+    // Permiten calentar o reconectar solo los clientes que el handler ya construyó
+    public boolean hasDynamoDbClient() {
+        return dynamoDbClient.isInitialized();
+    }
+
+    public boolean hasDynamoDbAsyncClient() {
+        return dynamoDbAsyncClient.isInitialized();
+    }
+
+    public boolean hasS3Client() {
+        return s3Client.isInitialized();
+    }
+
+    public boolean hasS3Presigner() {
+        return s3Presigner.isInitialized();
+    }
+
+    // Vuelve a resolver la cadena de credenciales (p.ej. tras restaurar un snapshot de SnapStart)
+    public void refreshCredentials() {
+        if (credentialsProvider.isInitialized()) {
+            credentialsProvider.get().refresh();
+        }
+    }
+
+    private AwsCredentialsProvider buildCredentialsProvider() {
+        // En Lambda las credenciales vienen en variables de entorno: evitamos recorrer toda la cadena por defecto
+        if (System.getenv("AWS_ACCESS_KEY_ID") != null) {
+            return EnvironmentVariableCredentialsProvider.create();
+        }
+        return DefaultCredentialsProvider.builder().build();
+    }
+
+    private SdkHttpClient buildHttpClient() {
+        return ApacheHttpClient.builder()
+                .maxConnections(settings.getMaxConnections())
+                .connectionTimeout(settings.getConnectionTimeout())
+                .socketTimeout(settings.getSocketTimeout())
+                .connectionMaxIdleTime(settings.getConnectionMaxIdleTime())
+                .build();
+    }
+
+    private SdkAsyncHttpClient buildAsyncHttpClient() {
+        return NettyNioAsyncHttpClient.builder()
+                .eventLoopGroup(eventLoopGroup.get())
+                .maxConcurrency(settings.getAsyncMaxConcurrency())
+                .connectionTimeout(settings.getConnectionTimeout())
+                .readTimeout(settings.getSocketTimeout())
+                .connectionMaxIdleTime(settings.getConnectionMaxIdleTime())
+                .build();
+    }
+
+    private ClientOverrideConfiguration overrideConfiguration() {
+        return ClientOverrideConfiguration.builder()
+                .apiCallTimeout(settings.getApiCallTimeout())
+                .build();
+    }
+
+    private DynamoDbClient buildDynamoDbClient() {
+        DynamoDbClientBuilder builder = DynamoDbClient.builder()
+                .region(settings.getRegion())
+                .credentialsProvider(credentialsProvider.get())
+                .httpClient(httpClient())
+                .overrideConfiguration(overrideConfiguration());
+        if (settings.getDynamoDbEndpoint() != null) {
+            builder.endpointOverride(settings.getDynamoDbEndpoint());
+        }
+        return builder.build();
+    }
+
+    private DynamoDbAsyncClient buildDynamoDbAsyncClient() {
+        DynamoDbAsyncClientBuilder builder = DynamoDbAsyncClient.builder()
+                .region(settings.getRegion())
+                .credentialsProvider(credentialsProvider.get())
+                .httpClient(asyncHttpClient())
+                .overrideConfiguration(overrideConfiguration());
+        if (settings.getDynamoDbEndpoint() != null) {
+            builder.endpointOverride(settings.getDynamoDbEndpoint());
+        }
+        return builder.build();
+    }
+
+    private S3Client buildS3Client() {
+        S3ClientBuilder builder = S3Client.builder()
+                .region(settings.getRegion())
+                .credentialsProvider(credentialsProvider.get())
+                .httpClient(httpClient())
+                .overrideConfiguration(overrideConfiguration());
+        if (settings.getS3Endpoint() != null) {
+            builder.endpointOverride(settings.getS3Endpoint()).forcePathStyle(true);
+        }
+        return builder.build();
+    }
+
+    private S3AsyncClient buildS3AsyncClient() {
+        S3AsyncClientBuilder builder = S3AsyncClient.builder()
+                .region(settings.getRegion())
+                .credentialsProvider(credentialsProvider.get())
+                .httpClient(asyncHttpClient())
+                .overrideConfiguration(overrideConfiguration());
+        if (settings.getS3Endpoint() != null) {
+            builder.endpointOverride(settings.getS3Endpoint()).forcePathStyle(true);
+        }
+        return builder.build();
+    }
+
+    private S3Presigner buildS3Presigner() {
+        S3Presigner.Builder builder = S3Presigner.builder()
+                .region(settings.getRegion())
+                .credentialsProvider(credentialsProvider.get());
+        if (settings.getS3Endpoint() != null) {
+            builder.endpointOverride(settings.getS3Endpoint())
+                    .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(true).build());
+        }
+        return builder.build();
+    }
+}
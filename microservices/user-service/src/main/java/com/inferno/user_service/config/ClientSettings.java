@@ -0,0 +1,189 @@
+package com.inferno.user_service.config;
+
+import software.amazon.awssdk.regions.Region;
+
+import java.net.URI;
+import java.time.Duration;
+
+// Configuración de los clientes AWS, leída de variables de entorno con valores por defecto
+public final class ClientSettings {
+
+    private final Region region;
+    private final String userTableName;
+    private final int maxConnections;
+    private final Duration connectionTimeout;
+    private final Duration socketTimeout;
+    private final Duration connectionMaxIdleTime;
+    private final Duration apiCallTimeout;
+    private final int asyncMaxConcurrency;
+    private final int eventLoopThreads;
+    private final URI dynamoDbEndpoint;
+    private final URI s3Endpoint;
+
+    private ClientSettings(Builder builder) {
+        this.region = builder.region;
+        this.userTableName = builder.userTableName;
+        this.maxConnections = builder.maxConnections;
+        this.connectionTimeout = builder.connectionTimeout;
+        this.socketTimeout = builder.socketTimeout;
+        this.connectionMaxIdleTime = builder.connectionMaxIdleTime;
+        this.apiCallTimeout = builder.apiCallTimeout;
+        this.asyncMaxConcurrency = builder.asyncMaxConcurrency;
+        this.eventLoopThreads = builder.eventLoopThreads;
+        this.dynamoDbEndpoint = builder.dynamoDbEndpoint;
+        this.s3Endpoint = builder.s3Endpoint;
+    }
+
+    public static ClientSettings fromEnvironment() {
+        Builder builder = builder()
+                .region(Region.of(env("AWS_REGION", "us-east-2")))
+                .userTableName(env("USER_TABLE_NAME", "user-table"))
+                .maxConnections(Integer.parseInt(env("AWS_HTTP_MAX_CONNECTIONS", "50")))
+                .connectionTimeout(Duration.ofMillis(Long.parseLong(env("AWS_HTTP_CONNECTION_TIMEOUT_MS", "2000"))))
+                .socketTimeout(Duration.ofMillis(Long.parseLong(env("AWS_HTTP_SOCKET_TIMEOUT_MS", "5000"))))
+                .connectionMaxIdleTime(Duration.ofMillis(Long.parseLong(env("AWS_HTTP_MAX_IDLE_MS", "60000"))))
+                .apiCallTimeout(Duration.ofMillis(Long.parseLong(env("AWS_API_CALL_TIMEOUT_MS", "10000"))))
+                .asyncMaxConcurrency(Integer.parseInt(env("AWS_ASYNC_MAX_CONCURRENCY", "50")))
+                .eventLoopThreads(Integer.parseInt(env("AWS_EVENT_LOOP_THREADS", "2")));
+
+        String dynamoEndpoint = System.getenv("DYNAMODB_ENDPOINT");
+        if (dynamoEndpoint != null && !dynamoEndpoint.isBlank()) {
+            builder.dynamoDbEndpoint(URI.create(dynamoEndpoint));
+        }
+        String s3Endpoint = System.getenv("S3_ENDPOINT");
+        if (s3Endpoint != null && !s3Endpoint.isBlank()) {
+            builder.s3Endpoint(URI.create(s3Endpoint));
+        }
+        return builder.build();
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public Region getRegion() {
+        return region;
+    }
+
+    public String getUserTableName() {
+        return userTableName;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public Duration getConnectionTimeout() {
+        return connectionTimeout;
+    }
+
+    public Duration getSocketTimeout() {
+        return socketTimeout;
+    }
+
+    public Duration getConnectionMaxIdleTime() {
+        return connectionMaxIdleTime;
+    }
+
+    public Duration getApiCallTimeout() {
+        return apiCallTimeout;
+    }
+
+    public int getAsyncMaxConcurrency() {
+        return asyncMaxConcurrency;
+    }
+
+    public int getEventLoopThreads() {
+        return eventLoopThreads;
+    }
+
+    public URI getDynamoDbEndpoint() {
+        return dynamoDbEndpoint;
+    }
+
+    public URI getS3Endpoint() {
+        return s3Endpoint;
+    }
+
+    public static final class Builder {
+        private Region region = Region.US_EAST_2;
+        private String userTableName = "user-table";
+        private int maxConnections = 50;
+        private Duration connectionTimeout = Duration.ofSeconds(2);
+        private Duration socketTimeout = Duration.ofSeconds(5);
+        private Duration connectionMaxIdleTime = Duration.ofSeconds(60);
+        private Duration apiCallTimeout = Duration.ofSeconds(10);
+        private int asyncMaxConcurrency = 50;
+        // Lambda tiene pocos vCPU: un event loop chico alcanza para todas las llamadas en vuelo
+        private int eventLoopThreads = 2;
+        private URI dynamoDbEndpoint;
+        private URI s3Endpoint;
+
+        private Builder() {
+        }
+
+        public Builder region(Region region) {
+            this.region = region;
+            return this;
+        }
+
+        public Builder userTableName(String userTableName) {
+            this.userTableName = userTableName;
+            return this;
+        }
+
+        public Builder maxConnections(int maxConnections) {
+            this.maxConnections = maxConnections;
+            return this;
+        }
+
+        public Builder connectionTimeout(Duration connectionTimeout) {
+            this.connectionTimeout = connectionTimeout;
+            return this;
+        }
+
+        public Builder socketTimeout(Duration socketTimeout) {
+            this.socketTimeout = socketTimeout;
+            return this;
+        }
+
+        public Builder connectionMaxIdleTime(Duration connectionMaxIdleTime) {
+            this.connectionMaxIdleTime = connectionMaxIdleTime;
+            return this;
+        }
+
+        public Builder apiCallTimeout(Duration apiCallTimeout) {
+            this.apiCallTimeout = apiCallTimeout;
+            return this;
+        }
+
+        public Builder asyncMaxConcurrency(int asyncMaxConcurrency) {
+            this.asyncMaxConcurrency = asyncMaxConcurrency;
+            return this;
+        }
+
+        public Builder eventLoopThreads(int eventLoopThreads) {
+            this.eventLoopThreads = eventLoopThreads;
+            return this;
+        }
+
+        public Builder dynamoDbEndpoint(URI dynamoDbEndpoint) {
+            this.dynamoDbEndpoint = dynamoDbEndpoint;
+            return this;
+        }
+
+        public Builder s3Endpoint(URI s3Endpoint) {
+            this.s3Endpoint = s3Endpoint;
+            return this;
+        }
+
+        public ClientSettings build() {
+            return new ClientSettings(this);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.inferno.user_service.config;
+
+import java.util.function.Supplier;
+
+// Valor construido una sola vez, en el primer acceso (thread-safe)
+public final class Lazy<T> {
+
+    private final Supplier<T> supplier;
+    private volatile T value;
+
+    public Lazy(Supplier<T> supplier) {
+        this.supplier = supplier;
+    }
+
+    public T get() {
+        T result = value;
+        if (result == null) {
+            synchronized (this) {
+                result = value;
+                if (result == null) {
+                    result = supplier.get();
+                    value = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    public boolean isInitialized() {
+        return value != null;
+    }
+}
@@ -0,0 +1,47 @@
+package com.inferno.user_service.config;
+
+import software.amazon.awssdk.auth.credentials.AwsCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.utils.SdkAutoCloseable;
+
+import java.util.function.Supplier;
+
+// Proveedor de credenciales reemplazable en caliente. Tras restaurar un snapshot (SnapStart/CRaC)
+// las credenciales cacheadas y el proveedor elegido antes del checkpoint pueden no ser válidos:
+// refresh() vuelve a resolver la cadena sin reconstruir los clientes que lo usan.
+final class RefreshableCredentialsProvider implements AwsCredentialsProvider, SdkAutoCloseable {
+
+    private final Supplier<AwsCredentialsProvider> factory;
+    private volatile AwsCredentialsProvider delegate;
+
+    RefreshableCredentialsProvider(Supplier<AwsCredentialsProvider> factory) {
+        this.factory = factory;
+        this.delegate = factory.get();
+    }
+
+    @Override
+    public AwsCredentials resolveCredentials() {
+        return delegate.resolveCredentials();
+    }
+
+    void refresh() {
+        AwsCredentialsProvider previous = delegate;
+        delegate = factory.get();
+        closeQuietly(previous);
+    }
+
+    @Override
+    public void close() {
+        closeQuietly(delegate);
+    }
+
+    private static void closeQuietly(AwsCredentialsProvider provider) {
+        if (provider instanceof SdkAutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (RuntimeException e) {
+                System.err.println("Error closing credentials provider: " + e.getMessage());
+            }
+        }
+    }
+}
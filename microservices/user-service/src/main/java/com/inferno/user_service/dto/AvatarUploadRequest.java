@@ -0,0 +1,13 @@
+package com.inferno.user_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AvatarUploadRequest {
+    private String contentType;
+    private long contentLength;
+}
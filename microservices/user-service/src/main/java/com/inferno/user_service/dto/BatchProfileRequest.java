@@ -0,0 +1,23 @@
+package com.inferno.user_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// {"keys": [{"uuid": "...", "document": "..."}]}; document es opcional pero evita un Query por usuario
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchProfileRequest {
+    private List<ProfileKey> keys;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class ProfileKey {
+        private String uuid;
+        private String document;
+    }
+}
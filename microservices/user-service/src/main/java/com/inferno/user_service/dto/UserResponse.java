@@ -4,6 +4,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Map;
+
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -14,7 +16,9 @@ public class UserResponse {
     private String email;
     private String document;
     private String imageUrl;
+    private Map<String, String> thumbnails;
     private String createdAt;
     private String updatedAt;
+    private Long version;
 }
 
@@ -33,4 +33,11 @@ public class UserUpdateRequest {
     @Pattern(regexp = "^\\d+$", message = "Document must contain only numbers")
     private String document;
 
+    // Opcional: versión leída por el cliente; si el usuario cambió desde entonces se responde 409
+    private Long version;
+
+    public UserUpdateRequest(String name, String lastName, String email, String password, String document) {
+        this(name, lastName, email, password, document, null);
+    }
+
 }
@@ -0,0 +1,7 @@
+package com.inferno.user_service.exception;
+
+public class PayloadTooLargeException extends ValidationException {
+    public PayloadTooLargeException(String message) {
+        super(message, 413); // 413 Payload Too Large
+    }
+}
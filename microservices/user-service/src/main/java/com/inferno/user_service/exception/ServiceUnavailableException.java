@@ -0,0 +1,7 @@
+package com.inferno.user_service.exception;
+
+public class ServiceUnavailableException extends ValidationException {
+    public ServiceUnavailableException(String message) {
+        super(message, 503); // 503 Service Unavailable
+    }
+}
@@ -0,0 +1,14 @@
+package com.inferno.user_service.exception;
+
+public class TooManyRequestsException extends ValidationException {
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message, 429); // 429 Too Many Requests
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,7 @@
+package com.inferno.user_service.exception;
+
+public class UnauthorizedException extends ValidationException {
+    public UnauthorizedException(String message) {
+        super(message, 401); // 401 Unauthorized
+    }
+}
@@ -0,0 +1,7 @@
+package com.inferno.user_service.exception;
+
+public class UnsupportedMediaTypeException extends ValidationException {
+    public UnsupportedMediaTypeException(String message) {
+        super(message, 415); // 415 Unsupported Media Type
+    }
+}
@@ -0,0 +1,7 @@
+package com.inferno.user_service.exception;
+
+public class UserNotFoundException extends ValidationException {
+    public UserNotFoundException(String message) {
+        super(message, 404); // 404 Not Found
+    }
+}
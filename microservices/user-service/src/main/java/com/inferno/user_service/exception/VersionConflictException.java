@@ -0,0 +1,15 @@
+package com.inferno.user_service.exception;
+
+// El usuario cambió desde que el cliente lo leyó; currentVersion permite releer y reintentar
+public class VersionConflictException extends ValidationException {
+    private final long currentVersion;
+
+    public VersionConflictException(long currentVersion) {
+        super("User was modified by another request", 409); // 409 Conflict
+        this.currentVersion = currentVersion;
+    }
+
+    public long getCurrentVersion() {
+        return currentVersion;
+    }
+}
@@ -0,0 +1,159 @@
+package com.inferno.user_service.handler;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.inferno.user_service.avatar.AvatarUrlSigner;
+import com.inferno.user_service.dto.BatchProfileRequest;
+import com.inferno.user_service.dto.UserResponse;
+import com.inferno.user_service.exception.InvalidDataException;
+import com.inferno.user_service.exception.ValidationException;
+import com.inferno.user_service.json.ErrorBodies;
+import com.inferno.user_service.json.JsonCodec;
+import com.inferno.user_service.logging.AsyncLogger;
+import com.inferno.user_service.metrics.HandlerMetrics;
+import com.inferno.user_service.metrics.InvocationMetrics;
+import com.inferno.user_service.metrics.Stage;
+import com.inferno.user_service.model.User;
+import com.inferno.user_service.model.UserKey;
+import com.inferno.user_service.priming.ColdStartPriming;
+import com.inferno.user_service.service.UserService;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Perfiles de muchos usuarios en una sola llamada, para servicios internos (tarjetas, notificaciones)
+public class BatchGetUserProfilesLambda implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
+
+    private static final Map<String, String> HEADERS = Map.of(
+            "Content-Type", "application/json",
+            "Access-Control-Allow-Origin", "*");
+
+    private final UserService userService;
+    private final ProfileResponseMapper responseMapper;
+    private final int maxKeys;
+    private final HandlerMetrics metrics;
+    private final JsonCodec json = JsonCodec.shared();
+    private final AsyncLogger logger = AsyncLogger.getInstance();
+
+    public BatchGetUserProfilesLambda() {
+        this(new UserService(), AvatarUrlSigner.getInstance(),
+                Integer.parseInt(env("BATCH_PROFILE_MAX_KEYS", "2000")));
+        ColdStartPriming.registerDefault();
+    }
+
+    public BatchGetUserProfilesLambda(UserService userService, AvatarUrlSigner avatarUrlSigner, int maxKeys) {
+        this(userService, avatarUrlSigner, maxKeys, HandlerMetrics.forHandler(BatchGetUserProfilesLambda.class));
+    }
+
+    public BatchGetUserProfilesLambda(UserService userService, AvatarUrlSigner avatarUrlSigner, int maxKeys,
+                                      HandlerMetrics metrics) {
+        this.userService = userService;
+        this.responseMapper = new ProfileResponseMapper(avatarUrlSigner);
+        this.maxKeys = maxKeys;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public APIGatewayProxyResponseEvent handleRequest(APIGatewayProxyRequestEvent request, Context context) {
+        metrics.begin();
+        try {
+            return handle(request, context);
+        } finally {
+            metrics.flush(context);
+            logger.endInvocation();
+        }
+    }
+
+    private APIGatewayProxyResponseEvent handle(APIGatewayProxyRequestEvent request, Context context) {
+        Map<String, String> headers = createHeaders();
+
+        try {
+            List<UserKey> keys = parseKeys(request.getBody());
+
+            // El arreglo se escribe a medida que terminan los lotes: no se arma una lista con todas
+            // las respuestas. API Gateway igual recibe el cuerpo completo como String.
+            StringWriter body = new StringWriter();
+            try (JsonGenerator generator = json.mapper().getFactory().createGenerator(body)) {
+                generator.writeStartArray();
+                userService.getUsersByKeys(keys, users -> writeChunk(generator, users));
+                generator.writeEndArray();
+            }
+
+            return new APIGatewayProxyResponseEvent()
+                    .withStatusCode(200)
+                    .withHeaders(headers)
+                    .withBody(body.toString());
+        } catch (ValidationException e) {
+            return createErrorResponse(e.getStatusCode(), e.getMessage(), headers);
+        } catch (Exception e) {
+            logger.error(context, "Batch get users error", e);
+            return createErrorResponse(500, "Internal server error", headers);
+        }
+    }
+
+    private List<UserKey> parseKeys(String body) {
+        if (body == null || body.isBlank()) {
+            throw new InvalidDataException("Request body is required");
+        }
+        BatchProfileRequest batchRequest;
+        long start = System.nanoTime();
+        try {
+            batchRequest = json.read(body, BatchProfileRequest.class);
+        } catch (IOException e) {
+            throw new InvalidDataException("Invalid request body");
+        }
+        InvocationMetrics.record(Stage.PARSE, start);
+        if (batchRequest.getKeys() == null || batchRequest.getKeys().isEmpty()) {
+            throw new InvalidDataException("At least one key is required");
+        }
+        if (batchRequest.getKeys().size() > maxKeys) {
+            throw new InvalidDataException("At most " + maxKeys + " keys per request");
+        }
+
+        List<UserKey> keys = new ArrayList<>(batchRequest.getKeys().size());
+        for (BatchProfileRequest.ProfileKey key : batchRequest.getKeys()) {
+            if (key == null || key.getUuid() == null || key.getUuid().isBlank()) {
+                throw new InvalidDataException("Every key needs a uuid");
+            }
+            keys.add(UserKey.of(key.getUuid(), key.getDocument()));
+        }
+        return keys;
+    }
+
+    // Un valor de SERIALIZE por lote
+    private void writeChunk(JsonGenerator generator, List<User> users) {
+        long start = System.nanoTime();
+        try {
+            for (User user : users) {
+                json.writer(UserResponse.class).writeValue(generator, responseMapper.toResponse(user));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        InvocationMetrics.record(Stage.SERIALIZE, start);
+    }
+
+    // Compartidos e inmutables: no se arma un HashMap por respuesta
+    private Map<String, String> createHeaders() {
+        return HEADERS;
+    }
+
+    private APIGatewayProxyResponseEvent createErrorResponse(int statusCode, String message, Map<String, String> headers) {
+        return new APIGatewayProxyResponseEvent()
+                .withStatusCode(statusCode)
+                .withHeaders(headers)
+                .withBody(ErrorBodies.of(message));
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+}
@@ -4,23 +4,74 @@ import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inferno.user_service.avatar.AvatarUrlSigner;
+import com.inferno.user_service.cache.ProfileCache;
 import com.inferno.user_service.dto.UserResponse;
+import com.inferno.user_service.json.ErrorBodies;
+import com.inferno.user_service.json.JsonCodec;
+import com.inferno.user_service.logging.AsyncLogger;
+import com.inferno.user_service.metrics.HandlerMetrics;
+import com.inferno.user_service.metrics.InvocationMetrics;
+import com.inferno.user_service.metrics.Stage;
 import com.inferno.user_service.model.User;
+import com.inferno.user_service.priming.ColdStartPriming;
 import com.inferno.user_service.service.UserService;
 
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
 public class GetUserProfileLambda implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
 
-    private final UserService userService = new UserService();
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private static final Map<String, String> HEADERS = Map.of(
+            "Content-Type", "application/json",
+            "Access-Control-Allow-Origin", "*");
+
+    private final UserService userService;
+    private final ProfileCache profileCache;
+    private final ProfileResponseMapper responseMapper;
+    private final HandlerMetrics metrics;
+    private final JsonCodec json = JsonCodec.shared();
+    private final AsyncLogger logger = AsyncLogger.getInstance();
+
+    // Las escrituras (UpdateUserLmb, UploadUserPhotoLmb) corren en otros contenedores y su invalidación
+    // no llega a esta caché: tras una escritura el perfil puede servirse desactualizado hasta
+    // PROFILE_CACHE_TTL_SECONDS (5 s por defecto en Lambda)
+    public GetUserProfileLambda() {
+        this(new UserService(), ProfileCache.getInstance(), AvatarUrlSigner.getInstance());
+        ColdStartPriming.registerDefault();
+    }
+
+    public GetUserProfileLambda(UserService userService, AvatarUrlSigner avatarUrlSigner) {
+        this(userService, ProfileCache.getInstance(), avatarUrlSigner);
+    }
+
+    // Las URLs del cuerpo cacheado siguen vigentes mientras el TTL de la caché de perfiles
+    // sea menor que el margen de renovación de AvatarUrlSigner
+    public GetUserProfileLambda(UserService userService, ProfileCache profileCache, AvatarUrlSigner avatarUrlSigner) {
+        this(userService, profileCache, avatarUrlSigner, HandlerMetrics.forHandler(GetUserProfileLambda.class));
+    }
+
+    public GetUserProfileLambda(UserService userService, ProfileCache profileCache, AvatarUrlSigner avatarUrlSigner,
+                                HandlerMetrics metrics) {
+        this.userService = userService;
+        this.profileCache = profileCache;
+        this.responseMapper = new ProfileResponseMapper(avatarUrlSigner);
+        this.metrics = metrics;
+    }
 
     @Override
     public APIGatewayProxyResponseEvent handleRequest(APIGatewayProxyRequestEvent request, Context context) {
+        metrics.begin();
+        try {
+            return handle(request, context);
+        } finally {
+            metrics.flush(context);
+            logger.endInvocation();
+        }
+    }
+
+    private APIGatewayProxyResponseEvent handle(APIGatewayProxyRequestEvent request, Context context) {
         Map<String, String> headers = createHeaders();
 
         try {
@@ -30,62 +81,48 @@ public class GetUserProfileLambda implements RequestHandler<APIGatewayProxyReque
                 return createErrorResponse(400, "User UUID is required in path", headers);
             }
 
-            // Llamar al servicio
-            List<User> users = userService.getUsersByUuid(uuid);
-
-            if (users == null || users.isEmpty()) {
+            // Respuesta ya serializada desde la caché; solo se consulta DynamoDB en un fallo
+            String body = profileCache.get(uuid, this::loadProfileBody);
+            if (body == null) {
                 return createErrorResponse(404, "User not found", headers);
             }
 
-            // Mapear a DTO
-            List<UserResponse> responses = users.stream()
-                    .map(this::createUserResponse)
-                    .collect(Collectors.toList());
-
             return new APIGatewayProxyResponseEvent()
                     .withStatusCode(200)
                     .withHeaders(headers)
-                    .withBody(objectMapper.writeValueAsString(responses));
+                    .withBody(body);
 
         } catch (Exception e) {
-            context.getLogger().log("Get user error: " + e.getMessage());
+            logger.error(context, "Get user error", e);
             return createErrorResponse(500, "Internal server error", headers);
         }
     }
 
-    private UserResponse createUserResponse(User user) {
-        UserResponse response = new UserResponse();
-        response.setUuid(user.getUuid());
-        response.setName(user.getName());
-        response.setLastName(user.getLastName());
-        response.setEmail(user.getEmail());
-        response.setDocument(user.getDocumentNumber());
-        response.setImageUrl(user.getImageUrl());
-        response.setCreatedAt(user.getCreatedAt());
-        response.setUpdatedAt(user.getUpdatedAt());
-        return response;
+    private String loadProfileBody(String uuid) throws Exception {
+        List<User> users = userService.getUsersByUuid(uuid);
+        if (users == null || users.isEmpty()) {
+            return null;
+        }
+
+        // Mapear a DTO
+        List<UserResponse> responses = users.stream()
+                .map(responseMapper::toResponse)
+                .collect(Collectors.toList());
+        long start = System.nanoTime();
+        String body = json.write(responses);
+        InvocationMetrics.record(Stage.SERIALIZE, start);
+        return body;
     }
 
+    // Compartidos e inmutables: no se arma un HashMap por respuesta
     private Map<String, String> createHeaders() {
-        Map<String, String> headers = new HashMap<>();
-        headers.put("Content-Type", "application/json");
-        headers.put("Access-Control-Allow-Origin", "*");
-        return headers;
+        return HEADERS;
     }
 
     private APIGatewayProxyResponseEvent createErrorResponse(int statusCode, String message, Map<String, String> headers) {
-        try {
-            Map<String, String> errorBody = new HashMap<>();
-            errorBody.put("error", message);
-            return new APIGatewayProxyResponseEvent()
-                    .withStatusCode(statusCode)
-                    .withHeaders(headers)
-                    .withBody(objectMapper.writeValueAsString(errorBody));
-        } catch (Exception e) {
-            return new APIGatewayProxyResponseEvent()
-                    .withStatusCode(statusCode)
-                    .withHeaders(headers)
-                    .withBody("{\"error\": \"" + message + "\"}");
-        }
+        return new APIGatewayProxyResponseEvent()
+                .withStatusCode(statusCode)
+                .withHeaders(headers)
+                .withBody(ErrorBodies.of(message));
     }
 }
@@ -0,0 +1,97 @@
+package com.inferno.user_service.handler;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayCustomAuthorizerEvent;
+import com.amazonaws.services.lambda.runtime.events.IamPolicyResponseV1;
+import com.inferno.user_service.exception.UnauthorizedException;
+import com.inferno.user_service.logging.AsyncLogger;
+import com.inferno.user_service.metrics.HandlerMetrics;
+import com.inferno.user_service.priming.ColdStartPriming;
+import com.inferno.user_service.security.JwtVerifier;
+import com.inferno.user_service.security.VerifiedToken;
+
+import java.util.List;
+import java.util.Map;
+
+// Authorizer de API Gateway (REST) para las rutas /profile/{uuid}. Sirve como TOKEN authorizer
+// (authorizationToken) o como REQUEST authorizer (cabecera Authorization). En modo REQUEST además
+// compara el uuid de la ruta con el subject: un usuario solo opera sobre su propio perfil. En ese
+// modo la caché de API Gateway debe incluir el path en las identity sources, o estar apagada.
+// Token ausente, inválido, vencido o revocado: "Unauthorized" (401). Perfil ajeno: Deny (403).
+public class JwtAuthorizerLambda implements RequestHandler<APIGatewayCustomAuthorizerEvent, IamPolicyResponseV1> {
+
+    private final AsyncLogger logger = AsyncLogger.getInstance();
+    private final JwtVerifier verifier;
+    private final HandlerMetrics metrics;
+
+    public JwtAuthorizerLambda() {
+        this(JwtVerifier.getInstance());
+        ColdStartPriming.registerDefault();
+    }
+
+    public JwtAuthorizerLambda(JwtVerifier verifier) {
+        this(verifier, HandlerMetrics.forHandler(JwtAuthorizerLambda.class));
+    }
+
+    public JwtAuthorizerLambda(JwtVerifier verifier, HandlerMetrics metrics) {
+        this.verifier = verifier;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public IamPolicyResponseV1 handleRequest(APIGatewayCustomAuthorizerEvent event, Context context) {
+        metrics.begin();
+        try {
+            return authorize(event, context);
+        } finally {
+            metrics.flush(context);
+            logger.endInvocation();
+        }
+    }
+
+    private IamPolicyResponseV1 authorize(APIGatewayCustomAuthorizerEvent event, Context context) {
+        VerifiedToken token;
+        try {
+            token = verifier.verify(JwtVerifier.bearerToken(authorization(event)));
+        } catch (UnauthorizedException e) {
+            logger.info(context, "Authorizer rejected request: " + e.getMessage());
+            // API Gateway traduce exactamente este mensaje a un 401
+            throw new RuntimeException("Unauthorized");
+        }
+
+        String pathUuid = event.getPathParameters() == null ? null : event.getPathParameters().get("uuid");
+        boolean allowed = pathUuid == null || pathUuid.equals(token.getSubject());
+        if (!allowed) {
+            logger.info(context, "Authorizer denied access to another user's profile");
+        }
+        return IamPolicyResponseV1.builder()
+                .withPrincipalId(token.getSubject())
+                .withPolicyDocument(IamPolicyResponseV1.PolicyDocument.builder()
+                        .withVersion(IamPolicyResponseV1.VERSION_2012_10_17)
+                        .withStatement(List.of(allowed
+                                ? IamPolicyResponseV1.allowStatement(event.getMethodArn())
+                                : IamPolicyResponseV1.denyStatement(event.getMethodArn())))
+                        .build())
+                .withContext(Map.of(
+                        "sub", token.getSubject(),
+                        "email", token.getEmail() == null ? "" : token.getEmail(),
+                        "role", token.getRole() == null ? "" : token.getRole()))
+                .build();
+    }
+
+    private static String authorization(APIGatewayCustomAuthorizerEvent event) {
+        if (event.getAuthorizationToken() != null) {
+            return event.getAuthorizationToken();
+        }
+        if (event.getHeaders() == null) {
+            return null;
+        }
+        for (Map.Entry<String, String> header : event.getHeaders().entrySet()) {
+            if ("Authorization".equalsIgnoreCase(header.getKey())) {
+                return header.getValue();
+            }
+        }
+        return null;
+    }
+}
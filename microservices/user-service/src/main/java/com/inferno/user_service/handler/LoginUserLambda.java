@@ -4,91 +4,130 @@ import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.inferno.user_service.dto.LoginRequest;
 import com.inferno.user_service.dto.LoginResponse;
+import com.inferno.user_service.exception.TooManyRequestsException;
+import com.inferno.user_service.exception.ValidationException;
+import com.inferno.user_service.json.ErrorBodies;
+import com.inferno.user_service.json.JsonCodec;
+import com.inferno.user_service.logging.AsyncLogger;
+import com.inferno.user_service.metrics.HandlerMetrics;
+import com.inferno.user_service.metrics.InvocationMetrics;
+import com.inferno.user_service.metrics.Stage;
 import com.inferno.user_service.model.User;
+import com.inferno.user_service.priming.ColdStartPriming;
+import com.inferno.user_service.ratelimit.LoginRateLimiter;
+import com.inferno.user_service.security.JwtIssuer;
+import com.inferno.user_service.security.JwtKeyProvider;
 import com.inferno.user_service.service.UserService;
 import com.inferno.user_service.service.ValidationService;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
-import software.amazon.awssdk.services.secretsmanager.SecretsManagerClient;
-import software.amazon.awssdk.services.secretsmanager.model.GetSecretValueRequest;
-import software.amazon.awssdk.services.secretsmanager.model.GetSecretValueResponse;
-
-import java.nio.charset.StandardCharsets;
-import java.security.Key;
-import java.util.Date;
+
 import java.util.Map;
 
 public class LoginUserLambda implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
-    private final UserService userService = new UserService();
-    private final ValidationService validationService = new ValidationService(userService);
-
-    // Nombre del secreto en Secrets Manager (definido en Terraform)
-    private static final String SECRET_NAME = "jwtSecret";
-
-    private String getJwtSecret() {
-        try (SecretsManagerClient client = SecretsManagerClient.create()) {
-            GetSecretValueResponse response = client.getSecretValue(
-                    GetSecretValueRequest.builder()
-                            .secretId(SECRET_NAME)
-                            .build()
-            );
-            // el secreto lo guardamos como JSON { "JWT_SECRET": "valor" }
-            Map<String, String> secretMap = objectMapper.readValue(response.secretString(), Map.class);
-            return secretMap.get("JWT_SECRET");
-        } catch (Exception e) {
-            throw new RuntimeException("Error obteniendo JWT_SECRET desde Secrets Manager", e);
-        }
+    private final JsonCodec json = JsonCodec.shared();
+    private final AsyncLogger logger = AsyncLogger.getInstance();
+    private final UserService userService;
+    private final ValidationService validationService;
+
+    private final JwtIssuer jwtIssuer;
+    private final HandlerMetrics metrics;
+    private final LoginRateLimiter rateLimiter;
+
+    public LoginUserLambda() {
+        this(new UserService(), JwtKeyProvider.getInstance());
+        ColdStartPriming.registerDefault();
+    }
+
+    public LoginUserLambda(UserService userService, JwtKeyProvider jwtKeyProvider) {
+        this(userService, jwtKeyProvider, HandlerMetrics.forHandler(LoginUserLambda.class));
+    }
+
+    public LoginUserLambda(UserService userService, JwtKeyProvider jwtKeyProvider, HandlerMetrics metrics) {
+        this(userService, jwtKeyProvider, metrics, LoginRateLimiter.getInstance());
+    }
+
+    public LoginUserLambda(UserService userService, JwtKeyProvider jwtKeyProvider, HandlerMetrics metrics,
+                           LoginRateLimiter rateLimiter) {
+        this.userService = userService;
+        this.validationService = new ValidationService(userService);
+        this.jwtIssuer = new JwtIssuer(jwtKeyProvider);
+        this.metrics = metrics;
+        this.rateLimiter = rateLimiter;
     }
 
     @Override
     public APIGatewayProxyResponseEvent handleRequest(APIGatewayProxyRequestEvent request, Context context) {
+        metrics.begin();
         try {
+            return handle(request, context);
+        } finally {
+            metrics.flush(context);
+            logger.endInvocation();
+        }
+    }
 
-            context.getLogger().log("Request body: " + request.getBody());
+    private APIGatewayProxyResponseEvent handle(APIGatewayProxyRequestEvent request, Context context) {
+        try {
+            // Redactado y muestreado: el cuerpo trae la contraseña en claro
+            logger.payload(context, "Login request", request.getBody());
 
             // 1. Parsear y validar request
-            LoginRequest loginRequest = objectMapper.readValue(request.getBody(), LoginRequest.class);
+            long parseStart = System.nanoTime();
+            LoginRequest loginRequest = json.read(request.getBody(), LoginRequest.class);
+            InvocationMetrics.record(Stage.PARSE, parseStart);
             validationService.validate(loginRequest);
 
+            // 2. Límite por email e IP antes de buscar al usuario y verificar el hash
+            rateLimiter.check(loginRequest.getEmail(), sourceIp(request));
 
-            // 2. Autenticar usuario contra DynamoDB
+            // 3. Autenticar usuario contra DynamoDB
             User user = userService.authenticateUser(loginRequest.getEmail(), loginRequest.getPassword());
             if (user == null) {
                 return new APIGatewayProxyResponseEvent()
                         .withStatusCode(401)
-                        .withBody("{\"error\":\"Credenciales inválidas\"}");
+                        .withBody(ErrorBodies.of("Credenciales inválidas"));
             }
 
-            //Obtener secreto desde AWS Secrets Manager
-            String jwtSecret = getJwtSecret();
-
-            // 3. Generar token JWT
-            Key key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
-            String token = Jwts.builder()
-                    .setSubject(user.getUuid()) // usamos uuid como subject
-                    .claim("email", user.getEmail())
-                    .claim("role", "USER")
-                    .setIssuedAt(new Date())
-                    .setExpiration(new Date(System.currentTimeMillis() + 3600 * 1000)) // 1 hora
-                    .signWith(key, SignatureAlgorithm.HS256)
-                    .compact();
-
-            // 4. Crear response DTO
+            // 4. Generar token JWT (clave cacheada, se refresca desde Secrets Manager en segundo plano)
+            long signStart = System.nanoTime();
+            String token = jwtIssuer.issue(user);
+            InvocationMetrics.record(Stage.JWT_SIGN, signStart);
+
+            // 5. Crear response DTO
             LoginResponse response = new LoginResponse(token);
+            long serializeStart = System.nanoTime();
+            String body = json.write(response);
+            InvocationMetrics.record(Stage.SERIALIZE, serializeStart);
 
             return new APIGatewayProxyResponseEvent()
                     .withStatusCode(200)
-                    .withBody(objectMapper.writeValueAsString(response));
+                    .withBody(body);
+        } catch (TooManyRequestsException e) {
+            logger.warn(context, "Login rate limited");
+            return new APIGatewayProxyResponseEvent()
+                    .withStatusCode(e.getStatusCode())
+                    .withHeaders(Map.of("Retry-After", Long.toString(e.getRetryAfterSeconds())))
+                    .withBody(ErrorBodies.of(e.getMessage()));
+        } catch (ValidationException e) {
+            return new APIGatewayProxyResponseEvent()
+                    .withStatusCode(e.getStatusCode())
+                    .withBody(ErrorBodies.of(e.getMessage()));
         } catch (Exception e) {
+            logger.error(context, "Login error", e);
             return new APIGatewayProxyResponseEvent()
                     .withStatusCode(500)
-                    .withBody("{\"error\":\"" + e.getMessage() + "\"}");
+                    .withBody(ErrorBodies.of(ErrorBodies.INTERNAL_SERVER_ERROR));
+        }
+    }
+
+    // IP que ve API Gateway (o el servidor embebido); no se confía en X-Forwarded-For
+    private static String sourceIp(APIGatewayProxyRequestEvent request) {
+        APIGatewayProxyRequestEvent.ProxyRequestContext requestContext = request.getRequestContext();
+        if (requestContext == null || requestContext.getIdentity() == null) {
+            return null;
         }
+        return requestContext.getIdentity().getSourceIp();
     }
 }
@@ -0,0 +1,33 @@
+package com.inferno.user_service.handler;
+
+import com.inferno.user_service.avatar.AvatarUrlSigner;
+import com.inferno.user_service.dto.UserResponse;
+import com.inferno.user_service.model.User;
+
+// User -> UserResponse, con las URLs del avatar firmadas al momento de leer
+class ProfileResponseMapper {
+
+    private final AvatarUrlSigner avatarUrlSigner;
+
+    ProfileResponseMapper(AvatarUrlSigner avatarUrlSigner) {
+        this.avatarUrlSigner = avatarUrlSigner;
+    }
+
+    UserResponse toResponse(User user) {
+        UserResponse response = new UserResponse();
+        response.setUuid(user.getUuid());
+        response.setName(user.getName());
+        response.setLastName(user.getLastName());
+        response.setEmail(user.getEmail());
+        response.setDocument(user.getDocumentNumber());
+        String avatarKey = user.getAvatarKey() != null
+                ? user.getAvatarKey()
+                : avatarUrlSigner.keyFromLegacyUrl(user.getImageUrl());
+        response.setImageUrl(avatarUrlSigner.url(avatarKey));
+        response.setThumbnails(avatarUrlSigner.urls(user.getAvatarVariants()));
+        response.setCreatedAt(user.getCreatedAt());
+        response.setUpdatedAt(user.getUpdatedAt());
+        response.setVersion(user.getVersion());
+        return response;
+    }
+}
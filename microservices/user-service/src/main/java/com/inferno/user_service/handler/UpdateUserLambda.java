@@ -4,29 +4,66 @@ import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.inferno.user_service.dto.UserResponse;
 import com.inferno.user_service.dto.UserUpdateRequest;
 import com.inferno.user_service.exception.ValidationException;
+import com.inferno.user_service.json.ErrorBodies;
+import com.inferno.user_service.json.JsonCodec;
+import com.inferno.user_service.logging.AsyncLogger;
+import com.inferno.user_service.metrics.HandlerMetrics;
+import com.inferno.user_service.metrics.InvocationMetrics;
+import com.inferno.user_service.metrics.Stage;
 import com.inferno.user_service.model.User;
+import com.inferno.user_service.model.UserUpdate;
+import com.inferno.user_service.priming.ColdStartPriming;
 import com.inferno.user_service.service.UserService;
 import com.inferno.user_service.service.ValidationService;
 
-import java.util.HashMap;
 import java.util.Map;
 
 public class UpdateUserLambda implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
 
-    private final UserService userService = new UserService();
-    private final ValidationService validationService = new ValidationService(userService);
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private static final Map<String, String> HEADERS = Map.of(
+            "Content-Type", "application/json",
+            "Access-Control-Allow-Origin", "*");
+
+    private final UserService userService;
+    private final ValidationService validationService;
+    private final HandlerMetrics metrics;
+    private final JsonCodec json = JsonCodec.shared();
+    private final AsyncLogger logger = AsyncLogger.getInstance();
+
+    public UpdateUserLambda() {
+        this(new UserService());
+        ColdStartPriming.registerDefault();
+    }
+
+    public UpdateUserLambda(UserService userService) {
+        this(userService, HandlerMetrics.forHandler(UpdateUserLambda.class));
+    }
+
+    public UpdateUserLambda(UserService userService, HandlerMetrics metrics) {
+        this.userService = userService;
+        this.validationService = new ValidationService(userService);
+        this.metrics = metrics;
+    }
 
     @Override
     public APIGatewayProxyResponseEvent handleRequest(APIGatewayProxyRequestEvent request, Context context) {
+        metrics.begin();
+        try {
+            return handle(request, context);
+        } finally {
+            metrics.flush(context);
+            logger.endInvocation();
+        }
+    }
+
+    private APIGatewayProxyResponseEvent handle(APIGatewayProxyRequestEvent request, Context context) {
         Map<String, String> headers = createHeaders();
 
         try {
-            context.getLogger().log("Update request body: " + request.getBody());
+            logger.payload(context, "Update request", request.getBody());
 
             // Obtener UUID del path parameters
             String uuid = request.getPathParameters().get("uuid");
@@ -34,37 +71,39 @@ public class UpdateUserLambda implements RequestHandler<APIGatewayProxyRequestEv
                 return createErrorResponse(400, "User UUID is required in path", headers);
             }
 
-            UserUpdateRequest updateRequest = objectMapper.readValue(
+            long parseStart = System.nanoTime();
+            UserUpdateRequest updateRequest = json.read(
                     request.getBody(), UserUpdateRequest.class);
+            InvocationMetrics.record(Stage.PARSE, parseStart);
 
             validationService.validate(updateRequest);
 
-            // Buscar usuario existente
-            User existingUser = userService.getUserById(uuid, updateRequest.getDocument());
-            if (existingUser == null) {
-                return createErrorResponse(404, "User not found", headers);
-            }
-
-            // Actualizar campos permitidos
+            // Sin lectura previa: un UpdateItem condicionado a que el usuario exista (404) y, si el
+            // cliente envía version, a que nadie lo haya modificado desde entonces (409)
+            UserUpdate update = UserUpdate.of(uuid, updateRequest.getDocument())
+                    .expectVersion(updateRequest.getVersion());
             if (updateRequest.getName() != null) {
-                existingUser.setName(updateRequest.getName());
+                update.name(updateRequest.getName());
             }
             if (updateRequest.getLastName() != null) {
-                existingUser.setLastName(updateRequest.getLastName());
+                update.lastName(updateRequest.getLastName());
             }
 
-            User updatedUser = userService.updateUser(existingUser);
+            User updatedUser = userService.updateFields(update);
             UserResponse userResponse = createUserResponse(updatedUser);
+            long serializeStart = System.nanoTime();
+            String body = json.write(userResponse);
+            InvocationMetrics.record(Stage.SERIALIZE, serializeStart);
 
             return new APIGatewayProxyResponseEvent()
                     .withStatusCode(204)
                     .withHeaders(headers)
-                    .withBody(objectMapper.writeValueAsString(userResponse));
+                    .withBody(body);
 
         } catch (ValidationException e) {
             return createErrorResponse(e.getStatusCode(), e.getMessage(), headers);
         } catch (Exception e) {
-            context.getLogger().log("Update error: " + e.getMessage());
+            logger.error(context, "Update error", e);
             return createErrorResponse(500, "Internal server error", headers);
         }
     }
@@ -78,30 +117,20 @@ public class UpdateUserLambda implements RequestHandler<APIGatewayProxyRequestEv
         response.setDocument(user.getDocumentNumber());
         response.setCreatedAt(user.getCreatedAt());
         response.setUpdatedAt(user.getUpdatedAt());
+        response.setVersion(user.getVersion());
         return response;
     }
 
+    // Compartidos e inmutables: no se arma un HashMap por respuesta
     private Map<String, String> createHeaders() {
-        Map<String, String> headers = new HashMap<>();
-        headers.put("Content-Type", "application/json");
-        headers.put("Access-Control-Allow-Origin", "*");
-        return headers;
+        return HEADERS;
     }
 
     private APIGatewayProxyResponseEvent createErrorResponse(int statusCode, String message, Map<String, String> headers) {
-        try {
-            Map<String, String> errorBody = new HashMap<>();
-            errorBody.put("error", message);
-            return new APIGatewayProxyResponseEvent()
-                    .withStatusCode(statusCode)
-                    .withHeaders(headers)
-                    .withBody(objectMapper.writeValueAsString(errorBody));
-        } catch (Exception e) {
-            return new APIGatewayProxyResponseEvent()
-                    .withStatusCode(statusCode)
-                    .withHeaders(headers)
-                    .withBody("{\"error\": \"" + message + "\"}");
-        }
+        return new APIGatewayProxyResponseEvent()
+                .withStatusCode(statusCode)
+                .withHeaders(headers)
+                .withBody(ErrorBodies.of(message));
     }
 
 }
\ No newline at end of file
@@ -4,87 +4,230 @@ import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.inferno.user_service.avatar.AvatarThumbnailService;
+import com.inferno.user_service.avatar.AvatarUploadService;
+import com.inferno.user_service.avatar.AvatarUrlSigner;
+import com.inferno.user_service.avatar.PresignedAvatarUpload;
+import com.inferno.user_service.avatar.StoredAvatar;
+import com.inferno.user_service.config.AwsClientRegistry;
+import com.inferno.user_service.dto.AvatarUploadRequest;
+import com.inferno.user_service.exception.UserNotFoundException;
+import com.inferno.user_service.exception.ValidationException;
+import com.inferno.user_service.json.ErrorBodies;
+import com.inferno.user_service.json.JsonCodec;
+import com.inferno.user_service.logging.AsyncLogger;
+import com.inferno.user_service.metrics.HandlerMetrics;
+import com.inferno.user_service.metrics.InvocationMetrics;
+import com.inferno.user_service.metrics.Stage;
 import com.inferno.user_service.model.User;
+import com.inferno.user_service.model.UserUpdate;
+import com.inferno.user_service.priming.ColdStartPriming;
+import com.inferno.user_service.service.AsyncUserService;
 import com.inferno.user_service.service.UserService;
-import software.amazon.awssdk.core.sync.RequestBody;
-import software.amazon.awssdk.regions.Region;
-import software.amazon.awssdk.services.s3.S3Client;
-import software.amazon.awssdk.services.s3.model.PutObjectRequest;
-import software.amazon.awssdk.services.s3.model.GetObjectRequest;
-import software.amazon.awssdk.services.s3.presigner.S3Presigner;
-import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValue;
 
-import java.time.Duration;
-import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public class UploadAvatarLambda implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
 
-    private final S3Client s3 = S3Client.builder()
-            .region(Region.US_EAST_2)
-            .build();
+    // ?mode=presigned -> el cliente sube la imagen directo a S3 con una URL firmada
+    private static final String PRESIGNED_MODE = "presigned";
 
-    private final S3Presigner presigner = S3Presigner.builder()
-            .region(Region.US_EAST_2)
-            .build();
+    private final AvatarUrlSigner avatarUrlSigner;
 
-    private final UserService userService = new UserService();
+    private final AsyncUserService userService;
 
-    private final String bucket = System.getenv("infernoavatarimagebucket");
+    private final AvatarUploadService avatarUploadService;
+
+    private final AvatarThumbnailService thumbnailService;
+
+    private final HandlerMetrics metrics;
+
+    private final JsonCodec json = JsonCodec.shared();
+
+    private final AsyncLogger logger = AsyncLogger.getInstance();
+
+    public UploadAvatarLambda() {
+        this(new AsyncUserService(),
+                AvatarUploadService.fromEnvironment(AwsClientRegistry.getInstance()),
+                AvatarThumbnailService.fromEnvironment(AwsClientRegistry.getInstance()),
+                AvatarUrlSigner.getInstance());
+        ColdStartPriming.registerDefault();
+    }
+
+    public UploadAvatarLambda(AsyncUserService userService, AvatarUploadService avatarUploadService,
+                              AvatarThumbnailService thumbnailService, AvatarUrlSigner avatarUrlSigner) {
+        this(userService, avatarUploadService, thumbnailService, avatarUrlSigner,
+                HandlerMetrics.forHandler(UploadAvatarLambda.class));
+    }
+
+    public UploadAvatarLambda(AsyncUserService userService, AvatarUploadService avatarUploadService,
+                              AvatarThumbnailService thumbnailService, AvatarUrlSigner avatarUrlSigner,
+                              HandlerMetrics metrics) {
+        this.userService = userService;
+        this.avatarUploadService = avatarUploadService;
+        this.thumbnailService = thumbnailService;
+        this.avatarUrlSigner = avatarUrlSigner;
+        this.metrics = metrics;
+    }
 
     @Override
     public APIGatewayProxyResponseEvent handleRequest(APIGatewayProxyRequestEvent request, Context context) {
+        metrics.begin();
+        try {
+            return handle(request, context);
+        } finally {
+            metrics.flush(context);
+            logger.endInvocation();
+        }
+    }
+
+    private APIGatewayProxyResponseEvent handle(APIGatewayProxyRequestEvent request, Context context) {
         try {
             // 1. Obtener el UUID desde path param
             String uuid = request.getPathParameters().get("uuid");
-
-            // 2. Buscar usuario en DynamoDB
-            User user = userService.getUsersByUuid(uuid).stream().findFirst().orElse(null);
-            if (user == null) {
-                return new APIGatewayProxyResponseEvent()
-                        .withStatusCode(404)
-                        .withBody("{\"error\": \"Usuario no encontrado\"}");
+            if (uuid == null || UserService.isMarker(uuid)) {
+                return notFound();
             }
 
-            // 3. Decodificar imagen Base64
-            byte[] imageBytes = Base64.getDecoder().decode(request.getBody());
-
-            // 4. Definir key en S3 -> {uuid}/{username}.png
-            String key = uuid + "/" + user.getName() + ".png";
+            // 2. Llave completa del usuario. Con ?document= no se lee nada: la escritura condicional
+            // confirma que existe. Sin él, la consulta (solo llaves) corre mientras se sube la imagen
+            Map<String, String> query = request.getQueryStringParameters();
+            String document = query == null ? null : query.get("document");
+            CompletableFuture<String> documentNumber = document != null && !document.isBlank()
+                    ? CompletableFuture.completedFuture(document)
+                    : userService.getDocumentNumber(uuid);
 
-            // 5. Subir la imagen al bucket
-            PutObjectRequest putRequest = PutObjectRequest.builder()
-                    .bucket(bucket)
-                    .key(key)
-                    .contentType("image/png")
-                    .build();
-
-            s3.putObject(putRequest, RequestBody.fromBytes(imageBytes));
-
-            // 6. Crear un pre-signed URL (válido 10 min)
-            GetObjectRequest getObjectRequest = GetObjectRequest.builder()
-                    .bucket(bucket)
-                    .key(key)
-                    .build();
-
-            GetObjectPresignRequest presignRequest = GetObjectPresignRequest.builder()
-                    .signatureDuration(Duration.ofMinutes(10))
-                    .getObjectRequest(getObjectRequest)
-                    .build();
+            if (query != null && PRESIGNED_MODE.equals(query.get("mode"))) {
+                return presignedUpload(uuid, documentNumber, request.getBody());
+            }
 
-            String presignedUrl = presigner.presignGetObject(presignRequest).url().toString();
+            // 3. Decodificar el Base64 por partes y subirlo al bucket (valida tipo y tamaño en el camino)
+            StoredAvatar avatar;
+            Map<String, String> variants;
+            try {
+                // Incluye el decodificado del Base64, que se hace en streaming durante la subida
+                long uploadStart = System.nanoTime();
+                avatar = avatarUploadService.upload(uuid, request.getBody());
+                InvocationMetrics.record(Stage.S3_PUT, uploadStart);
+                // 4. Miniaturas por hash de contenido (las ya existentes se reutilizan)
+                variants = thumbnailService.generate(avatar);
+            } catch (RuntimeException e) {
+                documentNumber.cancel(false);
+                throw e;
+            }
 
-            // 7. Actualizar usuario con la nueva URL
-            user.setImageUrl(presignedUrl);
-            userService.updateUser(user);
+            String sortKey = AsyncUserService.await(documentNumber);
+            if (sortKey == null) {
+                // La imagen ya se subió; no se conserva si el usuario no existe
+                avatarUploadService.deleteAsync(avatar.getKey());
+                return notFound();
+            }
 
-            // 8. Respuesta
+            // 5. Guardar solo las keys; las URLs se firman al leer. UPDATED_OLD trae la key anterior
+            // sin haber leído el usuario, y ese avatar se borra en cuanto termina la escritura
+            Map<String, String> storedVariants = variants.isEmpty() ? null : variants;
+            CompletableFuture<User> update = userService.updateFields(UserUpdate.of(uuid, sortKey)
+                    .avatarKey(avatar.getKey())
+                    .avatarVariants(storedVariants)
+                    .imageUrl(null)
+                    .returning(ReturnValue.UPDATED_OLD));
+            CompletableFuture<Void> cleanup = update.thenCompose(previous ->
+                    deletePrevious(previous == null ? null : previous.getAvatarKey(), avatar.getKey(), context));
+
+            // 6. Respuesta (la firma tampoco espera a DynamoDB)
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("avatarUrl", avatarUrlSigner.url(avatar.getKey()));
+            response.put("thumbnails", avatarUrlSigner.urls(storedVariants));
+            try {
+                AsyncUserService.await(update);
+            } catch (UserNotFoundException e) {
+                avatarUploadService.deleteAsync(avatar.getKey());
+                return notFound();
+            }
+            cleanup.join();
             return new APIGatewayProxyResponseEvent()
                     .withStatusCode(200)
-                    .withBody("{\"avatarUrl\": \"" + presignedUrl + "\"}");
+                    .withBody(serialize(response));
+        } catch (ValidationException e) {
+            return new APIGatewayProxyResponseEvent()
+                    .withStatusCode(e.getStatusCode())
+                    .withBody(ErrorBodies.of(e.getMessage()));
         } catch (Exception e) {
+            logger.error(context, "Avatar upload error", e);
             return new APIGatewayProxyResponseEvent()
                     .withStatusCode(500)
-                    .withBody("{\"error\": \"" + e.getMessage() + "\"}");
+                    .withBody(ErrorBodies.of("Internal server error"));
+        }
+    }
+
+    // La imagen no pasa por la Lambda: solo se firma el PUT con el tipo y tamaño declarados.
+    // El objeto anterior no se borra aquí: el cliente puede no completar la subida.
+    private APIGatewayProxyResponseEvent presignedUpload(String uuid, CompletableFuture<String> documentNumber,
+                                                         String body) throws Exception {
+        PresignedAvatarUpload upload;
+        try {
+            long parseStart = System.nanoTime();
+            AvatarUploadRequest uploadRequest = json.read(body, AvatarUploadRequest.class);
+            InvocationMetrics.record(Stage.PARSE, parseStart);
+            upload = avatarUploadService.presignUpload(
+                    uuid, uploadRequest.getContentType(), uploadRequest.getContentLength());
+        } catch (Exception e) {
+            documentNumber.cancel(false);
+            throw e;
+        }
+
+        String sortKey = AsyncUserService.await(documentNumber);
+        if (sortKey == null) {
+            return notFound();
         }
+
+        // Las miniaturas anteriores corresponden a otra imagen
+        CompletableFuture<User> update = userService.updateFields(UserUpdate.of(uuid, sortKey)
+                .avatarKey(upload.getKey())
+                .avatarVariants(null)
+                .imageUrl(null)
+                .returning(ReturnValue.NONE));
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("uploadUrl", upload.getUploadUrl());
+        response.put("key", upload.getKey());
+        response.put("contentType", upload.getContentType());
+        response.put("expiresIn", upload.getExpiresInSeconds());
+        response.put("avatarUrl", avatarUrlSigner.url(upload.getKey()));
+        try {
+            AsyncUserService.await(update);
+        } catch (UserNotFoundException e) {
+            return notFound();
+        }
+        return new APIGatewayProxyResponseEvent()
+                .withStatusCode(200)
+                .withBody(serialize(response));
+    }
+
+    private String serialize(Map<String, Object> response) throws Exception {
+        long start = System.nanoTime();
+        String body = json.write(response);
+        InvocationMetrics.record(Stage.SERIALIZE, start);
+        return body;
+    }
+
+    // Un fallo al limpiar no afecta la respuesta: el objeto queda huérfano y se registra
+    private CompletableFuture<Void> deletePrevious(String previousKey, String currentKey, Context context) {
+        if (previousKey == null || previousKey.equals(currentKey)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return avatarUploadService.deleteAsync(previousKey).exceptionally(error -> {
+            logger.error(context, "Error deleting previous avatar " + previousKey, error);
+            return null;
+        });
+    }
+
+    private static APIGatewayProxyResponseEvent notFound() {
+        return new APIGatewayProxyResponseEvent()
+                .withStatusCode(404)
+                .withBody(ErrorBodies.of("Usuario no encontrado"));
     }
 }
@@ -4,13 +4,19 @@ import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.inferno.user_service.dto.UserResponse;
 import com.inferno.user_service.exception.ValidationException;
+import com.inferno.user_service.json.ErrorBodies;
+import com.inferno.user_service.json.JsonCodec;
+import com.inferno.user_service.logging.AsyncLogger;
+import com.inferno.user_service.metrics.HandlerMetrics;
+import com.inferno.user_service.metrics.InvocationMetrics;
+import com.inferno.user_service.metrics.Stage;
 import com.inferno.user_service.model.User;
+import com.inferno.user_service.priming.ColdStartPriming;
+import com.inferno.user_service.service.AsyncUserService;
 import com.inferno.user_service.service.UserService;
 
-import java.util.HashMap;
 import java.util.Map;
 
 import com.inferno.user_service.dto.UserRegistrationRequest;
@@ -18,47 +24,97 @@ import com.inferno.user_service.service.ValidationService;
 
 public class UserRegisterLambda implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
 
-    private final UserService userService = new UserService();
-    private final ValidationService validationService = new ValidationService(userService);
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private static final Map<String, String> HEADERS = Map.of(
+            "Content-Type", "application/json",
+            "Access-Control-Allow-Origin", "*");
+
+    private final UserService userService;
+    private final ValidationService validationService;
+    private final HandlerMetrics metrics;
+    private final AsyncUserService availabilityCheck;
+    private final JsonCodec json = JsonCodec.shared();
+    private final AsyncLogger logger = AsyncLogger.getInstance();
+
+    public UserRegisterLambda() {
+        this(new UserService());
+        ColdStartPriming.registerDefault();
+    }
+
+    public UserRegisterLambda(UserService userService) {
+        this(userService, HandlerMetrics.forHandler(UserRegisterLambda.class));
+    }
+
+    public UserRegisterLambda(UserService userService, HandlerMetrics metrics) {
+        this(userService, metrics, "true".equalsIgnoreCase(System.getenv("REGISTER_INDEX_UNIQUENESS_CHECK"))
+                ? new AsyncUserService()
+                : null);
+    }
+
+    // Los usuarios anteriores a los marcadores de unicidad solo se detectan por los índices.
+    // Apagado por defecto; terraform lo enciende mientras UniquenessMarkerBackfill no termine
+    // sin conflictos. Con availabilityCheck en null no se consulta ningún índice
+    public UserRegisterLambda(UserService userService, HandlerMetrics metrics, AsyncUserService availabilityCheck) {
+        this.userService = userService;
+        this.validationService = new ValidationService(userService);
+        this.metrics = metrics;
+        this.availabilityCheck = availabilityCheck;
+    }
 
     @Override
     public APIGatewayProxyResponseEvent handleRequest(APIGatewayProxyRequestEvent request, Context context) {
+        metrics.begin();
+        try {
+            return handle(request, context);
+        } finally {
+            metrics.flush(context);
+            logger.endInvocation();
+        }
+    }
+
+    private APIGatewayProxyResponseEvent handle(APIGatewayProxyRequestEvent request, Context context) {
         Map<String, String> headers = createHeaders();
 
         try {
-            context.getLogger().log("Request body: " + request.getBody());
+            // Redactado y muestreado: el cuerpo trae la contraseña en claro
+            logger.payload(context, "Register request", request.getBody());
 
             // Parsear y validar el request
-            UserRegistrationRequest registrationRequest = objectMapper.readValue(
+            long parseStart = System.nanoTime();
+            UserRegistrationRequest registrationRequest = json.read(
                     request.getBody(), UserRegistrationRequest.class);
+            InvocationMetrics.record(Stage.PARSE, parseStart);
 
             validationService.validate(registrationRequest);
-            validationService.validateBusinessRules(
-                    registrationRequest.getEmail(),
-                    registrationRequest.getDocument()
-            );
-
-            // Crear y guardar usuario
+            if (availabilityCheck != null) {
+                // Las consultas por email y documento salen a la vez
+                AsyncUserService.await(availabilityCheck.checkAvailability(
+                        registrationRequest.getEmail(),
+                        registrationRequest.getDocument()));
+            }
+
+            // Crear y guardar usuario (los marcadores de unicidad se reservan en la misma escritura)
             User user = createUserFromRequest(registrationRequest);
-            User createdUser = userService.createUser(user);
+            User createdUser = userService.registerUser(user);
 
-            context.getLogger().log("User created successfully: " + createdUser.getUuid());
+            logger.info(context, "User created successfully: " + createdUser.getUuid());
 
             // Crear respuesta solo con el DTO
             UserResponse userResponse = createUserResponse(createdUser);
+            long serializeStart = System.nanoTime();
+            String body = json.write(userResponse);
+            InvocationMetrics.record(Stage.SERIALIZE, serializeStart);
 
             return new APIGatewayProxyResponseEvent()
                     .withStatusCode(201)
                     .withHeaders(headers)
-                    .withBody(objectMapper.writeValueAsString(userResponse));
+                    .withBody(body);
 
         } catch (ValidationException e) {
-            context.getLogger().log("Validation error: " + e.getMessage());
+            logger.warn(context, "Validation error: " + e.getMessage());
             return createErrorResponse(e.getStatusCode(), e.getMessage(), headers);
 
         } catch (Exception e) {
-            context.getLogger().log("Unexpected error: " + e.getMessage());
+            logger.error(context, "Unexpected error", e);
             return createErrorResponse(500, "Internal server error", headers);
         }
     }
@@ -82,31 +138,19 @@ public class UserRegisterLambda implements RequestHandler<APIGatewayProxyRequest
         response.setDocument(user.getDocumentNumber());
         response.setCreatedAt(user.getCreatedAt());
         response.setUpdatedAt(user.getUpdatedAt());
+        response.setVersion(user.getVersion());
         return response;
     }
 
+    // Compartidos e inmutables: no se arma un HashMap por respuesta
     private Map<String, String> createHeaders() {
-        Map<String, String> headers = new HashMap<>();
-        headers.put("Content-Type", "application/json");
-        headers.put("Access-Control-Allow-Origin", "*");
-        return headers;
+        return HEADERS;
     }
 
     private APIGatewayProxyResponseEvent createErrorResponse(int statusCode, String message, Map<String, String> headers) {
-        try {
-            Map<String, String> errorBody = new HashMap<>();
-            errorBody.put("error", message);
-
-            return new APIGatewayProxyResponseEvent()
-                    .withStatusCode(statusCode)
-                    .withHeaders(headers)
-                    .withBody(objectMapper.writeValueAsString(errorBody));
-
-        } catch (Exception e) {
-            return new APIGatewayProxyResponseEvent()
-                    .withStatusCode(statusCode)
-                    .withHeaders(headers)
-                    .withBody("{\"error\": \"" + message + "\"}");
-        }
+        return new APIGatewayProxyResponseEvent()
+                .withStatusCode(statusCode)
+                .withHeaders(headers)
+                .withBody(ErrorBodies.of(message));
     }
 }
\ No newline at end of file
@@ -0,0 +1,48 @@
+package com.inferno.user_service.json;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Cuerpos {"error": "..."} de las respuestas de error. Los mensajes fijos de los handlers se
+// arman una sola vez; los dinámicos (mensajes de excepciones) se escapan, así que comillas,
+// barras o saltos de línea no rompen el JSON.
+public final class ErrorBodies {
+
+    public static final String INTERNAL_SERVER_ERROR = "Internal server error";
+
+    private static final Map<String, String> CONSTANT_BODIES = List.of(
+                    INTERNAL_SERVER_ERROR,
+                    "User not found",
+                    "User UUID is required in path",
+                    "Usuario no encontrado",
+                    "Credenciales inválidas",
+                    "Demasiados intentos, intenta más tarde",
+                    "Request body is required",
+                    "Invalid request body",
+                    "At least one key is required",
+                    "Every key needs a uuid")
+            .stream()
+            .collect(Collectors.toUnmodifiableMap(Function.identity(), ErrorBodies::build));
+
+    private ErrorBodies() {
+    }
+
+    public static String of(String message) {
+        String text = message == null ? INTERNAL_SERVER_ERROR : message;
+        String body = CONSTANT_BODIES.get(text);
+        return body != null ? body : build(text);
+    }
+
+    private static String build(String message) {
+        char[] escaped = JsonStringEncoder.getInstance().quoteAsString(message);
+        return new StringBuilder(escaped.length + 12)
+                .append("{\"error\":\"")
+                .append(escaped)
+                .append("\"}")
+                .toString();
+    }
+}
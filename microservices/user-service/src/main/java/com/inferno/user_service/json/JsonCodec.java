@@ -0,0 +1,76 @@
+package com.inferno.user_service.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.inferno.user_service.config.Lazy;
+
+import java.io.IOException;
+
+// ObjectMapper compartido por todos los handlers, con un ObjectReader/ObjectWriter por tipo:
+// el reader y el writer ya tienen resuelto su (de)serializador raíz, así que cada petición parsea
+// directo del String sin buscar en los cachés del mapper.
+// Blackbird (JSON_BLACKBIRD=true) reemplaza la reflexión por lambdas generadas: acelera la
+// databind en caliente pero suma tiempo al primer uso de cada DTO, por eso no va por defecto en
+// Lambda. En la imagen nativa no se activa.
+public final class JsonCodec {
+
+    private static final Lazy<JsonCodec> SHARED = new Lazy<>(JsonCodec::fromEnvironment);
+
+    private final ObjectMapper mapper;
+    private final ClassValue<ObjectReader> readers = new ClassValue<>() {
+        @Override
+        protected ObjectReader computeValue(Class<?> type) {
+            return mapper.readerFor(type);
+        }
+    };
+    private final ClassValue<ObjectWriter> writers = new ClassValue<>() {
+        @Override
+        protected ObjectWriter computeValue(Class<?> type) {
+            return mapper.writerFor(type);
+        }
+    };
+
+    public JsonCodec(boolean blackbird) {
+        ObjectMapper objectMapper = new ObjectMapper();
+        if (blackbird && System.getProperty("org.graalvm.nativeimage.imagecode") == null) {
+            objectMapper.registerModule(new BlackbirdModule());
+        }
+        this.mapper = objectMapper;
+    }
+
+    public static JsonCodec shared() {
+        return SHARED.get();
+    }
+
+    public static JsonCodec fromEnvironment() {
+        return new JsonCodec(Boolean.parseBoolean(env("JSON_BLACKBIRD", "false")));
+    }
+
+    public <T> T read(String json, Class<T> type) throws IOException {
+        return readers.get(type).readValue(json);
+    }
+
+    public String write(Object value) throws IOException {
+        return writers.get(value.getClass()).writeValueAsString(value);
+    }
+
+    public ObjectReader reader(Class<?> type) {
+        return readers.get(type);
+    }
+
+    public ObjectWriter writer(Class<?> type) {
+        return writers.get(type);
+    }
+
+    // Para escribir con JsonGenerator (respuestas armadas por partes)
+    public ObjectMapper mapper() {
+        return mapper;
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+}
@@ -0,0 +1,268 @@
+package com.inferno.user_service.logging;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.inferno.user_service.config.Lazy;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+// Logs estructurados (una línea JSON por evento) escritos por un hilo aparte.
+// - El hilo de la petición solo encola en un buffer circular acotado; si está lleno el evento se
+//   descarta y se cuenta, nunca se espera.
+// - Los payloads (cuerpos de request) son DEBUG, se muestrean con LOG_PAYLOAD_SAMPLE_RATE y se
+//   redactan en el hilo escritor con JsonRedactor, en la misma pasada que los copia a la línea.
+// - En Lambda el entorno se congela al responder: cada handler llama a endInvocation en su finally,
+//   que espera (acotado por LOG_DRAIN_TIMEOUT_MS) a que se escriba lo encolado. Si el plazo vence,
+//   el resto se escribe al descongelarse, con el requestId de la invocación que lo generó.
+//   LOG_LEVEL (INFO), LOG_PAYLOAD_SAMPLE_RATE (0), LOG_BUFFER_CAPACITY (1024), LOG_REDACTED_FIELDS,
+//   LOG_DRAIN_TIMEOUT_MS (100)
+public final class AsyncLogger {
+
+    static final int MAX_PAYLOAD_CHARS = 8 * 1024;
+    private static final long PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final Duration DEFAULT_DRAIN_TIMEOUT = Duration.ofMillis(100);
+
+    private static final Lazy<AsyncLogger> INSTANCE = new Lazy<>(() -> {
+        AsyncLogger logger = fromEnvironment();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> logger.awaitDrained(Duration.ofSeconds(1))));
+        return logger;
+    });
+
+    private final LogSink sink;
+    private final LogLevel level;
+    private final double payloadSampleRate;
+    private final JsonRedactor redactor;
+    private final LogRingBuffer<LogEvent> buffer;
+    private final Duration drainTimeout;
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread writer;
+    private volatile long written;
+    private volatile boolean writerParked;
+
+    // Solo los usa el hilo escritor
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final StringWriter line = new StringWriter(512);
+    private final StringWriter payload = new StringWriter(512);
+
+    public AsyncLogger(LogSink sink, LogLevel level, double payloadSampleRate, JsonRedactor redactor, int capacity) {
+        this(sink, level, payloadSampleRate, redactor, capacity, DEFAULT_DRAIN_TIMEOUT);
+    }
+
+    public AsyncLogger(LogSink sink, LogLevel level, double payloadSampleRate, JsonRedactor redactor, int capacity,
+                       Duration drainTimeout) {
+        this.drainTimeout = drainTimeout;
+        this.sink = sink;
+        this.level = level;
+        this.payloadSampleRate = payloadSampleRate;
+        this.redactor = redactor;
+        this.buffer = new LogRingBuffer<>(capacity);
+        this.writer = new Thread(this::drainLoop, "user-log-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    public static AsyncLogger getInstance() {
+        return INSTANCE.get();
+    }
+
+    public static AsyncLogger fromEnvironment() {
+        String redactedFields = env("LOG_REDACTED_FIELDS", null);
+        Set<String> fields = redactedFields == null
+                ? JsonRedactor.DEFAULT_FIELDS
+                : Arrays.stream(redactedFields.split(","))
+                        .map(String::trim)
+                        .filter(field -> !field.isEmpty())
+                        .collect(Collectors.toSet());
+        return new AsyncLogger(new StdoutLogSink(),
+                LogLevel.valueOf(env("LOG_LEVEL", "INFO").toUpperCase(Locale.ROOT)),
+                Double.parseDouble(env("LOG_PAYLOAD_SAMPLE_RATE", "0")),
+                new JsonRedactor(new JsonFactory(), fields),
+                powerOfTwo(Integer.parseInt(env("LOG_BUFFER_CAPACITY", "1024"))),
+                Duration.ofMillis(Long.parseLong(env("LOG_DRAIN_TIMEOUT_MS", "100"))));
+    }
+
+    public boolean isEnabled(LogLevel candidate) {
+        return candidate.compareTo(level) >= 0;
+    }
+
+    public void debug(Context context, String message) {
+        log(LogLevel.DEBUG, context, message, null, null);
+    }
+
+    public void info(Context context, String message) {
+        log(LogLevel.INFO, context, message, null, null);
+    }
+
+    public void warn(Context context, String message) {
+        log(LogLevel.WARN, context, message, null, null);
+    }
+
+    public void error(Context context, String message, Throwable error) {
+        log(LogLevel.ERROR, context, message, null, error);
+    }
+
+    // Cuerpo de la petición, redactado; solo con DEBUG activo y en la fracción muestreada
+    public void payload(Context context, String message, String body) {
+        if (body == null || !isEnabled(LogLevel.DEBUG) || !sampled()) {
+            return;
+        }
+        log(LogLevel.DEBUG, context, message, body, null);
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    // Fin de invocación: sin nada pendiente vuelve de inmediato; false si venció el plazo
+    public boolean endInvocation() {
+        return awaitDrained(drainTimeout);
+    }
+
+    // Espera a que el hilo escritor vacíe lo encolado hasta ahora
+    public boolean awaitDrained(Duration timeout) {
+        long target = accepted.get();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (written < target) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        return true;
+    }
+
+    private boolean sampled() {
+        return payloadSampleRate >= 1.0
+                || (payloadSampleRate > 0 && ThreadLocalRandom.current().nextDouble() < payloadSampleRate);
+    }
+
+    private void log(LogLevel eventLevel, Context context, String message, String body, Throwable error) {
+        if (!isEnabled(eventLevel)) {
+            return;
+        }
+        LogEvent event = new LogEvent(System.currentTimeMillis(), eventLevel,
+                context == null ? null : context.getAwsRequestId(), message, body, error);
+        if (!buffer.offer(event)) {
+            dropped.incrementAndGet();
+            return;
+        }
+        accepted.incrementAndGet();
+        if (writerParked) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    private void drainLoop() {
+        long reportedDrops = 0;
+        while (true) {
+            LogEvent event = buffer.poll();
+            if (event == null) {
+                long drops = dropped.get();
+                if (drops > reportedDrops) {
+                    write(new LogEvent(System.currentTimeMillis(), LogLevel.WARN, null,
+                            "Dropped " + (drops - reportedDrops) + " log events, buffer full", null, null));
+                    reportedDrops = drops;
+                }
+                // Se anuncia antes de volver a mirar: un productor que encole después despierta al escritor
+                writerParked = true;
+                event = buffer.poll();
+                if (event == null) {
+                    LockSupport.parkNanos(this, PARK_NANOS);
+                    writerParked = false;
+                    continue;
+                }
+                writerParked = false;
+            }
+            write(event);
+            written++;
+        }
+    }
+
+    private void write(LogEvent event) {
+        try {
+            sink.write(format(event));
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error writing log event: " + e.getMessage());
+        }
+    }
+
+    private String format(LogEvent event) throws IOException {
+        line.getBuffer().setLength(0);
+        try (JsonGenerator json = jsonFactory.createGenerator(line)) {
+            json.writeStartObject();
+            json.writeStringField("timestamp", Instant.ofEpochMilli(event.timestamp).toString());
+            json.writeStringField("level", event.level.name());
+            if (event.requestId != null) {
+                json.writeStringField("requestId", event.requestId);
+            }
+            json.writeStringField("message", event.message);
+            if (event.error != null) {
+                json.writeStringField("error", event.error.toString());
+            }
+            if (event.payload != null) {
+                json.writeFieldName("payload");
+                writePayload(json, event.payload);
+            }
+            json.writeEndObject();
+        }
+        return line.toString();
+    }
+
+    // Lo que no es JSON válido no se escribe: podría contener datos sin redactar
+    private void writePayload(JsonGenerator json, String body) throws IOException {
+        if (body.length() > MAX_PAYLOAD_CHARS) {
+            json.writeString("[payload omitted: " + body.length() + " chars]");
+            return;
+        }
+        payload.getBuffer().setLength(0);
+        try {
+            redactor.redact(body, payload);
+        } catch (IOException e) {
+            json.writeString("[unparseable payload: " + body.length() + " chars]");
+            return;
+        }
+        json.writeRawValue(payload.toString());
+    }
+
+    private static int powerOfTwo(int capacity) {
+        return capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+
+    private static final class LogEvent {
+        private final long timestamp;
+        private final LogLevel level;
+        private final String requestId;
+        private final String message;
+        private final String payload;
+        private final Throwable error;
+
+        private LogEvent(long timestamp, LogLevel level, String requestId, String message, String payload,
+                         Throwable error) {
+            this.timestamp = timestamp;
+            this.level = level;
+            this.requestId = requestId;
+            this.message = message;
+            this.payload = payload;
+            this.error = error;
+        }
+    }
+}
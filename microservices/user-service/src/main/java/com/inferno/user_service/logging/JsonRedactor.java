@@ -0,0 +1,66 @@
+package com.inferno.user_service.logging;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Copia un JSON token a token del parser al generador, reemplazando el valor de los campos
+// sensibles (a cualquier profundidad) por "***". Una sola pasada en streaming: no se arma el árbol
+// ni se vuelve a serializar. Los nombres se comparan sin distinguir mayúsculas.
+public final class JsonRedactor {
+
+    static final String MASK = "***";
+    static final Set<String> DEFAULT_FIELDS = Set.of("password", "token", "accesstoken", "refreshtoken",
+            "authorization", "secret", "document", "documentnumber");
+
+    private final JsonFactory jsonFactory;
+    private final Set<String> sensitiveFields;
+
+    public JsonRedactor(JsonFactory jsonFactory, Set<String> sensitiveFields) {
+        this.jsonFactory = jsonFactory;
+        this.sensitiveFields = sensitiveFields.stream()
+                .map(field -> field.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    public JsonRedactor() {
+        this(new JsonFactory(), DEFAULT_FIELDS);
+    }
+
+    public String redact(String json) throws IOException {
+        StringWriter out = new StringWriter(json.length());
+        redact(json, out);
+        return out.toString();
+    }
+
+    // Si el JSON es inválido lanza IOException; lo escrito hasta ese punto queda en out
+    public void redact(String json, Writer out) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(json);
+             JsonGenerator generator = jsonFactory.createGenerator(out)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (token == JsonToken.FIELD_NAME && isSensitive(parser.currentName())) {
+                    generator.writeFieldName(parser.currentName());
+                    parser.nextToken();
+                    parser.skipChildren();
+                    generator.writeString(MASK);
+                } else {
+                    generator.copyCurrentEvent(parser);
+                }
+            }
+        }
+    }
+
+    private boolean isSensitive(String fieldName) {
+        // toLowerCase devuelve el mismo String si ya está en minúsculas
+        return sensitiveFields.contains(fieldName.toLowerCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,8 @@
+package com.inferno.user_service.logging;
+
+public enum LogLevel {
+    DEBUG,
+    INFO,
+    WARN,
+    ERROR
+}
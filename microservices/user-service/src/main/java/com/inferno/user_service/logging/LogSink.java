@@ -0,0 +1,7 @@
+package com.inferno.user_service.logging;
+
+// Destino de las líneas ya formateadas; solo lo llama el hilo escritor de AsyncLogger
+public interface LogSink {
+
+    void write(String line);
+}
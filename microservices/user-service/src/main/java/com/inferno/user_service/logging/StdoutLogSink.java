@@ -0,0 +1,10 @@
+package com.inferno.user_service.logging;
+
+// En Lambda stdout llega a CloudWatch Logs
+public class StdoutLogSink implements LogSink {
+
+    @Override
+    public void write(String line) {
+        System.out.println(line);
+    }
+}
@@ -0,0 +1,136 @@
+package com.inferno.user_service.metrics;
+
+import com.amazonaws.services.lambda.runtime.Context;
+
+// Publica los tiempos por etapa de cada invocación como una línea de CloudWatch Embedded Metric
+// Format: una sola escritura al final, sin llamadas extra a la API. Con los valores crudos de cada
+// etapa CloudWatch calcula p50/p99 por handler.
+//   METRICS_ENABLED=false desactiva la medición; METRICS_NAMESPACE cambia el namespace.
+public final class HandlerMetrics {
+
+    static final String DEFAULT_NAMESPACE = "Inferno/UserService";
+    static final String UNIT = "Microseconds";
+    // EMF acepta hasta 100 valores por métrica y línea
+    static final int MAX_VALUES_PER_METRIC = 100;
+
+    private static final MetricsSink STDOUT = new StdoutMetricsSink();
+
+    private final String handlerName;
+    private final String namespace;
+    private final MetricsSink sink;
+
+    public HandlerMetrics(String handlerName, String namespace, MetricsSink sink) {
+        this.handlerName = handlerName;
+        this.namespace = namespace;
+        this.sink = sink;
+    }
+
+    public static HandlerMetrics forHandler(Class<?> handler) {
+        boolean enabled = Boolean.parseBoolean(env("METRICS_ENABLED", "true"));
+        return new HandlerMetrics(handler.getSimpleName(), env("METRICS_NAMESPACE", DEFAULT_NAMESPACE),
+                enabled ? STDOUT : null);
+    }
+
+    public static HandlerMetrics disabled(Class<?> handler) {
+        return new HandlerMetrics(handler.getSimpleName(), DEFAULT_NAMESPACE, null);
+    }
+
+    public void begin() {
+        if (sink != null) {
+            InvocationMetrics.begin();
+        }
+    }
+
+    // Siempre en un finally: un fallo al publicar no cambia la respuesta
+    public void flush(Context context) {
+        InvocationMetrics metrics = InvocationMetrics.current();
+        if (sink == null || metrics == null) {
+            return;
+        }
+        try {
+            String line;
+            synchronized (metrics) {
+                line = format(metrics, context == null ? null : context.getAwsRequestId());
+            }
+            if (line != null) {
+                sink.emit(line);
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Error emitting metrics: " + e.getMessage());
+        } finally {
+            InvocationMetrics.end();
+        }
+    }
+
+    // null si la invocación no registró ninguna etapa (p. ej. un 400 antes de parsear)
+    private String format(InvocationMetrics metrics, String requestId) {
+        StringBuilder json = metrics.buffer;
+        json.setLength(0);
+        json.append("{\"_aws\":{\"Timestamp\":").append(System.currentTimeMillis())
+                .append(",\"CloudWatchMetrics\":[{\"Namespace\":");
+        appendString(json, namespace);
+        json.append(",\"Dimensions\":[[\"Handler\"]],\"Metrics\":[");
+        boolean first = true;
+        for (Stage stage : Stage.values()) {
+            if (metrics.histogram(stage).isEmpty()) {
+                continue;
+            }
+            if (!first) {
+                json.append(',');
+            }
+            first = false;
+            json.append("{\"Name\":\"").append(stage.metricName()).append("\",\"Unit\":\"").append(UNIT).append("\"}");
+        }
+        if (first) {
+            return null;
+        }
+        json.append("]}]},\"Handler\":");
+        appendString(json, handlerName);
+        if (requestId != null) {
+            json.append(",\"RequestId\":");
+            appendString(json, requestId);
+        }
+        for (Stage stage : Stage.values()) {
+            LatencyHistogram histogram = metrics.histogram(stage);
+            if (!histogram.isEmpty()) {
+                json.append(",\"").append(stage.metricName()).append("\":[");
+                appendValues(json, histogram);
+                json.append(']');
+            }
+        }
+        return json.append('}').toString();
+    }
+
+    // Cada cubeta se repite tantas veces como muestras tiene; en una invocación son pocas
+    private static void appendValues(StringBuilder json, LatencyHistogram histogram) {
+        int[] written = {0};
+        histogram.forEachBucket((value, count) -> {
+            for (long i = 0; i < count && written[0] < MAX_VALUES_PER_METRIC; i++) {
+                if (written[0]++ > 0) {
+                    json.append(',');
+                }
+                json.append(value);
+            }
+        });
+    }
+
+    private static void appendString(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        json.append('"');
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+}
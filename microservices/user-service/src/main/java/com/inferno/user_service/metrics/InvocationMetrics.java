@@ -0,0 +1,74 @@
+package com.inferno.user_service.metrics;
+
+import java.util.concurrent.CompletableFuture;
+
+// Tiempos por etapa de la invocación en curso. Cada hilo reutiliza su instancia entre invocaciones
+// (los histogramas se limpian en begin), así que medir no reserva memoria en el camino caliente.
+// Los servicios registran con record(...) sin recibir nada por parámetro: fuera de una invocación
+// (priming, pruebas, benchmarks) no hay instancia activa y la llamada no hace nada.
+public final class InvocationMetrics {
+
+    private static final ThreadLocal<InvocationMetrics> POOL = ThreadLocal.withInitial(InvocationMetrics::new);
+    private static final ThreadLocal<InvocationMetrics> CURRENT = new ThreadLocal<>();
+
+    private final LatencyHistogram[] histograms = new LatencyHistogram[Stage.values().length];
+    // Reutilizado para armar la línea EMF
+    final StringBuilder buffer = new StringBuilder(1024);
+
+    private InvocationMetrics() {
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+    }
+
+    static InvocationMetrics begin() {
+        InvocationMetrics metrics = POOL.get();
+        metrics.reset();
+        CURRENT.set(metrics);
+        return metrics;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    // Instancia activa en este hilo, o null. Para registrar desde callbacks que corren en otro hilo.
+    public static InvocationMetrics current() {
+        return CURRENT.get();
+    }
+
+    public static void record(Stage stage, long startNanos) {
+        InvocationMetrics metrics = CURRENT.get();
+        if (metrics != null) {
+            metrics.recordSince(stage, startNanos);
+        }
+    }
+
+    // Para llamadas asíncronas: la etapa dura hasta que el future se completa (o falla)
+    public static <T> CompletableFuture<T> recordOnCompletion(Stage stage, long startNanos,
+                                                              CompletableFuture<T> future) {
+        InvocationMetrics metrics = CURRENT.get();
+        if (metrics != null) {
+            future.whenComplete((result, error) -> metrics.recordSince(stage, startNanos));
+        }
+        return future;
+    }
+
+    public void recordSince(Stage stage, long startNanos) {
+        recordMicros(stage, (System.nanoTime() - startNanos) / 1_000);
+    }
+
+    public synchronized void recordMicros(Stage stage, long micros) {
+        histograms[stage.ordinal()].record(micros);
+    }
+
+    synchronized LatencyHistogram histogram(Stage stage) {
+        return histograms[stage.ordinal()];
+    }
+
+    private synchronized void reset() {
+        for (LatencyHistogram histogram : histograms) {
+            histogram.reset();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.inferno.user_service.metrics;
+
+import java.util.Arrays;
+
+// Histograma log-lineal al estilo HdrHistogram: exacto por debajo de 32 y, desde ahí, 16 cubetas
+// por potencia de 2 (error relativo < 1/16). Registrar no reserva memoria; el arreglo se crea una vez.
+// No es thread-safe: InvocationMetrics serializa el acceso.
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int LINEAR_LIMIT = SUB_BUCKETS * 2;
+    // Hasta 2^36 µs (~19 h); los valores mayores caen en la última cubeta
+    private static final int MAX_EXPONENT = 36;
+    static final long MAX_TRACKABLE = (1L << MAX_EXPONENT) - 1;
+    private static final int BUCKETS = indexOf(MAX_TRACKABLE) + 1;
+
+    private final long[] counts = new long[BUCKETS];
+    private long totalCount;
+    private int lowestIndex = BUCKETS;
+    private int highestIndex = -1;
+
+    public void record(long value) {
+        int index = indexOf(Math.min(Math.max(value, 0), MAX_TRACKABLE));
+        counts[index]++;
+        totalCount++;
+        if (index < lowestIndex) {
+            lowestIndex = index;
+        }
+        if (index > highestIndex) {
+            highestIndex = index;
+        }
+    }
+
+    public long count() {
+        return totalCount;
+    }
+
+    public boolean isEmpty() {
+        return totalCount == 0;
+    }
+
+    // Valor representativo (punto medio de la cubeta) bajo el cual queda el percentil pedido
+    public long valueAtPercentile(double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(totalCount * percentile / 100.0));
+        long seen = 0;
+        for (int i = lowestIndex; i <= highestIndex; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return representativeValue(i);
+            }
+        }
+        return representativeValue(highestIndex);
+    }
+
+    // Recorre solo las cubetas con datos, de menor a mayor
+    public void forEachBucket(BucketConsumer consumer) {
+        for (int i = lowestIndex; i <= highestIndex; i++) {
+            if (counts[i] > 0) {
+                consumer.accept(representativeValue(i), counts[i]);
+            }
+        }
+    }
+
+    public void reset() {
+        if (highestIndex >= 0) {
+            Arrays.fill(counts, lowestIndex, highestIndex + 1, 0);
+        }
+        totalCount = 0;
+        lowestIndex = BUCKETS;
+        highestIndex = -1;
+    }
+
+    static int indexOf(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        // value >> shift queda en [SUB_BUCKETS, 2 * SUB_BUCKETS)
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return LINEAR_LIMIT + (shift - 1) * SUB_BUCKETS + (int) ((value >> shift) - SUB_BUCKETS);
+    }
+
+    static long representativeValue(int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+        int offset = index - LINEAR_LIMIT;
+        int shift = offset / SUB_BUCKETS + 1;
+        long lowerBound = (long) (offset % SUB_BUCKETS + SUB_BUCKETS) << shift;
+        return lowerBound + (1L << (shift - 1));
+    }
+
+    @FunctionalInterface
+    public interface BucketConsumer {
+        void accept(long value, long count);
+    }
+}
@@ -0,0 +1,7 @@
+package com.inferno.user_service.metrics;
+
+// Destino de las líneas EMF (una por invocación)
+public interface MetricsSink {
+
+    void emit(String line);
+}
@@ -0,0 +1,26 @@
+package com.inferno.user_service.metrics;
+
+// Etapas del camino caliente de los handlers; cada una es una métrica EMF (en microsegundos)
+public enum Stage {
+    PARSE("ParseTime"),
+    VALIDATE("ValidateTime"),
+    RATE_LIMIT("RateLimitTime"),
+    UNIQUENESS_CHECK("UniquenessCheckTime"),
+    HASH("HashTime"),
+    DYNAMODB_READ("DynamoDbReadTime"),
+    DYNAMODB_WRITE("DynamoDbWriteTime"),
+    JWT_SIGN("JwtSignTime"),
+    JWT_VERIFY("JwtVerifyTime"),
+    S3_PUT("S3PutTime"),
+    SERIALIZE("SerializeTime");
+
+    private final String metricName;
+
+    Stage(String metricName) {
+        this.metricName = metricName;
+    }
+
+    public String metricName() {
+        return metricName;
+    }
+}
@@ -8,6 +8,8 @@ import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbParti
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSecondaryPartitionKey;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSortKey;
 
+import java.util.Map;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -20,9 +22,16 @@ public class User {
     private String email;
     private String password;
     private String documentNumber;
+    // Key del avatar en S3; la URL firmada se genera en cada lectura
+    private String avatarKey;
+    // Solo usuarios anteriores: URL firmada guardada al subir el avatar
     private String imageUrl;
+    // Miniaturas del avatar: tamaño en px -> key en S3
+    private Map<String, String> avatarVariants;
     private String createdAt;
     private String updatedAt;
+    // Se incrementa en cada escritura (control optimista de concurrencia); null en usuarios anteriores
+    private Long version;
 
     // Partition key
     @DynamoDbPartitionKey
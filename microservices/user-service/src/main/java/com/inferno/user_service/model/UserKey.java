@@ -0,0 +1,53 @@
+package com.inferno.user_service.model;
+
+import java.util.Objects;
+
+// Llave de un usuario para lecturas por lote. Sin documentNumber no hay llave primaria completa
+// y la lectura se resuelve con un Query por uuid en lugar de BatchGetItem.
+public final class UserKey {
+
+    private final String uuid;
+    private final String documentNumber;
+
+    private UserKey(String uuid, String documentNumber) {
+        this.uuid = uuid;
+        this.documentNumber = documentNumber;
+    }
+
+    public static UserKey of(String uuid) {
+        return new UserKey(uuid, null);
+    }
+
+    public static UserKey of(String uuid, String documentNumber) {
+        return new UserKey(uuid, documentNumber == null || documentNumber.isBlank() ? null : documentNumber);
+    }
+
+    public String getUuid() {
+        return uuid;
+    }
+
+    public String getDocumentNumber() {
+        return documentNumber;
+    }
+
+    public boolean isComplete() {
+        return documentNumber != null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof UserKey)) {
+            return false;
+        }
+        UserKey other = (UserKey) o;
+        return uuid.equals(other.uuid) && Objects.equals(documentNumber, other.documentNumber);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(uuid, documentNumber);
+    }
+}
@@ -0,0 +1,62 @@
+package com.inferno.user_service.model;
+
+import software.amazon.awssdk.enhanced.dynamodb.EnhancedType;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.StaticTableSchema;
+
+import static software.amazon.awssdk.enhanced.dynamodb.mapper.StaticAttributeTags.primaryPartitionKey;
+import static software.amazon.awssdk.enhanced.dynamodb.mapper.StaticAttributeTags.primarySortKey;
+import static software.amazon.awssdk.enhanced.dynamodb.mapper.StaticAttributeTags.secondaryPartitionKey;
+
+// Esquema estático de User: evita la introspección de TableSchema.fromBean en cada arranque
+public final class UserTableSchema {
+
+    public static final String EMAIL_INDEX = "EmailIndex";
+    public static final String DOCUMENT_NUMBER_INDEX = "DocumentNumberIndex";
+
+    public static final TableSchema<User> SCHEMA = StaticTableSchema.builder(User.class)
+            .newItemSupplier(User::new)
+            .addAttribute(String.class, a -> a.name("uuid")
+                    .getter(User::getUuid)
+                    .setter(User::setUuid)
+                    .tags(primaryPartitionKey()))
+            .addAttribute(String.class, a -> a.name("documentNumber")
+                    .getter(User::getDocumentNumber)
+                    .setter(User::setDocumentNumber)
+                    .tags(primarySortKey(), secondaryPartitionKey(DOCUMENT_NUMBER_INDEX)))
+            .addAttribute(String.class, a -> a.name("email")
+                    .getter(User::getEmail)
+                    .setter(User::setEmail)
+                    .tags(secondaryPartitionKey(EMAIL_INDEX)))
+            .addAttribute(String.class, a -> a.name("name")
+                    .getter(User::getName)
+                    .setter(User::setName))
+            .addAttribute(String.class, a -> a.name("lastName")
+                    .getter(User::getLastName)
+                    .setter(User::setLastName))
+            .addAttribute(String.class, a -> a.name("password")
+                    .getter(User::getPassword)
+                    .setter(User::setPassword))
+            .addAttribute(String.class, a -> a.name("avatarKey")
+                    .getter(User::getAvatarKey)
+                    .setter(User::setAvatarKey))
+            .addAttribute(String.class, a -> a.name("imageUrl")
+                    .getter(User::getImageUrl)
+                    .setter(User::setImageUrl))
+            .addAttribute(EnhancedType.mapOf(String.class, String.class), a -> a.name("avatarVariants")
+                    .getter(User::getAvatarVariants)
+                    .setter(User::setAvatarVariants))
+            .addAttribute(String.class, a -> a.name("createdAt")
+                    .getter(User::getCreatedAt)
+                    .setter(User::setCreatedAt))
+            .addAttribute(String.class, a -> a.name("updatedAt")
+                    .getter(User::getUpdatedAt)
+                    .setter(User::setUpdatedAt))
+            .addAttribute(Long.class, a -> a.name(UserUpdate.VERSION)
+                    .getter(User::getVersion)
+                    .setter(User::setVersion))
+            .build();
+
+    private UserTableSchema() {
+    }
+}
@@ -0,0 +1,145 @@
+package com.inferno.user_service.model;
+
+import com.inferno.user_service.exception.UserNotFoundException;
+import com.inferno.user_service.exception.VersionConflictException;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Cambios por campo sobre un usuario existente: solo viajan los atributos que cambian, nunca el
+// item completo. Un valor null (o un mapa vacío) elimina el atributo. Cada escritura incrementa
+// version; con expectVersion la escritura falla si alguien más modificó el usuario entre medio.
+public final class UserUpdate {
+
+    public static final String VERSION = "version";
+    public static final String UPDATED_AT = "updatedAt";
+
+    private final String uuid;
+    private final String documentNumber;
+    private final Map<String, AttributeValue> sets = new LinkedHashMap<>();
+    private final List<String> removes = new ArrayList<>();
+    private Long expectedVersion;
+    private ReturnValue returnValue = ReturnValue.ALL_NEW;
+
+    private UserUpdate(String uuid, String documentNumber) {
+        this.uuid = uuid;
+        this.documentNumber = documentNumber;
+    }
+
+    public static UserUpdate of(String uuid, String documentNumber) {
+        return new UserUpdate(uuid, documentNumber);
+    }
+
+    public UserUpdate name(String name) {
+        return set("name", name);
+    }
+
+    public UserUpdate lastName(String lastName) {
+        return set("lastName", lastName);
+    }
+
+    public UserUpdate password(String passwordHash) {
+        return set("password", passwordHash);
+    }
+
+    public UserUpdate avatarKey(String avatarKey) {
+        return set("avatarKey", avatarKey);
+    }
+
+    public UserUpdate avatarVariants(Map<String, String> variants) {
+        if (variants == null || variants.isEmpty()) {
+            return remove("avatarVariants");
+        }
+        Map<String, AttributeValue> values = new HashMap<>();
+        variants.forEach((size, key) -> values.put(size, AttributeValue.fromS(key)));
+        return put("avatarVariants", AttributeValue.fromM(values));
+    }
+
+    public UserUpdate imageUrl(String imageUrl) {
+        return set("imageUrl", imageUrl);
+    }
+
+    // null: sin control de concurrencia. 0 también acepta usuarios anteriores, sin atributo version
+    public UserUpdate expectVersion(Long version) {
+        this.expectedVersion = version;
+        return this;
+    }
+
+    // ALL_NEW (por defecto) evita releer el usuario; UPDATED_OLD devuelve lo que se reemplazó
+    public UserUpdate returning(ReturnValue returnValue) {
+        this.returnValue = returnValue;
+        return this;
+    }
+
+    public String getUuid() {
+        return uuid;
+    }
+
+    public String getDocumentNumber() {
+        return documentNumber;
+    }
+
+    public Map<String, AttributeValue> getSets() {
+        return Collections.unmodifiableMap(sets);
+    }
+
+    public List<String> getRemoves() {
+        return Collections.unmodifiableList(removes);
+    }
+
+    public Long getExpectedVersion() {
+        return expectedVersion;
+    }
+
+    public ReturnValue getReturnValue() {
+        return returnValue;
+    }
+
+    public boolean isEmpty() {
+        return sets.isEmpty() && removes.isEmpty();
+    }
+
+    // Misma semántica que la escritura condicional, para dobles en memoria
+    public User applyTo(User current, String now) {
+        if (current == null) {
+            throw new UserNotFoundException("User not found");
+        }
+        long currentVersion = current.getVersion() == null ? 0L : current.getVersion();
+        if (expectedVersion != null && expectedVersion != currentVersion) {
+            throw new VersionConflictException(currentVersion);
+        }
+        Map<String, AttributeValue> item = new HashMap<>(UserTableSchema.SCHEMA.itemToMap(current, true));
+        item.putAll(sets);
+        removes.forEach(item::remove);
+        item.put(UPDATED_AT, AttributeValue.fromS(now));
+        item.put(VERSION, AttributeValue.fromN(Long.toString(currentVersion + 1)));
+        return UserTableSchema.SCHEMA.mapToItem(item);
+    }
+
+    private UserUpdate set(String attribute, String value) {
+        if (value == null) {
+            return remove(attribute);
+        }
+        return put(attribute, AttributeValue.fromS(value));
+    }
+
+    private UserUpdate put(String attribute, AttributeValue value) {
+        removes.remove(attribute);
+        sets.put(attribute, value);
+        return this;
+    }
+
+    private UserUpdate remove(String attribute) {
+        sets.remove(attribute);
+        if (!removes.contains(attribute)) {
+            removes.add(attribute);
+        }
+        return this;
+    }
+}
@@ -0,0 +1,265 @@
+package com.inferno.user_service.priming;
+
+import com.inferno.user_service.config.AwsClientRegistry;
+import com.inferno.user_service.config.Lazy;
+import com.inferno.user_service.dto.AvatarUploadRequest;
+import com.inferno.user_service.dto.BatchProfileRequest;
+import com.inferno.user_service.dto.LoginRequest;
+import com.inferno.user_service.dto.LoginResponse;
+import com.inferno.user_service.dto.UserRegistrationRequest;
+import com.inferno.user_service.dto.UserResponse;
+import com.inferno.user_service.dto.UserUpdateRequest;
+import com.inferno.user_service.json.ErrorBodies;
+import com.inferno.user_service.json.JsonCodec;
+import com.inferno.user_service.model.User;
+import com.inferno.user_service.security.JwtIssuer;
+import com.inferno.user_service.security.JwtKeyProvider;
+import com.inferno.user_service.security.PasswordService;
+import com.inferno.user_service.service.UserBatchReader;
+import com.inferno.user_service.service.ValidationService;
+import io.jsonwebtoken.Jwts;
+import org.crac.Context;
+import org.crac.Core;
+import org.crac.Resource;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Calentamiento para SnapStart (CRaC). Lambda toma el snapshot al terminar el init, así que lo
+// que se cargue y compile en beforeCheckpoint deja de pagarse en la primera petición:
+// - Jackson y la validación de todos los DTOs, BCrypt y el builder/parser de JWT.
+// - Los clientes del SDK que el handler ya construyó, con una petición de prueba (dry run)
+//   sobre una llave que no existe.
+// En afterRestore se resiembra el jitter, se vuelve a resolver la cadena de credenciales y se
+// repite el dry run para reemplazar las conexiones del pool que no sobreviven al snapshot.
+// Un paso que falla se registra y no impide los demás ni el checkpoint.
+// Variables: PRIMING_ENABLED (true), PRIMING_ON_INIT (false: calienta en el init aunque no haya
+// SnapStart) y PRIMING_DRY_RUN (true). Sin una JDK con CRaC los hooks nunca se invocan.
+public final class ColdStartPriming implements Resource {
+
+    // CRaC guarda los recursos con referencias débiles: esta referencia mantiene vivo el registrado
+    private static final Lazy<ColdStartPriming> DEFAULT = new Lazy<>(() -> {
+        ColdStartPriming priming = new ColdStartPriming(AwsClientRegistry.getInstance(), PasswordService.shared(),
+                System.getenv("infernoavatarimagebucket"), Boolean.parseBoolean(env("PRIMING_DRY_RUN", "true")));
+        priming.registerWith(Core.getGlobalContext());
+        if (Boolean.parseBoolean(env("PRIMING_ON_INIT", "false"))) {
+            priming.prime();
+        }
+        return priming;
+    });
+
+    private static final String PRIMING_UUID = "__priming__";
+    private static final String PRIMING_DOCUMENT = "0";
+    private static final String PRIMING_EMAIL = "priming@inferno.com";
+    private static final String PRIMING_PASSWORD = "priming-password";
+    // Solo para firmar y verificar un token de prueba; nunca sale del proceso
+    private static final String PRIMING_JWT_SECRET = "{\"" + JwtKeyProvider.SECRET_FIELD
+            + "\":\"priming-secret-priming-secret-priming-secret\"}";
+
+    // Un ejemplo por DTO, en el mismo formato que envían o reciben los clientes
+    private static final Map<Class<?>, String> SAMPLES = samples();
+
+    private final AwsClientRegistry registry;
+    private final PasswordService passwordService;
+    private final String avatarBucket;
+    private final boolean dryRun;
+    private final JsonCodec json = JsonCodec.shared();
+
+    public ColdStartPriming(AwsClientRegistry registry, PasswordService passwordService, String avatarBucket,
+                            boolean dryRun) {
+        this.registry = registry;
+        this.passwordService = passwordService;
+        this.avatarBucket = avatarBucket;
+        this.dryRun = dryRun;
+    }
+
+    // Desde el constructor por defecto de cada handler: registra una sola vez por proceso
+    public static void registerDefault() {
+        if (Boolean.parseBoolean(env("PRIMING_ENABLED", "true"))) {
+            DEFAULT.get();
+        }
+    }
+
+    public ColdStartPriming registerWith(Context<Resource> context) {
+        context.register(this);
+        return this;
+    }
+
+    @Override
+    public void beforeCheckpoint(Context<? extends Resource> context) {
+        prime();
+    }
+
+    @Override
+    public void afterRestore(Context<? extends Resource> context) {
+        restore();
+    }
+
+    // Duración en ms de cada paso que terminó bien, en orden de ejecución
+    public Map<String, Long> prime() {
+        Map<String, Runnable> steps = new LinkedHashMap<>();
+        steps.put("jackson", this::primeJackson);
+        steps.put("validation", this::primeValidation);
+        steps.put("passwords", this::primePasswords);
+        steps.put("jwt", this::primeJwt);
+        if (dryRun) {
+            addDryRuns(steps);
+        }
+        return run("beforeCheckpoint", steps);
+    }
+
+    public Map<String, Long> restore() {
+        Map<String, Runnable> steps = new LinkedHashMap<>();
+        steps.put("randomness", UserBatchReader::reseedJitter);
+        steps.put("credentials", registry::refreshCredentials);
+        if (dryRun) {
+            addDryRuns(steps);
+        }
+        return run("afterRestore", steps);
+    }
+
+    private void addDryRuns(Map<String, Runnable> steps) {
+        if (registry.hasDynamoDbClient()) {
+            steps.put("dynamodb", this::dryRunDynamoDb);
+        }
+        if (registry.hasDynamoDbAsyncClient()) {
+            steps.put("dynamodb-async", this::dryRunDynamoDbAsync);
+        }
+        if (avatarBucket != null && registry.hasS3Client()) {
+            steps.put("s3", this::dryRunS3);
+        }
+        if (avatarBucket != null && registry.hasS3Presigner()) {
+            steps.put("s3-presigner", this::dryRunPresigner);
+        }
+    }
+
+    // Mismo JsonCodec que los handlers: quedan resueltos los readers/writers de cada DTO y de los
+    // contenedores con que se arman las respuestas (ArrayList de perfiles, LinkedHashMap del avatar)
+    private void primeJackson() {
+        try {
+            for (Map.Entry<Class<?>, String> sample : SAMPLES.entrySet()) {
+                Object value = json.read(sample.getValue(), sample.getKey());
+                json.write(value);
+                json.write(new ArrayList<>(List.of(value)));
+            }
+            json.write(new LinkedHashMap<>(Map.of("avatarUrl", "priming")));
+            ErrorBodies.of("priming \"error\"");
+        } catch (Exception e) {
+            throw new IllegalStateException("Jackson priming failed", e);
+        }
+    }
+
+    private void primeValidation() {
+        ValidationService validationService = new ValidationService(null);
+        for (Map.Entry<Class<?>, String> sample : SAMPLES.entrySet()) {
+            try {
+                validationService.validate(json.read(sample.getValue(), sample.getKey()));
+            } catch (Exception e) {
+                throw new IllegalStateException("Validation priming failed for " + sample.getKey().getSimpleName(), e);
+            }
+        }
+    }
+
+    // Con el algoritmo y costo objetivo: el JIT compila exactamente el camino del login
+    private void primePasswords() {
+        String encrypted = passwordService.encryptPassword(PRIMING_PASSWORD);
+        passwordService.verify(PRIMING_PASSWORD, encrypted);
+    }
+
+    private void primeJwt() {
+        java.security.Key key = JwtKeyProvider.parseKey(PRIMING_JWT_SECRET);
+        String token = new JwtIssuer(JwtKeyProvider.create(
+                secretId -> PRIMING_JWT_SECRET)).issue(primingUser());
+        Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+    }
+
+    // GetItem por llave primaria y Query por el índice de email, el camino del login y del registro
+    private void dryRunDynamoDb() {
+        registry.userTable().getItem(primingKey());
+        registry.emailIndex()
+                .query(r -> r.queryConditional(QueryConditional.keyEqualTo(k -> k.partitionValue(PRIMING_EMAIL))))
+                .stream()
+                .findFirst();
+    }
+
+    private void dryRunDynamoDbAsync() {
+        try {
+            registry.userAsyncTable().getItem(primingKey())
+                    .get(registry.settings().getApiCallTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException("Async DynamoDB dry run failed", e);
+        }
+    }
+
+    private void dryRunS3() {
+        try {
+            registry.s3Client().headObject(r -> r.bucket(avatarBucket).key(PRIMING_UUID));
+        } catch (S3Exception e) {
+            // 404 (o 403 sin s3:ListBucket) también recorre todo el camino del cliente
+            if (e.statusCode() != 404 && e.statusCode() != 403) {
+                throw e;
+            }
+        }
+    }
+
+    private void dryRunPresigner() {
+        registry.s3Presigner().presignGetObject(r -> r.signatureDuration(Duration.ofMinutes(1))
+                .getObjectRequest(get -> get.bucket(avatarBucket).key(PRIMING_UUID)));
+    }
+
+    private static Map<String, Long> run(String phase, Map<String, Runnable> steps) {
+        Map<String, Long> timings = new LinkedHashMap<>();
+        for (Map.Entry<String, Runnable> step : steps.entrySet()) {
+            long start = System.nanoTime();
+            try {
+                step.getValue().run();
+                timings.put(step.getKey(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            } catch (RuntimeException e) {
+                System.err.println("Priming step " + step.getKey() + " failed in " + phase + ": " + e.getMessage());
+            }
+        }
+        System.out.println("Priming " + phase + " (ms): " + timings);
+        return timings;
+    }
+
+    private static Key primingKey() {
+        return Key.builder().partitionValue(PRIMING_UUID).sortValue(PRIMING_DOCUMENT).build();
+    }
+
+    private static User primingUser() {
+        User user = new User();
+        user.setUuid(PRIMING_UUID);
+        user.setEmail(PRIMING_EMAIL);
+        return user;
+    }
+
+    private static Map<Class<?>, String> samples() {
+        Map<Class<?>, String> samples = new LinkedHashMap<>();
+        samples.put(UserRegistrationRequest.class, "{\"email\":\"priming@inferno.com\",\"name\":\"Priming\","
+                + "\"lastName\":\"Priming\",\"document\":\"123456\",\"password\":\"" + PRIMING_PASSWORD + "\"}");
+        samples.put(UserUpdateRequest.class, "{\"email\":\"priming@inferno.com\",\"name\":\"Priming\","
+                + "\"lastName\":\"Priming\",\"document\":\"123456\",\"password\":\"" + PRIMING_PASSWORD + "\"}");
+        samples.put(LoginRequest.class, "{\"email\":\"priming@inferno.com\",\"password\":\"" + PRIMING_PASSWORD + "\"}");
+        samples.put(LoginResponse.class, "{\"token\":\"priming\"}");
+        samples.put(AvatarUploadRequest.class, "{\"contentType\":\"image/png\",\"contentLength\":1024}");
+        samples.put(BatchProfileRequest.class, "{\"keys\":[{\"uuid\":\"" + PRIMING_UUID + "\",\"document\":\""
+                + PRIMING_DOCUMENT + "\"}]}");
+        samples.put(UserResponse.class, "{\"uuid\":\"" + PRIMING_UUID + "\",\"name\":\"Priming\","
+                + "\"lastName\":\"Priming\",\"email\":\"priming@inferno.com\",\"document\":\"123456\","
+                + "\"imageUrl\":\"https://example.com/a.png\",\"thumbnails\":{\"64\":\"https://example.com/64.png\"},"
+                + "\"createdAt\":\"2024-01-01T00:00:00Z\",\"updatedAt\":\"2024-01-01T00:00:00Z\"}");
+        return samples;
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+}
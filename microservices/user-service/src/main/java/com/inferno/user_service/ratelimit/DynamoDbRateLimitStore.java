@@ -0,0 +1,43 @@
+package com.inferno.user_service.ratelimit;
+
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValue;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+
+import java.time.Duration;
+import java.util.Map;
+
+// Contador atómico en DynamoDB: un item por clave y ventana, incrementado con ADD en un solo
+// UpdateItem (sin leer antes). El atributo ttl deja que DynamoDB borre las ventanas vencidas.
+public class DynamoDbRateLimitStore implements RateLimitStore {
+
+    static final String KEY_ATTRIBUTE = "pk";
+    private static final Map<String, String> NAMES = Map.of("#attempts", "attempts", "#ttl", "ttl");
+    private static final AttributeValue ONE = AttributeValue.builder().n("1").build();
+
+    private final DynamoDbClient dynamoDbClient;
+    private final String tableName;
+
+    public DynamoDbRateLimitStore(DynamoDbClient dynamoDbClient, String tableName) {
+        this.dynamoDbClient = dynamoDbClient;
+        this.tableName = tableName;
+    }
+
+    @Override
+    public long increment(String key, long windowStartEpochSecond, Duration window) {
+        // Se conserva una ventana extra antes de expirar, por si el reloj de algún contenedor va atrasado
+        long expiresAt = windowStartEpochSecond + 2 * window.toSeconds();
+        UpdateItemRequest request = UpdateItemRequest.builder()
+                .tableName(tableName)
+                .key(Map.of(KEY_ATTRIBUTE, AttributeValue.builder().s(key + "#" + windowStartEpochSecond).build()))
+                .updateExpression("ADD #attempts :one SET #ttl = if_not_exists(#ttl, :ttl)")
+                .expressionAttributeNames(NAMES)
+                .expressionAttributeValues(Map.of(
+                        ":one", ONE,
+                        ":ttl", AttributeValue.builder().n(Long.toString(expiresAt)).build()))
+                .returnValues(ReturnValue.UPDATED_NEW)
+                .build();
+        return Long.parseLong(dynamoDbClient.updateItem(request).attributes().get("attempts").n());
+    }
+}
@@ -0,0 +1,178 @@
+package com.inferno.user_service.ratelimit;
+
+import com.inferno.user_service.config.AwsClientRegistry;
+import com.inferno.user_service.config.Lazy;
+import com.inferno.user_service.exception.TooManyRequestsException;
+import com.inferno.user_service.logging.AsyncLogger;
+import com.inferno.user_service.metrics.InvocationMetrics;
+import com.inferno.user_service.metrics.Stage;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Límite de intentos de login por email y por IP de origen, verificado antes de cualquier hashing.
+// Nivel 1: token buckets en memoria; una ráfaga contra un contenedor caliente se corta sin tocar
+// DynamoDB. Nivel 2 (opcional): contador compartido por ventana fija, para que repartir el ataque
+// entre contenedores no multiplique el límite. En el borde de dos ventanas el contador compartido
+// puede dejar pasar hasta el doble; el nivel 1 suaviza ese pico dentro de cada contenedor.
+// Si el contador compartido falla se deja pasar (con aviso): un DynamoDB degradado no debe
+// bloquear el login de todos.
+public class LoginRateLimiter {
+
+    private static final Lazy<LoginRateLimiter> INSTANCE = new Lazy<>(LoginRateLimiter::fromEnvironment);
+
+    static final String EMAIL_KEY_PREFIX = "LOGIN#EMAIL#";
+    static final String IP_KEY_PREFIX = "LOGIN#IP#";
+    public static final String REJECTION_MESSAGE = "Demasiados intentos, intenta más tarde";
+
+    private final boolean enabled;
+    private final Limit emailLimit;
+    private final Limit ipLimit;
+    private final StripedTokenBucketLimiter emailBuckets;
+    private final StripedTokenBucketLimiter ipBuckets;
+    private final RateLimitStore store;
+    private final Clock clock;
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong storeFailures = new AtomicLong();
+
+    public LoginRateLimiter(Limit emailLimit, Limit ipLimit, int maxKeys, RateLimitStore store, Clock clock) {
+        this.enabled = true;
+        this.emailLimit = emailLimit;
+        this.ipLimit = ipLimit;
+        this.emailBuckets = new StripedTokenBucketLimiter(emailLimit.attempts, emailLimit.window, maxKeys, clock);
+        this.ipBuckets = new StripedTokenBucketLimiter(ipLimit.attempts, ipLimit.window, maxKeys, clock);
+        this.store = store;
+        this.clock = clock;
+    }
+
+    private LoginRateLimiter() {
+        this.enabled = false;
+        this.emailLimit = null;
+        this.ipLimit = null;
+        this.emailBuckets = null;
+        this.ipBuckets = null;
+        this.store = null;
+        this.clock = null;
+    }
+
+    public static LoginRateLimiter getInstance() {
+        return INSTANCE.get();
+    }
+
+    public static LoginRateLimiter disabled() {
+        return new LoginRateLimiter();
+    }
+
+    public static LoginRateLimiter fromEnvironment() {
+        if (!Boolean.parseBoolean(env("LOGIN_RATE_LIMIT_ENABLED", "true"))) {
+            return disabled();
+        }
+        Limit emailLimit = new Limit(
+                Integer.parseInt(env("LOGIN_RATE_LIMIT_EMAIL_ATTEMPTS", "10")),
+                Duration.ofSeconds(Long.parseLong(env("LOGIN_RATE_LIMIT_EMAIL_WINDOW_SECONDS", "300"))));
+        Limit ipLimit = new Limit(
+                Integer.parseInt(env("LOGIN_RATE_LIMIT_IP_ATTEMPTS", "100")),
+                Duration.ofSeconds(Long.parseLong(env("LOGIN_RATE_LIMIT_IP_WINDOW_SECONDS", "60"))));
+        int maxKeys = Integer.parseInt(env("LOGIN_RATE_LIMIT_MAX_KEYS", "10000"));
+        String table = System.getenv("LOGIN_RATE_LIMIT_TABLE");
+        RateLimitStore store = table == null || table.isBlank()
+                ? null
+                : new DynamoDbRateLimitStore(AwsClientRegistry.getInstance().dynamoDbClient(), table);
+        return new LoginRateLimiter(emailLimit, ipLimit, maxKeys, store, Clock.systemUTC());
+    }
+
+    // Lanza TooManyRequestsException si el email o la IP superaron su límite; sourceIp puede ser null
+    public void check(String email, String sourceIp) {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            String emailKey = email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+            if (sourceIp != null) {
+                rejectIfLimited(ipBuckets.tryAcquire(sourceIp));
+            }
+            if (emailKey != null) {
+                rejectIfLimited(emailBuckets.tryAcquire(emailKey));
+            }
+            if (store != null) {
+                if (emailKey != null) {
+                    checkShared(EMAIL_KEY_PREFIX + emailKey, emailLimit);
+                }
+                if (sourceIp != null) {
+                    checkShared(IP_KEY_PREFIX + sourceIp, ipLimit);
+                }
+            }
+        } finally {
+            InvocationMetrics.record(Stage.RATE_LIMIT, start);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    public long getStoreFailureCount() {
+        return storeFailures.get();
+    }
+
+    private void rejectIfLimited(long waitNanos) {
+        if (waitNanos != StripedTokenBucketLimiter.ALLOWED) {
+            rejected.incrementAndGet();
+            long seconds = TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1);
+            throw new TooManyRequestsException(REJECTION_MESSAGE, Math.max(1, seconds));
+        }
+    }
+
+    private void checkShared(String key, Limit limit) {
+        long windowSeconds = limit.window.toSeconds();
+        long now = TimeUnit.MILLISECONDS.toSeconds(clock.millis());
+        long windowStart = now - Math.floorMod(now, windowSeconds);
+        long attempts;
+        try {
+            attempts = store.increment(key, windowStart, limit.window);
+        } catch (RuntimeException e) {
+            storeFailures.incrementAndGet();
+            AsyncLogger.getInstance().warn(null, "Rate limit store unavailable: " + e.getMessage());
+            return;
+        }
+        if (attempts > limit.attempts) {
+            rejected.incrementAndGet();
+            throw new TooManyRequestsException(REJECTION_MESSAGE, Math.max(1, windowStart + windowSeconds - now));
+        }
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+
+    // Intentos permitidos por ventana; la ventana del contador compartido se redondea a segundos
+    public static final class Limit {
+        private final int attempts;
+        private final Duration window;
+
+        public Limit(int attempts, Duration window) {
+            if (attempts <= 0 || window.toSeconds() <= 0) {
+                throw new IllegalArgumentException("Limit needs positive attempts and a window of at least 1s");
+            }
+            this.attempts = attempts;
+            this.window = window;
+        }
+
+        public int getAttempts() {
+            return attempts;
+        }
+
+        public Duration getWindow() {
+            return window;
+        }
+    }
+}
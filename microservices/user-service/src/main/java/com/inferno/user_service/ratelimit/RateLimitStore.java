@@ -0,0 +1,10 @@
+package com.inferno.user_service.ratelimit;
+
+import java.time.Duration;
+
+// Contador de intentos compartido entre contenedores (DynamoDB). Cuenta por clave dentro de una
+// ventana fija y devuelve el total de la ventana después de sumar este intento.
+public interface RateLimitStore {
+
+    long increment(String key, long windowStartEpochSecond, Duration window);
+}
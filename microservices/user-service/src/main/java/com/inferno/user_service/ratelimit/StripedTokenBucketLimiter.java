@@ -0,0 +1,102 @@
+package com.inferno.user_service.ratelimit;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token buckets en memoria por clave: el camino rápido de un contenedor caliente.
+// Cada bucket es un solo AtomicLong con el instante en que volvería a estar lleno (GCRA, equivalente
+// a un token bucket de capacidad `attempts` que se rellena completo en `window`): tomar un token es
+// un CAS, sin locks. Las claves se reparten en franjas con un tope de entradas cada una; un bucket
+// que ya se rellenó equivale a no tenerlo, así que es lo único que se descarta. Si una franja está
+// llena de buckets activos la clave nueva no se limita aquí y queda para el contador compartido.
+public class StripedTokenBucketLimiter {
+
+    public static final long ALLOWED = 0L;
+
+    private static final int STRIPES = 16;
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final int maxEntriesPerStripe;
+    private final Clock clock;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    public StripedTokenBucketLimiter(int attempts, Duration window, int maxKeys, Clock clock) {
+        if (attempts <= 0) {
+            throw new IllegalArgumentException("attempts must be positive");
+        }
+        this.intervalNanos = Math.max(1L, window.toNanos() / attempts);
+        this.burstNanos = intervalNanos * attempts;
+        this.maxEntriesPerStripe = Math.max(1, maxKeys / STRIPES);
+        this.clock = clock;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    // ALLOWED si quedaba un token; si no, los nanosegundos hasta el próximo
+    public long tryAcquire(String key) {
+        long now = nowNanos();
+        AtomicLong bucket = bucket(key, now);
+        if (bucket == null) {
+            return ALLOWED;
+        }
+        while (true) {
+            long full = bucket.get();
+            long next = Math.max(full, now) + intervalNanos;
+            long excess = next - now - burstNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (bucket.compareAndSet(full, next)) {
+                return ALLOWED;
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.buckets.size();
+        }
+        return size;
+    }
+
+    private AtomicLong bucket(String key, long now) {
+        Stripe stripe = stripes[spread(key.hashCode()) & (STRIPES - 1)];
+        AtomicLong bucket = stripe.buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (stripe.buckets.size() >= maxEntriesPerStripe && !stripe.sweep(now)) {
+            return null;
+        }
+        return stripe.buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+    }
+
+    private long nowNanos() {
+        return TimeUnit.MILLISECONDS.toNanos(clock.millis());
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private final class Stripe {
+        private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+        private final AtomicLong nextSweep = new AtomicLong(Long.MIN_VALUE);
+
+        // Quita los buckets ya rellenos; a lo sumo un barrido por segundo y por franja
+        private boolean sweep(long now) {
+            long scheduled = nextSweep.get();
+            if (now >= scheduled && nextSweep.compareAndSet(scheduled, now + SWEEP_INTERVAL_NANOS)) {
+                buckets.values().removeIf(bucket -> bucket.get() <= now);
+            }
+            return buckets.size() < maxEntriesPerStripe;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.inferno.user_service.runtime;
+
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.inferno.user_service.handler.BatchGetUserProfilesLambda;
+import com.inferno.user_service.handler.GetUserProfileLambda;
+import com.inferno.user_service.handler.LoginUserLambda;
+import com.inferno.user_service.handler.UpdateUserLambda;
+import com.inferno.user_service.handler.UploadAvatarLambda;
+import com.inferno.user_service.handler.UserRegisterLambda;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// Runtime propio para la imagen nativa de GraalVM (runtime provided.al2023): implementa el ciclo
+// de la Runtime API de Lambda sin aws-lambda-java-runtime-interface-client. El handler se elige
+// con _HANDLER, con el mismo valor que en el runtime java17 ("Clase::handleRequest"), pero se
+// construye desde una tabla fija en lugar de cargarlo por reflexión.
+public final class LambdaRuntime {
+
+    private static final String API_VERSION = "/2018-06-01/runtime";
+
+    private static final Map<String, Supplier<RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent>>> HANDLERS =
+            Map.of(
+                    UserRegisterLambda.class.getName(), UserRegisterLambda::new,
+                    LoginUserLambda.class.getName(), LoginUserLambda::new,
+                    UpdateUserLambda.class.getName(), UpdateUserLambda::new,
+                    GetUserProfileLambda.class.getName(), GetUserProfileLambda::new,
+                    BatchGetUserProfilesLambda.class.getName(), BatchGetUserProfilesLambda::new,
+                    UploadAvatarLambda.class.getName(), UploadAvatarLambda::new);
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+    private static final ObjectReader EVENT_READER = OBJECT_MAPPER.readerFor(APIGatewayProxyRequestEvent.class);
+    private static final ObjectWriter RESPONSE_WRITER = OBJECT_MAPPER.writerFor(APIGatewayProxyResponseEvent.class);
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final String baseUrl;
+    private final RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> handler;
+
+    LambdaRuntime(String runtimeApi, RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> handler) {
+        this.baseUrl = "http://" + runtimeApi + API_VERSION;
+        this.handler = handler;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String runtimeApi = System.getenv("AWS_LAMBDA_RUNTIME_API");
+        RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> handler;
+        try {
+            handler = createHandler(System.getenv("_HANDLER"));
+        } catch (RuntimeException e) {
+            new LambdaRuntime(runtimeApi, null).post("/init/error", error(e));
+            System.exit(1);
+            return;
+        }
+
+        LambdaRuntime runtime = new LambdaRuntime(runtimeApi, handler);
+        while (true) {
+            runtime.processNext();
+        }
+    }
+
+    static RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> createHandler(String handlerName) {
+        if (handlerName == null) {
+            throw new IllegalStateException("_HANDLER is not set");
+        }
+        int separator = handlerName.indexOf("::");
+        String className = separator < 0 ? handlerName : handlerName.substring(0, separator);
+        Supplier<RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent>> factory =
+                HANDLERS.get(className);
+        if (factory == null) {
+            throw new IllegalStateException("Unknown handler: " + handlerName);
+        }
+        return factory.get();
+    }
+
+    // Una vuelta del ciclo: espera la siguiente invocación, la atiende y publica el resultado
+    void processNext() throws IOException, InterruptedException {
+        HttpResponse<byte[]> next = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/invocation/next"))
+                .GET()
+                .build(), HttpResponse.BodyHandlers.ofByteArray());
+        String requestId = next.headers().firstValue("Lambda-Runtime-Aws-Request-Id")
+                .orElseThrow(() -> new IOException("Runtime API response without request id"));
+        next.headers().firstValue("Lambda-Runtime-Trace-Id")
+                .ifPresent(traceId -> System.setProperty("com.amazonaws.xray.traceHeader", traceId));
+
+        InvocationContext context = new InvocationContext(requestId,
+                next.headers().firstValue("Lambda-Runtime-Invoked-Function-Arn").orElse(null),
+                next.headers().firstValueAsLong("Lambda-Runtime-Deadline-Ms").orElse(Long.MAX_VALUE));
+
+        byte[] response;
+        try {
+            APIGatewayProxyRequestEvent event = EVENT_READER.readValue(next.body());
+            response = RESPONSE_WRITER.writeValueAsBytes(handler.handleRequest(event, context));
+        } catch (Exception e) {
+            context.getLogger().log("Unhandled error: " + e);
+            post("/invocation/" + requestId + "/error", error(e));
+            return;
+        }
+        post("/invocation/" + requestId + "/response", response);
+    }
+
+    private void post(String path, byte[] body) throws IOException, InterruptedException {
+        client.send(HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build(), HttpResponse.BodyHandlers.discarding());
+    }
+
+    private static byte[] error(Exception e) {
+        try {
+            return OBJECT_MAPPER.writeValueAsBytes(Map.of(
+                    "errorMessage", String.valueOf(e.getMessage()),
+                    "errorType", e.getClass().getName()));
+        } catch (IOException serializationError) {
+            throw new IllegalStateException(serializationError);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.inferno.user_service.runtime;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+// Genera reflect-config.json para native-image en tiempo de build (perfil native del pom).
+// Jackson serializa los DTOs y los eventos de API Gateway por reflexión: se registran todas las
+// clases compiladas del paquete dto (incluidas las anidadas) y los eventos con sus clases internas,
+// así un DTO nuevo queda cubierto sin tocar la configuración a mano.
+//   java -cp ... NativeImageConfig target/classes
+public final class NativeImageConfig {
+
+    static final String DTO_PACKAGE = "com.inferno.user_service.dto";
+    static final String CONFIG_DIR = "META-INF/native-image/com.inferno/user-service";
+
+    private static final List<Class<?>> EVENT_CLASSES =
+            List.of(APIGatewayProxyRequestEvent.class, APIGatewayProxyResponseEvent.class);
+
+    private NativeImageConfig() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path classesDir = Paths.get(args.length > 0 ? args[0] : "target/classes");
+        Path output = classesDir.resolve(CONFIG_DIR).resolve("reflect-config.json");
+        Files.createDirectories(output.getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(output.toFile(), reflectConfig(classesDir));
+        System.out.println("Wrote " + output);
+    }
+
+    static List<Map<String, Object>> reflectConfig(Path classesDir) throws IOException {
+        TreeSet<String> classNames = new TreeSet<>(dtoClasses(classesDir));
+        for (Class<?> event : EVENT_CLASSES) {
+            classNames.add(event.getName());
+            for (Class<?> nested : event.getDeclaredClasses()) {
+                classNames.add(nested.getName());
+            }
+        }
+
+        List<Map<String, Object>> entries = new ArrayList<>();
+        for (String className : classNames) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("name", className);
+            entry.put("allDeclaredConstructors", true);
+            entry.put("allDeclaredMethods", true);
+            entry.put("allDeclaredFields", true);
+            entries.add(entry);
+        }
+        return entries;
+    }
+
+    private static List<String> dtoClasses(Path classesDir) throws IOException {
+        Path dtoDir = classesDir.resolve(DTO_PACKAGE.replace('.', '/'));
+        try (Stream<Path> files = Files.list(dtoDir)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.endsWith(".class"))
+                    .map(name -> DTO_PACKAGE + "." + name.substring(0, name.length() - ".class".length()))
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.inferno.user_service.security;
+
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+
+// Argon2id con memoria fija; el costo ajustable es el número de iteraciones (t)
+public class Argon2PasswordHasher implements PasswordHasher {
+
+    public static final String ID = "argon2";
+
+    private static final int SALT_LENGTH = 16;
+    private static final int HASH_LENGTH = 32;
+    private static final int PARALLELISM = 1;
+
+    private final int memoryKb;
+    private final Argon2PasswordEncoder verifier;
+
+    public Argon2PasswordHasher(int memoryKb) {
+        this.memoryKb = memoryKb;
+        // matches() lee los parámetros del propio hash, sirve cualquier instancia
+        this.verifier = new Argon2PasswordEncoder(SALT_LENGTH, HASH_LENGTH, PARALLELISM, memoryKb, 1);
+    }
+
+    @Override
+    public String id() {
+        return ID;
+    }
+
+    @Override
+    public String hash(CharSequence plainPassword, int cost) {
+        return new Argon2PasswordEncoder(SALT_LENGTH, HASH_LENGTH, PARALLELISM, memoryKb, cost).encode(plainPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence plainPassword, String encoded) {
+        return verifier.matches(plainPassword, encoded);
+    }
+
+    @Override
+    public int costOf(String encoded) {
+        // Formato: $argon2id$v=19$m=16384,t=2,p=1$<salt>$<hash>
+        for (String param : encoded.split("\\$")[3].split(",")) {
+            if (param.startsWith("t=")) {
+                return Integer.parseInt(param.substring(2));
+            }
+        }
+        throw new IllegalArgumentException("Invalid Argon2 hash");
+    }
+
+    @Override
+    public int minCost() {
+        return 1;
+    }
+
+    @Override
+    public int maxCost() {
+        return 64;
+    }
+}
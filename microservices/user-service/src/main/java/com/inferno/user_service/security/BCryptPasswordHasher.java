@@ -0,0 +1,46 @@
+package com.inferno.user_service.security;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+// Costo = log2 de las rondas de BCrypt (el propio hash lo guarda: $2a$10$...)
+public class BCryptPasswordHasher implements PasswordHasher {
+
+    public static final String ID = "bcrypt";
+
+    private final BCryptPasswordEncoder verifier = new BCryptPasswordEncoder();
+
+    @Override
+    public String id() {
+        return ID;
+    }
+
+    @Override
+    public String hash(CharSequence plainPassword, int cost) {
+        return new BCryptPasswordEncoder(cost).encode(plainPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence plainPassword, String encoded) {
+        return verifier.matches(plainPassword, encoded);
+    }
+
+    @Override
+    public int costOf(String encoded) {
+        // Formato: $2a$NN$<salt+hash>
+        String[] parts = encoded.split("\\$");
+        if (parts.length < 4) {
+            throw new IllegalArgumentException("Invalid BCrypt hash");
+        }
+        return Integer.parseInt(parts[2]);
+    }
+
+    @Override
+    public int minCost() {
+        return 4;
+    }
+
+    @Override
+    public int maxCost() {
+        return 31;
+    }
+}
@@ -0,0 +1,171 @@
+package com.inferno.user_service.security;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+// Caché con TTL de un secreto ya parseado (p.ej. una Key HMAC).
+// - Refresca en segundo plano antes de expirar.
+// - Si el refresco falla, sigue sirviendo el último valor bueno y no reintenta hasta que pase una
+//   espera creciente (1 s, 2 s, ... hasta 30 s): un Secrets Manager caído no se paga en cada get.
+// - Al rotar, el valor anterior sigue siendo válido durante la ventana de gracia.
+public class CachedSecretProvider<T> {
+
+    private static final long MIN_RETRY_BACKOFF_MILLIS = 1_000;
+    private static final long MAX_RETRY_BACKOFF_MILLIS = 30_000;
+
+    private final SecretSource source;
+    private final String secretId;
+    private final Function<String, T> parser;
+    private final long ttlMillis;
+    private final long refreshAheadMillis;
+    private final long rotationGraceMillis;
+    private final Executor refreshExecutor;
+    private final Clock clock;
+
+    private final AtomicReference<Entry<T>> entry = new AtomicReference<>();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private final SecretCacheStats stats = new SecretCacheStats();
+    // Tras un refresco fallido no se vuelve a pedir el secreto antes de retryAfter
+    private volatile long retryAfter;
+    // Solo lo toca quien tiene refreshing
+    private long retryBackoffMillis;
+
+    public CachedSecretProvider(SecretSource source, String secretId, Function<String, T> parser,
+                                Duration ttl, Duration refreshAhead, Duration rotationGrace,
+                                Executor refreshExecutor, Clock clock) {
+        if (refreshAhead.compareTo(ttl) >= 0) {
+            throw new IllegalArgumentException("refreshAhead must be shorter than ttl");
+        }
+        this.source = source;
+        this.secretId = secretId;
+        this.parser = parser;
+        this.ttlMillis = ttl.toMillis();
+        this.refreshAheadMillis = refreshAhead.toMillis();
+        this.rotationGraceMillis = rotationGrace.toMillis();
+        this.refreshExecutor = refreshExecutor;
+        this.clock = clock;
+    }
+
+    public T get() {
+        return currentEntry().value;
+    }
+
+    // Valor actual más el anterior mientras siga dentro de la ventana de gracia
+    public List<T> getValidValues() {
+        Entry<T> current = currentEntry();
+        if (current.previous != null && clock.millis() < current.previousValidUntil) {
+            return List.of(current.value, current.previous);
+        }
+        return List.of(current.value);
+    }
+
+    public SecretCacheStats stats() {
+        return stats;
+    }
+
+    private Entry<T> currentEntry() {
+        Entry<T> current = entry.get();
+        long now = clock.millis();
+
+        if (current == null) {
+            stats.recordMiss();
+            return loadInitial();
+        }
+
+        long age = now - current.loadedAt;
+        if (age < ttlMillis - refreshAheadMillis) {
+            stats.recordHit();
+            return current;
+        }
+
+        if (now < retryAfter) {
+            // El último refresco falló: se sirve el valor anterior hasta que toque reintentar
+            stats.recordStale();
+            return current;
+        }
+
+        if (age < ttlMillis) {
+            // Cerca de expirar: servimos el valor actual y refrescamos en segundo plano
+            stats.recordHit();
+            if (refreshing.compareAndSet(false, true)) {
+                refreshExecutor.execute(this::refreshQuietly);
+            }
+            return current;
+        }
+
+        // Expirado: refresco síncrono, con el valor anterior como respaldo
+        stats.recordMiss();
+        if (refreshing.compareAndSet(false, true)) {
+            refreshQuietly();
+        } else {
+            stats.recordStale();
+        }
+        return entry.get();
+    }
+
+    private synchronized Entry<T> loadInitial() {
+        Entry<T> current = entry.get();
+        if (current != null) {
+            return current;
+        }
+        // Sin valor previo no hay respaldo posible: el error se propaga
+        Entry<T> loaded = load(null);
+        entry.set(loaded);
+        return loaded;
+    }
+
+    private void refreshQuietly() {
+        try {
+            entry.set(load(entry.get()));
+            retryBackoffMillis = 0;
+            retryAfter = 0;
+        } catch (Exception e) {
+            retryBackoffMillis = Math.min(Math.max(retryBackoffMillis * 2, MIN_RETRY_BACKOFF_MILLIS),
+                    MAX_RETRY_BACKOFF_MILLIS);
+            retryAfter = clock.millis() + retryBackoffMillis;
+            stats.recordRefreshFailure();
+            stats.recordStale();
+            System.err.println("Error refreshing secret " + secretId + ": " + e.getMessage());
+        } finally {
+            refreshing.set(false);
+        }
+    }
+
+    private Entry<T> load(Entry<T> previous) {
+        long start = System.nanoTime();
+        String raw = source.fetch(secretId);
+        stats.recordRefresh(System.nanoTime() - start);
+
+        long now = clock.millis();
+        if (previous == null) {
+            return new Entry<>(raw, parser.apply(raw), now, null, 0);
+        }
+        if (previous.raw.equals(raw)) {
+            // Mismo secreto: solo renovamos el TTL y mantenemos la gracia vigente
+            return new Entry<>(raw, previous.value, now, previous.previous, previous.previousValidUntil);
+        }
+        // Rotación: el valor anterior sigue aceptándose durante la gracia
+        return new Entry<>(raw, parser.apply(raw), now, previous.value, now + rotationGraceMillis);
+    }
+
+    private static final class Entry<T> {
+        private final String raw;
+        private final T value;
+        private final long loadedAt;
+        private final T previous;
+        private final long previousValidUntil;
+
+        private Entry(String raw, T value, long loadedAt, T previous, long previousValidUntil) {
+            this.raw = raw;
+            this.value = value;
+            this.loadedAt = loadedAt;
+            this.previous = previous;
+            this.previousValidUntil = previousValidUntil;
+        }
+    }
+}
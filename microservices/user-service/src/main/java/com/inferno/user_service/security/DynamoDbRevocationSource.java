@@ -0,0 +1,68 @@
+package com.inferno.user_service.security;
+
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Lista de revocación en DynamoDB: todas las entradas en una sola partición, ordenadas por
+// revokedAt en la sort key, así que "lo revocado desde X" es un Query por rango. Las revocaciones
+// son pocas (logout, cambio de clave) y el atributo ttl las borra cuando ya no hay tokens vigentes
+// que puedan afectar.
+public class DynamoDbRevocationSource implements RevocationSource {
+
+    static final String PARTITION = "REVOCATIONS";
+
+    private final DynamoDbClient dynamoDbClient;
+    private final String tableName;
+    private final long retentionSeconds;
+
+    public DynamoDbRevocationSource(DynamoDbClient dynamoDbClient, String tableName, Duration retention) {
+        this.dynamoDbClient = dynamoDbClient;
+        this.tableName = tableName;
+        this.retentionSeconds = retention.toSeconds();
+    }
+
+    @Override
+    public List<Revocation> fetchSince(long sinceMillis) {
+        QueryRequest request = QueryRequest.builder()
+                .tableName(tableName)
+                .keyConditionExpression("pk = :pk AND sk >= :since")
+                .expressionAttributeValues(Map.of(
+                        ":pk", AttributeValue.builder().s(PARTITION).build(),
+                        ":since", AttributeValue.builder().s(sortKeyPrefix(sinceMillis)).build()))
+                .consistentRead(true)
+                .build();
+        List<Revocation> revocations = new ArrayList<>();
+        dynamoDbClient.queryPaginator(request).items().forEach(item -> revocations.add(Revocation.of(
+                Revocation.Type.valueOf(item.get("type").s()),
+                item.get("value").s(),
+                Long.parseLong(item.get("revokedAt").n()))));
+        return revocations;
+    }
+
+    @Override
+    public void revoke(Revocation revocation) {
+        long revokedAt = revocation.getRevokedAtMillis();
+        Map<String, AttributeValue> item = new HashMap<>();
+        item.put("pk", AttributeValue.builder().s(PARTITION).build());
+        item.put("sk", AttributeValue.builder()
+                .s(sortKeyPrefix(revokedAt) + "#" + revocation.getType() + "#" + revocation.getValue())
+                .build());
+        item.put("type", AttributeValue.builder().s(revocation.getType().name()).build());
+        item.put("value", AttributeValue.builder().s(revocation.getValue()).build());
+        item.put("revokedAt", AttributeValue.builder().n(Long.toString(revokedAt)).build());
+        item.put("ttl", AttributeValue.builder().n(Long.toString(revokedAt / 1000 + retentionSeconds)).build());
+        dynamoDbClient.putItem(r -> r.tableName(tableName).item(item));
+    }
+
+    // Milisegundos con ancho fijo: el orden lexicográfico de la sort key es el orden temporal
+    private static String sortKeyPrefix(long millis) {
+        return String.format("%013d", millis);
+    }
+}
@@ -0,0 +1,29 @@
+package com.inferno.user_service.security;
+
+// Busca el mayor costo cuyo hash cabe en el presupuesto de latencia de esta máquina
+public final class HashCostCalibrator {
+
+    private static final String SAMPLE_PASSWORD = "calibration-Pa55word";
+
+    private HashCostCalibrator() {
+    }
+
+    public static int calibrate(PasswordHasher hasher, long budgetMillis, int floorCost) {
+        int cost = Math.max(floorCost, hasher.minCost());
+        // Primera pasada descartada: carga de clases y JIT
+        hasher.hash(SAMPLE_PASSWORD, hasher.minCost());
+
+        int best = cost;
+        while (cost <= hasher.maxCost()) {
+            long start = System.nanoTime();
+            hasher.hash(SAMPLE_PASSWORD, cost);
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            if (elapsedMillis > budgetMillis) {
+                break;
+            }
+            best = cost;
+            cost = hasher.nextCost(cost);
+        }
+        return best;
+    }
+}
@@ -0,0 +1,43 @@
+package com.inferno.user_service.security;
+
+import com.inferno.user_service.exception.ServiceUnavailableException;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Limita cuántos hashes corren a la vez. El trabajo se ejecuta en el hilo que llama
+// (sin cambio de hilo); si no hay cupo dentro del tiempo de espera, se rechaza con 503
+// en lugar de acumular peticiones que dejan sin CPU al resto del runtime.
+public class HashingExecutor {
+
+    private final Semaphore permits;
+    private final long maxWaitMillis;
+
+    public HashingExecutor(int maxConcurrent, long maxWaitMillis) {
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    public <T> T execute(Supplier<T> hashingWork) {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Password hashing interrupted");
+        }
+        if (!acquired) {
+            throw new ServiceUnavailableException("Too many concurrent login attempts, retry later");
+        }
+        try {
+            return hashingWork.get();
+        } finally {
+            permits.release();
+        }
+    }
+
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+}
@@ -0,0 +1,33 @@
+package com.inferno.user_service.security;
+
+import com.inferno.user_service.model.User;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+
+import java.util.Date;
+import java.util.UUID;
+
+// Emite los JWT de sesión firmados con HS256
+public class JwtIssuer {
+
+    static final long TOKEN_TTL_MILLIS = 3600 * 1000; // 1 hora
+
+    private final JwtKeyProvider keyProvider;
+
+    public JwtIssuer(JwtKeyProvider keyProvider) {
+        this.keyProvider = keyProvider;
+    }
+
+    public String issue(User user) {
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+                .setId(UUID.randomUUID().toString()) // jti: permite revocar este token en particular
+                .setSubject(user.getUuid()) // usamos uuid como subject
+                .claim("email", user.getEmail())
+                .claim("role", "USER")
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + TOKEN_TTL_MILLIS))
+                .signWith(keyProvider.signingKey(), SignatureAlgorithm.HS256)
+                .compact();
+    }
+}
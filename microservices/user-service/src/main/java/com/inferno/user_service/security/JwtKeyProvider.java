@@ -0,0 +1,87 @@
+package com.inferno.user_service.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inferno.user_service.config.AwsClientRegistry;
+import com.inferno.user_service.config.Lazy;
+import io.jsonwebtoken.security.Keys;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Claves HMAC para firmar/verificar JWT, cacheadas a partir del secreto "jwtSecret"
+public class JwtKeyProvider {
+
+    // Nombre del secreto en Secrets Manager (definido en Terraform)
+    public static final String SECRET_NAME = "jwtSecret";
+    // el secreto lo guardamos como JSON { "JWT_SECRET": "valor" }
+    public static final String SECRET_FIELD = "JWT_SECRET";
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private static final Lazy<ExecutorService> REFRESH_EXECUTOR = new Lazy<>(() ->
+            Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "jwt-secret-refresh");
+                thread.setDaemon(true);
+                return thread;
+            }));
+
+    private static final Lazy<JwtKeyProvider> INSTANCE = new Lazy<>(() ->
+            create(new SecretsManagerSecretSource(AwsClientRegistry.getInstance().secretsManagerClient())));
+
+    private final CachedSecretProvider<Key> keys;
+
+    public JwtKeyProvider(CachedSecretProvider<Key> keys) {
+        this.keys = keys;
+    }
+
+    public static JwtKeyProvider getInstance() {
+        return INSTANCE.get();
+    }
+
+    public static JwtKeyProvider create(SecretSource source) {
+        Duration ttl = Duration.ofSeconds(Long.parseLong(env("JWT_SECRET_TTL_SECONDS", "300")));
+        Duration refreshAhead = Duration.ofSeconds(Long.parseLong(env("JWT_SECRET_REFRESH_AHEAD_SECONDS", "60")));
+        Duration grace = Duration.ofSeconds(Long.parseLong(env("JWT_KEY_ROTATION_GRACE_SECONDS", "3600")));
+        return new JwtKeyProvider(new CachedSecretProvider<>(source, SECRET_NAME, JwtKeyProvider::parseKey,
+                ttl, refreshAhead, grace, REFRESH_EXECUTOR.get(), Clock.systemUTC()));
+    }
+
+    public static Key parseKey(String secretString) {
+        try {
+            JsonNode node = OBJECT_MAPPER.readTree(secretString);
+            JsonNode value = node.get(SECRET_FIELD);
+            if (value == null || value.asText().isEmpty()) {
+                throw new IllegalStateException(SECRET_FIELD + " missing in secret " + SECRET_NAME);
+            }
+            return Keys.hmacShaKeyFor(value.asText().getBytes(StandardCharsets.UTF_8));
+        } catch (IllegalStateException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException("Error obteniendo JWT_SECRET desde Secrets Manager", e);
+        }
+    }
+
+    public Key signingKey() {
+        return keys.get();
+    }
+
+    // Clave actual y, durante una rotación, también la anterior
+    public List<Key> verificationKeys() {
+        return keys.getValidValues();
+    }
+
+    public SecretCacheStats stats() {
+        return keys.stats();
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+}
@@ -0,0 +1,184 @@
+package com.inferno.user_service.security;
+
+import com.inferno.user_service.config.AwsClientRegistry;
+import com.inferno.user_service.config.Lazy;
+import com.inferno.user_service.exception.UnauthorizedException;
+import com.inferno.user_service.metrics.InvocationMetrics;
+import com.inferno.user_service.metrics.Stage;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.SignatureException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Verifica los JWT HS256 que emite LoginUserLambda sin ir a Secrets Manager ni a la base:
+// - las claves salen de JwtKeyProvider (cacheadas; durante una rotación valen la actual y la anterior)
+// - los claims de un token ya verificado se sirven desde TokenClaimsCache por su SHA-256
+// - la revocación se consulta en cada llamada, también en los aciertos de caché, contra la copia
+//   local de la lista (opcional, TOKEN_REVOCATION_TABLE)
+public class JwtVerifier {
+
+    private static final Lazy<ExecutorService> REFRESH_EXECUTOR = new Lazy<>(() ->
+            Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "token-revocation-refresh");
+                thread.setDaemon(true);
+                return thread;
+            }));
+
+    private static final Lazy<JwtVerifier> INSTANCE = new Lazy<>(JwtVerifier::fromEnvironment);
+
+    // Las revocaciones dejan de importar cuando vence el último token que podían afectar
+    static final Duration REVOCATION_RETENTION = Duration.ofMillis(JwtIssuer.TOKEN_TTL_MILLIS).plusMinutes(5);
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private final JwtKeyProvider keyProvider;
+    private final TokenClaimsCache claimsCache;
+    private final TokenRevocationList revocations;
+    private final Clock clock;
+    // Un parser por clave: armarlo en cada verificación cuesta más que verificar
+    private final Map<Key, JwtParser> parsers = new ConcurrentHashMap<>();
+
+    public JwtVerifier(JwtKeyProvider keyProvider, TokenClaimsCache claimsCache, TokenRevocationList revocations,
+                       Clock clock) {
+        this.keyProvider = keyProvider;
+        this.claimsCache = claimsCache;
+        this.revocations = revocations;
+        this.clock = clock;
+    }
+
+    public static JwtVerifier getInstance() {
+        return INSTANCE.get();
+    }
+
+    public static JwtVerifier fromEnvironment() {
+        Clock clock = Clock.systemUTC();
+        TokenClaimsCache claimsCache = new TokenClaimsCache(
+                Integer.parseInt(env("JWT_CLAIMS_CACHE_MAX_ENTRIES", "10000")),
+                Duration.ofSeconds(Long.parseLong(env("JWT_CLAIMS_CACHE_TTL_SECONDS", "300"))),
+                clock);
+        String table = System.getenv("TOKEN_REVOCATION_TABLE");
+        TokenRevocationList revocations = null;
+        if (table != null && !table.isBlank()) {
+            revocations = new TokenRevocationList(
+                    new DynamoDbRevocationSource(AwsClientRegistry.getInstance().dynamoDbClient(), table,
+                            REVOCATION_RETENTION),
+                    Duration.ofSeconds(Long.parseLong(env("TOKEN_REVOCATION_REFRESH_SECONDS", "30"))),
+                    REVOCATION_RETENTION, REFRESH_EXECUTOR.get(), clock);
+        }
+        return new JwtVerifier(JwtKeyProvider.getInstance(), claimsCache, revocations, clock);
+    }
+
+    // "Bearer <token>" o el token solo; null si no hay cabecera
+    public static String bearerToken(String authorization) {
+        if (authorization == null) {
+            return null;
+        }
+        String value = authorization.trim();
+        if (value.regionMatches(true, 0, "Bearer ", 0, 7)) {
+            return value.substring(7).trim();
+        }
+        return value;
+    }
+
+    public VerifiedToken verify(String token) {
+        if (token == null || token.isEmpty()) {
+            throw new UnauthorizedException("Missing token");
+        }
+        long start = System.nanoTime();
+        try {
+            String tokenHash = hash(token);
+            VerifiedToken verified = claimsCache.get(tokenHash);
+            if (verified == null) {
+                verified = parse(token);
+                claimsCache.put(tokenHash, verified);
+            }
+            if (revocations != null && revocations.isRevoked(verified)) {
+                throw new UnauthorizedException("Token revoked");
+            }
+            return verified;
+        } finally {
+            InvocationMetrics.record(Stage.JWT_VERIFY, start);
+        }
+    }
+
+    public TokenClaimsCache claimsCache() {
+        return claimsCache;
+    }
+
+    public TokenRevocationList revocations() {
+        return revocations;
+    }
+
+    private VerifiedToken parse(String token) {
+        for (Key key : keyProvider.verificationKeys()) {
+            try {
+                Claims claims = parser(key).parseClaimsJws(token).getBody();
+                if (claims.getExpiration() == null || claims.getSubject() == null) {
+                    throw new UnauthorizedException("Invalid token");
+                }
+                Date issuedAt = claims.getIssuedAt();
+                return new VerifiedToken(
+                        claims.getSubject(),
+                        claims.get("email", String.class),
+                        claims.get("role", String.class),
+                        claims.getId(),
+                        issuedAt == null ? 0L : issuedAt.getTime(),
+                        claims.getExpiration().getTime());
+            } catch (SignatureException e) {
+                // Firmado con otra clave: se prueba con la anterior, si hay rotación en curso
+            } catch (ExpiredJwtException e) {
+                throw new UnauthorizedException("Token expired");
+            } catch (JwtException | IllegalArgumentException e) {
+                throw new UnauthorizedException("Invalid token");
+            }
+        }
+        throw new UnauthorizedException("Invalid token");
+    }
+
+    private JwtParser parser(Key key) {
+        JwtParser parser = parsers.get(key);
+        if (parser == null) {
+            if (parsers.size() > 4) {
+                parsers.clear(); // claves de rotaciones pasadas
+            }
+            parser = Jwts.parserBuilder()
+                    .setSigningKey(key)
+                    .setClock(() -> new Date(clock.millis()))
+                    .build();
+            parsers.put(key, parser);
+        }
+        return parser;
+    }
+
+    private static String hash(String token) {
+        MessageDigest digest = SHA_256.get();
+        byte[] hash = digest.digest(token.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+}
@@ -0,0 +1,24 @@
+package com.inferno.user_service.security;
+
+// Algoritmo de hash de contraseñas con un parámetro de costo ajustable
+public interface PasswordHasher {
+
+    // Identificador que se guarda como prefijo del hash: {id}...
+    String id();
+
+    String hash(CharSequence plainPassword, int cost);
+
+    boolean matches(CharSequence plainPassword, String encoded);
+
+    // Costo con el que se generó un hash guardado
+    int costOf(String encoded);
+
+    int minCost();
+
+    int maxCost();
+
+    // Siguiente costo a probar al calibrar (más caro que el actual)
+    default int nextCost(int cost) {
+        return cost + 1;
+    }
+}
@@ -1,22 +1,131 @@
 package com.inferno.user_service.security;
 
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import com.inferno.user_service.config.Lazy;
 import org.springframework.stereotype.Service;
 
+import java.util.HashMap;
+import java.util.Map;
+
+// Hash de contraseñas con algoritmo intercambiable. Cada hash guardado lleva su
+// algoritmo como prefijo ({bcrypt}, {argon2}, {pbkdf2}) y su costo; los hashes
+// antiguos sin prefijo son BCrypt.
 @Service
 public class PasswordService {
 
-    private final BCryptPasswordEncoder passwordEncoder;
+    private static final Lazy<PasswordService> SHARED = new Lazy<>(PasswordService::fromEnvironment);
+
+    private final Map<String, PasswordHasher> hashers = new HashMap<>();
+    private final PasswordHasher targetHasher;
+    private final int targetCost;
+    private final HashingExecutor executor;
 
     public PasswordService() {
-        this.passwordEncoder = new BCryptPasswordEncoder();
+        this(new BCryptPasswordHasher(), 10, new HashingExecutor(Runtime.getRuntime().availableProcessors(), 2000));
+    }
+
+    public PasswordService(PasswordHasher targetHasher, int targetCost, HashingExecutor executor) {
+        this.targetHasher = targetHasher;
+        this.targetCost = targetCost;
+        this.executor = executor;
+        register(new BCryptPasswordHasher());
+        register(new Argon2PasswordHasher(Integer.parseInt(env("ARGON2_MEMORY_KB", "16384"))));
+        register(new Pbkdf2PasswordHasher());
+        register(targetHasher);
+    }
+
+    // Instancia compartida por proceso: la calibración se hace una sola vez
+    public static PasswordService shared() {
+        return SHARED.get();
+    }
+
+    public static PasswordService fromEnvironment() {
+        String algorithm = env("PASSWORD_HASH_ALGORITHM", BCryptPasswordHasher.ID);
+        PasswordHasher hasher = switch (algorithm) {
+            case BCryptPasswordHasher.ID -> new BCryptPasswordHasher();
+            case Argon2PasswordHasher.ID -> new Argon2PasswordHasher(Integer.parseInt(env("ARGON2_MEMORY_KB", "16384")));
+            case Pbkdf2PasswordHasher.ID -> new Pbkdf2PasswordHasher();
+            default -> throw new IllegalArgumentException("Unknown password hash algorithm: " + algorithm);
+        };
+
+        int cost = Integer.parseInt(env("PASSWORD_HASH_COST", String.valueOf(defaultCost(hasher))));
+        String budget = System.getenv("PASSWORD_HASH_BUDGET_MS");
+        if (budget != null && !budget.isBlank()) {
+            // Con presupuesto configurado, el costo configurado pasa a ser el mínimo
+            cost = HashCostCalibrator.calibrate(hasher, Long.parseLong(budget), cost);
+        }
+
+        HashingExecutor executor = new HashingExecutor(
+                Integer.parseInt(env("PASSWORD_HASH_MAX_CONCURRENT", String.valueOf(Runtime.getRuntime().availableProcessors()))),
+                Long.parseLong(env("PASSWORD_HASH_MAX_WAIT_MS", "2000")));
+        return new PasswordService(hasher, cost, executor);
     }
 
     public String encryptPassword(String plainPassword) {
-        return passwordEncoder.encode(plainPassword);
+        return executor.execute(() -> encode(plainPassword));
     }
 
     public boolean verifyPassword(String plainPassword, String encryptedPassword) {
-        return passwordEncoder.matches(plainPassword, encryptedPassword);
+        return verify(plainPassword, encryptedPassword).isMatched();
+    }
+
+    // Verifica y, si el hash guardado usa otro algoritmo o un costo menor al objetivo, devuelve uno
+    // nuevo. Un costo mayor no se rebaja: targetCost se calibra por contenedor y varía entre ellos
+    public PasswordVerification verify(String plainPassword, String encryptedPassword) {
+        if (plainPassword == null || encryptedPassword == null) {
+            return PasswordVerification.noMatch();
+        }
+        return executor.execute(() -> {
+            PasswordHasher hasher = hasherFor(encryptedPassword);
+            String encoded = stripPrefix(encryptedPassword);
+            if (hasher == null || !hasher.matches(plainPassword, encoded)) {
+                return PasswordVerification.noMatch();
+            }
+            boolean upToDate = hasher == targetHasher && hasher.costOf(encoded) >= targetCost;
+            return PasswordVerification.matched(upToDate ? null : encode(plainPassword));
+        });
+    }
+
+    public int getTargetCost() {
+        return targetCost;
+    }
+
+    public String getTargetAlgorithm() {
+        return targetHasher.id();
+    }
+
+    private String encode(String plainPassword) {
+        return "{" + targetHasher.id() + "}" + targetHasher.hash(plainPassword, targetCost);
+    }
+
+    private PasswordHasher hasherFor(String encryptedPassword) {
+        if (!encryptedPassword.startsWith("{")) {
+            return hashers.get(BCryptPasswordHasher.ID);
+        }
+        int end = encryptedPassword.indexOf('}');
+        return end < 0 ? null : hashers.get(encryptedPassword.substring(1, end));
+    }
+
+    private static String stripPrefix(String encryptedPassword) {
+        if (!encryptedPassword.startsWith("{")) {
+            return encryptedPassword;
+        }
+        return encryptedPassword.substring(encryptedPassword.indexOf('}') + 1);
+    }
+
+    private void register(PasswordHasher hasher) {
+        hashers.put(hasher.id(), hasher);
+    }
+
+    private static int defaultCost(PasswordHasher hasher) {
+        return switch (hasher.id()) {
+            case Argon2PasswordHasher.ID -> 3;
+            case Pbkdf2PasswordHasher.ID -> 310_000;
+            default -> 10;
+        };
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? defaultValue : value;
     }
-}
\ No newline at end of file
+}
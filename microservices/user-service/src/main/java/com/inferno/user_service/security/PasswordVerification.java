@@ -0,0 +1,32 @@
+package com.inferno.user_service.security;
+
+// Resultado de verificar una contraseña: si coincide y, si hace falta, el hash nuevo
+public class PasswordVerification {
+
+    private static final PasswordVerification NO_MATCH = new PasswordVerification(false, null);
+
+    private final boolean matched;
+    private final String upgradedHash;
+
+    private PasswordVerification(boolean matched, String upgradedHash) {
+        this.matched = matched;
+        this.upgradedHash = upgradedHash;
+    }
+
+    static PasswordVerification noMatch() {
+        return NO_MATCH;
+    }
+
+    static PasswordVerification matched(String upgradedHash) {
+        return new PasswordVerification(true, upgradedHash);
+    }
+
+    public boolean isMatched() {
+        return matched;
+    }
+
+    // null si el hash guardado ya usa el algoritmo y costo objetivo
+    public String getUpgradedHash() {
+        return upgradedHash;
+    }
+}
@@ -0,0 +1,74 @@
+package com.inferno.user_service.security;
+
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+// PBKDF2-HMAC-SHA256. El hash de Spring no guarda las iteraciones, así que
+// las anteponemos nosotros: <iteraciones>$<hash>
+public class Pbkdf2PasswordHasher implements PasswordHasher {
+
+    public static final String ID = "pbkdf2";
+
+    private static final int SALT_LENGTH = 16;
+
+    @Override
+    public String id() {
+        return ID;
+    }
+
+    @Override
+    public String hash(CharSequence plainPassword, int cost) {
+        return cost + "$" + encoder(cost).encode(plainPassword);
+    }
+
+    // Un hash guardado mal formado (iteraciones no numéricas o fuera de rango) no verifica
+    @Override
+    public boolean matches(CharSequence plainPassword, String encoded) {
+        int iterations = iterationsOf(encoded);
+        if (iterations < minCost() || iterations > maxCost()) {
+            return false;
+        }
+        return encoder(iterations).matches(plainPassword, encoded.substring(encoded.indexOf('$') + 1));
+    }
+
+    @Override
+    public int costOf(String encoded) {
+        int iterations = iterationsOf(encoded);
+        if (iterations < 0) {
+            throw new IllegalArgumentException("Invalid PBKDF2 hash");
+        }
+        return iterations;
+    }
+
+    // -1 si el prefijo de iteraciones falta o no es un número
+    private static int iterationsOf(String encoded) {
+        int separator = encoded.indexOf('$');
+        if (separator < 1) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(encoded.substring(0, separator));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    @Override
+    public int minCost() {
+        return 100_000;
+    }
+
+    @Override
+    public int maxCost() {
+        return 10_000_000;
+    }
+
+    @Override
+    public int nextCost(int cost) {
+        return cost + cost / 2;
+    }
+
+    private Pbkdf2PasswordEncoder encoder(int iterations) {
+        return new Pbkdf2PasswordEncoder("", SALT_LENGTH, iterations,
+                Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256);
+    }
+}
@@ -0,0 +1,42 @@
+package com.inferno.user_service.security;
+
+// Una entrada de la lista de revocación: un token concreto (por jti) o todos los tokens de un
+// usuario emitidos hasta revokedAt (cierre de sesión en todos los dispositivos, cambio de clave)
+public final class Revocation {
+
+    public enum Type { TOKEN, SUBJECT }
+
+    private final Type type;
+    private final String value;
+    private final long revokedAtMillis;
+
+    private Revocation(Type type, String value, long revokedAtMillis) {
+        this.type = type;
+        this.value = value;
+        this.revokedAtMillis = revokedAtMillis;
+    }
+
+    public static Revocation token(String tokenId, long revokedAtMillis) {
+        return new Revocation(Type.TOKEN, tokenId, revokedAtMillis);
+    }
+
+    public static Revocation subject(String subject, long revokedAtMillis) {
+        return new Revocation(Type.SUBJECT, subject, revokedAtMillis);
+    }
+
+    public static Revocation of(Type type, String value, long revokedAtMillis) {
+        return new Revocation(type, value, revokedAtMillis);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public long getRevokedAtMillis() {
+        return revokedAtMillis;
+    }
+}
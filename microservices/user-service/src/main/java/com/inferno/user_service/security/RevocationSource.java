@@ -0,0 +1,13 @@
+package com.inferno.user_service.security;
+
+import java.util.List;
+
+// Origen de la lista de revocación (DynamoDB en Lambda). Se lee de forma incremental: cada
+// contenedor pide solo lo revocado desde su última lectura.
+public interface RevocationSource {
+
+    // Revocaciones con revokedAt >= sinceMillis, en orden de revokedAt
+    List<Revocation> fetchSince(long sinceMillis);
+
+    void revoke(Revocation revocation);
+}
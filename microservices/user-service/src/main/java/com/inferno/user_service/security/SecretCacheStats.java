@@ -0,0 +1,81 @@
+package com.inferno.user_service.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Contadores de la caché de secretos: aciertos, fallos y latencia de refresco
+public class SecretCacheStats {
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong refreshes = new AtomicLong();
+    private final AtomicLong refreshFailures = new AtomicLong();
+    private final AtomicLong staleServed = new AtomicLong();
+    private final AtomicLong totalRefreshNanos = new AtomicLong();
+    private final AtomicLong lastRefreshNanos = new AtomicLong();
+
+    void recordHit() {
+        hits.incrementAndGet();
+    }
+
+    void recordMiss() {
+        misses.incrementAndGet();
+    }
+
+    void recordStale() {
+        staleServed.incrementAndGet();
+    }
+
+    void recordRefresh(long nanos) {
+        refreshes.incrementAndGet();
+        totalRefreshNanos.addAndGet(nanos);
+        lastRefreshNanos.set(nanos);
+    }
+
+    void recordRefreshFailure() {
+        refreshFailures.incrementAndGet();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getRefreshes() {
+        return refreshes.get();
+    }
+
+    public long getRefreshFailures() {
+        return refreshFailures.get();
+    }
+
+    public long getStaleServed() {
+        return staleServed.get();
+    }
+
+    public double getHitRatio() {
+        long total = hits.get() + misses.get();
+        return total == 0 ? 0.0 : (double) hits.get() / total;
+    }
+
+    public double getAverageRefreshMillis() {
+        long count = refreshes.get();
+        return count == 0 ? 0.0 : totalRefreshNanos.get() / 1_000_000.0 / count;
+    }
+
+    public double getLastRefreshMillis() {
+        return lastRefreshNanos.get() / 1_000_000.0;
+    }
+
+    @Override
+    public String toString() {
+        return "SecretCacheStats{hits=" + getHits()
+                + ", misses=" + getMisses()
+                + ", refreshes=" + getRefreshes()
+                + ", refreshFailures=" + getRefreshFailures()
+                + ", staleServed=" + getStaleServed()
+                + ", avgRefreshMs=" + getAverageRefreshMillis() + "}";
+    }
+}
@@ -0,0 +1,7 @@
+package com.inferno.user_service.security;
+
+// Origen de secretos (Secrets Manager en AWS, en memoria para pruebas)
+public interface SecretSource {
+
+    String fetch(String secretId);
+}
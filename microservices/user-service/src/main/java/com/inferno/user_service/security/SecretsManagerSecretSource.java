@@ -0,0 +1,21 @@
+package com.inferno.user_service.security;
+
+import software.amazon.awssdk.services.secretsmanager.SecretsManagerClient;
+import software.amazon.awssdk.services.secretsmanager.model.GetSecretValueRequest;
+
+public class SecretsManagerSecretSource implements SecretSource {
+
+    private final SecretsManagerClient client;
+
+    public SecretsManagerSecretSource(SecretsManagerClient client) {
+        this.client = client;
+    }
+
+    @Override
+    public String fetch(String secretId) {
+        return client.getSecretValue(GetSecretValueRequest.builder()
+                        .secretId(secretId)
+                        .build())
+                .secretString();
+    }
+}
@@ -0,0 +1,112 @@
+package com.inferno.user_service.security;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Claims de tokens verificados hace poco, por SHA-256 del token (el token en sí no se guarda).
+// Cada entrada vence con el token o a los maxTtl, lo que ocurra antes: así una clave retirada
+// deja de aceptarse a lo sumo maxTtl después. Al llenarse se descartan primero las vencidas y, si
+// no alcanza, la más próxima a vencer entre una muestra.
+public class TokenClaimsCache {
+
+    private static final int EVICTION_SAMPLE = 16;
+    private static final long SWEEP_INTERVAL_MILLIS = 1_000;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final long maxTtlMillis;
+    private final Clock clock;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong nextSweep = new AtomicLong(Long.MIN_VALUE);
+
+    public TokenClaimsCache(int maxEntries, Duration maxTtl, Clock clock) {
+        this.maxEntries = maxEntries;
+        this.maxTtlMillis = maxTtl.toMillis();
+        this.clock = clock;
+    }
+
+    public VerifiedToken get(String tokenHash) {
+        Entry entry = entries.get(tokenHash);
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        if (clock.millis() >= entry.expiresAt) {
+            entries.remove(tokenHash, entry);
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.token;
+    }
+
+    public void put(String tokenHash, VerifiedToken token) {
+        if (maxEntries <= 0) {
+            return;
+        }
+        long now = clock.millis();
+        long expiresAt = Math.min(token.getExpiresAtMillis(), now + maxTtlMillis);
+        if (expiresAt <= now) {
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            evict(now);
+        }
+        entries.put(tokenHash, new Entry(token, expiresAt));
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    private void evict(long now) {
+        // Barrido completo de vencidas a lo sumo una vez por segundo; entre barridos, muestreo
+        long scheduled = nextSweep.get();
+        if (now >= scheduled && nextSweep.compareAndSet(scheduled, now + SWEEP_INTERVAL_MILLIS)) {
+            entries.values().removeIf(entry -> now >= entry.expiresAt);
+            if (entries.size() < maxEntries) {
+                return;
+            }
+        }
+        String soonest = null;
+        long soonestExpiry = Long.MAX_VALUE;
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        for (int i = 0; i < EVICTION_SAMPLE && iterator.hasNext(); i++) {
+            Map.Entry<String, Entry> candidate = iterator.next();
+            if (candidate.getValue().expiresAt < soonestExpiry) {
+                soonestExpiry = candidate.getValue().expiresAt;
+                soonest = candidate.getKey();
+            }
+        }
+        if (soonest != null) {
+            entries.remove(soonest);
+        }
+    }
+
+    private static final class Entry {
+        private final VerifiedToken token;
+        private final long expiresAt;
+
+        private Entry(VerifiedToken token, long expiresAt) {
+            this.token = token;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
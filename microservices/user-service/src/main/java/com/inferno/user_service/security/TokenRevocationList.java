@@ -0,0 +1,131 @@
+package com.inferno.user_service.security;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Copia en memoria de la lista de revocación, cargada de forma incremental.
+// - La primera consulta carga lo revocado dentro de la retención (la vida máxima de un token).
+// - Después, cada refreshInterval pide solo lo nuevo desde el último revokedAt visto, en segundo
+//   plano; mientras tanto se sigue respondiendo con la copia actual.
+// - Se relee un pequeño solape hacia atrás por si otro escritor tiene el reloj atrasado.
+// - Si el origen falla se conserva la última copia buena y se reintenta en el siguiente ciclo.
+public class TokenRevocationList {
+
+    private static final long OVERLAP_MILLIS = 5_000;
+
+    private final RevocationSource source;
+    private final long refreshIntervalMillis;
+    private final long retentionMillis;
+    private final Executor refreshExecutor;
+    private final Clock clock;
+
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+    private final Map<String, Long> revokedSubjects = new ConcurrentHashMap<>();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private volatile boolean loaded;
+    private volatile long cursor;
+    private volatile long nextRefreshAt;
+
+    public TokenRevocationList(RevocationSource source, Duration refreshInterval, Duration retention,
+                               Executor refreshExecutor, Clock clock) {
+        this.source = source;
+        this.refreshIntervalMillis = refreshInterval.toMillis();
+        this.retentionMillis = retention.toMillis();
+        this.refreshExecutor = refreshExecutor;
+        this.clock = clock;
+    }
+
+    public boolean isRevoked(VerifiedToken token) {
+        refreshIfDue();
+        if (token.getTokenId() != null && revokedTokens.containsKey(token.getTokenId())) {
+            return true;
+        }
+        Long subjectRevokedAt = revokedSubjects.get(token.getSubject());
+        // iat tiene precisión de segundos: ante la duda el token se considera revocado
+        return subjectRevokedAt != null && token.getIssuedAtMillis() <= subjectRevokedAt;
+    }
+
+    // Escribe en el origen y aplica en este contenedor sin esperar al próximo refresco
+    public void revoke(Revocation revocation) {
+        source.revoke(revocation);
+        apply(revocation);
+    }
+
+    public int size() {
+        return revokedTokens.size() + revokedSubjects.size();
+    }
+
+    public long getLoadCount() {
+        return loads.get();
+    }
+
+    public long getFailureCount() {
+        return failures.get();
+    }
+
+    private void refreshIfDue() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    cursor = clock.millis() - retentionMillis;
+                    refresh();
+                    loaded = true;
+                }
+            }
+            return;
+        }
+        if (clock.millis() >= nextRefreshAt && refreshing.compareAndSet(false, true)) {
+            try {
+                refreshExecutor.execute(() -> {
+                    try {
+                        refresh();
+                    } finally {
+                        refreshing.set(false);
+                    }
+                });
+            } catch (RuntimeException e) {
+                refreshing.set(false);
+                failures.incrementAndGet();
+            }
+        }
+    }
+
+    private void refresh() {
+        long now = clock.millis();
+        try {
+            List<Revocation> batch = source.fetchSince(cursor - OVERLAP_MILLIS);
+            long newest = cursor;
+            for (Revocation revocation : batch) {
+                apply(revocation);
+                newest = Math.max(newest, revocation.getRevokedAtMillis());
+            }
+            cursor = newest;
+            loads.incrementAndGet();
+            purge(now - retentionMillis);
+        } catch (RuntimeException e) {
+            failures.incrementAndGet();
+            System.err.println("Error refreshing token revocation list: " + e.getMessage());
+        } finally {
+            nextRefreshAt = now + refreshIntervalMillis;
+        }
+    }
+
+    private void apply(Revocation revocation) {
+        Map<String, Long> target = revocation.getType() == Revocation.Type.TOKEN ? revokedTokens : revokedSubjects;
+        target.merge(revocation.getValue(), revocation.getRevokedAtMillis(), Math::max);
+    }
+
+    // Pasada la retención ningún token afectado sigue vigente
+    private void purge(long oldest) {
+        revokedTokens.values().removeIf(revokedAt -> revokedAt < oldest);
+        revokedSubjects.values().removeIf(revokedAt -> revokedAt < oldest);
+    }
+}
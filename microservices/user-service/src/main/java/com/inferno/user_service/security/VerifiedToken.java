@@ -0,0 +1,47 @@
+package com.inferno.user_service.security;
+
+// Claims de un JWT ya verificado; lo que se guarda en la caché en lugar del token
+public final class VerifiedToken {
+
+    private final String subject;
+    private final String email;
+    private final String role;
+    private final String tokenId;
+    private final long issuedAtMillis;
+    private final long expiresAtMillis;
+
+    public VerifiedToken(String subject, String email, String role, String tokenId,
+                         long issuedAtMillis, long expiresAtMillis) {
+        this.subject = subject;
+        this.email = email;
+        this.role = role;
+        this.tokenId = tokenId;
+        this.issuedAtMillis = issuedAtMillis;
+        this.expiresAtMillis = expiresAtMillis;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    // jti; null en tokens emitidos antes de que se agregara
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    public long getIssuedAtMillis() {
+        return issuedAtMillis;
+    }
+
+    public long getExpiresAtMillis() {
+        return expiresAtMillis;
+    }
+}
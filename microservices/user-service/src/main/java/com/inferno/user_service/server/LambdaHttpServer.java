@@ -0,0 +1,243 @@
+package com.inferno.user_service.server;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Servidor HTTP embebido (com.sun.net.httpserver, sin dependencias) que expone handlers de Lambda.
+// Cada petición se traduce al evento proxy de API Gateway y la respuesta de vuelta a HTTP.
+// - Con Java 21+ cada petición corre en un hilo virtual.
+// - En Java 17 corre en un pool acotado; si la cola se llena, la petición se ejecuta en el hilo
+//   que acepta conexiones, lo que frena la aceptación en lugar de descartar peticiones.
+public final class LambdaHttpServer {
+
+    static {
+        // Sin TCP_NODELAY, cabeceras y cuerpo salen en escrituras separadas y el ACK retardado
+        // del cliente suma ~40 ms a cada respuesta; debe fijarse antes de crear el primer servidor
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final List<Route> routes;
+
+    private LambdaHttpServer(HttpServer server, ExecutorService executor, List<Route> routes) {
+        this.server = server;
+        this.executor = executor;
+        this.routes = routes;
+    }
+
+    public static LambdaHttpServer create(InetSocketAddress address, List<Route> routes,
+                                          ExecutorService executor) throws IOException {
+        HttpServer server = HttpServer.create(address, 0);
+        LambdaHttpServer lambdaServer = new LambdaHttpServer(server, executor, List.copyOf(routes));
+        server.createContext("/", lambdaServer::dispatch);
+        server.setExecutor(executor);
+        return lambdaServer;
+    }
+
+    // Hilos virtuales si el runtime los tiene; si no, pool fijo con cola acotada
+    public static ExecutorService requestExecutor(int threads, int queueCapacity) {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (NoSuchMethodException e) {
+            // Java 17: sin hilos virtuales
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not create virtual thread executor", e);
+        }
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), requestThreads(), new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public List<Route> getRoutes() {
+        return routes;
+    }
+
+    private void dispatch(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String path = exchange.getRequestURI().getRawPath();
+            String method = exchange.getRequestMethod().toUpperCase();
+
+            Route route = null;
+            Map<String, String> pathParameters = null;
+            boolean pathMatched = false;
+            for (Route candidate : routes) {
+                Map<String, String> parameters = candidate.match(path);
+                if (parameters == null) {
+                    continue;
+                }
+                pathMatched = true;
+                if (candidate.getMethod().equals(method)) {
+                    route = candidate;
+                    pathParameters = parameters;
+                    break;
+                }
+            }
+            if (route == null) {
+                sendError(exchange, pathMatched ? 405 : 404, pathMatched ? "Method not allowed" : "Not found");
+                return;
+            }
+
+            APIGatewayProxyRequestEvent event = toEvent(exchange, route, path, pathParameters);
+            APIGatewayProxyResponseEvent response;
+            try {
+                response = route.getHandler().handleRequest(event,
+                        new ServerContext(UUID.randomUUID().toString(), route.getTemplate()));
+            } catch (RuntimeException e) {
+                System.err.println("Unhandled error in " + method + " " + route.getTemplate() + ": " + e.getMessage());
+                sendError(exchange, 500, "Internal server error");
+                return;
+            }
+            send(exchange, response);
+        }
+    }
+
+    private static APIGatewayProxyRequestEvent toEvent(HttpExchange exchange, Route route, String path,
+                                                       Map<String, String> pathParameters) throws IOException {
+        Map<String, String> headers = new LinkedHashMap<>();
+        Map<String, List<String>> multiValueHeaders = new LinkedHashMap<>();
+        exchange.getRequestHeaders().forEach((name, values) -> {
+            headers.put(name, values.get(0));
+            multiValueHeaders.put(name, values);
+        });
+
+        String body;
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] bytes = in.readAllBytes();
+            body = bytes.length == 0 ? null : new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        Map<String, String> query = queryParameters(exchange.getRequestURI());
+        return new APIGatewayProxyRequestEvent()
+                .withHttpMethod(route.getMethod())
+                .withResource(route.getTemplate())
+                .withPath(URLDecoder.decode(path, StandardCharsets.UTF_8))
+                .withHeaders(headers)
+                .withMultiValueHeaders(multiValueHeaders)
+                .withQueryStringParameters(query.isEmpty() ? null : query)
+                .withPathParameters(pathParameters.isEmpty() ? null : decodeValues(pathParameters))
+                .withBody(body)
+                .withIsBase64Encoded(false)
+                .withRequestContext(new APIGatewayProxyRequestEvent.ProxyRequestContext()
+                        .withHttpMethod(route.getMethod())
+                        .withResourcePath(route.getTemplate())
+                        .withIdentity(new APIGatewayProxyRequestEvent.RequestIdentity()
+                                .withSourceIp(exchange.getRemoteAddress().getAddress().getHostAddress())));
+    }
+
+    private static void send(HttpExchange exchange, APIGatewayProxyResponseEvent response) throws IOException {
+        if (response == null) {
+            sendError(exchange, 502, "Handler returned no response");
+            return;
+        }
+        Headers responseHeaders = exchange.getResponseHeaders();
+        if (response.getHeaders() != null) {
+            response.getHeaders().forEach(responseHeaders::set);
+        }
+        if (response.getMultiValueHeaders() != null) {
+            response.getMultiValueHeaders().forEach((name, values) ->
+                    responseHeaders.put(name, new ArrayList<>(values)));
+        }
+
+        byte[] body;
+        if (response.getBody() == null) {
+            body = new byte[0];
+        } else if (Boolean.TRUE.equals(response.getIsBase64Encoded())) {
+            body = Base64.getDecoder().decode(response.getBody());
+        } else {
+            body = response.getBody().getBytes(StandardCharsets.UTF_8);
+        }
+        int status = response.getStatusCode() == null ? 200 : response.getStatusCode();
+        write(exchange, status, body);
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        write(exchange, status, ("{\"error\": \"" + message + "\"}").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void write(HttpExchange exchange, int status, byte[] body) throws IOException {
+        // -1: respuesta sin cuerpo
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        if (body.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    private static Map<String, String> queryParameters(URI uri) {
+        Map<String, String> parameters = new LinkedHashMap<>();
+        String rawQuery = uri.getRawQuery();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return parameters;
+        }
+        for (String pair : rawQuery.split("&")) {
+            if (pair.isEmpty()) {
+                continue;
+            }
+            int equals = pair.indexOf('=');
+            String name = equals < 0 ? pair : pair.substring(0, equals);
+            String value = equals < 0 ? "" : pair.substring(equals + 1);
+            // Como API Gateway: con nombres repetidos gana el último
+            parameters.put(URLDecoder.decode(name, StandardCharsets.UTF_8),
+                    URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return parameters;
+    }
+
+    private static Map<String, String> decodeValues(Map<String, String> parameters) {
+        Map<String, String> decoded = new LinkedHashMap<>();
+        parameters.forEach((name, value) -> decoded.put(name, URLDecoder.decode(value, StandardCharsets.UTF_8)));
+        return decoded;
+    }
+
+    private static ThreadFactory requestThreads() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "user-http-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,75 @@
+package com.inferno.user_service.server;
+
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Ruta HTTP -> handler de Lambda, con la misma sintaxis de plantillas que API Gateway: /profile/{uuid}
+public final class Route {
+
+    private final String method;
+    private final String template;
+    private final String[] segments;
+    private final RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> handler;
+
+    private Route(String method, String template,
+                  RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> handler) {
+        this.method = method;
+        this.template = template;
+        this.segments = split(template);
+        this.handler = handler;
+    }
+
+    public static Route of(String method, String template,
+                           RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> handler) {
+        return new Route(method.toUpperCase(), template, handler);
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getTemplate() {
+        return template;
+    }
+
+    public RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> getHandler() {
+        return handler;
+    }
+
+    // Parámetros de path si la ruta coincide (sin mirar el método), null si no
+    public Map<String, String> match(String path) {
+        String[] parts = split(path);
+        if (parts.length != segments.length) {
+            return null;
+        }
+        Map<String, String> parameters = new LinkedHashMap<>();
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+            if (segment.startsWith("{") && segment.endsWith("}")) {
+                if (parts[i].isEmpty()) {
+                    return null;
+                }
+                parameters.put(segment.substring(1, segment.length() - 1), parts[i]);
+            } else if (!segment.equals(parts[i])) {
+                return null;
+            }
+        }
+        return parameters;
+    }
+
+    private static String[] split(String path) {
+        List<String> parts = new ArrayList<>();
+        for (String part : path.split("/")) {
+            if (!part.isEmpty()) {
+                parts.add(part);
+            }
+        }
+        return parts.toArray(new String[0]);
+    }
+}
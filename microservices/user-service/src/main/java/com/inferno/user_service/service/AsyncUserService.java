@@ -0,0 +1,285 @@
+package com.inferno.user_service.service;
+
+import com.inferno.user_service.cache.ProfileCache;
+import com.inferno.user_service.config.AwsClientRegistry;
+import com.inferno.user_service.exception.UserAlreadyExistsException;
+import com.inferno.user_service.exception.UserNotFoundException;
+import com.inferno.user_service.metrics.InvocationMetrics;
+import com.inferno.user_service.metrics.Stage;
+import com.inferno.user_service.model.User;
+import com.inferno.user_service.model.UserUpdate;
+import com.inferno.user_service.security.PasswordService;
+import com.inferno.user_service.security.PasswordVerification;
+import software.amazon.awssdk.core.async.SdkPublisher;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncIndex;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncTable;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.model.Page;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValue;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Variante no bloqueante de UserService sobre DynamoDbEnhancedAsyncClient (event loop de Netty
+// compartido, ver AwsClientRegistry). Permite lanzar llamadas independientes a la vez y esperar
+// solo cuando se necesita el resultado. Las continuaciones corren en el executor de respuestas
+// del SDK, nunca en el event loop; el hash de contraseñas sigue acotado por HashingExecutor.
+public class AsyncUserService {
+
+    private final DynamoDbAsyncClient dynamoDbClient;
+    private final String tableName;
+    private final DynamoDbAsyncTable<User> userTable;
+    private final DynamoDbAsyncIndex<User> emailIndex;
+    private final DynamoDbAsyncIndex<User> documentNumberIndex;
+    private final PasswordService passwordService;
+    private final ProfileCache profileCache;
+
+    public AsyncUserService() {
+        this(AwsClientRegistry.getInstance());
+    }
+
+    public AsyncUserService(AwsClientRegistry registry) {
+        this(registry, PasswordService.shared(), ProfileCache.getInstance());
+    }
+
+    public AsyncUserService(AwsClientRegistry registry, PasswordService passwordService, ProfileCache profileCache) {
+        this.dynamoDbClient = registry.dynamoDbAsyncClient();
+        this.tableName = registry.settings().getUserTableName();
+        this.userTable = registry.userAsyncTable();
+        this.emailIndex = registry.emailAsyncIndex();
+        this.documentNumberIndex = registry.documentNumberAsyncIndex();
+        this.passwordService = passwordService;
+        this.profileCache = profileCache;
+    }
+
+    // Para dobles en memoria (pruebas y benchmarks) que sobrescriben el acceso a datos
+    protected AsyncUserService(PasswordService passwordService) {
+        this.dynamoDbClient = null;
+        this.tableName = null;
+        this.userTable = null;
+        this.emailIndex = null;
+        this.documentNumberIndex = null;
+        this.passwordService = passwordService;
+        this.profileCache = ProfileCache.getInstance();
+    }
+
+    public CompletableFuture<User> registerUser(User user) {
+        String now = Instant.now().toString();
+        user.setUuid(UUID.randomUUID().toString());
+        long hashStart = System.nanoTime();
+        user.setPassword(passwordService.encryptPassword(user.getPassword()));
+        InvocationMetrics.record(Stage.HASH, hashStart);
+        user.setCreatedAt(now);
+        user.setUpdatedAt(now);
+        user.setVersion(1L);
+
+        long start = System.nanoTime();
+        return InvocationMetrics.recordOnCompletion(Stage.DYNAMODB_WRITE, start,
+                        dynamoDbClient.transactWriteItems(UserService.registrationRequest(tableName, user)))
+                .handle((response, error) -> {
+                    if (error == null) {
+                        return user;
+                    }
+                    Throwable cause = unwrap(error);
+                    if (cause instanceof TransactionCanceledException) {
+                        throw new CompletionException(UserService.mapCancellation((TransactionCanceledException) cause));
+                    }
+                    throw new CompletionException(cause);
+                });
+    }
+
+    public CompletableFuture<User> authenticateUser(String email, String plainPassword) {
+        // La verificación corre en el hilo que completa la consulta, fuera de la invocación
+        InvocationMetrics metrics = InvocationMetrics.current();
+        return getUserByEmail(email).thenCompose(user -> {
+            if (user == null) {
+                return CompletableFuture.completedFuture(null);
+            }
+            long start = System.nanoTime();
+            PasswordVerification verification = passwordService.verify(plainPassword, user.getPassword());
+            if (metrics != null) {
+                metrics.recordSince(Stage.HASH, start);
+            }
+            if (!verification.isMatched()) {
+                return CompletableFuture.completedFuture(null);
+            }
+            if (verification.getUpgradedHash() == null) {
+                return CompletableFuture.completedFuture(user);
+            }
+            // Rehash transparente; un fallo aquí no debe impedir el login
+            String previousHash = user.getPassword();
+            user.setPassword(verification.getUpgradedHash());
+            UserUpdate rehash = UserUpdate.of(user.getUuid(), user.getDocumentNumber())
+                    .password(verification.getUpgradedHash())
+                    .returning(ReturnValue.NONE);
+            return updateFields(rehash).handle((updated, error) -> {
+                if (error != null) {
+                    user.setPassword(previousHash);
+                    System.err.println("Error upgrading password hash: " + unwrap(error).getMessage());
+                }
+                return user;
+            });
+        });
+    }
+
+    // Las dos consultas de unicidad salen a la vez; falla con UserAlreadyExistsException
+    public CompletableFuture<Void> checkAvailability(String email, String documentNumber) {
+        long start = System.nanoTime();
+        CompletableFuture<Boolean> emailTaken = isEmailExists(email);
+        CompletableFuture<Boolean> documentTaken = isDocumentNumberExists(documentNumber);
+        InvocationMetrics.recordOnCompletion(Stage.UNIQUENESS_CHECK, start,
+                CompletableFuture.allOf(emailTaken, documentTaken));
+        return emailTaken.thenCombine(documentTaken, (emailExists, documentExists) -> {
+            if (emailExists) {
+                throw new UserAlreadyExistsException("Email already exists");
+            }
+            if (documentExists) {
+                throw new UserAlreadyExistsException("Document number already exists");
+            }
+            return null;
+        });
+    }
+
+    public CompletableFuture<Boolean> isEmailExists(String email) {
+        return getUserByEmail(email).thenApply(Objects::nonNull);
+    }
+
+    public CompletableFuture<Boolean> isDocumentNumberExists(String documentNumber) {
+        return getUserByDocumentNumber(documentNumber).thenApply(Objects::nonNull);
+    }
+
+    public CompletableFuture<User> getUserByEmail(String email) {
+        long start = System.nanoTime();
+        return InvocationMetrics.recordOnCompletion(Stage.DYNAMODB_READ, start,
+                first(emailIndex.query(r -> r.queryConditional(byPartition(email)))));
+    }
+
+    public CompletableFuture<User> getUserByDocumentNumber(String documentNumber) {
+        long start = System.nanoTime();
+        return InvocationMetrics.recordOnCompletion(Stage.DYNAMODB_READ, start,
+                first(documentNumberIndex.query(r -> r.queryConditional(byPartition(documentNumber)))));
+    }
+
+    public CompletableFuture<User> getUserById(String uuid, String documentNumber) {
+        if (UserService.isMarker(uuid)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        long start = System.nanoTime();
+        return InvocationMetrics.recordOnCompletion(Stage.DYNAMODB_READ, start,
+                userTable.getItem(Key.builder().partitionValue(uuid).sortValue(documentNumber).build()));
+    }
+
+    public CompletableFuture<List<User>> getUsersByUuid(String uuid) {
+        if (UserService.isMarker(uuid)) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+        List<User> users = new ArrayList<>();
+        long start = System.nanoTime();
+        return InvocationMetrics.recordOnCompletion(Stage.DYNAMODB_READ, start,
+                userTable.query(r -> r.queryConditional(byPartition(uuid)))
+                        .items()
+                        .subscribe(users::add)
+                        .thenApply(done -> users));
+    }
+
+    // Solo las llaves, para escribir por campo sin traer el item completo; null si no existe
+    public CompletableFuture<String> getDocumentNumber(String uuid) {
+        if (UserService.isMarker(uuid)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        long start = System.nanoTime();
+        return InvocationMetrics.recordOnCompletion(Stage.DYNAMODB_READ, start,
+                first(userTable.query(r -> r.queryConditional(byPartition(uuid))
+                        .attributesToProject("uuid", "documentNumber")
+                        .limit(1))))
+                .thenApply(user -> user == null ? null : user.getDocumentNumber());
+    }
+
+    // Ver UserService.updateFields: un UpdateItem con los atributos que cambian, sin lectura previa
+    public CompletableFuture<User> updateFields(UserUpdate update) {
+        if (UserService.isMarker(update.getUuid())) {
+            return CompletableFuture.failedFuture(new UserNotFoundException("User not found"));
+        }
+        long start = System.nanoTime();
+        return InvocationMetrics.recordOnCompletion(Stage.DYNAMODB_WRITE, start,
+                        dynamoDbClient.updateItem(UserService.updateRequest(tableName, update, Instant.now().toString())))
+                .handle((response, error) -> {
+                    if (error == null) {
+                        profileCache.invalidate(update.getUuid());
+                        return UserService.updatedUser(response.attributes());
+                    }
+                    Throwable cause = unwrap(error);
+                    if (cause instanceof ConditionalCheckFailedException) {
+                        throw new CompletionException(
+                                UserService.mapUpdateFailure((ConditionalCheckFailedException) cause));
+                    }
+                    throw new CompletionException(cause);
+                });
+    }
+
+    // Misma transacción que UserService.deleteUser: usuario y marcadores de unicidad juntos
+    public CompletableFuture<Void> deleteUser(String uuid, String documentNumber) {
+        return getUserById(uuid, documentNumber).thenCompose(user -> {
+            if (user == null) {
+                return CompletableFuture.completedFuture(null);
+            }
+            long start = System.nanoTime();
+            return InvocationMetrics.recordOnCompletion(Stage.DYNAMODB_WRITE, start,
+                            dynamoDbClient.transactWriteItems(UserService.deletionRequest(tableName, user)))
+                    .handle((response, error) -> {
+                        if (error != null) {
+                            Throwable cause = unwrap(error);
+                            if (!(cause instanceof TransactionCanceledException)
+                                    || !UserService.userAlreadyDeleted((TransactionCanceledException) cause)) {
+                                throw new CompletionException(cause);
+                            }
+                        }
+                        profileCache.invalidate(uuid);
+                        return null;
+                    });
+        });
+    }
+
+    // join() que relanza la causa original (p. ej. ValidationException) en lugar de CompletionException
+    public static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = unwrap(e);
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw e;
+        }
+    }
+
+    private static CompletableFuture<User> first(SdkPublisher<Page<User>> pages) {
+        AtomicReference<User> found = new AtomicReference<>();
+        return pages.flatMapIterable(Page::items)
+                .limit(1)
+                .subscribe(found::set)
+                .thenApply(done -> found.get());
+    }
+
+    private static QueryConditional byPartition(String value) {
+        return QueryConditional.keyEqualTo(Key.builder().partitionValue(value).build());
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        Throwable cause = error;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+}
@@ -0,0 +1,115 @@
+package com.inferno.user_service.service;
+
+import com.inferno.user_service.config.AwsClientRegistry;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+// Crea los marcadores de unicidad (UNIQUE#EMAIL#, UNIQUE#DOCUMENT#) de los usuarios registrados
+// antes de que registerUser los escribiera. Es idempotente: un marcador que ya apunta al mismo
+// usuario se reescribe igual. Si el marcador es de otro usuario (duplicados de antes de la
+// transacción) se informa como conflicto y no se toca. Cuando termina sin conflictos se puede
+// apagar REGISTER_INDEX_UNIQUENESS_CHECK en UserRegisterLambda.
+public class UniquenessMarkerBackfill {
+
+    private final DynamoDbClient dynamoDbClient;
+    private final String tableName;
+
+    public UniquenessMarkerBackfill(AwsClientRegistry registry) {
+        this.dynamoDbClient = registry.dynamoDbClient();
+        this.tableName = registry.settings().getUserTableName();
+    }
+
+    // Sale con código 1 si hubo conflictos: hay que resolverlos antes de apagar las consultas
+    public static void main(String[] args) {
+        Result result = new UniquenessMarkerBackfill(AwsClientRegistry.getInstance()).run();
+        System.out.println(result);
+        for (String conflict : result.getConflicts()) {
+            System.err.println("Conflicting uniqueness marker: " + conflict);
+        }
+        System.exit(result.getConflicts().isEmpty() ? 0 : 1);
+    }
+
+    public Result run() {
+        ScanRequest scan = ScanRequest.builder()
+                .tableName(tableName)
+                .projectionExpression("#uuid, #email, #document")
+                .expressionAttributeNames(Map.of(
+                        "#uuid", "uuid",
+                        "#email", "email",
+                        "#document", "documentNumber"))
+                .build();
+
+        long users = 0;
+        long markers = 0;
+        List<String> conflicts = new ArrayList<>();
+        for (Map<String, AttributeValue> item : dynamoDbClient.scanPaginator(scan).items()) {
+            String uuid = item.get("uuid").s();
+            if (UserService.isMarker(uuid)) {
+                continue;
+            }
+            users++;
+            AttributeValue email = item.get("email");
+            if (email != null && email.s() != null) {
+                markers += reserve(UserService.EMAIL_MARKER_PREFIX + email.s(), uuid, conflicts);
+            }
+            AttributeValue document = item.get("documentNumber");
+            if (document != null && document.s() != null) {
+                markers += reserve(UserService.DOCUMENT_MARKER_PREFIX + document.s(), uuid, conflicts);
+            }
+        }
+        return new Result(users, markers, conflicts);
+    }
+
+    private int reserve(String key, String ownerUuid, List<String> conflicts) {
+        try {
+            dynamoDbClient.putItem(PutItemRequest.builder()
+                    .tableName(tableName)
+                    .item(UserService.uniquenessMarker(key, ownerUuid))
+                    .conditionExpression("attribute_not_exists(#pk) OR #owner = :owner")
+                    .expressionAttributeNames(Map.of("#pk", "uuid", "#owner", "ownerUuid"))
+                    .expressionAttributeValues(Map.of(":owner", AttributeValue.fromS(ownerUuid)))
+                    .build());
+            return 1;
+        } catch (ConditionalCheckFailedException e) {
+            conflicts.add(key + " (user " + ownerUuid + ")");
+            return 0;
+        }
+    }
+
+    public static final class Result {
+        private final long users;
+        private final long markers;
+        private final List<String> conflicts;
+
+        private Result(long users, long markers, List<String> conflicts) {
+            this.users = users;
+            this.markers = markers;
+            this.conflicts = Collections.unmodifiableList(conflicts);
+        }
+
+        public long getUsers() {
+            return users;
+        }
+
+        public long getMarkers() {
+            return markers;
+        }
+
+        public List<String> getConflicts() {
+            return conflicts;
+        }
+
+        @Override
+        public String toString() {
+            return "Backfill: " + users + " users, " + markers + " markers, " + conflicts.size() + " conflicts";
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.inferno.user_service.service;
+
+import com.inferno.user_service.config.AwsClientRegistry;
+import com.inferno.user_service.config.Lazy;
+import com.inferno.user_service.exception.ServiceUnavailableException;
+import com.inferno.user_service.model.User;
+import com.inferno.user_service.model.UserKey;
+import com.inferno.user_service.model.UserTableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
+
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+// Lectura de muchos perfiles a la vez.
+// - Llaves completas (uuid + documento): BatchGetItem en lotes de 100, el máximo de DynamoDB.
+// - Solo uuid: Query por uuid, agrupadas en lotes más chicos.
+// Los lotes corren en paralelo en un pool compartido y cada uno se entrega al consumidor apenas
+// termina, en el hilo que llama. Las llaves que DynamoDB devuelve sin procesar se reintentan
+// con backoff exponencial y jitter; si se agotan los intentos se responde 503.
+public class UserBatchReader {
+
+    // Máximo de llaves por BatchGetItem
+    static final int MAX_BATCH_GET_KEYS = 100;
+    static final int QUERY_CHUNK_SIZE = 25;
+
+    // Atributos del perfil; el hash de la contraseña nunca sale de la tabla
+    private static final List<String> PROFILE_ATTRIBUTES = List.of("uuid", "documentNumber", "email", "name",
+            "lastName", "avatarKey", "avatarVariants", "imageUrl", "createdAt", "updatedAt", "version");
+    private static final Map<String, String> PROJECTION_NAMES = projectionNames();
+    private static final String PROJECTION_EXPRESSION = String.join(", ", PROJECTION_NAMES.keySet());
+
+    private static final Lazy<ExecutorService> SHARED_EXECUTOR = new Lazy<>(() ->
+            Executors.newFixedThreadPool(Integer.parseInt(env("USER_BATCH_CONCURRENCY", "8")), daemonThreads()));
+
+    // Fuente del jitter. ThreadLocalRandom no sirve aquí: su semilla queda dentro del snapshot de
+    // SnapStart y todas las instancias restauradas repetirían las mismas esperas
+    private static volatile Random jitter = new Random();
+
+    private final DynamoDbClient dynamoDbClient;
+    private final String tableName;
+    private final DynamoDbTable<User> userTable;
+    private final ExecutorService executor;
+    private final int maxAttempts;
+    private final long baseBackoffMillis;
+    private final long maxBackoffMillis;
+
+    public UserBatchReader(DynamoDbClient dynamoDbClient, String tableName, DynamoDbTable<User> userTable,
+                           ExecutorService executor, int maxAttempts, long baseBackoffMillis, long maxBackoffMillis) {
+        this.dynamoDbClient = dynamoDbClient;
+        this.tableName = tableName;
+        this.userTable = userTable;
+        this.executor = executor;
+        this.maxAttempts = maxAttempts;
+        this.baseBackoffMillis = baseBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+    }
+
+    // Se llama tras restaurar un snapshot
+    public static void reseedJitter() {
+        jitter = new Random(new SecureRandom().nextLong());
+    }
+
+    public static UserBatchReader fromEnvironment(AwsClientRegistry registry) {
+        return new UserBatchReader(
+                registry.dynamoDbClient(),
+                registry.settings().getUserTableName(),
+                registry.userTable(),
+                SHARED_EXECUTOR.get(),
+                Integer.parseInt(env("USER_BATCH_MAX_ATTEMPTS", "6")),
+                Long.parseLong(env("USER_BATCH_BASE_BACKOFF_MS", "25")),
+                Long.parseLong(env("USER_BATCH_MAX_BACKOFF_MS", "1000")));
+    }
+
+    // Entrega los usuarios encontrados por lotes, en orden de llegada; las llaves inexistentes se omiten
+    public void read(Collection<UserKey> keys, Consumer<List<User>> onChunk) {
+        List<List<UserKey>> batchGetChunks = new ArrayList<>();
+        List<List<UserKey>> queryChunks = new ArrayList<>();
+        split(keys, batchGetChunks, queryChunks);
+
+        CompletionService<List<User>> completion = new ExecutorCompletionService<>(executor);
+        List<Future<List<User>>> pending = new ArrayList<>();
+        for (List<UserKey> chunk : batchGetChunks) {
+            pending.add(completion.submit(() -> batchGet(chunk)));
+        }
+        for (List<UserKey> chunk : queryChunks) {
+            pending.add(completion.submit(() -> queryEach(chunk)));
+        }
+
+        try {
+            for (int i = 0; i < pending.size(); i++) {
+                onChunk.accept(completion.take().get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Profile lookup interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Profile lookup failed", e.getCause());
+        } finally {
+            // Si un lote falló, los demás ya no sirven
+            pending.forEach(future -> future.cancel(true));
+        }
+    }
+
+    public List<User> read(Collection<UserKey> keys) {
+        List<User> users = new ArrayList<>(keys.size());
+        read(keys, users::addAll);
+        return users;
+    }
+
+    private List<User> batchGet(List<UserKey> chunk) throws InterruptedException {
+        List<Map<String, AttributeValue>> keys = new ArrayList<>(chunk.size());
+        for (UserKey key : chunk) {
+            keys.add(Map.of(
+                    "uuid", AttributeValue.fromS(key.getUuid()),
+                    "documentNumber", AttributeValue.fromS(key.getDocumentNumber())));
+        }
+        Map<String, KeysAndAttributes> requestItems = Map.of(tableName, KeysAndAttributes.builder()
+                .keys(keys)
+                .projectionExpression(PROJECTION_EXPRESSION)
+                .expressionAttributeNames(PROJECTION_NAMES)
+                .build());
+
+        List<User> users = new ArrayList<>(chunk.size());
+        for (int attempt = 1; ; attempt++) {
+            Map<String, KeysAndAttributes> request = requestItems;
+            BatchGetItemResponse response = dynamoDbClient.batchGetItem(r -> r.requestItems(request));
+            for (Map<String, AttributeValue> item : response.responses().getOrDefault(tableName, List.of())) {
+                users.add(UserTableSchema.SCHEMA.mapToItem(item));
+            }
+
+            requestItems = response.unprocessedKeys();
+            if (requestItems == null || requestItems.isEmpty()) {
+                return users;
+            }
+            if (attempt >= maxAttempts) {
+                throw new ServiceUnavailableException("Profile lookup throttled, retry later");
+            }
+            Thread.sleep(backoffMillis(attempt));
+        }
+    }
+
+    private List<User> queryEach(List<UserKey> chunk) {
+        List<User> users = new ArrayList<>(chunk.size());
+        for (UserKey key : chunk) {
+            QueryConditional byUuid = QueryConditional.keyEqualTo(Key.builder().partitionValue(key.getUuid()).build());
+            userTable.query(r -> r.queryConditional(byUuid).attributesToProject(PROFILE_ATTRIBUTES))
+                    .items()
+                    .forEach(users::add);
+        }
+        return users;
+    }
+
+    // Backoff exponencial con jitter completo: entre 0 y min(máximo, base * 2^intento)
+    private long backoffMillis(int attempt) {
+        long ceiling = Math.min(maxBackoffMillis, baseBackoffMillis << Math.min(attempt, 20));
+        return jitter.nextLong(ceiling + 1);
+    }
+
+    private static void split(Collection<UserKey> keys, List<List<UserKey>> batchGetChunks,
+                              List<List<UserKey>> queryChunks) {
+        List<UserKey> complete = new ArrayList<>();
+        List<UserKey> uuidOnly = new ArrayList<>();
+        for (UserKey key : new LinkedHashSet<>(keys)) {
+            if (key.getUuid() == null || UserService.isMarker(key.getUuid())) {
+                continue;
+            }
+            (key.isComplete() ? complete : uuidOnly).add(key);
+        }
+        partition(complete, MAX_BATCH_GET_KEYS, batchGetChunks);
+        partition(uuidOnly, QUERY_CHUNK_SIZE, queryChunks);
+    }
+
+    private static void partition(List<UserKey> keys, int size, List<List<UserKey>> chunks) {
+        for (int from = 0; from < keys.size(); from += size) {
+            chunks.add(keys.subList(from, Math.min(keys.size(), from + size)));
+        }
+    }
+
+    private static Map<String, String> projectionNames() {
+        Map<String, String> names = new LinkedHashMap<>();
+        for (String attribute : PROFILE_ATTRIBUTES) {
+            names.put("#" + attribute, attribute);
+        }
+        return names;
+    }
+
+    private static ThreadFactory daemonThreads() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "user-batch-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+}
@@ -1,24 +1,55 @@
 package com.inferno.user_service.service;
 
+import com.inferno.user_service.cache.ProfileCache;
+import com.inferno.user_service.config.AwsClientRegistry;
+import com.inferno.user_service.exception.UserAlreadyExistsException;
+import com.inferno.user_service.exception.UserNotFoundException;
+import com.inferno.user_service.exception.VersionConflictException;
+import com.inferno.user_service.metrics.InvocationMetrics;
+import com.inferno.user_service.metrics.Stage;
 import com.inferno.user_service.model.User;
+import com.inferno.user_service.model.UserKey;
+import com.inferno.user_service.model.UserTableSchema;
+import com.inferno.user_service.model.UserUpdate;
 import com.inferno.user_service.security.PasswordService;
-import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import com.inferno.user_service.security.PasswordVerification;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbIndex;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
 import software.amazon.awssdk.enhanced.dynamodb.Key;
-import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
 import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
 import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.CancellationReason;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.Delete;
+import software.amazon.awssdk.services.dynamodb.model.Put;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValue;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValuesOnConditionCheckFailure;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsRequest;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemResponse;
 
 import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.regex.Pattern;
 
 public class UserService {
+    private final DynamoDbClient dynamoDbClient;
+    private final String tableName;
     private final DynamoDbTable<User> userTable;
-    private final DynamoDbEnhancedClient enhancedClient;
-    private final PasswordService passwordService = new PasswordService();
+    private final DynamoDbIndex<User> emailIndex;
+    private final DynamoDbIndex<User> documentNumberIndex;
+    private final PasswordService passwordService;
+    private final ProfileCache profileCache;
+    private final UserBatchReader batchReader;
 
     private static final Pattern EMAIL_PATTERN = Pattern.compile(
             "^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$"
@@ -26,37 +57,125 @@ public class UserService {
 
     private static final Pattern DOCUMENT_PATTERN = Pattern.compile("^\\d+$");
 
+    // Marcadores de unicidad: items con PK y SK = "<PREFIJO><valor>", nunca coinciden con
+    // un uuid ni con un documento numérico, así que no contaminan los índices
+    static final String EMAIL_MARKER_PREFIX = "UNIQUE#EMAIL#";
+    static final String DOCUMENT_MARKER_PREFIX = "UNIQUE#DOCUMENT#";
+    private static final String CONDITIONAL_CHECK_FAILED = "ConditionalCheckFailed";
+
     public UserService() {
-        DynamoDbClient dynamoDbClient = DynamoDbClient.create();
-        this.enhancedClient = DynamoDbEnhancedClient.builder()
-                .dynamoDbClient(dynamoDbClient)
-                .build();
-        this.userTable = enhancedClient.table("user-table", TableSchema.fromBean(User.class));
+        this(AwsClientRegistry.getInstance());
+    }
+
+    public UserService(AwsClientRegistry registry) {
+        this(registry, PasswordService.shared());
+    }
+
+    // Para dobles en memoria (pruebas y benchmarks) que sobrescriben el acceso a datos
+    protected UserService(PasswordService passwordService) {
+        this.passwordService = passwordService;
+        this.profileCache = ProfileCache.getInstance();
+        this.dynamoDbClient = null;
+        this.tableName = null;
+        this.userTable = null;
+        this.emailIndex = null;
+        this.documentNumberIndex = null;
+        this.batchReader = null;
+    }
+
+    public UserService(AwsClientRegistry registry, PasswordService passwordService) {
+        this(registry, passwordService, ProfileCache.getInstance());
+    }
+
+    public UserService(AwsClientRegistry registry, PasswordService passwordService, ProfileCache profileCache) {
+        this.passwordService = passwordService;
+        this.profileCache = profileCache;
+        this.dynamoDbClient = registry.dynamoDbClient();
+        this.tableName = registry.settings().getUserTableName();
+        this.userTable = registry.userTable();
+        this.emailIndex = registry.emailIndex();
+        this.documentNumberIndex = registry.documentNumberIndex();
+        this.batchReader = UserBatchReader.fromEnvironment(registry);
     }
 
     public User createUser(User user) {
         user.setUuid(UUID.randomUUID().toString());
-        user.setPassword(passwordService.encryptPassword(user.getPassword()));
+        user.setPassword(hash(user.getPassword()));
         user.setCreatedAt(Instant.now().toString());
         user.setUpdatedAt(Instant.now().toString());
+        user.setVersion(1L);
 
+        long start = System.nanoTime();
         userTable.putItem(user);
+        InvocationMetrics.record(Stage.DYNAMODB_WRITE, start);
         return user;
     }
 
+    // Registro en una sola transacción: el usuario y los marcadores de unicidad de
+    // email y documento se escriben juntos, con condición de que no existan. La verificación de
+    // unicidad va dentro de esa escritura, así que su tiempo queda en DYNAMODB_WRITE.
+    public User registerUser(User user) {
+        String now = Instant.now().toString();
+        user.setUuid(UUID.randomUUID().toString());
+        user.setPassword(hash(user.getPassword()));
+        user.setCreatedAt(now);
+        user.setUpdatedAt(now);
+        user.setVersion(1L);
+
+        long start = System.nanoTime();
+        try {
+            dynamoDbClient.transactWriteItems(registrationRequest(tableName, user));
+            return user;
+        } catch (TransactionCanceledException e) {
+            throw mapCancellation(e);
+        } finally {
+            InvocationMetrics.record(Stage.DYNAMODB_WRITE, start);
+        }
+    }
+
+    private String hash(String plainPassword) {
+        long start = System.nanoTime();
+        String encrypted = passwordService.encryptPassword(plainPassword);
+        InvocationMetrics.record(Stage.HASH, start);
+        return encrypted;
+    }
+
     public User authenticateUser(String email, String plainPassword) {
         User user = getUserByEmail(email);
-        if (user != null && passwordService.verifyPassword(plainPassword, user.getPassword())) {
-            return user;
+        if (user == null) {
+            return null;
+        }
+        long start = System.nanoTime();
+        PasswordVerification verification = passwordService.verify(plainPassword, user.getPassword());
+        InvocationMetrics.record(Stage.HASH, start);
+        if (!verification.isMatched()) {
+            return null;
+        }
+        if (verification.getUpgradedHash() != null) {
+            upgradePasswordHash(user, verification.getUpgradedHash());
+        }
+        return user;
+    }
+
+    // Rehash transparente al algoritmo/costo objetivo; un fallo aquí no debe impedir el login
+    private void upgradePasswordHash(User user, String upgradedHash) {
+        String previousHash = user.getPassword();
+        try {
+            user.setPassword(upgradedHash);
+            updateFields(UserUpdate.of(user.getUuid(), user.getDocumentNumber())
+                    .password(upgradedHash)
+                    .returning(ReturnValue.NONE));
+        } catch (Exception e) {
+            user.setPassword(previousHash);
+            System.err.println("Error upgrading password hash: " + e.getMessage());
         }
-        return null;
     }
 
     public boolean isEmailExists(String email) {
+        long start = System.nanoTime();
         try {
             // Usar el índice secundario EmailIndex
-            return enhancedClient.table("user-table", TableSchema.fromBean(User.class))
-                    .index("EmailIndex")
+            return emailIndex
                     .query(r -> r.queryConditional(
                             QueryConditional.keyEqualTo(Key.builder().partitionValue(email).build())
                     ))
@@ -68,14 +187,16 @@ public class UserService {
             System.err.println("Error checking email existence: " + e.getMessage());
             e.printStackTrace();
             return false;
+        } finally {
+            InvocationMetrics.record(Stage.UNIQUENESS_CHECK, start);
         }
     }
 
     public boolean isDocumentNumberExists(String documentNumber) {
+        long start = System.nanoTime();
         try {
             // Usar el índice secundario DocumentNumberIndex
-            return enhancedClient.table("user-table", TableSchema.fromBean(User.class))
-                    .index("DocumentNumberIndex")
+            return documentNumberIndex
                     .query(r -> r.queryConditional(
                             QueryConditional.keyEqualTo(Key.builder().partitionValue(documentNumber).build())
                     ))
@@ -87,14 +208,16 @@ public class UserService {
             System.err.println("Error checking document existence: " + e.getMessage());
             e.printStackTrace();
             return false;
+        } finally {
+            InvocationMetrics.record(Stage.UNIQUENESS_CHECK, start);
         }
     }
 
     public User getUserByEmail(String email) {
+        long start = System.nanoTime();
         try {
             // CORREGIDO: Usar el índice EmailIndex para buscar por email
-            return enhancedClient.table("user-table", TableSchema.fromBean(User.class))
-                    .index("EmailIndex")
+            return emailIndex
                     .query(QueryEnhancedRequest.builder()
                             .queryConditional(QueryConditional.keyEqualTo(Key.builder()
                                     .partitionValue(email)
@@ -106,13 +229,15 @@ public class UserService {
         } catch (Exception e) {
             System.err.println("Error getting user by email: " + e.getMessage());
             return null;
+        } finally {
+            InvocationMetrics.record(Stage.DYNAMODB_READ, start);
         }
     }
 
     public User getUserByDocumentNumber(String documentNumber) {
+        long start = System.nanoTime();
         try {
-            return enhancedClient.table("user-table", TableSchema.fromBean(User.class))
-                    .index("DocumentNumberIndex")
+            return documentNumberIndex
                     .query(QueryEnhancedRequest.builder()
                             .queryConditional(QueryConditional.keyEqualTo(Key.builder()
                                     .partitionValue(documentNumber)
@@ -125,9 +250,17 @@ public class UserService {
         } catch (Exception e) {
             System.err.println("Error getting user by document: " + e.getMessage());
             return null;
+        } finally {
+            InvocationMetrics.record(Stage.DYNAMODB_READ, start);
         }
     }
 
+    // Los marcadores de unicidad comparten la tabla con los usuarios: ninguna lectura ni escritura
+    // por uuid debe alcanzarlos (delatarían si un email o documento está registrado)
+    public static boolean isMarker(String uuid) {
+        return uuid != null && (uuid.startsWith(EMAIL_MARKER_PREFIX) || uuid.startsWith(DOCUMENT_MARKER_PREFIX));
+    }
+
     // Validar formato de email
     public boolean isValidEmail(String email) {
         return email != null && EMAIL_PATTERN.matcher(email).matches();
@@ -145,35 +278,243 @@ public class UserService {
 
     //DynamoDb exige la PK y SK
     public User getUserById(String uuid, String documentNumber) {
+        if (isMarker(uuid)) {
+            return null;
+        }
         Key key = Key.builder()
                 .partitionValue(uuid)
                 .sortValue(documentNumber)
                 .build();
-        return userTable.getItem(key);
+        long start = System.nanoTime();
+        User user = userTable.getItem(key);
+        InvocationMetrics.record(Stage.DYNAMODB_READ, start);
+        return user;
     }
 
     public List<User> getUsersByUuid(String uuid) {
+        if (isMarker(uuid)) {
+            return List.of();
+        }
         QueryConditional queryConditional = QueryConditional.keyEqualTo(
                 Key.builder().partitionValue(uuid).build()
         );
 
-        return userTable.query(r -> r.queryConditional(queryConditional))
+        long start = System.nanoTime();
+        List<User> users = userTable.query(r -> r.queryConditional(queryConditional))
                 .items()
                 .stream()
                 .toList();
+        InvocationMetrics.record(Stage.DYNAMODB_READ, start);
+        return users;
     }
 
-    public User updateUser(User user) {
-        user.setUpdatedAt(Instant.now().toString());
-        userTable.updateItem(user);
-        return user;
+    // Perfiles de muchos usuarios en lotes paralelos; cada lote se entrega al terminar
+    // El tiempo incluye lo que tarde onChunk, que corre en este hilo entre lotes
+    public void getUsersByKeys(Collection<UserKey> keys, Consumer<List<User>> onChunk) {
+        long start = System.nanoTime();
+        try {
+            batchReader.read(keys, onChunk);
+        } finally {
+            InvocationMetrics.record(Stage.DYNAMODB_READ, start);
+        }
     }
 
-    public void deleteUser(String uuid, String email) {
-        Key key = Key.builder()
-                .partitionValue(uuid)
-                .sortValue(email)
+    public List<User> getUsersByKeys(Collection<UserKey> keys) {
+        long start = System.nanoTime();
+        try {
+            return batchReader.read(keys);
+        } finally {
+            InvocationMetrics.record(Stage.DYNAMODB_READ, start);
+        }
+    }
+
+    // Un solo UpdateItem con los atributos que cambian; con ALL_NEW (por defecto) devuelve el
+    // usuario ya actualizado sin otra lectura. 404 si no existe, 409 si la versión no coincide
+    public User updateFields(UserUpdate update) {
+        if (isMarker(update.getUuid())) {
+            throw new UserNotFoundException("User not found");
+        }
+        long start = System.nanoTime();
+        try {
+            UpdateItemResponse response = dynamoDbClient.updateItem(
+                    updateRequest(tableName, update, Instant.now().toString()));
+            // Cubre UpdateUserLambda, UploadAvatarLambda y el rehash del login
+            profileCache.invalidate(update.getUuid());
+            return updatedUser(response.attributes());
+        } catch (ConditionalCheckFailedException e) {
+            throw mapUpdateFailure(e);
+        } finally {
+            InvocationMetrics.record(Stage.DYNAMODB_WRITE, start);
+        }
+    }
+
+    // Borra el usuario y libera sus marcadores de email y documento en la misma transacción
+    public void deleteUser(String uuid, String documentNumber) {
+        User user = getUserById(uuid, documentNumber);
+        if (user == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            dynamoDbClient.transactWriteItems(deletionRequest(tableName, user));
+        } catch (TransactionCanceledException e) {
+            if (!userAlreadyDeleted(e)) {
+                throw e;
+            }
+        } finally {
+            InvocationMetrics.record(Stage.DYNAMODB_WRITE, start);
+        }
+        profileCache.invalidate(uuid);
+    }
+
+    // Compartido con AsyncUserService. SET solo de los atributos que cambian, más updatedAt y
+    // version (if_not_exists cubre usuarios anteriores sin versión); la condición de existencia
+    // evita que un UpdateItem sobre una llave inexistente cree un item a medias
+    static UpdateItemRequest updateRequest(String tableName, UserUpdate update, String now) {
+        Map<String, String> names = new HashMap<>();
+        Map<String, AttributeValue> values = new HashMap<>();
+        StringBuilder set = new StringBuilder("SET ");
+        int i = 0;
+        for (Map.Entry<String, AttributeValue> entry : update.getSets().entrySet()) {
+            names.put("#a" + i, entry.getKey());
+            values.put(":a" + i, entry.getValue());
+            set.append("#a").append(i).append(" = :a").append(i).append(", ");
+            i++;
+        }
+        names.put("#updatedAt", UserUpdate.UPDATED_AT);
+        names.put("#version", UserUpdate.VERSION);
+        values.put(":updatedAt", AttributeValue.fromS(now));
+        values.put(":zero", AttributeValue.fromN("0"));
+        values.put(":one", AttributeValue.fromN("1"));
+        set.append("#updatedAt = :updatedAt, #version = if_not_exists(#version, :zero) + :one");
+
+        if (!update.getRemoves().isEmpty()) {
+            set.append(" REMOVE ");
+            for (int r = 0; r < update.getRemoves().size(); r++) {
+                names.put("#r" + r, update.getRemoves().get(r));
+                set.append(r == 0 ? "" : ", ").append("#r").append(r);
+            }
+        }
+
+        names.put("#uuid", "uuid");
+        String condition = "attribute_exists(#uuid)";
+        Long expected = update.getExpectedVersion();
+        if (expected != null) {
+            values.put(":expected", AttributeValue.fromN(Long.toString(expected)));
+            condition += expected == 0
+                    ? " AND (attribute_not_exists(#version) OR #version = :expected)"
+                    : " AND #version = :expected";
+        }
+
+        return UpdateItemRequest.builder()
+                .tableName(tableName)
+                .key(Map.of(
+                        "uuid", AttributeValue.fromS(update.getUuid()),
+                        "documentNumber", AttributeValue.fromS(update.getDocumentNumber())))
+                .updateExpression(set.toString())
+                .conditionExpression(condition)
+                .expressionAttributeNames(names)
+                .expressionAttributeValues(values)
+                .returnValues(update.getReturnValue())
+                // Si la condición falla, el item actual distingue "no existe" de "otra versión"
+                .returnValuesOnConditionCheckFailure(ReturnValuesOnConditionCheckFailure.ALL_OLD)
                 .build();
-        userTable.deleteItem(key);
     }
-}
\ No newline at end of file
+
+    // Con UPDATED_OLD puede volver vacío (no había nada que reemplazar); con NONE siempre
+    static User updatedUser(Map<String, AttributeValue> attributes) {
+        return attributes == null || attributes.isEmpty() ? null : UserTableSchema.SCHEMA.mapToItem(attributes);
+    }
+
+    static RuntimeException mapUpdateFailure(ConditionalCheckFailedException e) {
+        if (!e.hasItem() || e.item().isEmpty()) {
+            return new UserNotFoundException("User not found");
+        }
+        AttributeValue version = e.item().get(UserUpdate.VERSION);
+        return new VersionConflictException(version == null ? 0L : Long.parseLong(version.n()));
+    }
+
+    // Compartido con AsyncUserService
+    static TransactWriteItemsRequest registrationRequest(String tableName, User user) {
+        return TransactWriteItemsRequest.builder()
+                .transactItems(
+                        conditionalPut(tableName, UserTableSchema.SCHEMA.itemToMap(user, true)),
+                        conditionalPut(tableName, uniquenessMarker(EMAIL_MARKER_PREFIX + user.getEmail(), user.getUuid())),
+                        conditionalPut(tableName,
+                                uniquenessMarker(DOCUMENT_MARKER_PREFIX + user.getDocumentNumber(), user.getUuid())))
+                .build();
+    }
+
+    // Compartido con AsyncUserService. Un marcador solo se borra si pertenece a este usuario
+    // (o ya no existe), así un duplicado heredado no libera el email de otra cuenta
+    static TransactWriteItemsRequest deletionRequest(String tableName, User user) {
+        return TransactWriteItemsRequest.builder()
+                .transactItems(
+                        TransactWriteItem.builder()
+                                .delete(Delete.builder()
+                                        .tableName(tableName)
+                                        .key(markerKey(user.getUuid(), user.getDocumentNumber()))
+                                        .conditionExpression("attribute_exists(#pk)")
+                                        .expressionAttributeNames(Map.of("#pk", "uuid"))
+                                        .build())
+                                .build(),
+                        markerDelete(tableName, EMAIL_MARKER_PREFIX + user.getEmail(), user.getUuid()),
+                        markerDelete(tableName, DOCUMENT_MARKER_PREFIX + user.getDocumentNumber(), user.getUuid()))
+                .build();
+    }
+
+    // La primera razón es la del usuario: otra invocación ya lo borró
+    static boolean userAlreadyDeleted(TransactionCanceledException e) {
+        List<CancellationReason> reasons = e.cancellationReasons();
+        return !reasons.isEmpty() && CONDITIONAL_CHECK_FAILED.equals(reasons.get(0).code());
+    }
+
+    private static TransactWriteItem markerDelete(String tableName, String key, String ownerUuid) {
+        return TransactWriteItem.builder()
+                .delete(Delete.builder()
+                        .tableName(tableName)
+                        .key(markerKey(key, key))
+                        .conditionExpression("attribute_not_exists(#pk) OR #owner = :owner")
+                        .expressionAttributeNames(Map.of("#pk", "uuid", "#owner", "ownerUuid"))
+                        .expressionAttributeValues(Map.of(":owner", AttributeValue.fromS(ownerUuid)))
+                        .build())
+                .build();
+    }
+
+    private static Map<String, AttributeValue> markerKey(String uuid, String documentNumber) {
+        return Map.of(
+                "uuid", AttributeValue.fromS(uuid),
+                "documentNumber", AttributeValue.fromS(documentNumber));
+    }
+
+    private static TransactWriteItem conditionalPut(String tableName, Map<String, AttributeValue> item) {
+        return TransactWriteItem.builder()
+                .put(Put.builder()
+                        .tableName(tableName)
+                        .item(item)
+                        .conditionExpression("attribute_not_exists(#pk)")
+                        .expressionAttributeNames(Map.of("#pk", "uuid"))
+                        .build())
+                .build();
+    }
+
+    static Map<String, AttributeValue> uniquenessMarker(String key, String ownerUuid) {
+        return Map.of(
+                "uuid", AttributeValue.fromS(key),
+                "documentNumber", AttributeValue.fromS(key),
+                "ownerUuid", AttributeValue.fromS(ownerUuid)
+        );
+    }
+
+    // El orden de las razones de cancelación es el de los items de la transacción
+    static RuntimeException mapCancellation(TransactionCanceledException e) {
+        List<CancellationReason> reasons = e.cancellationReasons();
+        if (reasons.size() > 1 && CONDITIONAL_CHECK_FAILED.equals(reasons.get(1).code())) {
+            return new UserAlreadyExistsException("Email already exists");
+        }
+        if (reasons.size() > 2 && CONDITIONAL_CHECK_FAILED.equals(reasons.get(2).code())) {
+            return new UserAlreadyExistsException("Document number already exists");
+        }
+        return e;
+    }
+}
@@ -1,34 +1,47 @@
 package com.inferno.user_service.service;
 
+import com.inferno.user_service.config.Lazy;
 import com.inferno.user_service.exception.UserAlreadyExistsException;
+import com.inferno.user_service.metrics.InvocationMetrics;
+import com.inferno.user_service.metrics.Stage;
 import jakarta.validation.*;
 
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 public class ValidationService {
 
-    private final Validator validator;
+    // Solo para los DTOs sin validador precompilado (RequestValidators): la fábrica y la metadata
+    // que construye por reflexión se crean una vez por proceso, y únicamente si hacen falta
+    private static final Lazy<Validator> VALIDATOR =
+            new Lazy<>(() -> Validation.buildDefaultValidatorFactory().getValidator());
+
     private final UserService userService;
 
     public ValidationService(UserService userService) {
-        ValidatorFactory factory = Validation.buildDefaultValidatorFactory();
-        this.validator = factory.getValidator();
         this.userService = userService;
     }
 
     public <T> void validate(T object) {
-        Set<ConstraintViolation<T>> violations = validator.validate(object);
+        long start = System.nanoTime();
+        RequestValidators.RequestValidator<T> precompiled =
+                object == null ? null : RequestValidators.forClass(object.getClass());
+        List<String> violations = precompiled != null ? precompiled.validate(object) : reflectiveValidation(object);
+        InvocationMetrics.record(Stage.VALIDATE, start);
 
         if (!violations.isEmpty()) {
-            String errorMessage = violations.stream()
-                    .map(violation -> violation.getMessage())
-                    .collect(Collectors.joining(", "));
-
-            throw new jakarta.validation.ValidationException(errorMessage);
+            throw new jakarta.validation.ValidationException(String.join(", ", violations));
         }
     }
 
+    private static <T> List<String> reflectiveValidation(T object) {
+        Set<ConstraintViolation<T>> violations = VALIDATOR.get().validate(object);
+        return violations.stream()
+                .map(violation -> violation.getMessage())
+                .collect(Collectors.toList());
+    }
+
     public void validateBusinessRules(String email, String documentNumber) {
         if (userService.isEmailExists(email)) {
             throw new UserAlreadyExistsException("Email already exists");
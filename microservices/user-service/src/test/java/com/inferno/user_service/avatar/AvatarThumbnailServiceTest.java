@@ -0,0 +1,104 @@
+package com.inferno.user_service.avatar;
+
+import com.inferno.user_service.exception.UnsupportedMediaTypeException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AvatarThumbnailServiceTest {
+
+    private static final String BUCKET = "avatars";
+
+    private InMemoryS3Client s3;
+    private AvatarUploadService uploadService;
+    private AvatarThumbnailService thumbnailService;
+
+    @BeforeEach
+    void setUp() {
+        s3 = new InMemoryS3Client();
+        S3Presigner presigner = S3Presigner.builder()
+                .region(Region.US_EAST_2)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("test", "test")))
+                .build();
+        uploadService = new AvatarUploadService(s3, s3.asAsync(), presigner, BUCKET, 1024 * 1024,
+                AvatarUploadService.MIN_PART_SIZE, Duration.ofMinutes(5));
+        thumbnailService = new AvatarThumbnailService(s3, BUCKET, new int[]{256, 64}, 1, 4);
+    }
+
+    private static String encodedImage(int width, int height, String format) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.ORANGE);
+        graphics.fillRect(0, 0, width, height);
+        graphics.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, format, out);
+        return Base64.getEncoder().encodeToString(out.toByteArray());
+    }
+
+    private BufferedImage stored(String key) throws IOException {
+        return ImageIO.read(new ByteArrayInputStream(s3.getObjectBytes(BUCKET, key)));
+    }
+
+    @Test
+    void storesSquareThumbnailsUnderContentHashKeys() throws IOException {
+        StoredAvatar avatar = uploadService.upload("u1", encodedImage(1200, 800, "jpeg"));
+
+        Map<String, String> variants = thumbnailService.generate(avatar);
+
+        assertEquals("thumbnails/" + avatar.getContentHash() + "/64.jpg", variants.get("64"));
+        assertEquals(64, stored(variants.get("64")).getWidth());
+        assertEquals(256, stored(variants.get("256")).getHeight());
+        assertEquals("image/jpeg", s3.getContentType(BUCKET, variants.get("256")));
+    }
+
+    @Test
+    void reusesThumbnailsForIdenticalUploads() throws IOException {
+        String body = encodedImage(300, 300, "png");
+        Map<String, String> first = thumbnailService.generate(uploadService.upload("u1", body));
+        int objects = s3.objectCount();
+        int reads = s3.objectReads();
+
+        Map<String, String> second = thumbnailService.generate(uploadService.upload("u2", body));
+
+        assertEquals(first, second);
+        // Solo se agrega el original de u2; la imagen no se vuelve a leer para decodificar
+        assertEquals(objects + 1, s3.objectCount());
+        assertEquals(reads, s3.objectReads());
+    }
+
+    @Test
+    void rejectsAndRemovesImagesThatCannotBeDecoded() {
+        byte[] truncated = {(byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A, 0, 0, 0, 0};
+        StoredAvatar avatar = uploadService.upload("u1", Base64.getEncoder().encodeToString(truncated));
+
+        assertThrows(UnsupportedMediaTypeException.class, () -> thumbnailService.generate(avatar));
+        assertNull(s3.getObjectBytes(BUCKET, avatar.getKey()));
+    }
+
+    @Test
+    void keepsWebpWithoutVariants() {
+        StoredAvatar avatar = new StoredAvatar("u1/ana.webp", ImageType.WEBP, 10, "abc");
+
+        assertTrue(thumbnailService.generate(avatar).isEmpty());
+    }
+}
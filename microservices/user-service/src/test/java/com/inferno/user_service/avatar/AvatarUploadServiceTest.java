@@ -0,0 +1,101 @@
+package com.inferno.user_service.avatar;
+
+import com.inferno.user_service.exception.PayloadTooLargeException;
+import com.inferno.user_service.exception.UnsupportedMediaTypeException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.time.Duration;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AvatarUploadServiceTest {
+
+    private static final String BUCKET = "avatars";
+    private static final int PART_SIZE = 1024;
+
+    private InMemoryS3Client s3;
+    private AvatarUploadService service;
+
+    @BeforeEach
+    void setUp() {
+        s3 = new InMemoryS3Client();
+        S3Presigner presigner = S3Presigner.builder()
+                .region(Region.US_EAST_2)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("test", "test")))
+                .build();
+        service = new AvatarUploadService(s3, s3.asAsync(), presigner, BUCKET, 4 * PART_SIZE, PART_SIZE,
+                Duration.ofMinutes(5));
+    }
+
+    private static byte[] png(int size) {
+        byte[] image = new byte[size];
+        byte[] signature = {(byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A};
+        System.arraycopy(signature, 0, image, 0, signature.length);
+        for (int i = signature.length; i < size; i++) {
+            image[i] = (byte) i;
+        }
+        return image;
+    }
+
+    @Test
+    void storesSmallImageWithSinglePut() {
+        byte[] image = png(200);
+
+        StoredAvatar avatar = service.upload("u1", Base64.getEncoder().encodeToString(image));
+
+        assertTrue(avatar.getKey().matches("u1/avatar-[0-9a-z]+\\.png"));
+        assertArrayEquals(image, s3.getObjectBytes(BUCKET, avatar.getKey()));
+        assertEquals("image/png", s3.getContentType(BUCKET, avatar.getKey()));
+    }
+
+    @Test
+    void streamsLargeImageAsMultipart() {
+        byte[] image = png(3 * PART_SIZE + 100);
+
+        StoredAvatar avatar = service.upload("u1",
+                "data:image/png;base64," + Base64.getMimeEncoder().encodeToString(image));
+
+        assertEquals(image.length, avatar.getSize());
+        assertArrayEquals(image, s3.getObjectBytes(BUCKET, avatar.getKey()));
+        assertEquals(0, s3.openMultipartUploads());
+    }
+
+    @Test
+    void abortsUploadWhenLimitIsExceeded() {
+        String body = Base64.getEncoder().encodeToString(png(5 * PART_SIZE));
+
+        assertThrows(PayloadTooLargeException.class, () -> service.upload("u1", body));
+        assertEquals(0, s3.objectCount());
+        assertEquals(0, s3.openMultipartUploads());
+    }
+
+    @Test
+    void rejectsBodiesThatAreNotImages() {
+        String body = Base64.getEncoder().encodeToString("<script>alert(1)</script>".getBytes());
+
+        assertThrows(UnsupportedMediaTypeException.class, () -> service.upload("u1", body));
+        assertEquals(0, s3.objectCount());
+    }
+
+    @Test
+    void presignsDirectUploadForDeclaredTypeAndSize() {
+        PresignedAvatarUpload upload = service.presignUpload("u1", "image/jpeg", 2048);
+
+        assertTrue(upload.getKey().matches("u1/avatar-[0-9a-z]+\\.jpg"));
+        assertTrue(upload.getUploadUrl().contains(upload.getKey()));
+        assertTrue(upload.getUploadUrl().contains("X-Amz-Signature"));
+        assertThrows(PayloadTooLargeException.class,
+                () -> service.presignUpload("u1", "image/png", 5 * PART_SIZE));
+        assertThrows(UnsupportedMediaTypeException.class,
+                () -> service.presignUpload("u1", "image/gif", 100));
+    }
+}
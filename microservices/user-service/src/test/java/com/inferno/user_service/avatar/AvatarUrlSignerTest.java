@@ -0,0 +1,102 @@
+package com.inferno.user_service.avatar;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AvatarUrlSignerTest {
+
+    private static final String BUCKET = "avatars";
+
+    private MutableClock clock;
+    private AvatarUrlSigner signer;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock();
+        S3Presigner presigner = S3Presigner.builder()
+                .region(Region.US_EAST_2)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("test", "test")))
+                .build();
+        signer = new AvatarUrlSigner(presigner, BUCKET, Duration.ofMinutes(60), Duration.ofMinutes(5), 100, clock);
+    }
+
+    @Test
+    void reusesSignatureUntilRefreshMargin() {
+        String first = signer.url("u1/ana.png");
+        clock.advance(Duration.ofMinutes(54));
+
+        assertSame(first, signer.url("u1/ana.png"));
+        assertEquals(1, signer.getSignatures());
+        assertEquals(1, signer.getHits());
+        assertTrue(first.contains("u1/ana.png") && first.contains("X-Amz-Signature"));
+    }
+
+    @Test
+    void signsAgainWhenCloseToExpiry() {
+        signer.url("u1/ana.png");
+        clock.advance(Duration.ofMinutes(55));
+
+        signer.url("u1/ana.png");
+
+        assertEquals(2, signer.getSignatures());
+    }
+
+    @Test
+    void recoversKeyFromLegacyStoredUrl() {
+        String legacy = "https://avatars.s3.us-east-2.amazonaws.com/u1/Ana%20Maria.png?X-Amz-Signature=abc";
+        String pathStyle = "http://localhost:4566/avatars/u1/ana.png?X-Amz-Signature=abc";
+
+        assertEquals("u1/Ana Maria.png", signer.keyFromLegacyUrl(legacy));
+        assertEquals("u1/ana.png", signer.keyFromLegacyUrl(pathStyle));
+        assertNull(signer.url(signer.keyFromLegacyUrl(null)));
+    }
+
+    @Test
+    void rejectsMissingBucket() {
+        S3Presigner presigner = S3Presigner.builder()
+                .region(Region.US_EAST_2)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("test", "test")))
+                .build();
+        assertThrows(IllegalArgumentException.class, () ->
+                new AvatarUrlSigner(presigner, null, Duration.ofMinutes(60), Duration.ofMinutes(5), 100, clock));
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
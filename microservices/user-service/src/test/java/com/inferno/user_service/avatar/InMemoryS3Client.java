@@ -0,0 +1,254 @@
+package com.inferno.user_service.avatar;
+
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.core.sync.ResponseTransformer;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectResponse;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// S3 en memoria compatible con lo que usan los handlers (put, get, head, delete y multipart),
+// para pruebas y benchmarks. La latencia opcional simula el viaje de red por llamada.
+public class InMemoryS3Client implements S3Client {
+
+    private final long latencyMillis;
+    private final Map<String, StoredObject> objects = new ConcurrentHashMap<>();
+    private final Map<String, Map<Integer, byte[]>> multipartUploads = new ConcurrentHashMap<>();
+    private final Map<String, String> multipartContentTypes = new ConcurrentHashMap<>();
+    private final AtomicInteger objectReads = new AtomicInteger();
+
+    public InMemoryS3Client() {
+        this(Duration.ZERO);
+    }
+
+    public InMemoryS3Client(Duration latency) {
+        this.latencyMillis = latency.toMillis();
+    }
+
+    @Override
+    public PutObjectResponse putObject(PutObjectRequest request, RequestBody body) {
+        simulateLatency();
+        objects.put(path(request.bucket(), request.key()), new StoredObject(read(body), request.contentType()));
+        return PutObjectResponse.builder().build();
+    }
+
+    @Override
+    public CreateMultipartUploadResponse createMultipartUpload(CreateMultipartUploadRequest request) {
+        simulateLatency();
+        String uploadId = UUID.randomUUID().toString();
+        multipartUploads.put(uploadId, new TreeMap<>());
+        if (request.contentType() != null) {
+            multipartContentTypes.put(uploadId, request.contentType());
+        }
+        return CreateMultipartUploadResponse.builder()
+                .bucket(request.bucket())
+                .key(request.key())
+                .uploadId(uploadId)
+                .build();
+    }
+
+    @Override
+    public UploadPartResponse uploadPart(UploadPartRequest request, RequestBody body) {
+        simulateLatency();
+        Map<Integer, byte[]> parts = multipartUploads.get(request.uploadId());
+        if (parts == null) {
+            throw new IllegalStateException("Unknown upload " + request.uploadId());
+        }
+        synchronized (parts) {
+            parts.put(request.partNumber(), read(body));
+        }
+        return UploadPartResponse.builder().eTag("etag-" + request.partNumber()).build();
+    }
+
+    @Override
+    public CompleteMultipartUploadResponse completeMultipartUpload(CompleteMultipartUploadRequest request) {
+        simulateLatency();
+        Map<Integer, byte[]> parts = multipartUploads.remove(request.uploadId());
+        if (parts == null) {
+            throw new IllegalStateException("Unknown upload " + request.uploadId());
+        }
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        for (CompletedPart part : request.multipartUpload().parts()) {
+            content.writeBytes(parts.get(part.partNumber()));
+        }
+        objects.put(path(request.bucket(), request.key()),
+                new StoredObject(content.toByteArray(), multipartContentTypes.remove(request.uploadId())));
+        return CompleteMultipartUploadResponse.builder().bucket(request.bucket()).key(request.key()).build();
+    }
+
+    @Override
+    public AbortMultipartUploadResponse abortMultipartUpload(AbortMultipartUploadRequest request) {
+        simulateLatency();
+        multipartUploads.remove(request.uploadId());
+        multipartContentTypes.remove(request.uploadId());
+        return AbortMultipartUploadResponse.builder().build();
+    }
+
+    @Override
+    public <ReturnT> ReturnT getObject(GetObjectRequest request,
+                                       ResponseTransformer<GetObjectResponse, ReturnT> transformer) {
+        simulateLatency();
+        StoredObject object = find(request.bucket(), request.key());
+        objectReads.incrementAndGet();
+        GetObjectResponse response = GetObjectResponse.builder()
+                .contentType(object.contentType)
+                .contentLength((long) object.content.length)
+                .build();
+        try {
+            return transformer.transform(response,
+                    AbortableInputStream.create(new ByteArrayInputStream(object.content)));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public ResponseInputStream<GetObjectResponse> getObject(GetObjectRequest request) {
+        return getObject(request, ResponseTransformer.toInputStream());
+    }
+
+    @Override
+    public HeadObjectResponse headObject(HeadObjectRequest request) {
+        simulateLatency();
+        StoredObject object = find(request.bucket(), request.key());
+        return HeadObjectResponse.builder()
+                .contentType(object.contentType)
+                .contentLength((long) object.content.length)
+                .build();
+    }
+
+    @Override
+    public DeleteObjectResponse deleteObject(DeleteObjectRequest request) {
+        simulateLatency();
+        objects.remove(path(request.bucket(), request.key()));
+        return DeleteObjectResponse.builder().build();
+    }
+
+    // Vista asíncrona sobre los mismos objetos; solo el borrado, que es lo que se usa sin bloquear.
+    // Como el cliente real, no ocupa el hilo que llama.
+    public S3AsyncClient asAsync() {
+        InMemoryS3Client sync = this;
+        return new S3AsyncClient() {
+            @Override
+            public CompletableFuture<DeleteObjectResponse> deleteObject(DeleteObjectRequest request) {
+                return CompletableFuture.supplyAsync(() -> sync.deleteObject(request));
+            }
+
+            @Override
+            public String serviceName() {
+                return SERVICE_NAME;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    public byte[] getObjectBytes(String bucket, String key) {
+        StoredObject object = objects.get(path(bucket, key));
+        return object == null ? null : object.content;
+    }
+
+    public String getContentType(String bucket, String key) {
+        StoredObject object = objects.get(path(bucket, key));
+        return object == null ? null : object.contentType;
+    }
+
+    public int objectCount() {
+        return objects.size();
+    }
+
+    public int objectReads() {
+        return objectReads.get();
+    }
+
+    public int openMultipartUploads() {
+        return multipartUploads.size();
+    }
+
+    @Override
+    public String serviceName() {
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {
+        objects.clear();
+        multipartUploads.clear();
+        multipartContentTypes.clear();
+    }
+
+    private void simulateLatency() {
+        if (latencyMillis <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.MILLISECONDS.sleep(latencyMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private StoredObject find(String bucket, String key) {
+        StoredObject object = objects.get(path(bucket, key));
+        if (object == null) {
+            throw NoSuchKeyException.builder().message("No such key: " + key).statusCode(404).build();
+        }
+        return object;
+    }
+
+    private static String path(String bucket, String key) {
+        return bucket + "/" + key;
+    }
+
+    private static byte[] read(RequestBody body) {
+        try (InputStream in = body.contentStreamProvider().newStream()) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static final class StoredObject {
+        private final byte[] content;
+        private final String contentType;
+
+        private StoredObject(byte[] content, String contentType) {
+            this.content = content;
+            this.contentType = contentType;
+        }
+    }
+}
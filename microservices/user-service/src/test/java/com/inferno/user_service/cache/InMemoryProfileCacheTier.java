@@ -0,0 +1,59 @@
+package com.inferno.user_service.cache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Sustituto local del segundo nivel, para pruebas
+public class InMemoryProfileCacheTier implements ProfileCacheTier {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Clock clock;
+
+    public InMemoryProfileCacheTier() {
+        this(Clock.systemUTC());
+    }
+
+    public InMemoryProfileCacheTier(Clock clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public Optional<String> get(String uuid) {
+        Entry entry = entries.get(uuid);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        if (clock.millis() >= entry.expiresAt) {
+            entries.remove(uuid, entry);
+            return Optional.empty();
+        }
+        return Optional.of(entry.body);
+    }
+
+    @Override
+    public void put(String uuid, String body, Duration ttl) {
+        entries.put(uuid, new Entry(body, clock.millis() + ttl.toMillis()));
+    }
+
+    @Override
+    public void invalidate(String uuid) {
+        entries.remove(uuid);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private static final class Entry {
+        private final String body;
+        private final long expiresAt;
+
+        private Entry(String body, long expiresAt) {
+            this.body = body;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.inferno.user_service.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ProfileCacheTest {
+
+    private MutableClock clock;
+    private InMemoryProfileCacheTier tier;
+    private ProfileCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock();
+        tier = new InMemoryProfileCacheTier(clock);
+        cache = new ProfileCache(2, Duration.ofSeconds(60), tier, clock);
+        loads = new AtomicInteger();
+    }
+
+    private String load(String uuid) {
+        loads.incrementAndGet();
+        return "[{\"uuid\":\"" + uuid + "\"}]";
+    }
+
+    @Test
+    void servesRepeatedReadsFromMemory() throws Exception {
+        cache.get("u1", this::load);
+        cache.get("u1", this::load);
+
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.stats().getLocalHits());
+        assertEquals(0.5, cache.stats().getHitRatio());
+    }
+
+    @Test
+    void expiresEntriesAfterTtl() throws Exception {
+        cache.get("u1", this::load);
+        clock.advance(Duration.ofSeconds(61));
+
+        cache.get("u1", this::load);
+
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.stats().getExpirations());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedBeyondMaxEntries() throws Exception {
+        cache.get("u1", this::load);
+        cache.get("u2", this::load);
+        cache.get("u1", this::load);
+        cache.get("u3", this::load);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.stats().getEvictions());
+        // u2 era el menos usado; u1 sigue en memoria
+        cache.get("u1", this::load);
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void fillsLocalTierFromSharedTier() throws Exception {
+        tier.put("u1", "[{\"uuid\":\"u1\"}]", Duration.ofSeconds(60));
+
+        cache.get("u1", this::load);
+        cache.get("u1", this::load);
+
+        assertEquals(0, loads.get());
+        assertEquals(1, cache.stats().getTierHits());
+        assertEquals(1, cache.stats().getLocalHits());
+    }
+
+    @Test
+    void invalidationClearsBothTiers() throws Exception {
+        cache.get("u1", this::load);
+        cache.invalidate("u1");
+
+        assertEquals(0, tier.size());
+        cache.get("u1", this::load);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void doesNotCacheMissingProfiles() throws Exception {
+        assertNull(cache.get("missing", uuid -> null));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void doesNotCacheLoadThatRacedWithInvalidation() throws Exception {
+        cache.get("u1", uuid -> {
+            cache.invalidate(uuid);
+            return "stale";
+        });
+
+        assertEquals(0, cache.size());
+        assertEquals(0, tier.size());
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
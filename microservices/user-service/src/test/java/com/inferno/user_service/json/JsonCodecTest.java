@@ -0,0 +1,54 @@
+package com.inferno.user_service.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inferno.user_service.dto.BatchProfileRequest;
+import com.inferno.user_service.dto.UserRegistrationRequest;
+import com.inferno.user_service.dto.UserResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JsonCodecTest {
+
+    private final ObjectMapper plainMapper = new ObjectMapper();
+
+    @Test
+    void errorBodiesEscapeDynamicMessages() throws Exception {
+        assertSame(ErrorBodies.of("User not found"), ErrorBodies.of("User not found"));
+        assertEquals("{\"error\":\"Internal server error\"}", ErrorBodies.of(null));
+
+        String message = "Invalid \"name\"\\ at line 1\n\tcolumn 2 \u0001 ñ";
+        String body = ErrorBodies.of(message);
+        assertEquals(message, plainMapper.readTree(body).get("error").asText());
+    }
+
+    @Test
+    void producesTheSameJsonAsAPlainMapper() throws Exception {
+        UserResponse response = new UserResponse();
+        response.setUuid("u-1");
+        response.setName("Ana");
+        response.setEmail("ana@inferno.com");
+        response.setThumbnails(Map.of("64", "https://cdn/64.png"));
+        String registration = "{\"email\":\"ana@inferno.com\",\"name\":\"Ana\",\"lastName\":\"Torres\","
+                + "\"document\":\"123\",\"password\":\"password123\"}";
+
+        for (JsonCodec codec : List.of(new JsonCodec(false), new JsonCodec(true))) {
+            assertEquals(plainMapper.writeValueAsString(response), codec.write(response));
+            assertEquals(plainMapper.writeValueAsString(List.of(response)), codec.write(List.of(response)));
+
+            UserRegistrationRequest request = codec.read(registration, UserRegistrationRequest.class);
+            assertEquals(plainMapper.writeValueAsString(plainMapper.readValue(registration, UserRegistrationRequest.class)),
+                    codec.write(request));
+            assertEquals("u-1", codec.read("{\"keys\":[{\"uuid\":\"u-1\",\"document\":\"1\"}]}",
+                    BatchProfileRequest.class).getKeys().get(0).getUuid());
+
+            // Igual que el ObjectMapper por defecto, los campos desconocidos se rechazan
+            assertThrows(Exception.class, () -> codec.read("{\"unknown\":1}", UserRegistrationRequest.class));
+        }
+    }
+}
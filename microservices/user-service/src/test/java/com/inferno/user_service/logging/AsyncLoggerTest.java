@@ -0,0 +1,164 @@
+package com.inferno.user_service.logging;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AsyncLoggerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final InMemoryLogSink sink = new InMemoryLogSink();
+
+    @Test
+    void redactsSensitiveFieldsAtAnyDepth() throws IOException {
+        JsonRedactor redactor = new JsonRedactor();
+        String redacted = redactor.redact("{\"email\":\"ana@inferno.com\",\"Password\":\"hunter2\","
+                + "\"profile\":{\"document\":1020304050,\"tags\":[\"a\",{\"token\":{\"nested\":true}}]},"
+                + "\"secret\":[1,2,3],\"name\":\"Ana\"}");
+
+        assertEquals("{\"email\":\"ana@inferno.com\",\"Password\":\"***\","
+                + "\"profile\":{\"document\":\"***\",\"tags\":[\"a\",{\"token\":\"***\"}]},"
+                + "\"secret\":\"***\",\"name\":\"Ana\"}", redacted);
+        assertThrows(IOException.class, () -> redactor.redact("{\"password\":\"hunter2\""));
+    }
+
+    @Test
+    void samplesPayloadsAndNeverWritesThemUnredacted() throws Exception {
+        AsyncLogger never = new AsyncLogger(sink, LogLevel.DEBUG, 0.0, new JsonRedactor(), 16);
+        never.payload(null, "Login request", "{\"password\":\"hunter2\"}");
+        assertTrue(never.awaitDrained(Duration.ofSeconds(5)));
+        assertTrue(sink.getLines().isEmpty());
+
+        AsyncLogger infoOnly = new AsyncLogger(sink, LogLevel.INFO, 1.0, new JsonRedactor(), 16);
+        infoOnly.payload(null, "Login request", "{\"password\":\"hunter2\"}");
+        assertTrue(infoOnly.awaitDrained(Duration.ofSeconds(5)));
+        assertTrue(sink.getLines().isEmpty());
+
+        AsyncLogger always = new AsyncLogger(sink, LogLevel.DEBUG, 1.0,
+                new JsonRedactor(new JsonFactory(), Set.of("password")), 16);
+        always.payload(null, "Login request", "{\"email\":\"ana@inferno.com\",\"password\":\"hunter2\"}");
+        always.payload(null, "Login request", "password=hunter2");
+        assertTrue(always.awaitDrained(Duration.ofSeconds(5)));
+
+        List<String> lines = sink.getLines();
+        assertEquals(2, lines.size());
+        JsonNode first = objectMapper.readTree(lines.get(0));
+        assertEquals("DEBUG", first.get("level").asText());
+        assertEquals("ana@inferno.com", first.get("payload").get("email").asText());
+        assertEquals("***", first.get("payload").get("password").asText());
+        assertEquals("[unparseable payload: 16 chars]", objectMapper.readTree(lines.get(1)).get("payload").asText());
+        lines.forEach(line -> assertFalse(line.contains("hunter2"), line));
+    }
+
+    @Test
+    void dropsEventsInsteadOfBlockingWhenTheBufferIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch writing = new CountDownLatch(1);
+        AsyncLogger logger = new AsyncLogger(line -> {
+            writing.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            sink.write(line);
+        }, LogLevel.INFO, 0.0, new JsonRedactor(), 4);
+
+        // El primero queda retenido en el sink; los siguientes llenan el buffer
+        logger.info(null, "event 0");
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        long start = System.nanoTime();
+        for (int i = 1; i <= 20; i++) {
+            logger.info(null, "event " + i);
+        }
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+        assertEquals(16, logger.getDroppedCount());
+
+        release.countDown();
+        assertTrue(logger.awaitDrained(Duration.ofSeconds(5)));
+        logger.info(null, "after");
+        assertTrue(logger.awaitDrained(Duration.ofSeconds(5)));
+        List<String> lines = sink.getLines();
+        assertEquals(List.of("event 0", "event 1", "event 2", "event 3", "event 4"), messages(lines.subList(0, 5)));
+        assertTrue(lines.stream().anyMatch(line -> line.contains("Dropped 16 log events")), lines.toString());
+    }
+
+    @Test
+    void endInvocationWritesPendingEventsWithinTheDrainTimeout() throws Exception {
+        AsyncLogger logger = new AsyncLogger(sink, LogLevel.INFO, 0.0, new JsonRedactor(), 16, Duration.ofSeconds(5));
+        logger.warn(null, "warn");
+        logger.error(null, "error", new IllegalStateException("boom"));
+        assertTrue(logger.endInvocation());
+        assertEquals(List.of("warn", "error"), messages(sink.getLines()));
+
+        // Un sink atascado no retiene la respuesta más allá del plazo
+        CountDownLatch release = new CountDownLatch(1);
+        AsyncLogger stuck = new AsyncLogger(line -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, LogLevel.INFO, 0.0, new JsonRedactor(), 16, Duration.ofMillis(50));
+        stuck.error(null, "error", null);
+        long start = System.nanoTime();
+        assertFalse(stuck.endInvocation());
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+        release.countDown();
+    }
+
+    @Test
+    void ringBufferDeliversEveryEventFromConcurrentProducers() throws Exception {
+        LogRingBuffer<Integer> buffer = new LogRingBuffer<>(64);
+        int producers = 4;
+        int perProducer = 10_000;
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    while (!buffer.offer(base + i)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+
+        Set<Integer> received = new HashSet<>();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (received.size() < producers * perProducer && System.nanoTime() < deadline) {
+            Integer item = buffer.poll();
+            if (item != null) {
+                assertTrue(received.add(item), "duplicate " + item);
+            }
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(producers * perProducer, received.size());
+    }
+
+    private List<String> messages(List<String> lines) throws IOException {
+        List<String> messages = new ArrayList<>();
+        for (String line : lines) {
+            messages.add(objectMapper.readTree(line).get("message").asText());
+        }
+        return messages;
+    }
+}
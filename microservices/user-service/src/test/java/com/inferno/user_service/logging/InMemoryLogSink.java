@@ -0,0 +1,23 @@
+package com.inferno.user_service.logging;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Sustituto local de CloudWatch Logs para pruebas y benchmarks
+public class InMemoryLogSink implements LogSink {
+
+    private final List<String> lines = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void write(String line) {
+        lines.add(line);
+    }
+
+    public List<String> getLines() {
+        return List.copyOf(lines);
+    }
+
+    public void clear() {
+        lines.clear();
+    }
+}
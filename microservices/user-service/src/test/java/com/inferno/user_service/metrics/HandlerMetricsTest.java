@@ -0,0 +1,108 @@
+package com.inferno.user_service.metrics;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HandlerMetricsTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final InMemoryMetricsSink sink = new InMemoryMetricsSink();
+    private final HandlerMetrics metrics = new HandlerMetrics("LoginUserLambda", "Inferno/Test", sink);
+
+    @Test
+    void histogramKeepsValuesWithinTheBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 0; value < 5_000_000; value = value * 3 / 2 + 1) {
+            long represented = LatencyHistogram.representativeValue(LatencyHistogram.indexOf(value));
+            assertTrue(Math.abs(represented - value) <= Math.max(1, value / 32), value + " -> " + represented);
+        }
+
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i * 1_000L);
+        }
+        assertEquals(100, histogram.count());
+        assertEquals(50_000, histogram.valueAtPercentile(50), 50_000 / 16.0);
+        assertEquals(99_000, histogram.valueAtPercentile(99), 99_000 / 16.0);
+
+        histogram.reset();
+        assertTrue(histogram.isEmpty());
+        assertEquals(0, histogram.valueAtPercentile(99));
+    }
+
+    @Test
+    void flushesOneEmfLinePerInvocation() throws Exception {
+        metrics.begin();
+        InvocationMetrics.current().recordMicros(Stage.PARSE, 120);
+        InvocationMetrics.current().recordMicros(Stage.DYNAMODB_READ, 3_000);
+        InvocationMetrics.current().recordMicros(Stage.DYNAMODB_READ, 3_000);
+        InvocationMetrics.current().recordMicros(Stage.HASH, 45_000);
+        metrics.flush(null);
+
+        assertEquals(1, sink.getLines().size());
+        JsonNode line = objectMapper.readTree(sink.lastLine());
+        JsonNode directive = line.get("_aws").get("CloudWatchMetrics").get(0);
+        assertEquals("Inferno/Test", directive.get("Namespace").asText());
+        assertEquals("Handler", directive.get("Dimensions").get(0).get(0).asText());
+        assertEquals(List.of("ParseTime", "HashTime", "DynamoDbReadTime"), metricNames(directive));
+        assertEquals("Microseconds", directive.get("Metrics").get(0).get("Unit").asText());
+        assertEquals("LoginUserLambda", line.get("Handler").asText());
+        assertEquals(120, line.get("ParseTime").get(0).asLong(), 120 / 32.0);
+        assertEquals(2, line.get("DynamoDbReadTime").size());
+        assertEquals(45_000, line.get("HashTime").get(0).asLong(), 45_000 / 32.0);
+        assertFalse(line.has("JwtSignTime"));
+        assertFalse(line.has("RequestId"));
+
+        // Fuera de la invocación no queda nada activo y la siguiente empieza vacía
+        assertNull(InvocationMetrics.current());
+        InvocationMetrics.record(Stage.PARSE, System.nanoTime());
+        metrics.begin();
+        InvocationMetrics.current().recordMicros(Stage.SERIALIZE, 10);
+        metrics.flush(null);
+        JsonNode next = objectMapper.readTree(sink.lastLine());
+        assertEquals(List.of("SerializeTime"), metricNames(next.get("_aws").get("CloudWatchMetrics").get(0)));
+    }
+
+    @Test
+    void skipsInvocationsWithoutStagesAndDisabledHandlers() {
+        metrics.begin();
+        metrics.flush(null);
+        assertTrue(sink.getLines().isEmpty());
+
+        HandlerMetrics disabled = HandlerMetrics.disabled(HandlerMetricsTest.class);
+        disabled.begin();
+        InvocationMetrics.record(Stage.PARSE, System.nanoTime());
+        assertNull(InvocationMetrics.current());
+        disabled.flush(null);
+        assertTrue(sink.getLines().isEmpty());
+    }
+
+    @Test
+    void recordsAsyncStagesCompletedOnOtherThreads() throws Exception {
+        metrics.begin();
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        InvocationMetrics.recordOnCompletion(Stage.DYNAMODB_WRITE, System.nanoTime(), pending);
+        Thread completer = new Thread(() -> pending.complete("done"));
+        completer.start();
+        completer.join();
+        metrics.flush(null);
+
+        JsonNode line = objectMapper.readTree(sink.lastLine());
+        assertEquals(1, line.get("DynamoDbWriteTime").size());
+    }
+
+    private static List<String> metricNames(JsonNode directive) {
+        List<String> names = new ArrayList<>();
+        directive.get("Metrics").forEach(metric -> names.add(metric.get("Name").asText()));
+        return names;
+    }
+}
@@ -0,0 +1,27 @@
+package com.inferno.user_service.metrics;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Sustituto local de CloudWatch para pruebas y benchmarks
+public class InMemoryMetricsSink implements MetricsSink {
+
+    private final List<String> lines = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void emit(String line) {
+        lines.add(line);
+    }
+
+    public List<String> getLines() {
+        return List.copyOf(lines);
+    }
+
+    public String lastLine() {
+        return lines.isEmpty() ? null : lines.get(lines.size() - 1);
+    }
+
+    public void clear() {
+        lines.clear();
+    }
+}
@@ -0,0 +1,65 @@
+package com.inferno.user_service.priming;
+
+import com.inferno.user_service.security.BCryptPasswordHasher;
+import com.inferno.user_service.security.HashingExecutor;
+import com.inferno.user_service.security.PasswordService;
+import com.inferno.user_service.service.UserService;
+import com.inferno.user_service.support.DynamoDbLocal;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ColdStartPrimingTest {
+
+    private static DynamoDbLocal dynamoDb;
+    private static PasswordService passwordService;
+
+    @BeforeAll
+    static void startDynamoDb() throws Exception {
+        dynamoDb = DynamoDbLocal.start();
+        passwordService = new PasswordService(new BCryptPasswordHasher(), 4, new HashingExecutor(2, 10_000));
+    }
+
+    @AfterAll
+    static void stopDynamoDb() throws Exception {
+        dynamoDb.close();
+    }
+
+    @Test
+    void primesEveryStepAndDryRunsOnlyTheClientsAlreadyBuilt() {
+        new UserService(dynamoDb.registry(), passwordService);
+        ColdStartPriming priming = new ColdStartPriming(dynamoDb.registry(), passwordService, null, true);
+
+        Map<String, Long> primed = priming.prime();
+
+        // Sin bucket ni cliente asíncrono construido no hay dry run de S3 ni de DynamoDB async
+        assertEquals(List.of("jackson", "validation", "passwords", "jwt", "dynamodb"), List.copyOf(primed.keySet()));
+    }
+
+    @Test
+    void restoreRefreshesCredentialsAndKeepsClientsUsable() {
+        UserService userService = new UserService(dynamoDb.registry(), passwordService);
+        ColdStartPriming priming = new ColdStartPriming(dynamoDb.registry(), passwordService, null, true);
+
+        Map<String, Long> restored = priming.restore();
+
+        assertEquals(List.of("randomness", "credentials", "dynamodb"), List.copyOf(restored.keySet()));
+        assertFalse(userService.isEmailExists("nobody@inferno.com"));
+        assertNull(userService.getUserByEmail("nobody@inferno.com"));
+    }
+
+    @Test
+    void skipsDryRunsWhenDisabled() {
+        new UserService(dynamoDb.registry(), passwordService);
+        ColdStartPriming priming = new ColdStartPriming(dynamoDb.registry(), passwordService, null, false);
+
+        assertEquals(List.of("randomness", "credentials"), List.copyOf(priming.restore().keySet()));
+    }
+}
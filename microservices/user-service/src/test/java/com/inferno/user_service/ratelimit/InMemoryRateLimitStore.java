@@ -0,0 +1,26 @@
+package com.inferno.user_service.ratelimit;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Sustituto local del contador compartido, para pruebas y benchmarks
+public class InMemoryRateLimitStore implements RateLimitStore {
+
+    private final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
+
+    @Override
+    public long increment(String key, long windowStartEpochSecond, Duration window) {
+        return counters.computeIfAbsent(key + "#" + windowStartEpochSecond, k -> new AtomicLong())
+                .incrementAndGet();
+    }
+
+    public int size() {
+        return counters.size();
+    }
+
+    public void clear() {
+        counters.clear();
+    }
+}
@@ -0,0 +1,140 @@
+package com.inferno.user_service.ratelimit;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.inferno.user_service.exception.TooManyRequestsException;
+import com.inferno.user_service.handler.LoginUserLambda;
+import com.inferno.user_service.metrics.HandlerMetrics;
+import com.inferno.user_service.model.User;
+import com.inferno.user_service.security.InMemorySecretSource;
+import com.inferno.user_service.security.JwtKeyProvider;
+import com.inferno.user_service.security.PasswordService;
+import com.inferno.user_service.service.UserService;
+import com.inferno.user_service.support.DynamoDbLocal;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LoginRateLimiterTest {
+
+    private final MutableClock clock = new MutableClock();
+
+    @Test
+    void localBucketsLimitEachEmailAndIpAndRefill() {
+        LoginRateLimiter limiter = new LoginRateLimiter(new LoginRateLimiter.Limit(3, Duration.ofSeconds(60)),
+                new LoginRateLimiter.Limit(4, Duration.ofSeconds(60)), 100, null, clock);
+
+        for (int i = 0; i < 3; i++) {
+            limiter.check("ana@inferno.com", "10.0.0.1");
+        }
+        // El email se normaliza: cambiar mayúsculas no da intentos nuevos
+        TooManyRequestsException e = assertThrows(TooManyRequestsException.class,
+                () -> limiter.check(" Ana@Inferno.com", "10.0.0.2"));
+        assertEquals(429, e.getStatusCode());
+        assertEquals(20, e.getRetryAfterSeconds());
+
+        // La IP lleva su propia cuenta: el cuarto intento desde 10.0.0.1 la agota, aunque cambie el email
+        limiter.check("luis@inferno.com", "10.0.0.1");
+        assertThrows(TooManyRequestsException.class, () -> limiter.check("eva@inferno.com", "10.0.0.1"));
+
+        clock.advance(Duration.ofSeconds(20));
+        assertDoesNotThrow(() -> limiter.check("ana@inferno.com", null));
+        assertEquals(2, limiter.getRejectedCount());
+    }
+
+    @Test
+    void sharedStoreLimitsAcrossContainersAndFailsOpen() {
+        LoginRateLimiter.Limit limit = new LoginRateLimiter.Limit(3, Duration.ofSeconds(60));
+        InMemoryRateLimitStore store = new InMemoryRateLimitStore();
+        LoginRateLimiter first = new LoginRateLimiter(limit, limit, 100, store, clock);
+        LoginRateLimiter second = new LoginRateLimiter(limit, limit, 100, store, clock);
+
+        first.check("ana@inferno.com", null);
+        first.check("ana@inferno.com", null);
+        second.check("ana@inferno.com", null);
+        // Los buckets locales de `second` tienen tokens, pero la ventana compartida ya está agotada
+        TooManyRequestsException e = assertThrows(TooManyRequestsException.class,
+                () -> second.check("ana@inferno.com", null));
+        assertEquals(60, e.getRetryAfterSeconds());
+
+        LoginRateLimiter unavailable = new LoginRateLimiter(limit, limit, 100, (key, window, length) -> {
+            throw new IllegalStateException("throttled");
+        }, clock);
+        assertDoesNotThrow(() -> unavailable.check("ana@inferno.com", "10.0.0.1"));
+        assertEquals(2, unavailable.getStoreFailureCount());
+    }
+
+    @Test
+    void dynamoDbStoreCountsAtomicallyPerWindow() throws Exception {
+        try (DynamoDbLocal dynamoDb = DynamoDbLocal.start()) {
+            dynamoDb.createRateLimitTable("login-rate-limit-table");
+            DynamoDbRateLimitStore store = new DynamoDbRateLimitStore(dynamoDb.registry().dynamoDbClient(),
+                    "login-rate-limit-table");
+            Duration window = Duration.ofSeconds(60);
+
+            assertEquals(1, store.increment("LOGIN#EMAIL#ana@inferno.com", 1_200, window));
+            assertEquals(2, store.increment("LOGIN#EMAIL#ana@inferno.com", 1_200, window));
+            assertEquals(1, store.increment("LOGIN#EMAIL#ana@inferno.com", 1_260, window));
+            assertEquals(1, store.increment("LOGIN#IP#10.0.0.1", 1_200, window));
+        }
+    }
+
+    @Test
+    void handlerRejectsBeforeLookingUpOrHashing() {
+        AtomicInteger authentications = new AtomicInteger();
+        UserService userService = new UserService(new PasswordService()) {
+            @Override
+            public User authenticateUser(String email, String plainPassword) {
+                authentications.incrementAndGet();
+                return null;
+            }
+        };
+        LoginRateLimiter.Limit limit = new LoginRateLimiter.Limit(2, Duration.ofSeconds(60));
+        LoginUserLambda handler = new LoginUserLambda(userService, JwtKeyProvider.create(new InMemorySecretSource()),
+                HandlerMetrics.disabled(LoginUserLambda.class), new LoginRateLimiter(limit, limit, 100, null, clock));
+        APIGatewayProxyRequestEvent request = new APIGatewayProxyRequestEvent()
+                .withBody("{\"email\":\"ana@inferno.com\",\"password\":\"password123\"}")
+                .withRequestContext(new APIGatewayProxyRequestEvent.ProxyRequestContext()
+                        .withIdentity(new APIGatewayProxyRequestEvent.RequestIdentity().withSourceIp("10.0.0.1")));
+
+        assertEquals(401, handler.handleRequest(request, null).getStatusCode());
+        assertEquals(401, handler.handleRequest(request, null).getStatusCode());
+        APIGatewayProxyResponseEvent limited = handler.handleRequest(request, null);
+
+        assertEquals(429, limited.getStatusCode());
+        assertEquals("30", limited.getHeaders().get("Retry-After"));
+        assertEquals(2, authentications.get());
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
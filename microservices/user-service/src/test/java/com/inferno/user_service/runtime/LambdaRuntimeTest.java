@@ -0,0 +1,111 @@
+package com.inferno.user_service.runtime;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LambdaRuntimeTest {
+
+    private static final String EVENT = "{\"httpMethod\":\"GET\",\"resource\":\"/profile/{uuid}\","
+            + "\"pathParameters\":{\"uuid\":\"u1\"},\"requestContext\":{\"requestId\":\"r\",\"domainName\":\"x\"},"
+            + "\"isBase64Encoded\":false,\"unknownField\":1}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    // Lo que el runtime publica, por ruta de la Runtime API
+    private final Map<String, String> posted = new ConcurrentHashMap<>();
+
+    private HttpServer runtimeApi;
+
+    @BeforeEach
+    void startRuntimeApi() throws IOException {
+        runtimeApi = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        runtimeApi.createContext("/2018-06-01/runtime/invocation/", exchange -> {
+            if (exchange.getRequestURI().getPath().endsWith("/next")) {
+                exchange.getResponseHeaders().set("Lambda-Runtime-Aws-Request-Id", "req-1");
+                exchange.getResponseHeaders().set("Lambda-Runtime-Deadline-Ms",
+                        String.valueOf(System.currentTimeMillis() + 30_000));
+                exchange.getResponseHeaders().set("Lambda-Runtime-Invoked-Function-Arn", "arn:aws:lambda:test");
+                respond(exchange, 200, EVENT);
+            } else {
+                posted.put(exchange.getRequestURI().getPath(),
+                        new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+                respond(exchange, 202, "");
+            }
+        });
+        runtimeApi.start();
+    }
+
+    @AfterEach
+    void stopRuntimeApi() {
+        runtimeApi.stop(0);
+    }
+
+    @Test
+    void postsTheHandlerResponseForTheInvocation() throws Exception {
+        LambdaRuntime runtime = new LambdaRuntime(address(), (request, context) -> new APIGatewayProxyResponseEvent()
+                .withStatusCode(200)
+                .withBody(request.getHttpMethod() + " " + request.getPathParameters().get("uuid") + " "
+                        + context.getAwsRequestId() + " " + (context.getRemainingTimeInMillis() > 0)));
+
+        runtime.processNext();
+
+        JsonNode response = objectMapper.readTree(posted.get("/2018-06-01/runtime/invocation/req-1/response"));
+        assertEquals(200, response.get("statusCode").asInt());
+        assertEquals("GET u1 req-1 true", response.get("body").asText());
+        // Los campos nulos no se envían
+        assertFalse(response.has("headers"));
+    }
+
+    @Test
+    void reportsHandlerFailuresToTheErrorEndpoint() throws Exception {
+        LambdaRuntime runtime = new LambdaRuntime(address(), (request, context) -> {
+            throw new IllegalStateException("boom");
+        });
+
+        runtime.processNext();
+
+        JsonNode error = objectMapper.readTree(posted.get("/2018-06-01/runtime/invocation/req-1/error"));
+        assertEquals("boom", error.get("errorMessage").asText());
+        assertEquals(IllegalStateException.class.getName(), error.get("errorType").asText());
+        assertTrue(posted.keySet().stream().noneMatch(path -> path.endsWith("/response")));
+    }
+
+    @Test
+    void rejectsHandlersOutsideTheTable() {
+        assertThrows(IllegalStateException.class,
+                () -> LambdaRuntime.createHandler("com.example.OtherLambda::handleRequest"));
+        assertThrows(IllegalStateException.class, () -> LambdaRuntime.createHandler(null));
+    }
+
+    private String address() {
+        return "localhost:" + runtimeApi.getAddress().getPort();
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+        exchange.close();
+    }
+}
@@ -0,0 +1,135 @@
+package com.inferno.user_service.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CachedSecretProviderTest {
+
+    private static final String SECRET_ID = "jwtSecret";
+
+    private InMemorySecretSource source;
+    private MutableClock clock;
+    private CachedSecretProvider<String> provider;
+
+    @BeforeEach
+    void setUp() {
+        source = new InMemorySecretSource().put(SECRET_ID, "v1");
+        clock = new MutableClock();
+        // Executor síncrono: el refresco "en segundo plano" se ejecuta en el mismo hilo
+        provider = new CachedSecretProvider<>(source, SECRET_ID, value -> value,
+                Duration.ofSeconds(300), Duration.ofSeconds(60), Duration.ofSeconds(3600),
+                Runnable::run, clock);
+    }
+
+    @Test
+    void servesFromCacheWithinTtl() {
+        assertEquals("v1", provider.get());
+        clock.advance(Duration.ofSeconds(100));
+        assertEquals("v1", provider.get());
+
+        assertEquals(1, source.getFetchCount());
+        assertEquals(1, provider.stats().getMisses());
+        assertEquals(1, provider.stats().getHits());
+    }
+
+    @Test
+    void refreshesAheadOfExpiry() {
+        provider.get();
+        source.put(SECRET_ID, "v2");
+        clock.advance(Duration.ofSeconds(250));
+
+        // Se sirve el valor vigente y se dispara el refresco
+        assertEquals("v1", provider.get());
+        assertEquals("v2", provider.get());
+        assertEquals(2, source.getFetchCount());
+    }
+
+    @Test
+    void keepsLastGoodValueWhenRefreshFails() {
+        provider.get();
+        source.setFailing(true);
+        clock.advance(Duration.ofSeconds(400));
+
+        assertEquals("v1", provider.get());
+        assertEquals(1, provider.stats().getRefreshFailures());
+    }
+
+    @Test
+    void backsOffAfterAFailedRefreshInsteadOfFetchingOnEveryCall() {
+        provider.get();
+        source.setFailing(true);
+        clock.advance(Duration.ofSeconds(400));
+
+        assertEquals("v1", provider.get());
+        assertEquals("v1", provider.get());
+        assertEquals("v1", provider.get());
+        assertEquals(2, source.getFetchCount());
+
+        // Pasado el primer intervalo se reintenta una vez, y el siguiente intervalo es el doble
+        clock.advance(Duration.ofMillis(1_000));
+        assertEquals("v1", provider.get());
+        assertEquals(3, source.getFetchCount());
+        clock.advance(Duration.ofMillis(1_500));
+        assertEquals("v1", provider.get());
+        assertEquals(3, source.getFetchCount());
+
+        source.setFailing(false);
+        source.put(SECRET_ID, "v2");
+        clock.advance(Duration.ofMillis(500));
+        assertEquals("v2", provider.get());
+        assertEquals(4, source.getFetchCount());
+        assertEquals(2, provider.stats().getRefreshFailures());
+    }
+
+    @Test
+    void failsWhenInitialLoadFails() {
+        source.setFailing(true);
+        assertThrows(IllegalStateException.class, () -> provider.get());
+    }
+
+    @Test
+    void acceptsPreviousValueDuringRotationGrace() {
+        provider.get();
+        source.put(SECRET_ID, "v2");
+        clock.advance(Duration.ofSeconds(400));
+
+        assertEquals("v2", provider.get());
+        assertEquals(2, provider.getValidValues().size());
+        assertEquals("v1", provider.getValidValues().get(1));
+
+        clock.advance(Duration.ofSeconds(3700));
+        assertEquals(1, provider.getValidValues().size());
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
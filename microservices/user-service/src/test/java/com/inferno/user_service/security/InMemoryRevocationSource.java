@@ -0,0 +1,36 @@
+package com.inferno.user_service.security;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Sustituto local de la lista de revocación compartida, para pruebas y benchmarks
+public class InMemoryRevocationSource implements RevocationSource {
+
+    private final List<Revocation> revocations = new CopyOnWriteArrayList<>();
+    private final AtomicInteger fetches = new AtomicInteger();
+
+    @Override
+    public List<Revocation> fetchSince(long sinceMillis) {
+        fetches.incrementAndGet();
+        List<Revocation> result = new ArrayList<>();
+        for (Revocation revocation : revocations) {
+            if (revocation.getRevokedAtMillis() >= sinceMillis) {
+                result.add(revocation);
+            }
+        }
+        result.sort(Comparator.comparingLong(Revocation::getRevokedAtMillis));
+        return result;
+    }
+
+    @Override
+    public void revoke(Revocation revocation) {
+        revocations.add(revocation);
+    }
+
+    public int getFetchCount() {
+        return fetches.get();
+    }
+}
@@ -0,0 +1,40 @@
+package com.inferno.user_service.security;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Sustituto local de Secrets Manager para pruebas y benchmarks
+public class InMemorySecretSource implements SecretSource {
+
+    private final Map<String, String> secrets = new ConcurrentHashMap<>();
+    private final AtomicInteger fetchCount = new AtomicInteger();
+    private volatile boolean failing;
+
+    public InMemorySecretSource put(String secretId, String value) {
+        secrets.put(secretId, value);
+        return this;
+    }
+
+    // Simula una caída del servicio de secretos
+    public void setFailing(boolean failing) {
+        this.failing = failing;
+    }
+
+    public int getFetchCount() {
+        return fetchCount.get();
+    }
+
+    @Override
+    public String fetch(String secretId) {
+        fetchCount.incrementAndGet();
+        if (failing) {
+            throw new IllegalStateException("Secret source unavailable");
+        }
+        String value = secrets.get(secretId);
+        if (value == null) {
+            throw new IllegalArgumentException("Secret not found: " + secretId);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,159 @@
+package com.inferno.user_service.security;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayCustomAuthorizerEvent;
+import com.amazonaws.services.lambda.runtime.events.IamPolicyResponseV1;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inferno.user_service.exception.UnauthorizedException;
+import com.inferno.user_service.handler.JwtAuthorizerLambda;
+import com.inferno.user_service.metrics.HandlerMetrics;
+import com.inferno.user_service.model.User;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwtVerifierTest {
+
+    private static final String SECRET = "{\"JWT_SECRET\":\"test-secret-test-secret-test-secret-0123456789\"}";
+    private static final String OTHER_SECRET = "{\"JWT_SECRET\":\"other-secret-other-secret-other-secret-012345\"}";
+    private static final String METHOD_ARN = "arn:aws:execute-api:us-east-2:123456789012:api/prod/GET/profile/u-1";
+
+    private final MutableClock clock = new MutableClock();
+    private final JwtKeyProvider keys = keyProvider(SECRET);
+    private final JwtIssuer issuer = new JwtIssuer(keys);
+
+    @Test
+    void verifiesOnceAndServesRepeatedTokensFromTheCache() {
+        JwtVerifier verifier = new JwtVerifier(keys, new TokenClaimsCache(100, Duration.ofMinutes(5), clock), null, clock);
+        String token = issuer.issue(user("u-1"));
+
+        VerifiedToken verified = verifier.verify(token);
+        assertEquals("u-1", verified.getSubject());
+        assertEquals("u-1@inferno.com", verified.getEmail());
+        assertEquals("USER", verified.getRole());
+        assertNotNull(verified.getTokenId());
+        assertSame(verified, verifier.verify(JwtVerifier.bearerToken("Bearer " + token)));
+        assertEquals(1, verifier.claimsCache().getHits());
+
+        String[] parts = token.split("\\.");
+        String tampered = parts[0] + "." + parts[1].substring(0, parts[1].length() - 2) + "x" + "." + parts[2];
+        assertEquals("Invalid token", assertThrows(UnauthorizedException.class, () -> verifier.verify(tampered)).getMessage());
+        String foreign = new JwtIssuer(keyProvider(OTHER_SECRET)).issue(user("u-1"));
+        assertEquals("Invalid token", assertThrows(UnauthorizedException.class, () -> verifier.verify(foreign)).getMessage());
+
+        // La entrada cacheada vence con el token: pasada la hora no se sirve desde la caché
+        clock.advance(Duration.ofMinutes(61));
+        assertEquals("Token expired", assertThrows(UnauthorizedException.class, () -> verifier.verify(token)).getMessage());
+    }
+
+    @Test
+    void revocationsApplyToCachedTokensAndReachOtherContainersIncrementally() {
+        InMemoryRevocationSource source = new InMemoryRevocationSource();
+        TokenRevocationList local = revocationList(source);
+        TokenRevocationList remote = revocationList(source);
+        JwtVerifier verifier = verifier(local);
+        JwtVerifier otherContainer = verifier(remote);
+
+        String token = issuer.issue(user("u-1"));
+        String otherToken = issuer.issue(user("u-2"));
+        VerifiedToken verified = verifier.verify(token);
+        otherContainer.verify(token);
+        otherContainer.verify(otherToken);
+
+        local.revoke(Revocation.token(verified.getTokenId(), clock.millis()));
+        assertEquals("Token revoked", assertThrows(UnauthorizedException.class, () -> verifier.verify(token)).getMessage());
+        // El otro contenedor lo ve en su siguiente refresco, que pide solo lo nuevo
+        otherContainer.verify(token);
+        clock.advance(Duration.ofSeconds(31));
+        source.revoke(Revocation.subject("u-2", clock.millis()));
+        assertThrows(UnauthorizedException.class, () -> otherContainer.verify(token));
+        assertThrows(UnauthorizedException.class, () -> otherContainer.verify(otherToken));
+        assertEquals(2, remote.getLoadCount());
+        assertEquals(2, remote.size());
+    }
+
+    @Test
+    void authorizerAllowsOnlyTheTokenOwnersProfile() throws Exception {
+        JwtAuthorizerLambda authorizer = new JwtAuthorizerLambda(
+                new JwtVerifier(keys, new TokenClaimsCache(100, Duration.ofMinutes(5), clock), null, clock),
+                HandlerMetrics.disabled(JwtAuthorizerLambda.class));
+        String token = issuer.issue(user("u-1"));
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        IamPolicyResponseV1 own = authorizer.handleRequest(request(token, "u-1"), null);
+        assertEquals("u-1", own.getPrincipalId());
+        assertEquals("u-1", own.getContext().get("sub"));
+        assertTrue(objectMapper.writeValueAsString(own.getPolicyDocument()).contains("\"Effect\":\"Allow\""));
+
+        IamPolicyResponseV1 foreign = authorizer.handleRequest(request(token, "u-2"), null);
+        assertTrue(objectMapper.writeValueAsString(foreign.getPolicyDocument()).contains("\"Effect\":\"Deny\""));
+
+        RuntimeException missing = assertThrows(RuntimeException.class,
+                () -> authorizer.handleRequest(APIGatewayCustomAuthorizerEvent.builder()
+                        .withType("TOKEN").withMethodArn(METHOD_ARN).build(), null));
+        assertEquals("Unauthorized", missing.getMessage());
+    }
+
+    private JwtVerifier verifier(TokenRevocationList revocations) {
+        return new JwtVerifier(keys, new TokenClaimsCache(100, Duration.ofMinutes(5), clock), revocations, clock);
+    }
+
+    private TokenRevocationList revocationList(RevocationSource source) {
+        return new TokenRevocationList(source, Duration.ofSeconds(30), JwtVerifier.REVOCATION_RETENTION,
+                Runnable::run, clock);
+    }
+
+    private static APIGatewayCustomAuthorizerEvent request(String token, String uuid) {
+        return APIGatewayCustomAuthorizerEvent.builder()
+                .withType("REQUEST")
+                .withMethodArn(METHOD_ARN)
+                .withHeaders(Map.of("authorization", "Bearer " + token))
+                .withPathParameters(Map.of("uuid", uuid))
+                .build();
+    }
+
+    private static JwtKeyProvider keyProvider(String secret) {
+        return JwtKeyProvider.create(new InMemorySecretSource().put(JwtKeyProvider.SECRET_NAME, secret));
+    }
+
+    private static User user(String uuid) {
+        User user = new User();
+        user.setUuid(uuid);
+        user.setEmail(uuid + "@inferno.com");
+        return user;
+    }
+
+    // Arranca en la hora real: JwtIssuer firma con System.currentTimeMillis
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.now();
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.inferno.user_service.security;
+
+import com.inferno.user_service.exception.ServiceUnavailableException;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordServiceTest {
+
+    private static final String PASSWORD = "password123";
+
+    private final HashingExecutor executor = new HashingExecutor(2, 100);
+
+    @Test
+    void storedHashCarriesAlgorithmAndCost() {
+        PasswordService service = new PasswordService(new BCryptPasswordHasher(), 5, executor);
+
+        String hash = service.encryptPassword(PASSWORD);
+
+        assertTrue(hash.startsWith("{bcrypt}$2a$05$"));
+        assertTrue(service.verifyPassword(PASSWORD, hash));
+        assertFalse(service.verifyPassword("wrong-password", hash));
+        assertNull(service.verify(PASSWORD, hash).getUpgradedHash());
+    }
+
+    @Test
+    void verifiesLegacyHashesWithoutPrefix() {
+        PasswordService service = new PasswordService(new BCryptPasswordHasher(), 4, executor);
+        String legacy = new BCryptPasswordEncoder(4).encode(PASSWORD);
+
+        PasswordVerification verification = service.verify(PASSWORD, legacy);
+
+        assertTrue(verification.isMatched());
+        // Mismo algoritmo y costo: no hace falta rehash
+        assertNull(verification.getUpgradedHash());
+    }
+
+    @Test
+    void rehashesOnlyWhenCostIsBelowTarget() {
+        String oldHash = new PasswordService(new BCryptPasswordHasher(), 4, executor).encryptPassword(PASSWORD);
+        PasswordService service = new PasswordService(new BCryptPasswordHasher(), 5, executor);
+
+        PasswordVerification verification = service.verify(PASSWORD, oldHash);
+
+        assertTrue(verification.isMatched());
+        assertNotNull(verification.getUpgradedHash());
+        assertTrue(verification.getUpgradedHash().startsWith("{bcrypt}$2a$05$"));
+
+        // Un contenedor calibrado más bajo no rebaja hashes hechos con más costo
+        PasswordService slower = new PasswordService(new BCryptPasswordHasher(), 4, executor);
+        PasswordVerification stronger = slower.verify(PASSWORD, verification.getUpgradedHash());
+        assertTrue(stronger.isMatched());
+        assertNull(stronger.getUpgradedHash());
+    }
+
+    @Test
+    void malformedStoredHashesFailVerification() {
+        PasswordService service = new PasswordService(new Pbkdf2PasswordHasher(), 100_000, executor);
+
+        assertFalse(service.verifyPassword(PASSWORD, "{pbkdf2}abc$deadbeef"));
+        assertFalse(service.verifyPassword(PASSWORD, "{pbkdf2}$deadbeef"));
+        assertFalse(service.verifyPassword(PASSWORD, "{pbkdf2}99999999999$deadbeef"));
+        assertFalse(service.verifyPassword(PASSWORD, "{pbkdf2}0$deadbeef"));
+        assertFalse(service.verifyPassword(PASSWORD, "{pbkdf2}deadbeef"));
+    }
+
+    @Test
+    void migratesBetweenAlgorithms() {
+        String bcryptHash = new PasswordService(new BCryptPasswordHasher(), 4, executor).encryptPassword(PASSWORD);
+        PasswordService argon2 = new PasswordService(new Argon2PasswordHasher(1024), 1, executor);
+        PasswordService pbkdf2 = new PasswordService(new Pbkdf2PasswordHasher(), 100_000, executor);
+
+        String argon2Hash = argon2.verify(PASSWORD, bcryptHash).getUpgradedHash();
+        assertTrue(argon2Hash.startsWith("{argon2}$argon2id$"));
+        assertTrue(argon2.verifyPassword(PASSWORD, argon2Hash));
+
+        String pbkdf2Hash = pbkdf2.verify(PASSWORD, argon2Hash).getUpgradedHash();
+        assertTrue(pbkdf2Hash.startsWith("{pbkdf2}100000$"));
+        assertTrue(pbkdf2.verifyPassword(PASSWORD, pbkdf2Hash));
+        assertNull(pbkdf2.verify(PASSWORD, pbkdf2Hash).getUpgradedHash());
+    }
+
+    @Test
+    void calibrationNeverGoesBelowFloor() {
+        assertEquals(4, HashCostCalibrator.calibrate(new BCryptPasswordHasher(), 0, 4));
+        assertTrue(HashCostCalibrator.calibrate(new BCryptPasswordHasher(), 50, 4) >= 4);
+    }
+
+    @Test
+    void rejectsWorkWhenExecutorIsSaturated() throws Exception {
+        HashingExecutor single = new HashingExecutor(1, 50);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Thread busy = new Thread(() -> single.execute(() -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }));
+        busy.start();
+        started.await(5, TimeUnit.SECONDS);
+
+        assertThrows(ServiceUnavailableException.class, () -> single.execute(() -> "hash"));
+
+        release.countDown();
+        busy.join();
+        assertEquals(1, single.availablePermits());
+    }
+}
@@ -0,0 +1,109 @@
+package com.inferno.user_service.server;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LambdaHttpServerTest {
+
+    private final Map<String, Thread> handlerThreads = new ConcurrentHashMap<>();
+    private final CountDownLatch slowRequests = new CountDownLatch(4);
+
+    private LambdaHttpServer server;
+    private HttpClient client;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        List<Route> routes = List.of(
+                Route.of("GET", "/profile/{uuid}", (request, context) -> new APIGatewayProxyResponseEvent()
+                        .withStatusCode(200)
+                        .withHeaders(Map.of("Content-Type", "application/json"))
+                        .withBody("{\"uuid\":\"" + request.getPathParameters().get("uuid") + "\",\"mode\":\""
+                                + request.getQueryStringParameters().get("mode") + "\"}")),
+                Route.of("POST", "/profile/{uuid}/avatar", (request, context) -> new APIGatewayProxyResponseEvent()
+                        .withStatusCode(201)
+                        .withBody(request.getHttpMethod() + " " + request.getResource() + " " + request.getBody())),
+                Route.of("GET", "/slow/{id}", (request, context) -> {
+                    handlerThreads.put(request.getPathParameters().get("id"), Thread.currentThread());
+                    slowRequests.countDown();
+                    try {
+                        // Solo responde cuando las cuatro peticiones están en curso a la vez
+                        slowRequests.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return new APIGatewayProxyResponseEvent().withStatusCode(200).withBody("ok");
+                }));
+        server = LambdaHttpServer.create(new InetSocketAddress("localhost", 0), routes,
+                LambdaHttpServer.requestExecutor(8, 16));
+        server.start();
+        client = HttpClient.newHttpClient();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void translatesPathAndQueryIntoTheProxyEvent() throws Exception {
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/profile/abc%20123?mode=full")).GET());
+
+        assertEquals(200, response.statusCode());
+        assertEquals("application/json", response.headers().firstValue("Content-Type").orElse(null));
+        assertEquals("{\"uuid\":\"abc 123\",\"mode\":\"full\"}", response.body());
+    }
+
+    @Test
+    void passesBodyAndRouteTemplate() throws Exception {
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/profile/u1/avatar"))
+                .POST(HttpRequest.BodyPublishers.ofString("aGVsbG8=")));
+
+        assertEquals(201, response.statusCode());
+        assertEquals("POST /profile/{uuid}/avatar aGVsbG8=", response.body());
+    }
+
+    @Test
+    void rejectsUnknownPathsAndMethods() throws Exception {
+        assertEquals(404, send(HttpRequest.newBuilder(uri("/unknown")).GET()).statusCode());
+        assertEquals(405, send(HttpRequest.newBuilder(uri("/profile/u1")).DELETE()).statusCode());
+    }
+
+    @Test
+    void servesRequestsConcurrently() throws Exception {
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            responses.add(client.sendAsync(HttpRequest.newBuilder(uri("/slow/" + i)).GET().build(),
+                    HttpResponse.BodyHandlers.ofString()));
+        }
+        for (CompletableFuture<HttpResponse<String>> response : responses) {
+            assertEquals(200, response.get(10, TimeUnit.SECONDS).statusCode());
+        }
+        assertEquals(4, handlerThreads.values().stream().distinct().count());
+        assertEquals(0, slowRequests.getCount());
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws Exception {
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + server.getPort() + path);
+    }
+}
@@ -0,0 +1,107 @@
+package com.inferno.user_service.service;
+
+import com.inferno.user_service.cache.ProfileCache;
+import com.inferno.user_service.exception.UserAlreadyExistsException;
+import com.inferno.user_service.exception.UserNotFoundException;
+import com.inferno.user_service.model.User;
+import com.inferno.user_service.model.UserUpdate;
+import com.inferno.user_service.security.BCryptPasswordHasher;
+import com.inferno.user_service.security.HashingExecutor;
+import com.inferno.user_service.security.PasswordService;
+import com.inferno.user_service.support.DynamoDbLocal;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AsyncUserServiceTest {
+
+    private static DynamoDbLocal dynamoDb;
+    private static AsyncUserService userService;
+
+    @BeforeAll
+    static void startDynamoDb() throws Exception {
+        dynamoDb = DynamoDbLocal.start();
+        // Costo mínimo: aquí interesa el acceso a datos, no el hash
+        PasswordService passwordService = new PasswordService(new BCryptPasswordHasher(), 4,
+                new HashingExecutor(2, 10_000));
+        userService = new AsyncUserService(dynamoDb.registry(), passwordService, ProfileCache.getInstance());
+    }
+
+    @AfterAll
+    static void stopDynamoDb() throws Exception {
+        dynamoDb.close();
+    }
+
+    @Test
+    void registersAndReadsBackWithoutBlockingBetweenCalls() {
+        User created = AsyncUserService.await(userService.registerUser(user("ana@inferno.com", "5001")));
+
+        CompletableFuture<User> byEmail = userService.getUserByEmail("ana@inferno.com");
+        CompletableFuture<User> byDocument = userService.getUserByDocumentNumber("5001");
+        CompletableFuture<List<User>> byUuid = userService.getUsersByUuid(created.getUuid());
+
+        assertEquals(created.getUuid(), AsyncUserService.await(byEmail).getUuid());
+        assertEquals(created.getUuid(), AsyncUserService.await(byDocument).getUuid());
+        assertEquals(1, AsyncUserService.await(byUuid).size());
+        assertNotNull(AsyncUserService.await(userService.authenticateUser("ana@inferno.com", "password123")));
+        assertNull(AsyncUserService.await(userService.authenticateUser("ana@inferno.com", "wrong-password")));
+    }
+
+    @Test
+    void duplicateRegistrationFailsWithTheDomainException() {
+        AsyncUserService.await(userService.registerUser(user("luis@inferno.com", "6001")));
+
+        UserAlreadyExistsException e = assertThrows(UserAlreadyExistsException.class,
+                () -> AsyncUserService.await(userService.registerUser(user("otro@inferno.com", "6001"))));
+        assertEquals("Document number already exists", e.getMessage());
+    }
+
+    @Test
+    void uniquenessMarkersAreNotReachableByUuid() {
+        AsyncUserService.await(userService.registerUser(user("marca@inferno.com", "9001")));
+        String marker = UserService.EMAIL_MARKER_PREFIX + "marca@inferno.com";
+
+        assertNull(AsyncUserService.await(userService.getDocumentNumber(marker)));
+        assertEquals(List.of(), AsyncUserService.await(userService.getUsersByUuid(marker)));
+        assertThrows(UserNotFoundException.class, () -> AsyncUserService.await(
+                userService.updateFields(UserUpdate.of(marker, marker).avatarKey("avatars/x.png"))));
+    }
+
+    @Test
+    void deletingUserReleasesEmailAndDocument() {
+        User created = AsyncUserService.await(userService.registerUser(user("baja@inferno.com", "9101")));
+
+        AsyncUserService.await(userService.deleteUser(created.getUuid(), "9101"));
+
+        assertNull(AsyncUserService.await(userService.getUserById(created.getUuid(), "9101")));
+        assertNotNull(AsyncUserService.await(userService.registerUser(user("baja@inferno.com", "9101"))));
+    }
+
+    @Test
+    void availabilityCheckRunsBothLookups() {
+        AsyncUserService.await(userService.registerUser(user("eva@inferno.com", "7001")));
+
+        AsyncUserService.await(userService.checkAvailability("nueva@inferno.com", "7002"));
+        UserAlreadyExistsException e = assertThrows(UserAlreadyExistsException.class,
+                () -> AsyncUserService.await(userService.checkAvailability("nueva@inferno.com", "7001")));
+        assertEquals("Document number already exists", e.getMessage());
+    }
+
+    private static User user(String email, String document) {
+        User user = new User();
+        user.setName("Test");
+        user.setLastName("User");
+        user.setEmail(email);
+        user.setDocumentNumber(document);
+        user.setPassword("password123");
+        return user;
+    }
+}
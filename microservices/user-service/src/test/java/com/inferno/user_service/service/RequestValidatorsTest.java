@@ -0,0 +1,85 @@
+package com.inferno.user_service.service;
+
+import com.inferno.user_service.dto.UserRegistrationRequest;
+import com.inferno.user_service.dto.UserUpdateRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RequestValidatorsTest {
+
+    private static final Validator HIBERNATE = Validation.buildDefaultValidatorFactory().getValidator();
+
+    // Valores límite de cada restricción: null, vacío, solo espacios, largos y formatos inválidos
+    private static final String[] EMAILS = {null, "", "   ", "ana@inferno.com", "ana", "ana@", "@inferno.com",
+            "a b@inferno.com", "ana@inferno", "\"ana\"@inferno.com", "ana@-inferno.com", "a".repeat(65) + "@x.com"};
+    private static final String[] NAMES = {null, "", " ", "A", "Ana", "  ", "a".repeat(50), "a".repeat(51), "\u0000\u0000"};
+    private static final String[] DOCUMENTS = {null, "", " ", "1020304050", "10-20", "12a", "٣٤٥", " 12"};
+    private static final String[] PASSWORDS = {null, "", "        ", "short", "password123", "1234567"};
+
+    @Test
+    void registrationMatchesHibernateValidator() {
+        for (UserRegistrationRequest request : registrationRequests()) {
+            assertEquals(hibernate(request), precompiled(request), request.toString());
+        }
+    }
+
+    @Test
+    void updateMatchesHibernateValidator() {
+        for (UserRegistrationRequest r : registrationRequests()) {
+            UserUpdateRequest request = new UserUpdateRequest(r.getName(), r.getLastName(), r.getEmail(),
+                    r.getPassword(), r.getDocument());
+            assertEquals(hibernate(request), precompiled(request), request.toString());
+        }
+    }
+
+    @Test
+    void validationServiceJoinsTheMessages() {
+        ValidationService validationService = new ValidationService(null);
+        validationService.validate(new UserRegistrationRequest("ana@inferno.com", "Ana", "Torres", "123", "password123"));
+
+        jakarta.validation.ValidationException e = assertThrows(jakarta.validation.ValidationException.class,
+                () -> validationService.validate(new UserRegistrationRequest("ana", "A", "Torres", "123", "password123")));
+        assertEquals("Invalid email format, Name must be between 2 and 50 characters", e.getMessage());
+    }
+
+    // Cada campo recorre sus valores con el resto fijo en un valor válido
+    private static List<UserRegistrationRequest> registrationRequests() {
+        List<UserRegistrationRequest> requests = new ArrayList<>();
+        for (String email : EMAILS) {
+            requests.add(new UserRegistrationRequest(email, "Ana", "Torres", "123", "password123"));
+        }
+        for (String name : NAMES) {
+            requests.add(new UserRegistrationRequest("ana@inferno.com", name, name, "123", "password123"));
+        }
+        for (String document : DOCUMENTS) {
+            requests.add(new UserRegistrationRequest("ana@inferno.com", "Ana", "Torres", document, "password123"));
+        }
+        for (String password : PASSWORDS) {
+            requests.add(new UserRegistrationRequest("ana@inferno.com", "Ana", "Torres", "123", password));
+        }
+        requests.add(new UserRegistrationRequest(null, null, null, null, null));
+        return requests;
+    }
+
+    private static <T> Set<String> hibernate(T request) {
+        return HIBERNATE.validate(request).stream()
+                .map(ConstraintViolation::getMessage)
+                .collect(Collectors.toSet());
+    }
+
+    private static <T> Set<String> precompiled(T request) {
+        RequestValidators.RequestValidator<T> validator = RequestValidators.forClass(request.getClass());
+        return new HashSet<>(validator.validate(request));
+    }
+}
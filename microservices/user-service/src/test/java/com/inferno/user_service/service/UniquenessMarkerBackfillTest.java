@@ -0,0 +1,68 @@
+package com.inferno.user_service.service;
+
+import com.inferno.user_service.exception.UserAlreadyExistsException;
+import com.inferno.user_service.model.User;
+import com.inferno.user_service.support.DynamoDbLocal;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UniquenessMarkerBackfillTest {
+
+    private static DynamoDbLocal dynamoDb;
+    private static UserService userService;
+
+    @BeforeAll
+    static void startDynamoDb() throws Exception {
+        dynamoDb = DynamoDbLocal.start();
+        userService = new UserService(dynamoDb.registry());
+    }
+
+    @AfterAll
+    static void stopDynamoDb() throws Exception {
+        dynamoDb.close();
+    }
+
+    @Test
+    void reservesLegacyUsersAndReportsPreexistingDuplicates() {
+        // Usuarios de antes de los marcadores: createUser escribe solo el item
+        userService.createUser(user("legacy@inferno.com", "1001"));
+        userService.createUser(user("otro@inferno.com", "1002"));
+        userService.createUser(user("legacy@inferno.com", "1003"));
+
+        UniquenessMarkerBackfill backfill = new UniquenessMarkerBackfill(dynamoDb.registry());
+        UniquenessMarkerBackfill.Result first = backfill.run();
+        assertEquals(3, first.getUsers());
+        assertEquals(5, first.getMarkers());
+        assertEquals(1, first.getConflicts().size());
+        assertTrue(first.getConflicts().get(0).startsWith(UserService.EMAIL_MARKER_PREFIX + "legacy@inferno.com"));
+
+        // Sin consultas a los índices, la transacción ya rechaza los datos de usuarios anteriores
+        UserAlreadyExistsException email = assertThrows(UserAlreadyExistsException.class,
+                () -> userService.registerUser(user("otro@inferno.com", "2001")));
+        assertEquals("Email already exists", email.getMessage());
+        UserAlreadyExistsException document = assertThrows(UserAlreadyExistsException.class,
+                () -> userService.registerUser(user("nuevo@inferno.com", "1002")));
+        assertEquals("Document number already exists", document.getMessage());
+
+        // Idempotente: los marcadores propios se reescriben y el conflicto se sigue informando
+        UniquenessMarkerBackfill.Result second = backfill.run();
+        assertEquals(3, second.getUsers());
+        assertEquals(5, second.getMarkers());
+        assertEquals(1, second.getConflicts().size());
+    }
+
+    private static User user(String email, String document) {
+        User user = new User();
+        user.setName("Test");
+        user.setLastName("User");
+        user.setEmail(email);
+        user.setDocumentNumber(document);
+        user.setPassword("password123");
+        return user;
+    }
+}
@@ -0,0 +1,130 @@
+package com.inferno.user_service.service;
+
+import com.inferno.user_service.exception.ServiceUnavailableException;
+import com.inferno.user_service.model.User;
+import com.inferno.user_service.model.UserKey;
+import com.inferno.user_service.support.DynamoDbLocal;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserBatchReaderTest {
+
+    private static final int USERS = 230;
+
+    private static DynamoDbLocal dynamoDb;
+    private static ExecutorService executor;
+    private static UserBatchReader reader;
+    private static List<User> stored;
+
+    @BeforeAll
+    static void startDynamoDb() throws Exception {
+        dynamoDb = DynamoDbLocal.start();
+        executor = Executors.newFixedThreadPool(4);
+        reader = new UserBatchReader(dynamoDb.registry().dynamoDbClient(),
+                dynamoDb.registry().settings().getUserTableName(), dynamoDb.registry().userTable(),
+                executor, 3, 1, 5);
+
+        stored = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            User user = new User();
+            user.setUuid(UUID.randomUUID().toString());
+            user.setName("User" + i);
+            user.setLastName("Batch");
+            user.setEmail("user" + i + "@inferno.com");
+            user.setDocumentNumber(String.valueOf(900000 + i));
+            user.setPassword("{bcrypt}hash");
+            dynamoDb.registry().userTable().putItem(user);
+            stored.add(user);
+        }
+    }
+
+    @AfterAll
+    static void stopDynamoDb() throws Exception {
+        executor.shutdownNow();
+        dynamoDb.close();
+    }
+
+    @Test
+    void readsCompleteKeysAcrossSeveralBatches() {
+        List<UserKey> keys = stored.stream()
+                .map(user -> UserKey.of(user.getUuid(), user.getDocumentNumber()))
+                .collect(Collectors.toList());
+        AtomicInteger chunks = new AtomicInteger();
+        List<User> found = new ArrayList<>();
+
+        reader.read(keys, users -> {
+            chunks.incrementAndGet();
+            found.addAll(users);
+        });
+
+        assertEquals(USERS, found.size());
+        assertEquals(3, chunks.get());
+        assertTrue(found.stream().allMatch(user -> user.getPassword() == null && user.getEmail() != null));
+    }
+
+    @Test
+    void resolvesUuidOnlyKeysAndSkipsMissingOnes() {
+        List<UserKey> keys = List.of(
+                UserKey.of(stored.get(0).getUuid()),
+                UserKey.of(stored.get(1).getUuid(), stored.get(1).getDocumentNumber()),
+                UserKey.of(stored.get(1).getUuid(), stored.get(1).getDocumentNumber()),
+                UserKey.of("missing-uuid"),
+                UserKey.of("missing-uuid", "1"),
+                UserKey.of(UserService.EMAIL_MARKER_PREFIX + "user2@inferno.com",
+                        UserService.EMAIL_MARKER_PREFIX + "user2@inferno.com"));
+
+        List<User> found = reader.read(keys);
+
+        assertEquals(Set.of(stored.get(0).getUuid(), stored.get(1).getUuid()),
+                found.stream().map(User::getUuid).collect(Collectors.toSet()));
+        assertEquals(2, found.size());
+        assertNull(found.get(0).getPassword());
+    }
+
+    @Test
+    void retriesUnprocessedKeysThenGivesUp() {
+        AtomicInteger calls = new AtomicInteger();
+        DynamoDbClient throttled = new DynamoDbClient() {
+            @Override
+            public BatchGetItemResponse batchGetItem(BatchGetItemRequest request) {
+                calls.incrementAndGet();
+                Map<String, KeysAndAttributes> unprocessed = request.requestItems();
+                return BatchGetItemResponse.builder().responses(Map.of()).unprocessedKeys(unprocessed).build();
+            }
+
+            @Override
+            public String serviceName() {
+                return SERVICE_NAME;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        UserBatchReader throttledReader = new UserBatchReader(throttled, "user-table", null, executor, 3, 1, 5);
+
+        assertThrows(ServiceUnavailableException.class,
+                () -> throttledReader.read(List.of(UserKey.of("u1", "1"))));
+        assertEquals(3, calls.get());
+    }
+}
@@ -0,0 +1,142 @@
+package com.inferno.user_service.service;
+
+import com.inferno.user_service.exception.UserAlreadyExistsException;
+import com.inferno.user_service.exception.UserNotFoundException;
+import com.inferno.user_service.model.User;
+import com.inferno.user_service.model.UserUpdate;
+import com.inferno.user_service.support.DynamoDbLocal;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserServiceRegistrationTest {
+
+    private static DynamoDbLocal dynamoDb;
+    private static UserService userService;
+
+    @BeforeAll
+    static void startDynamoDb() throws Exception {
+        dynamoDb = DynamoDbLocal.start();
+        userService = new UserService(dynamoDb.registry());
+    }
+
+    @AfterAll
+    static void stopDynamoDb() throws Exception {
+        dynamoDb.close();
+    }
+
+    @Test
+    void registersUserAndReservesEmailAndDocument() {
+        User created = userService.registerUser(user("ana@inferno.com", "1001"));
+
+        assertNotNull(created.getUuid());
+        assertEquals(created.getUuid(), userService.getUserByEmail("ana@inferno.com").getUuid());
+        assertEquals(created.getUuid(), userService.getUserByDocumentNumber("1001").getUuid());
+    }
+
+    @Test
+    void rejectsDuplicateEmail() {
+        userService.registerUser(user("luis@inferno.com", "2001"));
+
+        UserAlreadyExistsException e = assertThrows(UserAlreadyExistsException.class,
+                () -> userService.registerUser(user("luis@inferno.com", "2002")));
+        assertEquals("Email already exists", e.getMessage());
+        // La transacción no dejó escrito el segundo documento
+        assertEquals(null, userService.getUserByDocumentNumber("2002"));
+    }
+
+    @Test
+    void rejectsDuplicateDocument() {
+        userService.registerUser(user("eva@inferno.com", "3001"));
+
+        UserAlreadyExistsException e = assertThrows(UserAlreadyExistsException.class,
+                () -> userService.registerUser(user("otra@inferno.com", "3001")));
+        assertEquals("Document number already exists", e.getMessage());
+    }
+
+    @Test
+    void uniquenessMarkersAreNotReachableByUuid() {
+        userService.registerUser(user("oculto@inferno.com", "8001"));
+        String emailMarker = UserService.EMAIL_MARKER_PREFIX + "oculto@inferno.com";
+        String documentMarker = UserService.DOCUMENT_MARKER_PREFIX + "8001";
+
+        assertTrue(userService.getUsersByUuid(emailMarker).isEmpty());
+        assertNull(userService.getUserById(documentMarker, documentMarker));
+        assertThrows(UserNotFoundException.class,
+                () -> userService.updateFields(UserUpdate.of(emailMarker, emailMarker).name("x")));
+        // El marcador sigue intacto: un segundo registro con el mismo email se rechaza
+        assertThrows(UserAlreadyExistsException.class,
+                () -> userService.registerUser(user("oculto@inferno.com", "8002")));
+    }
+
+    @Test
+    void deletingUserReleasesEmailAndDocument() {
+        User created = userService.registerUser(user("baja@inferno.com", "9001"));
+
+        userService.deleteUser(created.getUuid(), "9001");
+
+        assertNull(userService.getUserById(created.getUuid(), "9001"));
+        User again = userService.registerUser(user("baja@inferno.com", "9001"));
+        assertEquals(again.getUuid(), userService.getUserByEmail("baja@inferno.com").getUuid());
+        // Un segundo borrado del usuario ya eliminado no falla ni toca los marcadores nuevos
+        userService.deleteUser(created.getUuid(), "9001");
+        assertThrows(UserAlreadyExistsException.class,
+                () -> userService.registerUser(user("baja@inferno.com", "9002")));
+    }
+
+    @Test
+    void onlyOneConcurrentSignupWins() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<Boolean>> signups = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                String document = String.valueOf(4000 + i);
+                signups.add(() -> {
+                    try {
+                        userService.registerUser(user("race@inferno.com", document));
+                        return true;
+                    } catch (UserAlreadyExistsException e) {
+                        return false;
+                    } catch (RuntimeException e) {
+                        // Conflicto de transacción concurrente: también es un registro rechazado
+                        return false;
+                    }
+                });
+            }
+
+            int winners = 0;
+            for (Future<Boolean> result : executor.invokeAll(signups)) {
+                if (result.get()) {
+                    winners++;
+                }
+            }
+            assertTrue(winners <= 1);
+            assertEquals(winners, userService.getUserByEmail("race@inferno.com") == null ? 0 : 1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static User user(String email, String document) {
+        User user = new User();
+        user.setName("Test");
+        user.setLastName("User");
+        user.setEmail(email);
+        user.setDocumentNumber(document);
+        user.setPassword("password123");
+        return user;
+    }
+}
@@ -0,0 +1,110 @@
+package com.inferno.user_service.service;
+
+import com.inferno.user_service.cache.ProfileCache;
+import com.inferno.user_service.exception.UserNotFoundException;
+import com.inferno.user_service.exception.VersionConflictException;
+import com.inferno.user_service.model.User;
+import com.inferno.user_service.model.UserUpdate;
+import com.inferno.user_service.security.PasswordService;
+import com.inferno.user_service.support.DynamoDbLocal;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValue;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class UserServiceUpdateTest {
+
+    private static DynamoDbLocal dynamoDb;
+    private static UserService userService;
+    private static AsyncUserService asyncUserService;
+
+    @BeforeAll
+    static void startDynamoDb() throws Exception {
+        dynamoDb = DynamoDbLocal.start();
+        userService = new UserService(dynamoDb.registry());
+        asyncUserService = new AsyncUserService(dynamoDb.registry(), PasswordService.shared(), ProfileCache.getInstance());
+    }
+
+    @AfterAll
+    static void stopDynamoDb() throws Exception {
+        dynamoDb.close();
+    }
+
+    @Test
+    void updatesOnlyTheGivenFieldsAndReturnsTheNewItem() {
+        User stored = store("1001", 3L);
+
+        User updated = userService.updateFields(UserUpdate.of(stored.getUuid(), "1001")
+                .name("Ana María")
+                .imageUrl(null)
+                .expectVersion(3L));
+
+        assertEquals("Ana María", updated.getName());
+        assertEquals("Torres", updated.getLastName());
+        assertEquals("{bcrypt}hash", updated.getPassword());
+        assertEquals("avatars/a.png", updated.getAvatarKey());
+        assertNull(updated.getImageUrl());
+        assertEquals(4L, updated.getVersion());
+        assertEquals(updated, userService.getUserById(stored.getUuid(), "1001"));
+    }
+
+    @Test
+    void staleVersionConflictsAndMissingUserIsNotFound() {
+        User stored = store("2001", 5L);
+
+        VersionConflictException conflict = assertThrows(VersionConflictException.class,
+                () -> userService.updateFields(UserUpdate.of(stored.getUuid(), "2001").name("Otra").expectVersion(4L)));
+        assertEquals(409, conflict.getStatusCode());
+        assertEquals(5L, conflict.getCurrentVersion());
+        assertEquals("Ana", userService.getUserById(stored.getUuid(), "2001").getName());
+
+        // La condición de existencia impide que el UpdateItem cree un item a medias
+        assertThrows(UserNotFoundException.class,
+                () -> userService.updateFields(UserUpdate.of(stored.getUuid(), "9999").name("Otra")));
+        assertNull(userService.getUserById(stored.getUuid(), "9999"));
+
+        // Usuarios anteriores, sin atributo version, aceptan la versión 0
+        User legacy = store("2002", null);
+        assertEquals(1L, userService.updateFields(UserUpdate.of(legacy.getUuid(), "2002")
+                .lastName("Ruiz").expectVersion(0L)).getVersion());
+    }
+
+    @Test
+    void avatarUpdateReturnsThePreviousKeyWithoutReading() {
+        User stored = store("3001", 1L);
+
+        String documentNumber = AsyncUserService.await(asyncUserService.getDocumentNumber(stored.getUuid()));
+        User previous = AsyncUserService.await(asyncUserService.updateFields(UserUpdate.of(stored.getUuid(), documentNumber)
+                .avatarKey("avatars/b.png")
+                .avatarVariants(Map.of("64", "avatars/b-64.png"))
+                .returning(ReturnValue.UPDATED_OLD)));
+
+        assertEquals("avatars/a.png", previous.getAvatarKey());
+        User current = userService.getUserById(stored.getUuid(), "3001");
+        assertEquals("avatars/b.png", current.getAvatarKey());
+        assertEquals(Map.of("64", "avatars/b-64.png"), current.getAvatarVariants());
+        assertEquals(2L, current.getVersion());
+    }
+
+    private static User store(String document, Long version) {
+        User user = new User();
+        user.setUuid(UUID.randomUUID().toString());
+        user.setName("Ana");
+        user.setLastName("Torres");
+        user.setEmail(document + "@inferno.com");
+        user.setDocumentNumber(document);
+        user.setPassword("{bcrypt}hash");
+        user.setAvatarKey("avatars/a.png");
+        user.setImageUrl("https://example.com/a.png");
+        user.setVersion(version);
+        dynamoDb.registry().userTable().putItem(user);
+        return user;
+    }
+}
@@ -0,0 +1,102 @@
+package com.inferno.user_service.support;
+
+import com.amazonaws.services.dynamodbv2.local.main.ServerRunner;
+import com.amazonaws.services.dynamodbv2.local.server.DynamoDBProxyServer;
+import com.inferno.user_service.config.AwsClientRegistry;
+import com.inferno.user_service.config.ClientSettings;
+import com.inferno.user_service.model.UserTableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.CreateTableEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.EnhancedGlobalSecondaryIndex;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.dynamodb.model.AttributeDefinition;
+import software.amazon.awssdk.services.dynamodb.model.BillingMode;
+import software.amazon.awssdk.services.dynamodb.model.KeySchemaElement;
+import software.amazon.awssdk.services.dynamodb.model.KeyType;
+import software.amazon.awssdk.services.dynamodb.model.ProjectionType;
+import software.amazon.awssdk.services.dynamodb.model.ProvisionedThroughput;
+import software.amazon.awssdk.services.dynamodb.model.ScalarAttributeType;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+
+// DynamoDB Local en memoria, levantado dentro del proceso de pruebas
+public final class DynamoDbLocal implements AutoCloseable {
+
+    private final DynamoDBProxyServer server;
+    private final AwsClientRegistry registry;
+
+    private DynamoDbLocal(DynamoDBProxyServer server, AwsClientRegistry registry) {
+        this.server = server;
+        this.registry = registry;
+    }
+
+    public static DynamoDbLocal start() throws Exception {
+        // Credenciales ficticias: DynamoDB Local no las valida
+        System.setProperty("aws.accessKeyId", "local");
+        System.setProperty("aws.secretAccessKey", "local");
+
+        int port = freePort();
+        DynamoDBProxyServer server = ServerRunner.createServerFromCommandLineArgs(
+                new String[]{"-inMemory", "-port", String.valueOf(port)});
+        server.start();
+
+        AwsClientRegistry registry = new AwsClientRegistry(ClientSettings.builder()
+                .region(Region.US_EAST_2)
+                .dynamoDbEndpoint(URI.create("http://localhost:" + port))
+                .build());
+        createUserTable(registry);
+        return new DynamoDbLocal(server, registry);
+    }
+
+    public AwsClientRegistry registry() {
+        return registry;
+    }
+
+    // Misma forma que login-rate-limit-table en terraform: solo la clave de partición pk
+    public void createRateLimitTable(String tableName) {
+        registry.dynamoDbClient().createTable(r -> r
+                .tableName(tableName)
+                .billingMode(BillingMode.PAY_PER_REQUEST)
+                .attributeDefinitions(AttributeDefinition.builder()
+                        .attributeName("pk")
+                        .attributeType(ScalarAttributeType.S)
+                        .build())
+                .keySchema(KeySchemaElement.builder()
+                        .attributeName("pk")
+                        .keyType(KeyType.HASH)
+                        .build()));
+    }
+
+    @Override
+    public void close() throws Exception {
+        server.stop();
+    }
+
+    private static void createUserTable(AwsClientRegistry registry) {
+        ProvisionedThroughput throughput = ProvisionedThroughput.builder()
+                .readCapacityUnits(20L)
+                .writeCapacityUnits(20L)
+                .build();
+        registry.userTable().createTable(CreateTableEnhancedRequest.builder()
+                .provisionedThroughput(throughput)
+                .globalSecondaryIndices(
+                        gsi(UserTableSchema.EMAIL_INDEX, throughput),
+                        gsi(UserTableSchema.DOCUMENT_NUMBER_INDEX, throughput))
+                .build());
+    }
+
+    private static EnhancedGlobalSecondaryIndex gsi(String name, ProvisionedThroughput throughput) {
+        return EnhancedGlobalSecondaryIndex.builder()
+                .indexName(name)
+                .projection(p -> p.projectionType(ProjectionType.ALL))
+                .provisionedThroughput(throughput)
+                .build();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
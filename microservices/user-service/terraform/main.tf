@@ -13,6 +13,9 @@ terraform {
 #- update-user-lambda
 #- upload-avatar-user-lambda
 #- get-profile-user-lambda
+#- jwt-authorizer-lambda
+# SnapStart: cada despliegue publica una versión y API Gateway invoca el alias "live", que apunta
+# a ella; Lambda toma el snapshot al publicar y ejecuta los hooks de ColdStartPriming.
 
 resource "null_resource" "lambda_build_trigger" {
   triggers = {
@@ -29,6 +32,23 @@ resource "aws_lambda_function" "RegisterUserLmb" {
   memory_size      = 256
   role             = aws_iam_role.lambda_role.arn
   source_code_hash = "${filebase64sha256("../target/user-service-lambda-jar-with-dependencies.jar")}-${null_resource.lambda_build_trigger.id}"
+  publish          = true
+
+  snap_start {
+    apply_on = "PublishedVersions"
+  }
+
+  environment {
+    variables = {
+      REGISTER_INDEX_UNIQUENESS_CHECK = var.register_index_uniqueness_check
+    }
+  }
+}
+
+resource "aws_lambda_alias" "RegisterUserLive" {
+  name             = "live"
+  function_name    = aws_lambda_function.RegisterUserLmb.function_name
+  function_version = aws_lambda_function.RegisterUserLmb.version
 }
 
 resource "aws_lambda_function" "LoginUserLmb" {
@@ -40,6 +60,23 @@ resource "aws_lambda_function" "LoginUserLmb" {
   memory_size      = 256
   role             = aws_iam_role.lambda_role.arn
   source_code_hash = "${filebase64sha256("../target/user-service-lambda-jar-with-dependencies.jar")}-${null_resource.lambda_build_trigger.id}"
+  publish          = true
+
+  snap_start {
+    apply_on = "PublishedVersions"
+  }
+
+  environment {
+    variables = {
+      LOGIN_RATE_LIMIT_TABLE = aws_dynamodb_table.login_rate_limit_table.name
+    }
+  }
+}
+
+resource "aws_lambda_alias" "LoginUserLive" {
+  name             = "live"
+  function_name    = aws_lambda_function.LoginUserLmb.function_name
+  function_version = aws_lambda_function.LoginUserLmb.version
 }
 
 resource "aws_lambda_function" "UpdateUserLmb" {
@@ -51,6 +88,17 @@ resource "aws_lambda_function" "UpdateUserLmb" {
   memory_size      = 256
   role             = aws_iam_role.lambda_role.arn
   source_code_hash = "${filebase64sha256("../target/user-service-lambda-jar-with-dependencies.jar")}-${null_resource.lambda_build_trigger.id}"
+  publish          = true
+
+  snap_start {
+    apply_on = "PublishedVersions"
+  }
+}
+
+resource "aws_lambda_alias" "UpdateUserLive" {
+  name             = "live"
+  function_name    = aws_lambda_function.UpdateUserLmb.function_name
+  function_version = aws_lambda_function.UpdateUserLmb.version
 }
 
 resource "aws_lambda_function" "UploadUserPhotoLmb" {
@@ -62,6 +110,11 @@ resource "aws_lambda_function" "UploadUserPhotoLmb" {
   memory_size      = 256
   role             = aws_iam_role.lambda_role.arn
   source_code_hash = "${filebase64sha256("../target/user-service-lambda-jar-with-dependencies.jar")}-${null_resource.lambda_build_trigger.id}"
+  publish          = true
+
+  snap_start {
+    apply_on = "PublishedVersions"
+  }
 
   environment {
     variables = {
@@ -70,6 +123,12 @@ resource "aws_lambda_function" "UploadUserPhotoLmb" {
   }
 }
 
+resource "aws_lambda_alias" "UploadUserPhotoLive" {
+  name             = "live"
+  function_name    = aws_lambda_function.UploadUserPhotoLmb.function_name
+  function_version = aws_lambda_function.UploadUserPhotoLmb.version
+}
+
 resource "aws_lambda_function" "GetUserProfileLmb" {
   filename         = var.lambda_user_filename
   function_name    = "get-profile-user-lambda"
@@ -79,6 +138,88 @@ resource "aws_lambda_function" "GetUserProfileLmb" {
   memory_size      = 256
   role             = aws_iam_role.lambda_role.arn
   source_code_hash = "${filebase64sha256("../target/user-service-lambda-jar-with-dependencies.jar")}-${null_resource.lambda_build_trigger.id}"
+  publish          = true
+
+  snap_start {
+    apply_on = "PublishedVersions"
+  }
+
+  environment {
+    variables = {
+      infernoavatarimagebucket  = aws_s3_bucket.AvatarBucket.bucket
+      PROFILE_CACHE_TTL_SECONDS = "5"
+    }
+  }
+}
+
+resource "aws_lambda_alias" "GetUserProfileLive" {
+  name             = "live"
+  function_name    = aws_lambda_function.GetUserProfileLmb.function_name
+  function_version = aws_lambda_function.GetUserProfileLmb.version
+}
+
+# Perfiles en lote para servicios internos (tarjetas, notificaciones): se invocan directo sobre el
+# alias con lambda:InvokeFunction; sin ruta en API Gateway para no exponer perfiles ajenos
+resource "aws_lambda_function" "BatchGetUserProfilesLmb" {
+  filename         = var.lambda_user_filename
+  function_name    = "batch-get-profiles-user-lambda"
+  handler          = "com.inferno.user_service.handler.BatchGetUserProfilesLambda::handleRequest"
+  runtime          = "java17"
+  timeout          = 30
+  memory_size      = 512
+  role             = aws_iam_role.lambda_role.arn
+  source_code_hash = "${filebase64sha256("../target/user-service-lambda-jar-with-dependencies.jar")}-${null_resource.lambda_build_trigger.id}"
+  publish          = true
+
+  snap_start {
+    apply_on = "PublishedVersions"
+  }
+
+  environment {
+    variables = {
+      infernoavatarimagebucket = aws_s3_bucket.AvatarBucket.bucket
+      BATCH_PROFILE_MAX_KEYS   = "2000"
+    }
+  }
+}
+
+resource "aws_lambda_alias" "BatchGetUserProfilesLive" {
+  name             = "live"
+  function_name    = aws_lambda_function.BatchGetUserProfilesLmb.function_name
+  function_version = aws_lambda_function.BatchGetUserProfilesLmb.version
+}
+
+output "batchProfilesLambdaArn" {
+  value = aws_lambda_alias.BatchGetUserProfilesLive.arn
+}
+
+# Authorizer para las rutas /profile/{uuid}; se asocia a cada API al activar la autenticación
+resource "aws_lambda_function" "JwtAuthorizerLmb" {
+  filename         = var.lambda_user_filename
+  function_name    = "jwt-authorizer-lambda"
+  handler          = "com.inferno.user_service.handler.JwtAuthorizerLambda::handleRequest"
+  runtime          = "java17"
+  timeout          = 10
+  memory_size      = 256
+  role             = aws_iam_role.lambda_role.arn
+  source_code_hash = "${filebase64sha256("../target/user-service-lambda-jar-with-dependencies.jar")}-${null_resource.lambda_build_trigger.id}"
+  publish          = true
+
+  snap_start {
+    apply_on = "PublishedVersions"
+  }
+
+  environment {
+    variables = {
+      TOKEN_REVOCATION_TABLE = aws_dynamodb_table.token_revocation_table.name
+    }
+  }
+}
+
+resource "aws_lambda_alias" "JwtAuthorizerLive" {
+  name             = "live"
+  function_name    = aws_lambda_function.JwtAuthorizerLmb.function_name
+  function_version = aws_lambda_function.JwtAuthorizerLmb.version
 }
 
 #==============================================ROLES AND POLICY===========================================
@@ -162,7 +303,7 @@ resource "aws_api_gateway_integration" "IntegrationPostCreateUser" {
   //consultar metodos de integracion entre api y lambda
   integration_http_method = "POST"
   type                    = "AWS_PROXY"
-  uri                     = aws_lambda_function.RegisterUserLmb.invoke_arn
+  uri                     = aws_lambda_alias.RegisterUserLive.invoke_arn
 }
 
 //Connect De La Lambda A Api
@@ -170,6 +311,7 @@ resource "aws_lambda_permission" "ApiGwLambdaRegisterUser" {
   statement_id  = "AllowExcutionFromAPIGateway"
   action        = "lambda:InvokeFunction"
   function_name = var.register_user_lambda_name
+  qualifier     = aws_lambda_alias.RegisterUserLive.name
   principal     = "apigateway.amazonaws.com"
   source_arn    = "${aws_api_gateway_rest_api.UserRegisterApi.execution_arn}/*/POST/${aws_api_gateway_resource.CreateUser.path_part}"
 }
@@ -233,7 +375,7 @@ resource "aws_api_gateway_integration" "IntegrationPutUpdateUser" {
   //consultar metodos de integracion entre api y lambda
   integration_http_method = "POST"  // Lambda siempre usa POST
   type        = "AWS_PROXY"
-  uri         = aws_lambda_function.UpdateUserLmb.invoke_arn
+  uri         = aws_lambda_alias.UpdateUserLive.invoke_arn
 }
 
 //Connect De La Lambda A Api
@@ -241,6 +383,7 @@ resource "aws_lambda_permission" "ApiGwLambdaUpdateUser" {
   statement_id  = "AllowExcutionFromAPIGateway"
   action        = "lambda:InvokeFunction"
   function_name = "update-user-lambda"
+  qualifier     = aws_lambda_alias.UpdateUserLive.name
   principal     = "apigateway.amazonaws.com"
   source_arn    = "${aws_api_gateway_rest_api.UserUpdateApi.execution_arn}/*/PUT/${aws_api_gateway_resource.UpdateUserResource.path_part}/*"
 }
@@ -303,7 +446,7 @@ resource "aws_api_gateway_integration" "IntegrationGetUser" {
   //consultar metodos de integracion entre api y lambda
   integration_http_method = "POST"  // Lambda siempre usa POST
   type        = "AWS_PROXY"
-  uri         = aws_lambda_function.GetUserProfileLmb.invoke_arn
+  uri         = aws_lambda_alias.GetUserProfileLive.invoke_arn
 }
 
 //Connect De La Lambda A Api
@@ -311,6 +454,7 @@ resource "aws_lambda_permission" "ApiGwLambdaGetUser" {
   statement_id  = "AllowExcutionFromAPIGateway"
   action        = "lambda:InvokeFunction"
   function_name = "get-profile-user-lambda"
+  qualifier     = aws_lambda_alias.GetUserProfileLive.name
   principal     = "apigateway.amazonaws.com"
   source_arn    = "${aws_api_gateway_rest_api.UserGetApi.execution_arn}/*/GET/${aws_api_gateway_resource.GetUserResource.path_part}/*"
 }
@@ -382,7 +526,7 @@ resource "aws_api_gateway_integration" "IntegrationPostUploadUser" {
   //consultar metodos de integracion entre api y lambda
   integration_http_method = "POST"  // Lambda siempre usa POST
   type        = "AWS_PROXY"
-  uri         = aws_lambda_function.UploadUserPhotoLmb.invoke_arn
+  uri         = aws_lambda_alias.UploadUserPhotoLive.invoke_arn
 }
 
 //Connect De La Lambda A Api
@@ -390,6 +534,7 @@ resource "aws_lambda_permission" "ApiGwLambdaUploadUser" {
   statement_id  = "AllowExcutionFromAPIGateway"
   action        = "lambda:InvokeFunction"
   function_name = "upload-avatar-user-lambda"
+  qualifier     = aws_lambda_alias.UploadUserPhotoLive.name
   principal     = "apigateway.amazonaws.com"
   source_arn    = "${aws_api_gateway_rest_api.UserUploadApi.execution_arn}/*/POST/${aws_api_gateway_resource.UploadUserResource.path_part}/*"
 }
@@ -440,7 +585,7 @@ resource "aws_api_gateway_integration" "IntegrationPostLoginUser" {
   //consultar metodos de integracion entre api y lambda
   integration_http_method = "POST"
   type                    = "AWS_PROXY"
-  uri                     = aws_lambda_function.LoginUserLmb.invoke_arn
+  uri                     = aws_lambda_alias.LoginUserLive.invoke_arn
 }
 
 //Connect De La Lambda A Api
@@ -448,6 +593,7 @@ resource "aws_lambda_permission" "ApiGwLambdaLoginUser" {
   statement_id  = "AllowExcutionFromAPIGateway"
   action        = "lambda:InvokeFunction"
   function_name = "login-user-lambda"
+  qualifier     = aws_lambda_alias.LoginUserLive.name
   principal     = "apigateway.amazonaws.com"
   source_arn    = "${aws_api_gateway_rest_api.UserLoginApi.execution_arn}/*/POST/${aws_api_gateway_resource.LoginUserResource.path_part}"
 }
@@ -554,4 +700,52 @@ resource "aws_dynamodb_table" "user_table" {
 
 }
 
+# Contadores de intentos de login compartidos entre contenedores; DynamoDB borra las ventanas vencidas
+resource "aws_dynamodb_table" "login_rate_limit_table" {
+  name         = "login-rate-limit-table"
+  billing_mode = "PAY_PER_REQUEST"
+  hash_key     = "pk"
+
+  attribute {
+    name = "pk"
+    type = "S"
+  }
+
+  ttl {
+    attribute_name = "ttl"
+    enabled        = true
+  }
+
+  tags = {
+    Environment  = "production"
+    Microservice = "user-service"
+  }
+}
+
+# Lista de revocación de JWT: una partición, sort key = revokedAt; ttl al vencer el último token afectado
+resource "aws_dynamodb_table" "token_revocation_table" {
+  name         = "token-revocation-table"
+  billing_mode = "PAY_PER_REQUEST"
+  hash_key     = "pk"
+  range_key    = "sk"
+
+  attribute {
+    name = "pk"
+    type = "S"
+  }
 
+  attribute {
+    name = "sk"
+    type = "S"
+  }
+
+  ttl {
+    attribute_name = "ttl"
+    enabled        = true
+  }
+
+  tags = {
+    Environment  = "production"
+    Microservice = "user-service"
+  }
+}
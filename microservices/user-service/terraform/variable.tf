@@ -4,6 +4,13 @@ variable "register_user_lambda_name" {
   description = "Variable para nombre de lambda de registro"
 }
 
+# "true" mientras dure el backfill de marcadores de unicidad; pasar a "false" cuando
+# UniquenessMarkerBackfill termine sin conflictos
+variable "register_index_uniqueness_check" {
+  type    = string
+  default = "true"
+}
+
 variable "register_user_lambda_file_name" {
   default = "register-user-lmb.zip"
 }